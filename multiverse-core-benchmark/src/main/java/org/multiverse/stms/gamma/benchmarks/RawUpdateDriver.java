@@ -8,7 +8,7 @@ import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaObjectPool;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 import org.multiverse.stms.gamma.transactions.fat.FatMonoGammaTxn;
 
@@ -56,7 +56,7 @@ public class RawUpdateDriver implements GammaConstants {
 
         final GammaTxnLong ref = new GammaTxnLong(stm, 0);
         final int lockMode = writeLockMode.asInt();
-        final Tranlocal tranlocal = new Tranlocal();
+        final LongTranlocal tranlocal = new LongTranlocal();
 
         final long initialVersion = ref.getVersion();
 
@@ -33,6 +33,14 @@ public interface MultiverseConstants {
     boolean TRACING_ENABLED =
             parseBoolean(getProperty("org.multiverse.tracing.enabled", "false"));
 
+    /**
+     * Indicates if probing is enabled (for more information see the
+     * {@link org.multiverse.stms.gamma.GammaProbe}). If disabled, the probe calls can
+     * be removed by the JIT.
+     */
+    boolean PROBING_ENABLED =
+            parseBoolean(getProperty("org.multiverse.probing.enabled", "false"));
+
     /**
      * Indicates how often the system should yield when it is spinning. When a thread is
      * yielded, it gives the opportunity to another thread to make progress.
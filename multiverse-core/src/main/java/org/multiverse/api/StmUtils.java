@@ -28,6 +28,18 @@ public final class StmUtils {
         = getGlobalStmInstance().newOrElseBlock();
     private final static TxnCollectionsFactory txnCollectionsFactory
         = getGlobalStmInstance().getDefaultTxnCollectionFactory();
+    private final static ThreadLocal<RunnableAdapter> runnableAdapter = new ThreadLocal<RunnableAdapter>() {
+        @Override
+        protected RunnableAdapter initialValue() {
+            return new RunnableAdapter();
+        }
+    };
+    private final static ThreadLocal<CallableAdapter> callableAdapter = new ThreadLocal<CallableAdapter>() {
+        @Override
+        protected CallableAdapter initialValue() {
+            return new CallableAdapter();
+        }
+    };
 
     /**
      * Creates a new committed TxnList based on a double linked list.
@@ -98,6 +110,37 @@ public final class StmUtils {
         return txnCollectionsFactory.newDeque(capacity);
     }
 
+    /**
+     * Creates a new committed bound TxnDeque that preallocates the space for all items. Offering and polling don't
+     * allocate anything, but the memory used is proportional to the capacity.
+     *
+     * @param capacity the maximum capacity of the deque.
+     * @return the created TxnDeque.
+     * @throws IllegalArgumentException if capacity is smaller than 1.
+     */
+    public static <E> TxnDeque<E> newTxnRingBuffer(int capacity){
+        return txnCollectionsFactory.newRingBuffer(capacity);
+    }
+
+    /**
+     * Creates a new committed unbound TxnPriorityQueue that orders its items by their natural ordering.
+     *
+     * @return the created TxnPriorityQueue.
+     */
+    public static <E> TxnPriorityQueue<E> newTxnPriorityQueue(){
+        return txnCollectionsFactory.newPriorityQueue();
+    }
+
+    /**
+     * Creates a new committed unbound TxnPriorityQueue that orders its items using the given comparator.
+     *
+     * @param comparator the comparator used to order the items.
+     * @return the created TxnPriorityQueue.
+     */
+    public static <E> TxnPriorityQueue<E> newTxnPriorityQueue(Comparator<? super E> comparator){
+        return txnCollectionsFactory.newPriorityQueue(comparator);
+    }
+
     /**
      * Creates a new committed TxnSet that is based on a 'hashtable'.
      *
@@ -121,12 +164,16 @@ public final class StmUtils {
             throw new NullPointerException("runnable can't be null");
         }
 
-        atomic(new TxnVoidCallable(){
-            @Override
-            public void call(Txn txn) throws Exception {
-                runnable.run();
-            }
-        });
+        //the adapter is reused to prevent creating garbage. An atomic call can be nested, so the previous
+        //runnable is restored afterwards.
+        final RunnableAdapter adapter = runnableAdapter.get();
+        final Runnable previous = adapter.runnable;
+        adapter.runnable = runnable;
+        try{
+            atomic(adapter);
+        }finally{
+            adapter.runnable = previous;
+        }
     }
 
     public static <E> E atomic(final Callable<E> callable){
@@ -134,12 +181,14 @@ public final class StmUtils {
             throw new NullPointerException("callable can't be null");
         }
 
-        return atomic(new TxnCallable<E>() {
-            @Override
-            public E call(Txn txn) throws Exception {
-               return callable.call();
-            }
-        });
+        final CallableAdapter adapter = callableAdapter.get();
+        final Callable previous = adapter.callable;
+        adapter.callable = callable;
+        try{
+            return (E) atomic(adapter);
+        }finally{
+            adapter.callable = previous;
+        }
     }
 
     /**
@@ -781,6 +830,24 @@ public final class StmUtils {
             });
        }
 
+       private static final class RunnableAdapter implements TxnVoidCallable {
+           private Runnable runnable;
+
+           @Override
+           public void call(Txn txn) throws Exception {
+               runnable.run();
+           }
+       }
+
+       private static final class CallableAdapter implements TxnCallable {
+           private Callable callable;
+
+           @Override
+           public Object call(Txn txn) throws Exception {
+               return callable.call();
+           }
+       }
+
        //we don want instances
        private StmUtils() {
        }
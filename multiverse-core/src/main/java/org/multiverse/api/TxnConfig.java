@@ -163,6 +163,14 @@ public interface TxnConfig {
      */
     boolean isBlockingAllowed();
 
+    /**
+     * Checks if latency statistics are recorded for the {@link TxnExecutor} created for this configuration.
+     *
+     * @return true if statistics are recorded, false otherwise.
+     * @see TxnFactoryBuilder#setStatisticsEnabled(boolean)
+     */
+    boolean isStatisticsEnabled();
+
     /**
      * Checks if the Txn can be interrupted if it is blocking.
      *
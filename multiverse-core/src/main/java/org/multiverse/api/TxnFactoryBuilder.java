@@ -153,6 +153,18 @@ public interface TxnFactoryBuilder {
      */
     TxnFactoryBuilder setBackoffPolicy(BackoffPolicy backoffPolicy);
 
+    /**
+     * Sets if the {@link TxnExecutor} created by this builder should record latency statistics: the total time
+     * from entering execute until the commit completed (so including retries and backoff), the time of the committed
+     * attempt and the time spent in commit, blocking and backoff. Recording is cheap, but it isn't free, so it is
+     * disabled by default.
+     *
+     * @param statisticsEnabled true if statistics should be recorded, false otherwise.
+     * @return the updated TxnFactoryBuilder.
+     * @see TxnConfig#isStatisticsEnabled()
+     */
+    TxnFactoryBuilder setStatisticsEnabled(boolean statisticsEnabled);
+
     /**
      * Sets if the {@link Txn} dirty check is enabled. Dirty check is that something only needs to be written,
      * if there really is a change (else it will be interpreted as a read). If it is disabled, it will always write, and
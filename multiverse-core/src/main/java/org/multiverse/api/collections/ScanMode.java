@@ -0,0 +1,26 @@
+package org.multiverse.api.collections;
+
+/**
+ * Determines how an iterator reads the refs of a transactional collection.
+ *
+ * @author Peter Veentjer.
+ * @see TxnIterable#iterator(org.multiverse.api.Txn, ScanMode)
+ */
+public enum ScanMode {
+
+    /**
+     * Every ref is read through the transaction, so the transaction tracks all reads and the iteration is part
+     * of the consistent view of the transaction. This is the normal mode.
+     */
+    Tracked,
+
+    /**
+     * Every ref is read atomically without the transaction; so the transaction doesn't track the reads and a large
+     * scan doesn't fill up the transaction. Every single element is read consistently, but the elements don't need
+     * to be consistent with each other or with the rest of the transaction. The changes made by the transaction
+     * itself are not visible, so this mode is meant for readonly transactions (e.g. analytics).
+     * <p/>
+     * Collections that don't support untracked scans do a tracked scan.
+     */
+    Untracked
+}
@@ -0,0 +1,42 @@
+package org.multiverse.api.collections;
+
+/**
+ * Aggregates the items of a {@link TxnSpliterable}. Every part is aggregated separately (starting with
+ * {@link #newResult()}) and the results of the parts are combined using {@link #combine(Object, Object)}, so the
+ * parts can be aggregated in parallel.
+ * <p/>
+ * The methods are called outside of the control of the transaction that reads the items, so they should not have
+ * side effects; a part can be aggregated more than once if its transaction needs to be retried.
+ *
+ * @param <E> the type of the items.
+ * @param <R> the type of the result.
+ * @author Peter Veentjer.
+ * @see org.multiverse.collections.TxnBulkReader
+ */
+public interface TxnAggregator<E, R> {
+
+    /**
+     * Returns the result of an empty part.
+     *
+     * @return the initial result.
+     */
+    R newResult();
+
+    /**
+     * Adds an item to the result of a part.
+     *
+     * @param result the result so far.
+     * @param item   the item to add.
+     * @return the new result.
+     */
+    R add(R result, E item);
+
+    /**
+     * Combines the results of 2 parts.
+     *
+     * @param left  the result of the first part.
+     * @param right the result of the second part.
+     * @return the combined result.
+     */
+    R combine(R left, R right);
+}
@@ -0,0 +1,74 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link BlockingQueue} on top of the STM.
+ * <p/>
+ * The blocking methods (like {@link #take()}, {@link #put(Object)} and the timed poll and offer) first commit the
+ * registration of the waiting thread and then block in a separate transaction, so they can't be part of a
+ * transaction of the caller and throw a {@link org.multiverse.api.exceptions.TxnNotAllowedException} if a transaction
+ * is active. The other methods of the BlockingQueue join the transaction of the caller, or run in their own
+ * transaction if there is none. The timed methods use the timeout of the transaction to limit the time spent
+ * waiting.
+ * <p/>
+ * The difference with a {@link TxnQueue} that blocks using {@link Txn#retry()} is that a waiting thread doesn't
+ * listen to the state of the queue, but only to its own waiting slot. An item that is added to an empty queue is
+ * handed to the thread that has been waiting the longest, and only that thread wakes up. In the same way, a consumer
+ * that takes an item from a full queue, moves the item of the producer that has been waiting the longest into the
+ * queue and only wakes up that producer.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ */
+public interface TxnBlockingQueue<E> extends BlockingQueue<E> {
+
+    Stm getStm();
+
+    /**
+     * Returns the maximum number of items in the queue. Integer.MAX_VALUE indicates that the queue is unbound.
+     *
+     * @return the capacity.
+     */
+    int getCapacity();
+
+    /**
+     * Returns the number of items in the queue, not including the items of waiting producers.
+     *
+     * @param txn the transaction used.
+     * @return the number of items.
+     */
+    int size(Txn txn);
+
+    /**
+     * Adds an item without blocking. If a consumer is waiting, the item is handed to the consumer that has been
+     * waiting the longest; the consumer is woken up when the transaction commits.
+     *
+     * @param txn  the transaction used.
+     * @param item the item to add.
+     * @return true if the item was added, false if the queue is full.
+     * @throws NullPointerException if item is null.
+     */
+    boolean offer(Txn txn, E item);
+
+    /**
+     * Takes the first item without blocking. If a producer is waiting because the queue was full, the item of the
+     * producer that has been waiting the longest is added to the queue; the producer is woken up when the
+     * transaction commits.
+     *
+     * @param txn the transaction used.
+     * @return the first item, or null if the queue is empty.
+     */
+    E poll(Txn txn);
+
+    /**
+     * Returns the first item without removing it.
+     *
+     * @param txn the transaction used.
+     * @return the first item, or null if the queue is empty.
+     */
+    E peek(Txn txn);
+}
@@ -0,0 +1,76 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+
+/**
+ * A transactional cache with a maximum size. When a key is added to a full cache, an entry that has not been
+ * accessed recently is evicted. Which entry is evicted is a heuristic, but the content of the cache is
+ * transactional: an entry added or evicted by a transaction that aborts isn't added or evicted.
+ * <p/>
+ * Null keys and values are not permitted.
+ * <p/>
+ * The methods without a {@link Txn} argument lift on the transaction in the {@link org.multiverse.api.TxnThreadLocal}.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public interface TxnCache<K, V> {
+
+    Stm getStm();
+
+    /**
+     * Returns the maximum number of entries in the cache.
+     *
+     * @return the maximum size.
+     */
+    int getMaximumSize();
+
+    int size();
+
+    int size(Txn txn);
+
+    /**
+     * Returns the value of the key and marks the entry as recently used. Marking the entry doesn't write
+     * transactional state, so concurrent gets don't conflict.
+     *
+     * @param txn the transaction.
+     * @param key the key.
+     * @return the value, or null if the key is not in the cache.
+     */
+    V get(Txn txn, K key);
+
+    V get(K key);
+
+    /**
+     * Checks if the key is in the cache without marking the entry as recently used.
+     *
+     * @param txn the transaction.
+     * @param key the key.
+     * @return true if the key is in the cache.
+     */
+    boolean containsKey(Txn txn, K key);
+
+    boolean containsKey(K key);
+
+    /**
+     * Puts the value in the cache. If the key isn't in the cache and the cache is full, another entry is evicted.
+     *
+     * @param txn   the transaction.
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value, or null if the key was not in the cache.
+     */
+    V put(Txn txn, K key, V value);
+
+    V put(K key, V value);
+
+    V remove(Txn txn, K key);
+
+    V remove(K key);
+
+    void clear();
+
+    void clear(Txn txn);
+}
@@ -2,6 +2,8 @@ package org.multiverse.api.collections;
 
 import org.multiverse.api.Stm;
 
+import java.util.Comparator;
+
 /**
  * A factory responsible for creating Transactional collections.
  *
@@ -17,15 +19,122 @@ public interface TxnCollectionsFactory {
 
     <E> TxnQueue<E> newQueue();
 
+    /**
+     * Creates a bound TxnQueue. Implementations are free to preallocate the space for small capacities, but the
+     * memory used by a queue with a large capacity grows with the number of items and not with the capacity.
+     *
+     * @param capacity the maximum capacity of the queue. Integer.MAX_VALUE indicates that there is no bound.
+     * @return the created queue.
+     */
     <E> TxnQueue<E> newQueue(int capacity);
 
     <E> TxnDeque<E> newDeque();
 
+    /**
+     * Creates a bound TxnDeque. Just like {@link #newQueue(int)} the space for small capacities can be preallocated.
+     *
+     * @param capacity the maximum capacity of the deque. Integer.MAX_VALUE indicates that there is no bound.
+     * @return the created deque.
+     */
     <E> TxnDeque<E> newDeque(int capacity);
 
+    /**
+     * Creates a bound TxnDeque that preallocates the space for all items, so offering and polling don't allocate
+     * anything. The memory used is proportional to the capacity, also when the deque is empty.
+     *
+     * @param capacity the maximum capacity of the deque.
+     * @return the created deque.
+     * @throws IllegalArgumentException if capacity is smaller than 1.
+     */
+    <E> TxnDeque<E> newRingBuffer(int capacity);
+
+    /**
+     * Creates an unbound TxnBlockingQueue.
+     *
+     * @return the created queue.
+     */
+    <E> TxnBlockingQueue<E> newBlockingQueue();
+
+    /**
+     * Creates a bound TxnBlockingQueue.
+     *
+     * @param capacity the maximum capacity of the queue. Integer.MAX_VALUE indicates that there is no bound.
+     * @return the created queue.
+     */
+    <E> TxnBlockingQueue<E> newBlockingQueue(int capacity);
+
+    /**
+     * Creates an unbound TxnPriorityQueue that orders its items by their natural ordering.
+     *
+     * @return the created queue.
+     */
+    <E> TxnPriorityQueue<E> newPriorityQueue();
+
+    /**
+     * Creates an unbound TxnPriorityQueue that orders its items using the given comparator.
+     *
+     * @param comparator the comparator used to order the items.
+     * @return the created queue.
+     */
+    <E> TxnPriorityQueue<E> newPriorityQueue(Comparator<? super E> comparator);
+
     <E> TxnSet<E> newHashSet();
 
     <K, V> TxnMap<K, V> newHashMap();
 
+    /**
+     * Creates a TxnMap that is optimized for maps that are read far more often than they are written; a consistent
+     * snapshot or a full iteration of the map only reads a small number of refs.
+     *
+     * @return the created map.
+     */
+    <K, V> TxnMap<K, V> newHashTrieMap();
+
+    /**
+     * Creates a TxnMap that stores its entries in a {@link java.util.concurrent.ConcurrentHashMap} and provides the
+     * transactional semantics using per key locks and an undo log. Transactions that access different keys run at
+     * almost the speed of the ConcurrentHashMap, but transactions that read the same key conflict.
+     *
+     * @return the created map.
+     */
+    <K, V> TxnMap<K, V> newBoostedMap();
+
+    /**
+     * Creates a sorted TxnNavigableMap based on a B+tree, so it can contain a large number of entries with a small
+     * memory overhead; a lookup only reads a single ref per level of the tree.
+     *
+     * @return the created map.
+     */
+    <K, V> TxnNavigableMap<K, V> newBTreeMap();
+
     <E> TxnList<E> newLinkedList();
+
+    /**
+     * Creates a map with primitive long keys and values, so no boxing is needed.
+     *
+     * @return the created map.
+     */
+    TxnLongLongMap newLongLongMap();
+
+    /**
+     * Creates a map with primitive long keys, so looking up a value doesn't box the key.
+     *
+     * @return the created map.
+     */
+    <V> TxnLongObjectMap<V> newLongObjectMap();
+
+    /**
+     * Creates a set of primitive ints, so no boxing is needed.
+     *
+     * @return the created set.
+     */
+    TxnIntSet newIntSet();
+
+    /**
+     * Creates a cache that evicts entries that have not been used recently once it contains maximumSize entries.
+     *
+     * @param maximumSize the maximum number of entries in the cache.
+     * @return the created cache.
+     */
+    <K, V> TxnCache<K, V> newCache(int maximumSize);
 }
@@ -0,0 +1,66 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+
+/**
+ * A transactional set of primitive ints, so no boxing is needed.
+ * <p/>
+ * The methods without a {@link Txn} argument lift on the transaction in the {@link org.multiverse.api.TxnThreadLocal}.
+ *
+ * @author Peter Veentjer.
+ */
+public interface TxnIntSet {
+
+    Stm getStm();
+
+    int size();
+
+    int size(Txn txn);
+
+    boolean isEmpty();
+
+    boolean isEmpty(Txn txn);
+
+    boolean contains(int value);
+
+    boolean contains(Txn txn, int value);
+
+    /**
+     * Adds the value to the set.
+     *
+     * @param txn   the transaction.
+     * @param value the value to add.
+     * @return true if the set didn't contain the value.
+     */
+    boolean add(Txn txn, int value);
+
+    boolean add(int value);
+
+    /**
+     * Removes the value from the set.
+     *
+     * @param txn   the transaction.
+     * @param value the value to remove.
+     * @return true if the set contained the value.
+     */
+    boolean remove(Txn txn, int value);
+
+    boolean remove(int value);
+
+    void clear();
+
+    void clear(Txn txn);
+
+    /**
+     * Returns the values in no particular order.
+     *
+     * @param txn the transaction.
+     * @return a new array containing the values.
+     */
+    int[] toArray(Txn txn);
+
+    int[] toArray();
+
+    String toString(Txn txn);
+}
@@ -32,6 +32,22 @@ public interface TxnIterable<E> extends Iterable<E> {
      */
     TxnIterator<E> iterator(Txn txn);
 
+    /**
+     * Returns an iterator over a set of elements of type T that reads the elements using the given
+     * {@link ScanMode}. With {@link ScanMode#Untracked} the reads are not tracked by the transaction, so a large scan
+     * is a lot cheaper, but only every single element is consistent.
+     *
+     * @param txn      the Txn used for this Operation.
+     * @param scanMode the ScanMode used to read the elements.
+     * @return an Iterator.
+     * @throws NullPointerException if txn or scanMode is null.
+     * @throws org.multiverse.api.exceptions.ControlFlowError
+     *          if the STM needs to break out from the current
+     *          execution, e.g. to retry a transaction because there was a read conflict. This error should not be
+     *          caught because it will be caught by the {@link org.multiverse.api.TxnExecutor}.
+     */
+    TxnIterator<E> iterator(Txn txn, ScanMode scanMode);
+
     /**
      * Returns an iterator over a set of elements of type T.
      *
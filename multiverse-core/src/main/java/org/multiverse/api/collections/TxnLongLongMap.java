@@ -0,0 +1,87 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+
+/**
+ * A transactional map with primitive long keys and values, so no boxing is needed. Since a long can't be null, a
+ * missing key is indicated by the {@link #getNoEntryValue() no entry value}; use {@link #containsKey(Txn, long)} if
+ * that value also is a valid value.
+ * <p/>
+ * The methods without a {@link Txn} argument lift on the transaction in the {@link org.multiverse.api.TxnThreadLocal}.
+ *
+ * @author Peter Veentjer.
+ */
+public interface TxnLongLongMap {
+
+    Stm getStm();
+
+    /**
+     * Returns the value that is returned by the get, put and remove methods if there is no mapping for a key.
+     *
+     * @return the no entry value.
+     */
+    long getNoEntryValue();
+
+    int size();
+
+    int size(Txn txn);
+
+    boolean isEmpty();
+
+    boolean isEmpty(Txn txn);
+
+    boolean containsKey(long key);
+
+    boolean containsKey(Txn txn, long key);
+
+    /**
+     * Returns the value of the key, or the no entry value if there is no mapping for the key.
+     *
+     * @param txn the transaction.
+     * @param key the key.
+     * @return the value.
+     */
+    long get(Txn txn, long key);
+
+    long get(long key);
+
+    /**
+     * Sets the value of the key.
+     *
+     * @param txn   the transaction.
+     * @param key   the key.
+     * @param value the new value.
+     * @return the previous value, or the no entry value if there was no mapping for the key.
+     */
+    long put(Txn txn, long key, long value);
+
+    long put(long key, long value);
+
+    /**
+     * Removes the mapping for the key.
+     *
+     * @param txn the transaction.
+     * @param key the key.
+     * @return the removed value, or the no entry value if there was no mapping for the key.
+     */
+    long remove(Txn txn, long key);
+
+    long remove(long key);
+
+    void clear();
+
+    void clear(Txn txn);
+
+    /**
+     * Returns the keys in no particular order.
+     *
+     * @param txn the transaction.
+     * @return a new array containing the keys.
+     */
+    long[] keys(Txn txn);
+
+    long[] keys();
+
+    String toString(Txn txn);
+}
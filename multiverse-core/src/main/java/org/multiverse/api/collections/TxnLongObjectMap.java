@@ -0,0 +1,74 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+
+/**
+ * A transactional map with primitive long keys, so looking up a value doesn't need to box the key. Null values are
+ * not permitted, so a null return value always indicates that there is no mapping for a key.
+ * <p/>
+ * The methods without a {@link Txn} argument lift on the transaction in the {@link org.multiverse.api.TxnThreadLocal}.
+ *
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public interface TxnLongObjectMap<V> {
+
+    Stm getStm();
+
+    int size();
+
+    int size(Txn txn);
+
+    boolean isEmpty();
+
+    boolean isEmpty(Txn txn);
+
+    boolean containsKey(long key);
+
+    boolean containsKey(Txn txn, long key);
+
+    V get(Txn txn, long key);
+
+    V get(long key);
+
+    /**
+     * Sets the value of the key.
+     *
+     * @param txn   the transaction.
+     * @param key   the key.
+     * @param value the new value.
+     * @return the previous value, or null if there was no mapping for the key.
+     * @throws NullPointerException if value is null.
+     */
+    V put(Txn txn, long key, V value);
+
+    V put(long key, V value);
+
+    /**
+     * Removes the mapping for the key.
+     *
+     * @param txn the transaction.
+     * @param key the key.
+     * @return the removed value, or null if there was no mapping for the key.
+     */
+    V remove(Txn txn, long key);
+
+    V remove(long key);
+
+    void clear();
+
+    void clear(Txn txn);
+
+    /**
+     * Returns the keys in no particular order.
+     *
+     * @param txn the transaction.
+     * @return a new array containing the keys.
+     */
+    long[] keys(Txn txn);
+
+    long[] keys();
+
+    String toString(Txn txn);
+}
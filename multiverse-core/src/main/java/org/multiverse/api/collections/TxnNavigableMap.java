@@ -0,0 +1,131 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Txn;
+
+/**
+ * A {@link TxnSortedMap} extended with navigation methods returning the closest matches for given search targets,
+ * comparable to the {@link java.util.NavigableMap}. The descending views of the NavigableMap are not supported,
+ * that is why this interface doesn't extend it.
+ * <p/>
+ * The methods without a {@link Txn} argument use the {@link org.multiverse.api.TxnThreadLocal}.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public interface TxnNavigableMap<K, V> extends TxnSortedMap<K, V> {
+
+    Entry<K, V> lowerEntry(K key);
+
+    /**
+     * Returns the entry with the greatest key strictly less than the given key, or null if there is no such key.
+     *
+     * @param txn the transaction used.
+     * @param key the key.
+     * @return the found entry or null.
+     */
+    Entry<K, V> lowerEntry(Txn txn, K key);
+
+    K lowerKey(K key);
+
+    K lowerKey(Txn txn, K key);
+
+    Entry<K, V> floorEntry(K key);
+
+    /**
+     * Returns the entry with the greatest key less than or equal to the given key, or null if there is no such key.
+     *
+     * @param txn the transaction used.
+     * @param key the key.
+     * @return the found entry or null.
+     */
+    Entry<K, V> floorEntry(Txn txn, K key);
+
+    K floorKey(K key);
+
+    K floorKey(Txn txn, K key);
+
+    Entry<K, V> ceilingEntry(K key);
+
+    /**
+     * Returns the entry with the least key greater than or equal to the given key, or null if there is no such key.
+     *
+     * @param txn the transaction used.
+     * @param key the key.
+     * @return the found entry or null.
+     */
+    Entry<K, V> ceilingEntry(Txn txn, K key);
+
+    K ceilingKey(K key);
+
+    K ceilingKey(Txn txn, K key);
+
+    Entry<K, V> higherEntry(K key);
+
+    /**
+     * Returns the entry with the least key strictly greater than the given key, or null if there is no such key.
+     *
+     * @param txn the transaction used.
+     * @param key the key.
+     * @return the found entry or null.
+     */
+    Entry<K, V> higherEntry(Txn txn, K key);
+
+    K higherKey(K key);
+
+    K higherKey(Txn txn, K key);
+
+    Entry<K, V> firstEntry();
+
+    Entry<K, V> firstEntry(Txn txn);
+
+    Entry<K, V> lastEntry();
+
+    Entry<K, V> lastEntry(Txn txn);
+
+    Entry<K, V> pollFirstEntry();
+
+    /**
+     * Removes and returns the entry with the least key, or null if the map is empty.
+     *
+     * @param txn the transaction used.
+     * @return the removed entry or null.
+     */
+    Entry<K, V> pollFirstEntry(Txn txn);
+
+    Entry<K, V> pollLastEntry();
+
+    /**
+     * Removes and returns the entry with the greatest key, or null if the map is empty.
+     *
+     * @param txn the transaction used.
+     * @return the removed entry or null.
+     */
+    Entry<K, V> pollLastEntry(Txn txn);
+
+    /**
+     * Returns a view of the portion of this map whose keys range from fromKey to toKey.
+     *
+     * @param fromKey       the low endpoint of the keys in the returned map.
+     * @param fromInclusive true if the low endpoint is to be included in the returned view.
+     * @param toKey         the high endpoint of the keys in the returned map.
+     * @param toInclusive   true if the high endpoint is to be included in the returned view.
+     * @return the view.
+     * @throws IllegalArgumentException if fromKey is greater than toKey, or if this map itself has a restricted range
+     *                                  and fromKey or toKey lies outside the bounds of the range.
+     */
+    TxnNavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive);
+
+    TxnNavigableMap<K, V> headMap(K toKey, boolean inclusive);
+
+    TxnNavigableMap<K, V> tailMap(K fromKey, boolean inclusive);
+
+    @Override
+    TxnNavigableMap<K, V> subMap(K fromKey, K toKey);
+
+    @Override
+    TxnNavigableMap<K, V> headMap(K toKey);
+
+    @Override
+    TxnNavigableMap<K, V> tailMap(K fromKey);
+}
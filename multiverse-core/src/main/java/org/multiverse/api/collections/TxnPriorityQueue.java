@@ -0,0 +1,24 @@
+package org.multiverse.api.collections;
+
+import java.util.Comparator;
+
+/**
+ * A {@link TxnQueue} that orders its items according to their natural ordering, or by a {@link Comparator}. The
+ * poll, take and peek methods operate on the least item; items that are equal according to the ordering are
+ * returned in the order they were added.
+ * <p/>
+ * A priority queue is unbound, so an offer always succeeds. A take on an empty queue does a retry, so a consumer
+ * can block transactionally until an item becomes available.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ */
+public interface TxnPriorityQueue<E> extends TxnQueue<E> {
+
+    /**
+     * Returns the comparator used to order the items, or null if the items are ordered using their natural ordering.
+     *
+     * @return the comparator.
+     */
+    Comparator<? super E> comparator();
+}
@@ -0,0 +1,43 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Txn;
+
+import java.util.SortedMap;
+
+/**
+ * A transactional {@link SortedMap}. The views returned by {@link #subMap(Object, Object)}, {@link #headMap(Object)}
+ * and {@link #tailMap(Object)} are backed by this map and can be used with any transaction.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public interface TxnSortedMap<K, V> extends TxnMap<K, V>, SortedMap<K, V> {
+
+    /**
+     * Returns the first (lowest) key currently in this map.
+     *
+     * @param txn the transaction used.
+     * @return the first key.
+     * @throws java.util.NoSuchElementException if this map is empty.
+     */
+    K firstKey(Txn txn);
+
+    /**
+     * Returns the last (highest) key currently in this map.
+     *
+     * @param txn the transaction used.
+     * @return the last key.
+     * @throws java.util.NoSuchElementException if this map is empty.
+     */
+    K lastKey(Txn txn);
+
+    @Override
+    TxnSortedMap<K, V> subMap(K fromKey, K toKey);
+
+    @Override
+    TxnSortedMap<K, V> headMap(K toKey);
+
+    @Override
+    TxnSortedMap<K, V> tailMap(K fromKey);
+}
@@ -0,0 +1,21 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Txn;
+
+/**
+ * A transactional structure whose content can be split in parts that can be read in parallel.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ * @see TxnSpliterator
+ */
+public interface TxnSpliterable<E> {
+
+    /**
+     * Returns a {@link TxnSpliterator} that covers all items.
+     *
+     * @param txn the transaction used to read the structure (e.g. the current table) the parts refer to.
+     * @return the created TxnSpliterator.
+     */
+    TxnSpliterator<E> spliterator(Txn txn);
+}
@@ -0,0 +1,43 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Txn;
+
+/**
+ * A part of a transactional collection that can be split in smaller parts, so that the parts can be read in
+ * parallel; each by its own transaction. It is the transactional counterpart of a java.util.Spliterator.
+ * <p/>
+ * A TxnSpliterator is created by {@link TxnSpliterable#spliterator(Txn)} and only contains the boundaries of the
+ * part (e.g. a range of buckets), so splitting doesn't need a transaction. The content is read using the
+ * {@link #iterator(Txn)}, which can be called with a different transaction than the one used to create the
+ * spliterator.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ * @see org.multiverse.collections.TxnBulkReader
+ */
+public interface TxnSpliterator<E> {
+
+    /**
+     * Splits off a part of this TxnSpliterator. After the split, this TxnSpliterator and the returned one together
+     * cover the same items this TxnSpliterator covered before the split, and they don't overlap.
+     *
+     * @return the part that has been split off, or null if this TxnSpliterator is too small to be split.
+     */
+    TxnSpliterator<E> trySplit();
+
+    /**
+     * Returns an estimate of the number of items covered by this TxnSpliterator; it is used to decide which part
+     * to split.
+     *
+     * @return the estimated size.
+     */
+    int estimateSize();
+
+    /**
+     * Returns an iterator over the items of this part.
+     *
+     * @param txn the transaction used to read the items.
+     * @return the iterator.
+     */
+    TxnIterator<E> iterator(Txn txn);
+}
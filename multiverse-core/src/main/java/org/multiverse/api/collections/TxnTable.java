@@ -0,0 +1,88 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+
+/**
+ * A transactional table: a set of rows that is indexed on a primary key, with any number of secondary indexes that
+ * are kept in sync with the rows by the table itself. So a transaction that puts or removes a row, also updates the
+ * indexes, and a query on an index in the same transaction sees the change.
+ * <p/>
+ * The rows should be immutable; to change a row, put a new row with the same primary key.
+ *
+ * @param <K> the type of the primary key.
+ * @param <R> the type of the rows.
+ * @author Peter Veentjer.
+ * @see TxnTableIndex
+ */
+public interface TxnTable<K, R> {
+
+    Stm getStm();
+
+    /**
+     * Returns the number of rows.
+     *
+     * @param txn the transaction used.
+     * @return the number of rows.
+     */
+    int size(Txn txn);
+
+    /**
+     * Returns the row with the given primary key.
+     *
+     * @param txn the transaction used.
+     * @param key the primary key.
+     * @return the row, or null if there is none.
+     * @throws NullPointerException if key is null.
+     */
+    R get(Txn txn, K key);
+
+    boolean containsKey(Txn txn, K key);
+
+    /**
+     * Puts a row; a row with the same primary key is replaced.
+     *
+     * @param txn the transaction used.
+     * @param row the row.
+     * @return the replaced row, or null if there was none.
+     * @throws NullPointerException if row or its primary key is null.
+     */
+    R put(Txn txn, R row);
+
+    /**
+     * Removes the row with the given primary key.
+     *
+     * @param txn the transaction used.
+     * @param key the primary key.
+     * @return the removed row, or null if there was none.
+     * @throws NullPointerException if key is null.
+     */
+    R remove(Txn txn, K key);
+
+    /**
+     * Puts all rows in the given transaction.
+     *
+     * @param txn  the transaction used.
+     * @param rows the rows.
+     */
+    void putAll(Txn txn, Iterable<? extends R> rows);
+
+    /**
+     * Loads a large number of rows using a transaction per batch, so a single transaction doesn't need to contain all
+     * rows. The load as a whole is not atomic: other transactions can see the batches that already have been loaded.
+     *
+     * @param rows      the rows.
+     * @param batchSize the maximum number of rows per transaction.
+     * @throws IllegalArgumentException if batchSize smaller than 1.
+     */
+    void bulkLoad(Iterable<? extends R> rows, int batchSize);
+
+    /**
+     * Returns the secondary index with the given name.
+     *
+     * @param name the name of the index.
+     * @return the index.
+     * @throws IllegalArgumentException if the table has no index with that name.
+     */
+    <V> TxnTableIndex<R, V> getIndex(String name);
+}
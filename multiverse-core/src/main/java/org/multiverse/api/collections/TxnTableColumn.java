@@ -0,0 +1,21 @@
+package org.multiverse.api.collections;
+
+/**
+ * Extracts a value from a row of a {@link TxnTable}; e.g. the primary key or the value a secondary index is based on.
+ * <p/>
+ * The value of a row should never change, so a TxnTableColumn should only depend on immutable state of the row.
+ *
+ * @param <R> the type of the rows.
+ * @param <V> the type of the value.
+ * @author Peter Veentjer.
+ */
+public interface TxnTableColumn<R, V> {
+
+    /**
+     * Returns the value of this column for the given row.
+     *
+     * @param row the row.
+     * @return the value. A null value is not indexed.
+     */
+    V valueOf(R row);
+}
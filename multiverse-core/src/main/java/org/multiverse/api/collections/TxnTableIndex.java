@@ -0,0 +1,53 @@
+package org.multiverse.api.collections;
+
+import org.multiverse.api.Txn;
+
+import java.util.List;
+
+/**
+ * A secondary index of a {@link TxnTable}. The index is maintained by the table, so it always is consistent with the
+ * rows of the table in the same transaction.
+ *
+ * @param <R> the type of the rows.
+ * @param <V> the type of the indexed values.
+ * @author Peter Veentjer.
+ * @see TxnTable#getIndex(String)
+ */
+public interface TxnTableIndex<R, V> {
+
+    /**
+     * Returns the name of the index.
+     *
+     * @return the name.
+     */
+    String getName();
+
+    /**
+     * Checks if the index is ordered, so it supports {@link #findRange(Txn, Object, Object)}.
+     *
+     * @return true if ordered, false otherwise.
+     */
+    boolean isOrdered();
+
+    /**
+     * Returns all rows with the given value.
+     *
+     * @param txn   the transaction used.
+     * @param value the value.
+     * @return the rows found; an empty list if there are none.
+     * @throws NullPointerException if value is null.
+     */
+    List<R> find(Txn txn, V value);
+
+    /**
+     * Returns all rows with a value from fromInclusive up to toExclusive, ordered by value.
+     *
+     * @param txn           the transaction used.
+     * @param fromInclusive the lowest value.
+     * @param toExclusive   the value after the highest value.
+     * @return the rows found; an empty list if there are none.
+     * @throws NullPointerException          if fromInclusive or toExclusive is null.
+     * @throws UnsupportedOperationException if the index isn't ordered.
+     */
+    List<R> findRange(Txn txn, V fromInclusive, V toExclusive);
+}
@@ -28,6 +28,12 @@ public enum TxnEvent {
      */
     PostAbort,
 
+    /**
+     * Just after aborting because of a {@link org.multiverse.api.Txn#retry()}. The PostAbort listeners are not
+     * notified then, since the transaction is going to be executed again once one of the reads has changed.
+     */
+    PostRetry,
+
     /**
      * Just after committing.
      */
@@ -2,6 +2,7 @@ package org.multiverse.collections;
 
 import org.multiverse.api.Stm;
 import org.multiverse.api.Txn;
+import org.multiverse.api.collections.ScanMode;
 import org.multiverse.api.collections.TxnCollection;
 import org.multiverse.api.collections.TxnIterator;
 import org.multiverse.api.references.TxnRefFactory;
@@ -147,6 +148,19 @@ public abstract class AbstractTxnCollection<E> implements TxnCollection<E> {
         return iterator(getThreadLocalTxn());
     }
 
+    /**
+     * Collections that support untracked scans override this method; the others ignore the ScanMode and do a
+     * tracked scan.
+     */
+    @Override
+    public TxnIterator<E> iterator(Txn txn, ScanMode scanMode) {
+        if (scanMode == null) {
+            throw new NullPointerException();
+        }
+
+        return iterator(txn);
+    }
+
     @Override
     public String toString() {
         return toString(getThreadLocalTxn());
@@ -0,0 +1,390 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.references.TxnLong;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.api.references.TxnRefFactory;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * The base of the primitive collections that use a long (or an int) as key. The keys are stored in a hash table with
+ * open addressing and linear probing; every slot is a TxnLong, so looking up a key doesn't allocate anything and
+ * doesn't call hashCode/equals.
+ * <p/>
+ * Two key values have a special meaning in a slot: {@link #FREE} (the slot never has been used) and {@link #REMOVED}
+ * (the key in the slot has been removed). So removing a key always changes the slot (there is no backward shifting
+ * of the keys after it), and a key only is placed in a removed slot if the key isn't found before reaching a free
+ * slot. The special keys themselves are stored in 2 extra slots at the end of the table; the 'key' of these slots is
+ * 1 if the key is present and 0 if not.
+ * <p/>
+ * Transactions that access different keys normally don't conflict:
+ * <ol>
+ * <li>an update of an existing key only writes the value slot, and ensures the key slot (so it conflicts with a
+ * concurrent removal of the key).</li>
+ * <li>a key that is added in a removed slot ensures the free slot that ended the search (so it conflicts with a
+ * concurrent add of the same key in that free slot).</li>
+ * <li>the size is a {@link StripedTxnCounter}.</li>
+ * </ol>
+ * The table itself is replaced by a resize (or a clear). Every transaction that updates the map ensures the
+ * reference to the table, so an update in the old table can't be lost. The resize is done by a single transaction;
+ * use an initial capacity to prevent resizing if the number of keys is known up front.
+ *
+ * @param <A> the type of the array containing the values.
+ * @author Peter Veentjer.
+ */
+abstract class AbstractTxnLongHashTable<A> {
+
+    static final long FREE = 0;
+    static final long REMOVED = Long.MIN_VALUE;
+
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+    static final float LOAD_FACTOR = 0.5f;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Returned by {@link #claim(Txn, Table, long, int)} if there is no slot left in the table.
+     */
+    private static final int TABLE_FULL = Integer.MIN_VALUE;
+
+    protected final Stm stm;
+    protected final TxnRefFactory defaultRefFactory;
+    private final int initialCapacity;
+    private final TxnRef<Table<A>> table;
+
+    AbstractTxnLongHashTable(Stm stm, int initialCapacity) {
+        if (stm == null) {
+            throw new NullPointerException();
+        }
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity can't be smaller than 0, found " + initialCapacity);
+        }
+
+        this.stm = stm;
+        this.defaultRefFactory = stm.getDefaultRefFactory();
+        this.initialCapacity = tableSizeFor(initialCapacity);
+        this.table = defaultRefFactory.newTxnRef(newTable(this.initialCapacity));
+    }
+
+    public final Stm getStm() {
+        return stm;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int minimum = (int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(capacity / LOAD_FACTOR));
+        int result = DEFAULT_INITIAL_CAPACITY;
+        while (result < minimum) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // ==================== value array ============================
+
+    /**
+     * Creates the value array of a new, empty table.
+     *
+     * @param length the length of the array.
+     * @return the created array.
+     */
+    abstract A newValues(int length);
+
+    /**
+     * Creates the value array of a resized table; the values are copied from the old table. The refs are created with
+     * their value, so the resizing transaction doesn't need to track them.
+     *
+     * @param txn       the transaction that does the resize.
+     * @param oldValues the values of the old table.
+     * @param moveFrom  for every slot in the new table the index of the slot in the old table, or -1 if it is free.
+     * @return the created array.
+     */
+    abstract A copyValues(Txn txn, A oldValues, int[] moveFrom);
+
+    private Table<A> newTable(int capacity) {
+        TxnLong[] keys = new TxnLong[capacity + 2];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = defaultRefFactory.newTxnLong(FREE);
+        }
+        return new Table<A>(keys, newValues(capacity + 2), new StripedTxnCounter(defaultRefFactory),
+                new StripedTxnCounter(defaultRefFactory));
+    }
+
+    // ==================== lookup ============================
+
+    final Table<A> tableForRead(Txn txn) {
+        return table.get(txn);
+    }
+
+    final Table<A> tableForUpdate(Txn txn) {
+        Table<A> tab = table.get(txn);
+        table.ensure(txn);
+        return tab;
+    }
+
+    /**
+     * Returns the slot containing the key, or -1 if the key isn't found.
+     */
+    final int indexOf(Txn txn, Table<A> tab, long key) {
+        if (key == FREE || key == REMOVED) {
+            int slot = tab.specialSlot(key);
+            return tab.keys[slot].get(txn) == 0 ? -1 : slot;
+        }
+
+        final int mask = tab.mask;
+        int index = hash(key) & mask;
+        for (int probe = 0; probe <= mask; probe++) {
+            long found = tab.keys[index].get(txn);
+            if (found == key) {
+                return index;
+            } else if (found == FREE) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // ==================== update ============================
+
+    /**
+     * Returns the slot for the key that should be updated. If the key already is present, its index is returned.
+     * Otherwise a slot is claimed for the key and -(index+1) is returned; the value of that slot still needs to be set.
+     * The table is resized when needed, so a new key always ends up in the current table.
+     *
+     * @param txn the transaction.
+     * @param key the key.
+     * @return the index of the slot.
+     */
+    final int slotForPut(Txn txn, long key) {
+        final int hash = hash(key);
+        Table<A> tab = tableForUpdate(txn);
+        int slot = claim(txn, tab, key, hash);
+        if (slot == TABLE_FULL) {
+            resize(txn, tab);
+            tab = table.get(txn);
+            slot = claim(txn, tab, key, hash);
+            if (slot == TABLE_FULL) {
+                throw new IllegalStateException("Maximum capacity " + MAXIMUM_CAPACITY + " reached");
+            }
+        }
+
+        if (slot < 0) {
+            tab.size.increment(txn, hash);
+            if (tab.used.approximateGet() >= tab.threshold) {
+                //the slot is moved by the resize, so it needs to be looked up again.
+                resize(txn, tab);
+                return -(indexOf(txn, table.get(txn), key) + 1);
+            }
+        }
+        return slot;
+    }
+
+    private int claim(Txn txn, Table<A> tab, long key, int hash) {
+        if (key == FREE || key == REMOVED) {
+            int slot = tab.specialSlot(key);
+            TxnLong flag = tab.keys[slot];
+            if (flag.get(txn) != 0) {
+                flag.ensure(txn);
+                return slot;
+            }
+
+            flag.set(txn, 1);
+            return -(slot + 1);
+        }
+
+        final int mask = tab.mask;
+        int index = hash & mask;
+        int removedIndex = -1;
+        for (int probe = 0; probe <= mask; probe++) {
+            TxnLong slot = tab.keys[index];
+            long found = slot.get(txn);
+            if (found == key) {
+                slot.ensure(txn);
+                return index;
+            } else if (found == FREE) {
+                if (removedIndex != -1) {
+                    slot.ensure(txn);
+                    tab.keys[removedIndex].set(txn, key);
+                    return -(removedIndex + 1);
+                }
+
+                slot.set(txn, key);
+                tab.used.increment(txn, hash);
+                return -(index + 1);
+            } else if (found == REMOVED && removedIndex == -1) {
+                removedIndex = index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (removedIndex != -1) {
+            tab.keys[removedIndex].set(txn, key);
+            return -(removedIndex + 1);
+        }
+        return TABLE_FULL;
+    }
+
+    /**
+     * Removes the key and returns the slot it was stored in, or -1 if the key isn't found. The value of the slot
+     * isn't touched.
+     */
+    final int removeKey(Txn txn, long key) {
+        Table<A> tab = tableForUpdate(txn);
+        int slot = indexOf(txn, tab, key);
+        if (slot == -1) {
+            return -1;
+        }
+
+        tab.keys[slot].set(txn, slot >= tab.keys.length - 2 ? 0 : REMOVED);
+        tab.size.decrement(txn, hash(key));
+        return slot;
+    }
+
+    private void resize(Txn txn, Table<A> old) {
+        final int oldCapacity = old.mask + 1;
+        int present = 0;
+        for (int k = 0; k < oldCapacity; k++) {
+            long key = old.keys[k].get(txn);
+            if (key != FREE && key != REMOVED) {
+                present++;
+            }
+        }
+
+        //if most used slots only contain removed keys, the table is rebuilt with the same capacity.
+        int capacity = present >= old.threshold / 2 && oldCapacity < MAXIMUM_CAPACITY ? oldCapacity * 2 : oldCapacity;
+        int mask = capacity - 1;
+        long[] keys = new long[capacity + 2];
+        int[] moveFrom = new int[capacity + 2];
+        for (int k = 0; k < moveFrom.length; k++) {
+            moveFrom[k] = -1;
+        }
+
+        for (int k = 0; k < oldCapacity; k++) {
+            long key = old.keys[k].get(txn);
+            if (key == FREE || key == REMOVED) {
+                continue;
+            }
+
+            int index = hash(key) & mask;
+            while (keys[index] != FREE) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            moveFrom[index] = k;
+        }
+
+        int size = present;
+        for (int k = 0; k < 2; k++) {
+            long flag = old.keys[oldCapacity + k].get(txn);
+            if (flag != 0) {
+                keys[capacity + k] = flag;
+                moveFrom[capacity + k] = oldCapacity + k;
+                size++;
+            }
+        }
+
+        TxnLong[] keyRefs = new TxnLong[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            keyRefs[k] = defaultRefFactory.newTxnLong(keys[k]);
+        }
+
+        Table<A> tab = new Table<A>(keyRefs, copyValues(txn, old.values, moveFrom),
+                new StripedTxnCounter(defaultRefFactory), new StripedTxnCounter(defaultRefFactory));
+        tab.size.addToStripe(txn, 0, size);
+        tab.used.addToStripe(txn, 0, present);
+        table.set(txn, tab);
+    }
+
+    // ==================== misc ============================
+
+    public final int size() {
+        return size(getThreadLocalTxn());
+    }
+
+    public final int size(Txn txn) {
+        return table.get(txn).size.get(txn);
+    }
+
+    public final boolean isEmpty() {
+        return isEmpty(getThreadLocalTxn());
+    }
+
+    public final boolean isEmpty(Txn txn) {
+        return size(txn) == 0;
+    }
+
+    public final void clear() {
+        clear(getThreadLocalTxn());
+    }
+
+    public final void clear(Txn txn) {
+        if (size(txn) > 0) {
+            table.set(txn, newTable(initialCapacity));
+        }
+    }
+
+    /**
+     * Returns the keys in the order of the table.
+     */
+    final long[] keyArray(Txn txn) {
+        Table<A> tab = table.get(txn);
+        long[] result = new long[tab.size.get(txn)];
+        int count = 0;
+        for (int k = 0; k < tab.keys.length - 2; k++) {
+            long key = tab.keys[k].get(txn);
+            if (key != FREE && key != REMOVED) {
+                result[count++] = key;
+            }
+        }
+
+        if (tab.keys[tab.keys.length - 2].get(txn) != 0) {
+            result[count++] = FREE;
+        }
+        if (tab.keys[tab.keys.length - 1].get(txn) != 0) {
+            result[count] = REMOVED;
+        }
+        return result;
+    }
+
+    @Override
+    public final String toString() {
+        return toString(getThreadLocalTxn());
+    }
+
+    public abstract String toString(Txn txn);
+
+    static final class Table<A> {
+        /**
+         * The keys; the last 2 slots contain the presence flags of the FREE and REMOVED key.
+         */
+        final TxnLong[] keys;
+        final A values;
+        final int mask;
+        final int threshold;
+        final StripedTxnCounter size;
+        /**
+         * The number of slots that are not FREE (so containing a key or REMOVED); used to decide when to resize.
+         */
+        final StripedTxnCounter used;
+
+        Table(TxnLong[] keys, A values, StripedTxnCounter size, StripedTxnCounter used) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 3;
+            this.threshold = (int) ((mask + 1) * LOAD_FACTOR);
+            this.size = size;
+            this.used = used;
+        }
+
+        int specialSlot(long key) {
+            return key == FREE ? mask + 1 : mask + 2;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package org.multiverse.collections;
 
 import org.multiverse.api.Stm;
 import org.multiverse.api.Txn;
+import org.multiverse.api.collections.ScanMode;
 import org.multiverse.api.collections.TxnCollection;
+import org.multiverse.api.collections.TxnIterator;
 import org.multiverse.api.collections.TxnMap;
 import org.multiverse.api.collections.TxnSet;
 import org.multiverse.api.references.TxnRefFactory;
@@ -124,4 +126,240 @@ public abstract class AbstractTxnMap<K, V> implements TxnMap<K, V> {
     public String toString() {
         return toString(getThreadLocalTxn());
     }
+
+    // ====================== support for iterable maps ==========================
+
+    /**
+     * Returns an iterator over the entries of this map. Maps that provide it get the {@link #containsValue(Txn, Object)}
+     * and {@link #toString(Txn)} and the {@link KeySetView}, {@link ValuesView} and {@link EntrySetView} for free.
+     * The remove of the iterator should remove the last returned entry from the map.
+     *
+     * @param txn the transaction used.
+     * @return the iterator.
+     * @throws UnsupportedOperationException if the map doesn't support iteration.
+     */
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns an iterator over the entries that reads the map using the given ScanMode. Maps that don't support
+     * untracked scans don't need to override it; they do a tracked scan.
+     *
+     * @param txn      the transaction used.
+     * @param scanMode the ScanMode.
+     * @return the iterator.
+     */
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn, ScanMode scanMode) {
+        if (scanMode == null) {
+            throw new NullPointerException();
+        }
+
+        return entryIterator(txn);
+    }
+
+    @Override
+    public boolean containsValue(Txn txn, Object value) {
+        for (TxnIterator<Entry<K, V>> it = entryIterator(txn); it.hasNext(txn); ) {
+            V v = it.next(txn).getValue();
+            if (value == null ? v == null : value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        TxnIterator<Entry<K, V>> it = entryIterator(txn);
+        if (!it.hasNext(txn)) {
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        for (; ; ) {
+            Entry<K, V> entry = it.next(txn);
+            K key = entry.getKey();
+            V value = entry.getValue();
+            sb.append(key == this ? "(this Map)" : key);
+            sb.append('=');
+            sb.append(value == this ? "(this Map)" : value);
+            if (!it.hasNext(txn)) {
+                return sb.append('}').toString();
+            }
+            sb.append(", ");
+        }
+    }
+
+    protected abstract class View<E> extends AbstractTxnCollection<E> implements TxnSet<E> {
+
+        protected View() {
+            super(AbstractTxnMap.this.stm);
+        }
+
+        @Override
+        public int size(Txn txn) {
+            return AbstractTxnMap.this.size(txn);
+        }
+
+        @Override
+        public void clear(Txn txn) {
+            AbstractTxnMap.this.clear(txn);
+        }
+
+        @Override
+        public boolean add(Txn txn, E e) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString(Txn txn) {
+            TxnIterator<E> it = iterator(txn);
+            if (!it.hasNext(txn)) {
+                return "[]";
+            }
+
+            StringBuilder sb = new StringBuilder("[");
+            for (; ; ) {
+                E item = it.next(txn);
+                sb.append(item == this ? "(this Collection)" : item);
+                if (!it.hasNext(txn)) {
+                    return sb.append(']').toString();
+                }
+                sb.append(", ");
+            }
+        }
+    }
+
+    protected class KeySetView extends View<K> {
+        @Override
+        public boolean contains(Txn txn, Object o) {
+            return containsKey(txn, o);
+        }
+
+        @Override
+        public boolean remove(Txn txn, Object o) {
+            if (!containsKey(txn, o)) {
+                return false;
+            }
+
+            AbstractTxnMap.this.remove(txn, o);
+            return true;
+        }
+
+        @Override
+        public TxnIterator<K> iterator(Txn txn) {
+            return keys(entryIterator(txn));
+        }
+
+        @Override
+        public TxnIterator<K> iterator(Txn txn, ScanMode scanMode) {
+            return keys(entryIterator(txn, scanMode));
+        }
+
+        private TxnIterator<K> keys(final TxnIterator<Entry<K, V>> it) {
+            return new AbstractTxnIterator<K>() {
+                @Override
+                public boolean hasNext(Txn txn) {
+                    return it.hasNext(txn);
+                }
+
+                @Override
+                public K next(Txn txn) {
+                    return it.next(txn).getKey();
+                }
+
+                @Override
+                public void remove(Txn txn) {
+                    it.remove(txn);
+                }
+            };
+        }
+    }
+
+    protected class ValuesView extends View<V> {
+        @Override
+        public boolean contains(Txn txn, Object o) {
+            return containsValue(txn, o);
+        }
+
+        @Override
+        public boolean remove(Txn txn, Object o) {
+            for (TxnIterator<V> it = iterator(txn); it.hasNext(txn); ) {
+                V value = it.next(txn);
+                if (o == null ? value == null : o.equals(value)) {
+                    it.remove(txn);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public TxnIterator<V> iterator(Txn txn) {
+            return values(entryIterator(txn));
+        }
+
+        @Override
+        public TxnIterator<V> iterator(Txn txn, ScanMode scanMode) {
+            return values(entryIterator(txn, scanMode));
+        }
+
+        private TxnIterator<V> values(final TxnIterator<Entry<K, V>> it) {
+            return new AbstractTxnIterator<V>() {
+                @Override
+                public boolean hasNext(Txn txn) {
+                    return it.hasNext(txn);
+                }
+
+                @Override
+                public V next(Txn txn) {
+                    return it.next(txn).getValue();
+                }
+
+                @Override
+                public void remove(Txn txn) {
+                    it.remove(txn);
+                }
+            };
+        }
+    }
+
+    protected class EntrySetView extends View<Entry<K, V>> {
+        @Override
+        public boolean contains(Txn txn, Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry e = (Map.Entry) o;
+            Object key = e.getKey();
+            if (!containsKey(txn, key)) {
+                return false;
+            }
+
+            Object value = get(txn, key);
+            return value == null ? e.getValue() == null : value.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Txn txn, Object o) {
+            if (!contains(txn, o)) {
+                return false;
+            }
+
+            AbstractTxnMap.this.remove(txn, ((Map.Entry) o).getKey());
+            return true;
+        }
+
+        @Override
+        public TxnIterator<Entry<K, V>> iterator(Txn txn) {
+            return entryIterator(txn);
+        }
+
+        @Override
+        public TxnIterator<Entry<K, V>> iterator(Txn txn, ScanMode scanMode) {
+            return entryIterator(txn, scanMode);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnNavigableMap;
+
+import java.util.NoSuchElementException;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+public abstract class AbstractTxnNavigableMap<K, V> extends AbstractTxnMap<K, V> implements TxnNavigableMap<K, V> {
+
+    public AbstractTxnNavigableMap(Stm stm) {
+        super(stm);
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) {
+        return lowerEntry(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return lowerKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) {
+        return floorEntry(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return floorKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) {
+        return ceilingEntry(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return ceilingKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) {
+        return higherEntry(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return higherKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public Entry<K, V> firstEntry() {
+        return firstEntry(getThreadLocalTxn());
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        return lastEntry(getThreadLocalTxn());
+    }
+
+    @Override
+    public Entry<K, V> pollFirstEntry() {
+        return pollFirstEntry(getThreadLocalTxn());
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry() {
+        return pollLastEntry(getThreadLocalTxn());
+    }
+
+    @Override
+    public K firstKey() {
+        return firstKey(getThreadLocalTxn());
+    }
+
+    @Override
+    public K firstKey(Txn txn) {
+        Entry<K, V> entry = firstEntry(txn);
+        if (entry == null) {
+            throw new NoSuchElementException();
+        }
+        return entry.getKey();
+    }
+
+    @Override
+    public K lastKey() {
+        return lastKey(getThreadLocalTxn());
+    }
+
+    @Override
+    public K lastKey(Txn txn) {
+        Entry<K, V> entry = lastEntry(txn);
+        if (entry == null) {
+            throw new NoSuchElementException();
+        }
+        return entry.getKey();
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+}
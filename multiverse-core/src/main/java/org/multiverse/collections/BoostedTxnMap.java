@@ -0,0 +1,279 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnCollection;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnSet;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.api.lifecycle.TxnEvent;
+import org.multiverse.api.lifecycle.TxnListener;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link org.multiverse.api.collections.TxnMap} that uses transactional boosting: the entries are stored in a
+ * {@link ConcurrentHashMap} instead of in TxnRefs, and the transactional semantics are provided by abstract locks on
+ * the keys and an undo log.
+ * <ol>
+ * <li>before a transaction accesses a key, it acquires the lock of that key; the lock is held until the transaction
+ * commits or aborts. A transaction that finds the key locked by another transaction yields the processor a few times
+ * (so the owner gets the chance to complete) and then aborts with a {@link ReadWriteConflict}, so the
+ * {@link org.multiverse.api.TxnExecutor} retries it after a backoff.
+ * Since a transaction never blocks on a lock, there can't be a deadlock.</li>
+ * <li>an update is directly applied to the ConcurrentHashMap and the inverse operation is added to the undo log of
+ * the transaction. When the transaction aborts (also when it aborts because of a retry, see
+ * {@link TxnEvent#PostRetry}), the undo log is executed in reverse order before the locks are released.</li>
+ * <li>the size is a {@link StripedTxnCounter}, so it is part of the normal transaction and is updated atomically with
+ * the entries.</li>
+ * </ol>
+ * Transactions that access different keys only contend on the ConcurrentHashMap itself, so for key-disjoint
+ * workloads the map has almost the throughput of a ConcurrentHashMap. The price is that a lock is exclusive, so 2
+ * transactions that read the same key do conflict.
+ * <p/>
+ * The locks and the undo log are registered as a {@link TxnListener}, so the first access in a lean transaction
+ * makes the speculative configuration upgrade it to a transaction that supports listeners.
+ * <p/>
+ * The {@link #clear(Txn)} and the iterators lock every key they encounter, but they don't prevent other transactions
+ * from inserting new keys, so they are not isolated against concurrent inserts.
+ * <p/>
+ * Null keys and null values are not allowed. The entries returned by the {@link #entrySet()} are immutable
+ * snapshots; use {@link #put(Txn, Object, Object)} to change the value of a key.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class BoostedTxnMap<K, V> extends AbstractTxnMap<K, V> {
+
+    /**
+     * The number of times a transaction yields and checks again if a lock that is held by another transaction has
+     * been released, before it gives up.
+     */
+    static final int LOCK_SPIN_COUNT = 16;
+
+    private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<K, V>();
+    private final ConcurrentHashMap<Object, UndoLog> locks = new ConcurrentHashMap<Object, UndoLog>();
+    private final ConcurrentHashMap<Txn, UndoLog> undoLogs = new ConcurrentHashMap<Txn, UndoLog>();
+    private final StripedTxnCounter size;
+
+    public BoostedTxnMap(Stm stm) {
+        super(stm);
+        this.size = new StripedTxnCounter(defaultRefFactory);
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return size.get(txn);
+    }
+
+    @Override
+    public V get(Txn txn, Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        lock(txn, key);
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, Object key) {
+        return get(txn, key) != null;
+    }
+
+    @Override
+    public V put(Txn txn, K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+
+        UndoLog undoLog = lock(txn, key);
+        //the lock is held, so the value can't change between the get and the put.
+        V oldValue = map.get(key);
+        if (oldValue == null) {
+            size.increment(txn, key.hashCode());
+        }
+        map.put(key, value);
+        undoLog.add(key, oldValue);
+        return oldValue;
+    }
+
+    @Override
+    public V remove(Txn txn, Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        UndoLog undoLog = lock(txn, key);
+        V oldValue = map.get(key);
+        if (oldValue == null) {
+            return null;
+        }
+
+        size.decrement(txn, key.hashCode());
+        map.remove(key);
+        undoLog.add(key, oldValue);
+        return oldValue;
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        for (Iterator<K> it = map.keySet().iterator(); it.hasNext(); ) {
+            remove(txn, it.next());
+        }
+    }
+
+    // ====================== locking ==========================
+
+    private UndoLog lock(Txn txn, Object key) {
+        UndoLog undoLog = undoLogs.get(txn);
+        if (undoLog == null) {
+            undoLog = new UndoLog();
+            //if the register fails (e.g. because the transaction is lean), nothing has been locked yet.
+            txn.register(undoLog);
+            undoLogs.put(txn, undoLog);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            UndoLog owner = locks.putIfAbsent(key, undoLog);
+            if (owner == null) {
+                undoLog.lockedKeys.add(key);
+                return undoLog;
+            }
+
+            if (owner == undoLog) {
+                return undoLog;
+            }
+
+            if (attempt == LOCK_SPIN_COUNT) {
+                break;
+            }
+
+            //the owner only releases the lock when it commits or aborts, so give it the processor.
+            Thread.yield();
+        }
+
+        txn.abort();
+        throw txn.getConfig().isControlFlowErrorsReused()
+                ? ReadWriteConflict.INSTANCE
+                : new ReadWriteConflict(
+                "Failed to lock key " + key + " of a BoostedTxnMap, reason: it is locked by another transaction");
+    }
+
+    /**
+     * The undo log of a single transaction. It also contains the keys that are locked by the transaction, and it
+     * releases them when the transaction commits or aborts.
+     */
+    private final class UndoLog implements TxnListener {
+        private final ArrayList<Object> lockedKeys = new ArrayList<Object>();
+        //pairs of key and old value; a null old value means that the key needs to be removed.
+        private final ArrayList<Object> undo = new ArrayList<Object>();
+
+        void add(Object key, Object oldValue) {
+            undo.add(key);
+            undo.add(oldValue);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void notify(Txn txn, TxnEvent e) {
+            switch (e) {
+                case PostAbort:
+                case PostRetry:
+                    for (int k = undo.size() - 2; k >= 0; k -= 2) {
+                        K key = (K) undo.get(k);
+                        V oldValue = (V) undo.get(k + 1);
+                        if (oldValue == null) {
+                            map.remove(key);
+                        } else {
+                            map.put(key, oldValue);
+                        }
+                    }
+                    release(txn);
+                    break;
+                case PostCommit:
+                    release(txn);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void release(Txn txn) {
+            undoLogs.remove(txn);
+            for (int k = 0; k < lockedKeys.size(); k++) {
+                locks.remove(lockedKeys.get(k), this);
+            }
+        }
+    }
+
+    // ====================== views ==========================
+
+    @Override
+    public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+        return new EntrySetView();
+    }
+
+    @Override
+    public TxnSet<K> keySet(Txn txn) {
+        return new KeySetView();
+    }
+
+    @Override
+    public TxnCollection<V> values(Txn txn) {
+        return new ValuesView();
+    }
+
+    @Override
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+        final Iterator<K> keys = map.keySet().iterator();
+        return new AbstractTxnIterator<Entry<K, V>>() {
+            private Entry<K, V> next;
+            private Entry<K, V> lastReturned;
+
+            private void advance(Txn txn) {
+                //a key that has been removed before it could be locked is skipped.
+                while (next == null && keys.hasNext()) {
+                    K key = keys.next();
+                    V value = get(txn, key);
+                    if (value != null) {
+                        next = new AbstractMap.SimpleImmutableEntry<K, V>(key, value);
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext(Txn txn) {
+                advance(txn);
+                return next != null;
+            }
+
+            @Override
+            public Entry<K, V> next(Txn txn) {
+                advance(txn);
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                lastReturned = next;
+                next = null;
+                return lastReturned;
+            }
+
+            @Override
+            public void remove(Txn txn) {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+
+                BoostedTxnMap.this.remove(txn, lastReturned.getKey());
+                lastReturned = null;
+            }
+        };
+    }
+}
@@ -0,0 +1,334 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnTable;
+import org.multiverse.api.collections.TxnTableColumn;
+import org.multiverse.api.collections.TxnTableIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link TxnTable} created by the {@link TxnTableBuilder}.
+ * <p/>
+ * The rows are stored in a {@link TxnHashMap} on the primary key. Every secondary index is a {@link TxnSkipListMap}
+ * with an entry per row, keyed on the indexed value combined with the (spread) hash of the primary key: for a hash
+ * index the entries are ordered on the hash of the value, for an ordered index on the value itself. So a put or
+ * remove only inserts or removes a single entry per index whose value changed, which costs O(log n) no matter how
+ * many rows share the value. The rows with the same value are spread over the index by the hash of their primary
+ * key, so transactions that change rows with different primary keys normally don't conflict, even if the rows have
+ * the same indexed value.
+ *
+ * @param <K> the type of the primary key.
+ * @param <R> the type of the rows.
+ * @author Peter Veentjer.
+ */
+final class DefaultTxnTable<K, R> implements TxnTable<K, R> {
+
+    private final Stm stm;
+    private final TxnTableColumn<R, K> primaryKey;
+    private final TxnHashMap<K, R> rows;
+    private final List<Index<?>> indexes;
+    private final Map<String, Index<?>> indexesByName = new HashMap<String, Index<?>>();
+    private final TxnExecutor bulkLoadExecutor;
+
+    DefaultTxnTable(Stm stm, TxnTableColumn<R, K> primaryKey, List<IndexDefinition<R>> definitions) {
+        this.stm = stm;
+        this.primaryKey = primaryKey;
+        this.rows = new TxnHashMap<K, R>(stm);
+        this.indexes = new ArrayList<Index<?>>(definitions.size());
+        for (IndexDefinition<R> definition : definitions) {
+            Index<?> index = newIndex(definition);
+            indexes.add(index);
+            indexesByName.put(index.name, index);
+        }
+        this.bulkLoadExecutor = stm.newTxnFactoryBuilder().newTxnExecutor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Index<?> newIndex(IndexDefinition<R> definition) {
+        return new Index<Object>(definition.name, (TxnTableColumn<R, Object>) definition.column, definition.ordered,
+                (Comparator<Object>) definition.comparator);
+    }
+
+    @Override
+    public Stm getStm() {
+        return stm;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return rows.size(txn);
+    }
+
+    @Override
+    public R get(Txn txn, K key) {
+        return rows.get(txn, key);
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, K key) {
+        return rows.containsKey(txn, key);
+    }
+
+    @Override
+    public R put(Txn txn, R row) {
+        if (row == null) {
+            throw new NullPointerException();
+        }
+
+        K key = primaryKey.valueOf(row);
+        R oldRow = rows.put(txn, key, row);
+        for (Index<?> index : indexes) {
+            index.update(txn, key, oldRow, row);
+        }
+        return oldRow;
+    }
+
+    @Override
+    public R remove(Txn txn, K key) {
+        R oldRow = rows.remove(txn, key);
+        if (oldRow != null) {
+            for (Index<?> index : indexes) {
+                index.update(txn, key, oldRow, null);
+            }
+        }
+        return oldRow;
+    }
+
+    @Override
+    public void putAll(Txn txn, Iterable<? extends R> rows) {
+        for (R row : rows) {
+            put(txn, row);
+        }
+    }
+
+    @Override
+    public void bulkLoad(Iterable<? extends R> rows, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize should be larger than 0, found " + batchSize);
+        }
+
+        final List<R> batch = new ArrayList<R>(batchSize);
+        for (Iterator<? extends R> it = rows.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            if (batch.size() == batchSize || !it.hasNext()) {
+                bulkLoadExecutor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn txn) {
+                        putAll(txn, batch);
+                    }
+                });
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> TxnTableIndex<R, V> getIndex(String name) {
+        Index<?> index = indexesByName.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown index " + name);
+        }
+        return (TxnTableIndex<R, V>) index;
+    }
+
+    static final class IndexDefinition<R> {
+        final String name;
+        final TxnTableColumn<R, ?> column;
+        final boolean ordered;
+        final Comparator<?> comparator;
+
+        IndexDefinition(String name, TxnTableColumn<R, ?> column, boolean ordered, Comparator<?> comparator) {
+            this.name = name;
+            this.column = column;
+            this.ordered = ordered;
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * The key of an entry in an index: the indexed value and the spread hash of the primary key. Rows with an equal
+     * value and an equal key hash share an entry; its value is an immutable array with pairs of indexed value and
+     * primary key. For an ordered index the values in an entry are all equal, for a hash index only their hashes are.
+     */
+    static final class IndexKey {
+        final Object value;
+        final int valueHash;
+        final int keyHash;
+
+        IndexKey(Object value, int keyHash) {
+            this.value = value;
+            this.valueHash = value.hashCode();
+            this.keyHash = keyHash;
+        }
+    }
+
+    /**
+     * Spreads the hash of the primary key, so rows with consecutive primary keys (e.g. generated ids) don't end up
+     * next to each other in the index; inserting neighbours would make their transactions conflict.
+     */
+    static int spread(int hash) {
+        return hash * 0x9E3779B9;
+    }
+
+    private static int compareInts(int i1, int i2) {
+        return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
+    }
+
+    private final class Index<V> implements TxnTableIndex<R, V> {
+        private final String name;
+        private final TxnTableColumn<R, V> column;
+        private final boolean ordered;
+        private final Comparator<? super V> comparator;
+        private final TxnSkipListMap<IndexKey, Object[]> entries;
+
+        Index(String name, TxnTableColumn<R, V> column, boolean ordered, Comparator<? super V> comparator) {
+            this.name = name;
+            this.column = column;
+            this.ordered = ordered;
+            this.comparator = comparator;
+            this.entries = new TxnSkipListMap<IndexKey, Object[]>(stm, new Comparator<IndexKey>() {
+                @Override
+                public int compare(IndexKey k1, IndexKey k2) {
+                    int c = compareValues(k1, k2);
+                    return c != 0 ? c : compareInts(k1.keyHash, k2.keyHash);
+                }
+            });
+        }
+
+        private int compareValues(IndexKey k1, IndexKey k2) {
+            return ordered ? compareOrdered(k1.value, k2.value) : compareInts(k1.valueHash, k2.valueHash);
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compareOrdered(Object v1, Object v2) {
+            return comparator == null ? ((Comparable<Object>) v1).compareTo(v2) : comparator.compare((V) v1, (V) v2);
+        }
+
+        /**
+         * Checks if the value stored in an entry is the value searched for. An ordered index uses the ordering, so
+         * just like in a TxnSkipListMap values that compare as equal are the same.
+         */
+        private boolean matches(Object stored, Object value) {
+            return ordered ? compareOrdered(stored, value) == 0 : stored.equals(value);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isOrdered() {
+            return ordered;
+        }
+
+        void update(Txn txn, K key, R oldRow, R newRow) {
+            V oldValue = oldRow == null ? null : column.valueOf(oldRow);
+            V newValue = newRow == null ? null : column.valueOf(newRow);
+            if (oldValue == null ? newValue == null : oldValue.equals(newValue)) {
+                return;
+            }
+
+            if (oldValue != null) {
+                removeKey(txn, oldValue, key);
+            }
+
+            if (newValue != null) {
+                addKey(txn, newValue, key);
+            }
+        }
+
+        private void addKey(Txn txn, V value, K key) {
+            IndexKey indexKey = new IndexKey(value, spread(key.hashCode()));
+            Object[] pairs = entries.get(txn, indexKey);
+            if (pairs == null) {
+                entries.put(txn, indexKey, new Object[]{value, key});
+                return;
+            }
+
+            Object[] newPairs = new Object[pairs.length + 2];
+            System.arraycopy(pairs, 0, newPairs, 0, pairs.length);
+            newPairs[pairs.length] = value;
+            newPairs[pairs.length + 1] = key;
+            entries.put(txn, indexKey, newPairs);
+        }
+
+        private void removeKey(Txn txn, V value, K key) {
+            IndexKey indexKey = new IndexKey(value, spread(key.hashCode()));
+            Object[] pairs = entries.get(txn, indexKey);
+            if (pairs.length == 2) {
+                entries.remove(txn, indexKey);
+                return;
+            }
+
+            int index = 0;
+            while (!pairs[index + 1].equals(key)) {
+                index += 2;
+            }
+
+            Object[] newPairs = new Object[pairs.length - 2];
+            System.arraycopy(pairs, 0, newPairs, 0, index);
+            System.arraycopy(pairs, index + 2, newPairs, index, newPairs.length - index);
+            entries.put(txn, indexKey, newPairs);
+        }
+
+        @Override
+        public List<R> find(Txn txn, V value) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+
+            List<R> result = new ArrayList<R>();
+            IndexKey from = new IndexKey(value, Integer.MIN_VALUE);
+            for (Map.Entry<IndexKey, Object[]> entry = entries.ceilingEntry(txn, from);
+                 entry != null && compareValues(entry.getKey(), from) == 0;
+                 entry = entries.higherEntry(txn, entry.getKey())) {
+                addRows(txn, entry.getValue(), value, result);
+            }
+            return result;
+        }
+
+        @Override
+        public List<R> findRange(Txn txn, V fromInclusive, V toExclusive) {
+            if (fromInclusive == null || toExclusive == null) {
+                throw new NullPointerException();
+            }
+
+            if (!ordered) {
+                throw new UnsupportedOperationException("Index " + name + " is not ordered");
+            }
+
+            List<R> result = new ArrayList<R>();
+            IndexKey from = new IndexKey(fromInclusive, Integer.MIN_VALUE);
+            IndexKey to = new IndexKey(toExclusive, Integer.MIN_VALUE);
+            for (Map.Entry<IndexKey, Object[]> entry = entries.ceilingEntry(txn, from);
+                 entry != null && compareValues(entry.getKey(), to) < 0;
+                 entry = entries.higherEntry(txn, entry.getKey())) {
+                addRows(txn, entry.getValue(), null, result);
+            }
+            return result;
+        }
+
+        /**
+         * Adds the rows of the pairs in an entry; if value is not null, only the rows with that value.
+         */
+        @SuppressWarnings("unchecked")
+        private void addRows(Txn txn, Object[] pairs, V value, List<R> result) {
+            for (int k = 0; k < pairs.length; k += 2) {
+                if (value == null || matches(pairs[k], value)) {
+                    result.add(rows.get(txn, (K) pairs[k + 1]));
+                }
+            }
+        }
+    }
+}
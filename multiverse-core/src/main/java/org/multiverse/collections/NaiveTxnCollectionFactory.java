@@ -3,8 +3,15 @@ package org.multiverse.collections;
 import org.multiverse.api.Stm;
 import org.multiverse.api.collections.*;
 
+import java.util.Comparator;
+
 public final class NaiveTxnCollectionFactory implements TxnCollectionsFactory {
 
+    /**
+     * The largest capacity for which {@link #newQueue(int)} and {@link #newDeque(int)} return a TxnArrayDeque.
+     */
+    public static final int MAX_ARRAY_CAPACITY = 1024;
+
     private final Stm stm;
 
     public NaiveTxnCollectionFactory(Stm stm) {
@@ -30,13 +37,16 @@ public final class NaiveTxnCollectionFactory implements TxnCollectionsFactory {
     }
 
     @Override
-    public <E> NaiveTxnLinkedList<E> newQueue() {
-        return new NaiveTxnLinkedList<E>(stm);
+    public <E> TxnLinkedQueue<E> newQueue() {
+        return new TxnLinkedQueue<E>(stm);
     }
 
     @Override
-    public <E> NaiveTxnLinkedList<E> newQueue(int capacity) {
-        return new NaiveTxnLinkedList<E>(stm, capacity);
+    public <E> TxnQueue<E> newQueue(int capacity) {
+        if (isArrayCapacity(capacity)) {
+            return new TxnArrayDeque<E>(stm, capacity);
+        }
+        return new TxnLinkedQueue<E>(stm, capacity);
     }
 
     @Override
@@ -45,22 +55,94 @@ public final class NaiveTxnCollectionFactory implements TxnCollectionsFactory {
     }
 
     @Override
-    public <E> NaiveTxnLinkedList<E> newDeque(int capacity) {
+    public <E> TxnDeque<E> newDeque(int capacity) {
+        if (isArrayCapacity(capacity)) {
+            return new TxnArrayDeque<E>(stm, capacity);
+        }
         return new NaiveTxnLinkedList<E>(stm, capacity);
     }
 
+    @Override
+    public <E> TxnArrayDeque<E> newRingBuffer(int capacity) {
+        return new TxnArrayDeque<E>(stm, capacity);
+    }
+
+    @Override
+    public <E> TxnLinkedBlockingQueue<E> newBlockingQueue() {
+        return new TxnLinkedBlockingQueue<E>(stm);
+    }
+
+    @Override
+    public <E> TxnLinkedBlockingQueue<E> newBlockingQueue(int capacity) {
+        return new TxnLinkedBlockingQueue<E>(stm, capacity);
+    }
+
+    /**
+     * A small bounded queue or deque is backed by a TxnArrayDeque, since it doesn't allocate anything per item. A
+     * TxnArrayDeque creates all its slots up front, so a large capacity (often only passed as a safety bound) uses the
+     * linked implementations whose memory grows with the number of items. A capacity of 0 has no slots at all.
+     */
+    private static boolean isArrayCapacity(int capacity) {
+        return capacity > 0 && capacity <= MAX_ARRAY_CAPACITY;
+    }
+
+    @Override
+    public <E> TxnSkipListPriorityQueue<E> newPriorityQueue() {
+        return new TxnSkipListPriorityQueue<E>(stm);
+    }
+
+    @Override
+    public <E> TxnSkipListPriorityQueue<E> newPriorityQueue(Comparator<? super E> comparator) {
+        return new TxnSkipListPriorityQueue<E>(stm, comparator);
+    }
+
     @Override
     public <E> NaiveTxnHashSet<E> newHashSet() {
         return new NaiveTxnHashSet<E>(stm);
     }
 
     @Override
-    public <K, V> NaiveTxnHashMap<K, V> newHashMap() {
-        return new NaiveTxnHashMap<K, V>(stm);
+    public <K, V> TxnHashMap<K, V> newHashMap() {
+        return new TxnHashMap<K, V>(stm);
+    }
+
+    @Override
+    public <K, V> BoostedTxnMap<K, V> newBoostedMap() {
+        return new BoostedTxnMap<K, V>(stm);
+    }
+
+    @Override
+    public <K, V> TxnHashTrieMap<K, V> newHashTrieMap() {
+        return new TxnHashTrieMap<K, V>(stm);
+    }
+
+    @Override
+    public <K, V> TxnBTreeMap<K, V> newBTreeMap() {
+        return new TxnBTreeMap<K, V>(stm);
     }
 
     @Override
     public <E> NaiveTxnLinkedList<E> newLinkedList() {
         return new NaiveTxnLinkedList<E>(stm);
     }
+
+    @Override
+    public TxnLongLongHashMap newLongLongMap() {
+        return new TxnLongLongHashMap(stm);
+    }
+
+    @Override
+    public <V> TxnLongObjectHashMap<V> newLongObjectMap() {
+        return new TxnLongObjectHashMap<V>(stm);
+    }
+
+    @Override
+    public TxnIntHashSet newIntSet() {
+        return new TxnIntHashSet(stm);
+    }
+
+    @Override
+    public <K, V> TxnClockCache<K, V> newCache(int maximumSize) {
+        return new TxnClockCache<K, V>(stm, maximumSize);
+    }
 }
@@ -106,7 +106,7 @@ public final class NaiveTxnHashMap<K, V> extends AbstractTxnMap<K, V> {
         int hash = key.hashCode();
 
         int i = indexFor(hash, table.get(tnx).length);
-        for (NaiveEntry<K, V> entry = table.get(tnx)[i].get(tnx); entry != null; entry = entry.next.get()) {
+        for (NaiveEntry<K, V> entry = table.get(tnx)[i].get(tnx); entry != null; entry = entry.next.get(tnx)) {
             Object foundKey;
             if (entry.hash == hash && ((foundKey = entry.key) == key || key.equals(foundKey))) {
                 V oldValue = entry.value.get(tnx);
@@ -122,7 +122,7 @@ public final class NaiveTxnHashMap<K, V> extends AbstractTxnMap<K, V> {
 
     void addEntry(Txn tnx, int hash, K key, V value, int bucketIndex) {
         NaiveEntry<K, V> e = table.get(tnx)[bucketIndex].get(tnx);
-        table.get(tnx)[bucketIndex].set(new NaiveEntry<K, V>(hash, key, value, e));
+        table.get(tnx)[bucketIndex].set(tnx, new NaiveEntry<K, V>(hash, key, value, e));
         size.increment(tnx);
         if (size.get(tnx) >= threshold.get(tnx)) {
             resize(tnx, 2 * table.get(tnx).length);
@@ -153,7 +153,6 @@ public final class NaiveTxnHashMap<K, V> extends AbstractTxnMap<K, V> {
         for (int j = 0; j < src.length; j++) {
             NaiveEntry<K, V> e = src[j].get(tnx);
             if (e != null) {
-                src[j] = null;
                 do {
                     NaiveEntry<K, V> next = e.next.get(tnx);
                     int i = indexFor(e.hash, newCapacity);
@@ -13,11 +13,11 @@ public final class NaiveTxnHashSet<E>
         extends AbstractTxnCollection<E>
         implements TxnSet<E> {
 
-    private final NaiveTxnHashMap<E, Object> map;
+    private final TxnHashMap<E, Object> map;
 
     public NaiveTxnHashSet(Stm stm) {
         super(stm);
-        this.map = new NaiveTxnHashMap<E, Object>(stm);
+        this.map = new TxnHashMap<E, Object>(stm);
     }
 
     @Override
@@ -2,6 +2,7 @@ package org.multiverse.collections;
 
 import org.multiverse.api.Stm;
 import org.multiverse.api.Txn;
+import org.multiverse.api.collections.ScanMode;
 import org.multiverse.api.collections.TxnDeque;
 import org.multiverse.api.collections.TxnIterator;
 import org.multiverse.api.collections.TxnList;
@@ -602,7 +603,44 @@ public final class NaiveTxnLinkedList<E> extends AbstractTxnCollection<E>
 
     @Override
     public TxnIterator<E> iterator(Txn txn) {
-        throw new TodoException();
+        return iterator(txn, TxnScans.defaultScanMode(txn));
+    }
+
+    /**
+     * Supports {@link ScanMode#Untracked} scans: the entries and the values are read atomically. The iterator doesn't
+     * support remove.
+     */
+    @Override
+    public TxnIterator<E> iterator(Txn txn, final ScanMode scanMode) {
+        if (scanMode == null) {
+            throw new NullPointerException();
+        }
+
+        final Entry<E> first = TxnScans.read(txn, head, scanMode);
+        return new AbstractTxnIterator<E>() {
+            private Entry<E> next = first;
+
+            @Override
+            public boolean hasNext(Txn txn) {
+                return next != null;
+            }
+
+            @Override
+            public E next(Txn txn) {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                E value = TxnScans.read(txn, next.value, scanMode);
+                next = TxnScans.read(txn, next.next, scanMode);
+                return value;
+            }
+
+            @Override
+            public void remove(Txn txn) {
+                throw new UnsupportedOperationException();
+            }
+        };
     }
 
     @Override
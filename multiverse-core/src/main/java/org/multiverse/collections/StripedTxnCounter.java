@@ -0,0 +1,77 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRefFactory;
+
+/**
+ * A transactional counter that is spread over a number of TxnIntegers (the stripes) that are updated using a commuting
+ * increment. So transactions that update the counter don't cause read/write conflicts, and transactions that update
+ * different stripes don't even contend on the same lock when they commit.
+ * <p/>
+ * The stripe is selected using a hash (e.g. of the key of a map), so the same item always ends up in the same stripe.
+ *
+ * @author Peter Veentjer.
+ */
+final class StripedTxnCounter {
+
+    static final int MAX_STRIPE_COUNT = 64;
+
+    private final TxnInteger[] stripes;
+
+    StripedTxnCounter(TxnRefFactory refFactory) {
+        int stripeCount = 1;
+        while (stripeCount < Runtime.getRuntime().availableProcessors() && stripeCount < MAX_STRIPE_COUNT) {
+            stripeCount <<= 1;
+        }
+
+        stripes = new TxnInteger[stripeCount];
+        for (int k = 0; k < stripeCount; k++) {
+            stripes[k] = refFactory.newTxnInteger(0);
+        }
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    int stripeIndex(int hash) {
+        //the hash is mixed and the high bits are used, so the stripe doesn't correlate with e.g. the bucket of a hash
+        //table and small hashes (like those of small Integers) still are spread over all stripes.
+        return ((hash * 0x9E3779B9) >>> 24) & (stripes.length - 1);
+    }
+
+    void increment(Txn txn, int hash) {
+        stripes[stripeIndex(hash)].increment(txn);
+    }
+
+    void decrement(Txn txn, int hash) {
+        stripes[stripeIndex(hash)].decrement(txn);
+    }
+
+    void addToStripe(Txn txn, int stripeIndex, int amount) {
+        stripes[stripeIndex].increment(txn, amount);
+    }
+
+    int get(Txn txn) {
+        int result = 0;
+        for (TxnInteger stripe : stripes) {
+            result += stripe.get(txn);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value without using a transaction. The value doesn't need to be consistent, so it only should be
+     * used for heuristics.
+     *
+     * @return the approximate value.
+     */
+    int approximateGet() {
+        int result = 0;
+        for (TxnInteger stripe : stripes) {
+            result += stripe.atomicWeakGet();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,700 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnDeque;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnSpliterable;
+import org.multiverse.api.collections.TxnSpliterator;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRef;
+
+import java.util.NoSuchElementException;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A bounded {@link TxnDeque} backed by a ring buffer: a fixed array of slot refs with a head and a tail index. All
+ * refs are created up front, so adding or taking an item doesn't allocate anything (apart from the transaction
+ * bookkeeping) and every item costs a single ref instead of an entry object with 3 refs.
+ * <p/>
+ * The head points to the slot of the first item and the tail to the slot after the last item. Whether the deque is
+ * empty or full is determined by looking at the slot itself (an empty slot contains null) and not by a size field.
+ * So adding at the tail and taking at the head touch different refs, unless the deque is empty or full; just like
+ * with the {@link TxnLinkedQueue} producers and consumers don't conflict.
+ * <p/>
+ * Null items are not permitted.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ */
+public final class TxnArrayDeque<E> extends AbstractTxnCollection<E> implements TxnDeque<E>, TxnSpliterable<E> {
+
+    private final TxnRef<E>[] slots;
+    private final TxnInteger head;
+    private final TxnInteger tail;
+
+    @SuppressWarnings("unchecked")
+    public TxnArrayDeque(Stm stm, int capacity) {
+        super(stm);
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity should be larger than 0, found " + capacity);
+        }
+
+        this.slots = new TxnRef[capacity];
+        for (int k = 0; k < capacity; k++) {
+            slots[k] = defaultRefFactory.newTxnRef(null);
+        }
+        this.head = defaultRefFactory.newTxnInteger(0);
+        this.tail = defaultRefFactory.newTxnInteger(0);
+    }
+
+    @Override
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        int h = head.get(txn);
+        int t = tail.get(txn);
+        if (h == t) {
+            return slots[h].get(txn) == null ? 0 : slots.length;
+        }
+
+        return t > h ? t - h : t - h + slots.length;
+    }
+
+    @Override
+    public boolean isEmpty(Txn txn) {
+        return slots[head.get(txn)].get(txn) == null;
+    }
+
+    private int inc(int index) {
+        return index == slots.length - 1 ? 0 : index + 1;
+    }
+
+    private int dec(int index) {
+        return index == 0 ? slots.length - 1 : index - 1;
+    }
+
+    // ================== offers ========================
+
+    @Override
+    public boolean offerFirst(E e) {
+        return offerFirst(getThreadLocalTxn(), e);
+    }
+
+    @Override
+    public boolean offerFirst(Txn txn, E item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        int h = dec(head.get(txn));
+        TxnRef<E> slot = slots[h];
+        if (slot.get(txn) != null) {
+            return false;
+        }
+
+        slot.set(txn, item);
+        head.set(txn, h);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        return offerLast(getThreadLocalTxn(), e);
+    }
+
+    @Override
+    public boolean offerLast(Txn txn, E item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        int t = tail.get(txn);
+        TxnRef<E> slot = slots[t];
+        if (slot.get(txn) != null) {
+            return false;
+        }
+
+        slot.set(txn, item);
+        tail.set(txn, inc(t));
+        return true;
+    }
+
+    @Override
+    public boolean offer(E item) {
+        return offer(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public boolean offer(Txn txn, E item) {
+        return offerLast(txn, item);
+    }
+
+    // ================ polls =======================
+
+    @Override
+    public E pollFirst() {
+        return pollFirst(getThreadLocalTxn());
+    }
+
+    @Override
+    public E pollFirst(Txn txn) {
+        int h = head.get(txn);
+        TxnRef<E> slot = slots[h];
+        E item = slot.get(txn);
+        if (item == null) {
+            return null;
+        }
+
+        slot.set(txn, null);
+        head.set(txn, inc(h));
+        return item;
+    }
+
+    @Override
+    public E pollLast() {
+        return pollLast(getThreadLocalTxn());
+    }
+
+    @Override
+    public E pollLast(Txn txn) {
+        int t = dec(tail.get(txn));
+        TxnRef<E> slot = slots[t];
+        E item = slot.get(txn);
+        if (item == null) {
+            return null;
+        }
+
+        slot.set(txn, null);
+        tail.set(txn, t);
+        return item;
+    }
+
+    @Override
+    public E poll() {
+        return poll(getThreadLocalTxn());
+    }
+
+    @Override
+    public E poll(Txn txn) {
+        return pollFirst(txn);
+    }
+
+    // =============== peeks =================
+
+    @Override
+    public E peekFirst() {
+        return peekFirst(getThreadLocalTxn());
+    }
+
+    @Override
+    public E peekFirst(Txn txn) {
+        return slots[head.get(txn)].get(txn);
+    }
+
+    @Override
+    public E peekLast() {
+        return peekLast(getThreadLocalTxn());
+    }
+
+    @Override
+    public E peekLast(Txn txn) {
+        return slots[dec(tail.get(txn))].get(txn);
+    }
+
+    @Override
+    public E peek() {
+        return peek(getThreadLocalTxn());
+    }
+
+    @Override
+    public E peek(Txn txn) {
+        return peekFirst(txn);
+    }
+
+    // ============== adds ================
+
+    @Override
+    public void addFirst(E e) {
+        addFirst(getThreadLocalTxn(), e);
+    }
+
+    @Override
+    public void addFirst(Txn txn, E e) {
+        if (!offerFirst(txn, e)) {
+            throw new IllegalStateException("TxnArrayDeque full");
+        }
+    }
+
+    @Override
+    public void addLast(E e) {
+        addLast(getThreadLocalTxn(), e);
+    }
+
+    @Override
+    public void addLast(Txn txn, E e) {
+        if (!offerLast(txn, e)) {
+            throw new IllegalStateException("TxnArrayDeque full");
+        }
+    }
+
+    @Override
+    public boolean add(Txn txn, E e) {
+        addLast(txn, e);
+        return true;
+    }
+
+    @Override
+    public void push(E e) {
+        push(getThreadLocalTxn(), e);
+    }
+
+    @Override
+    public void push(Txn txn, E e) {
+        addFirst(txn, e);
+    }
+
+    // ================ puts ==========================
+
+    @Override
+    public void putFirst(E item) {
+        putFirst(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public void putFirst(Txn txn, E item) {
+        if (!offerFirst(txn, item)) {
+            txn.retry();
+        }
+    }
+
+    @Override
+    public void putLast(E item) {
+        putLast(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public void putLast(Txn txn, E item) {
+        if (!offerLast(txn, item)) {
+            txn.retry();
+        }
+    }
+
+    @Override
+    public void put(E item) {
+        put(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public void put(Txn txn, E item) {
+        putLast(txn, item);
+    }
+
+    // ================== takes ===============================
+
+    @Override
+    public E takeFirst() {
+        return takeFirst(getThreadLocalTxn());
+    }
+
+    @Override
+    public E takeFirst(Txn txn) {
+        E item = pollFirst(txn);
+        if (item == null) {
+            txn.retry();
+        }
+        return item;
+    }
+
+    @Override
+    public E takeLast() {
+        return takeLast(getThreadLocalTxn());
+    }
+
+    @Override
+    public E takeLast(Txn txn) {
+        E item = pollLast(txn);
+        if (item == null) {
+            txn.retry();
+        }
+        return item;
+    }
+
+    @Override
+    public E take() {
+        return take(getThreadLocalTxn());
+    }
+
+    @Override
+    public E take(Txn txn) {
+        return takeFirst(txn);
+    }
+
+    // =============== removes ==============
+
+    @Override
+    public E removeFirst() {
+        return removeFirst(getThreadLocalTxn());
+    }
+
+    @Override
+    public E removeFirst(Txn txn) {
+        E item = pollFirst(txn);
+        if (item == null) {
+            throw new NoSuchElementException("TxnArrayDeque is empty");
+        }
+        return item;
+    }
+
+    @Override
+    public E removeLast() {
+        return removeLast(getThreadLocalTxn());
+    }
+
+    @Override
+    public E removeLast(Txn txn) {
+        E item = pollLast(txn);
+        if (item == null) {
+            throw new NoSuchElementException("TxnArrayDeque is empty");
+        }
+        return item;
+    }
+
+    @Override
+    public E remove() {
+        return remove(getThreadLocalTxn());
+    }
+
+    @Override
+    public E remove(Txn txn) {
+        return removeFirst(txn);
+    }
+
+    @Override
+    public E pop() {
+        return pop(getThreadLocalTxn());
+    }
+
+    @Override
+    public E pop(Txn txn) {
+        return removeFirst(txn);
+    }
+
+    @Override
+    public boolean remove(Txn txn, Object o) {
+        return removeFirstOccurrence(txn, o);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        return removeFirstOccurrence(getThreadLocalTxn(), o);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Txn txn, Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        int h = head.get(txn);
+        int size = size(txn);
+        for (int k = 0; k < size; k++) {
+            if (o.equals(slots[(h + k) % slots.length].get(txn))) {
+                removeAt(txn, h, size, k);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        return removeLastOccurrence(getThreadLocalTxn(), o);
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Txn txn, Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        int h = head.get(txn);
+        int size = size(txn);
+        for (int k = size - 1; k >= 0; k--) {
+            if (o.equals(slots[(h + k) % slots.length].get(txn))) {
+                removeAt(txn, h, size, k);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the item at the given position (relative to the head) by moving all items after it one slot towards the
+     * head. The head itself doesn't change, so an iterator can continue at the same position.
+     */
+    private void removeAt(Txn txn, int h, int size, int position) {
+        int index = (h + position) % slots.length;
+        for (int k = position + 1; k < size; k++) {
+            int next = inc(index);
+            slots[index].set(txn, slots[next].get(txn));
+            index = next;
+        }
+        slots[index].set(txn, null);
+        tail.set(txn, index);
+    }
+
+    // =============== gets ==============
+
+    @Override
+    public E element() {
+        return element(getThreadLocalTxn());
+    }
+
+    @Override
+    public E element(Txn txn) {
+        return getFirst(txn);
+    }
+
+    @Override
+    public E getFirst() {
+        return getFirst(getThreadLocalTxn());
+    }
+
+    @Override
+    public E getFirst(Txn txn) {
+        E item = peekFirst(txn);
+        if (item == null) {
+            throw new NoSuchElementException("TxnArrayDeque is empty");
+        }
+        return item;
+    }
+
+    @Override
+    public E getLast() {
+        return getLast(getThreadLocalTxn());
+    }
+
+    @Override
+    public E getLast(Txn txn) {
+        E item = peekLast(txn);
+        if (item == null) {
+            throw new NoSuchElementException("TxnArrayDeque is empty");
+        }
+        return item;
+    }
+
+    // ================ misc ==========================
+
+    @Override
+    public boolean contains(Txn txn, Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        int h = head.get(txn);
+        int size = size(txn);
+        for (int k = 0; k < size; k++) {
+            if (o.equals(slots[(h + k) % slots.length].get(txn))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        int h = head.get(txn);
+        int size = size(txn);
+        if (size == 0) {
+            return;
+        }
+
+        for (int k = 0; k < size; k++) {
+            slots[(h + k) % slots.length].set(txn, null);
+        }
+        head.set(txn, tail.get(txn));
+    }
+
+    /**
+     * Returns a {@link TxnSpliterator} that splits the positions of the items at the moment of the call. A part
+     * that is read in another transaction skips the slots that have been emptied in the meantime.
+     */
+    @Override
+    public TxnSpliterator<E> spliterator(Txn txn) {
+        return new SlotSpliterator(head.get(txn), 0, size(txn));
+    }
+
+    private final class SlotSpliterator implements TxnSpliterator<E> {
+        private final int h;
+        private int from;
+        private final int to;
+
+        SlotSpliterator(int h, int from, int to) {
+            this.h = h;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public TxnSpliterator<E> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle == from) {
+                return null;
+            }
+
+            TxnSpliterator<E> prefix = new SlotSpliterator(h, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public int estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public TxnIterator<E> iterator(Txn txn) {
+            return new AbstractTxnIterator<E>() {
+                private int position = from;
+                private E next;
+
+                private void advance(Txn txn) {
+                    while (next == null && position < to) {
+                        next = slots[(h + position) % slots.length].get(txn);
+                        position++;
+                    }
+                }
+
+                @Override
+                public boolean hasNext(Txn txn) {
+                    advance(txn);
+                    return next != null;
+                }
+
+                @Override
+                public E next(Txn txn) {
+                    advance(txn);
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+
+                    E item = next;
+                    next = null;
+                    return item;
+                }
+
+                @Override
+                public void remove(Txn txn) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    @Override
+    public TxnIterator<E> iterator(Txn txn) {
+        final int h = head.get(txn);
+        final int size = size(txn);
+        return new AbstractTxnIterator<E>() {
+            private int remaining = size;
+            private int position;
+            private int lastReturned = -1;
+
+            @Override
+            public boolean hasNext(Txn txn) {
+                return position < remaining;
+            }
+
+            @Override
+            public E next(Txn txn) {
+                if (position >= remaining) {
+                    throw new NoSuchElementException();
+                }
+
+                lastReturned = position;
+                position++;
+                return slots[(h + lastReturned) % slots.length].get(txn);
+            }
+
+            @Override
+            public void remove(Txn txn) {
+                if (lastReturned == -1) {
+                    throw new IllegalStateException();
+                }
+
+                removeAt(txn, h, remaining, lastReturned);
+                //the items after the removed one moved one position towards the head.
+                remaining--;
+                position = lastReturned;
+                lastReturned = -1;
+            }
+        };
+    }
+
+    @Override
+    public TxnIterator<E> descendingIterator() {
+        return descendingIterator(getThreadLocalTxn());
+    }
+
+    @Override
+    public TxnIterator<E> descendingIterator(Txn txn) {
+        final int h = head.get(txn);
+        final int size = size(txn);
+        return new AbstractTxnIterator<E>() {
+            private int remaining = size;
+            private int position = size - 1;
+            private int lastReturned = -1;
+
+            @Override
+            public boolean hasNext(Txn txn) {
+                return position >= 0;
+            }
+
+            @Override
+            public E next(Txn txn) {
+                if (position < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                lastReturned = position;
+                position--;
+                return slots[(h + lastReturned) % slots.length].get(txn);
+            }
+
+            @Override
+            public void remove(Txn txn) {
+                if (lastReturned == -1) {
+                    throw new IllegalStateException();
+                }
+
+                removeAt(txn, h, remaining, lastReturned);
+                remaining--;
+                lastReturned = -1;
+            }
+        };
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        int h = head.get(txn);
+        int size = size(txn);
+        if (size == 0) {
+            return "[]";
+        }
+
+        StringBuilder sb = new StringBuilder("[");
+        for (int k = 0; k < size; k++) {
+            if (k > 0) {
+                sb.append(", ");
+            }
+            sb.append(slots[(h + k) % slots.length].get(txn));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,1015 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnCollection;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnNavigableMap;
+import org.multiverse.api.collections.TxnSet;
+import org.multiverse.api.references.TxnRef;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+import static java.util.Arrays.copyOfRange;
+
+/**
+ * A {@link TxnNavigableMap} based on a B+tree, meant for large sorted maps.
+ * <p/>
+ * Every node of the tree is a single TxnRef that contains an immutable node with up to nodeCapacity keys; a leaf
+ * also contains the values and the ref of the next leaf, an inner node the refs of its children. So compared to the
+ * {@link TxnSkipListMap}, that needs a few refs per entry, the B+tree needs a single ref per nodeCapacity/2 to
+ * nodeCapacity entries:
+ * <ol>
+ * <li>the map uses a lot less memory and a lookup reads only one ref per level of the tree, so only O(log_B n)
+ * refs.</li>
+ * <li>a range scan walks over the leaves, so it reads one ref per leaf instead of one ref per entry.</li>
+ * <li>an update copies the leaf it changes, and a leaf that gets too big is split into 2 leaves; the split also
+ * writes the parent. Since all changes are made in the transaction, a split is committed or rolled back together with
+ * the update that caused it.</li>
+ * </ol>
+ * The price is a coarser granularity of conflicts: transactions that update keys in the same leaf conflict, and a split
+ * conflicts with the transactions that read the parent. With the default node capacity of
+ * {@value #DEFAULT_NODE_CAPACITY} splits are rare.
+ * <p/>
+ * Nodes are not merged when entries are removed, so a remove normally only writes a single leaf. But a leaf that
+ * becomes empty is removed from its parent and unlinked from the chain of leaves in the same transaction (an inner
+ * node that loses all its children is removed as well). So a map that is used as a sliding window (new keys are
+ * added at the end while the oldest are polled) doesn't collect empty leaves that every search for the first entry
+ * would need to walk over. The tree doesn't become lower when it shrinks.
+ * <p/>
+ * Null keys are not permitted. The keys are ordered using the {@link Comparator} or, if none is provided, the
+ * natural ordering of the keys. The descending views of the {@link java.util.NavigableMap} are not supported.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class TxnBTreeMap<K, V> extends AbstractTxnNavigableMap<K, V> {
+
+    /**
+     * The maximum number of keys in a node if no node capacity is provided.
+     */
+    public static final int DEFAULT_NODE_CAPACITY = 64;
+
+    static final int MIN_NODE_CAPACITY = 4;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private static final int LT = 1;
+    private static final int EQ = 2;
+    private static final int GT = 0;
+
+    private final Comparator<? super K> comparator;
+    private final int nodeCapacity;
+    private final TxnRef<Node> root;
+    private final StripedTxnCounter size;
+
+    public TxnBTreeMap(Stm stm) {
+        this(stm, null, DEFAULT_NODE_CAPACITY);
+    }
+
+    public TxnBTreeMap(Stm stm, Comparator<? super K> comparator) {
+        this(stm, comparator, DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Creates a TxnBTreeMap.
+     *
+     * @param stm          the Stm the map is created for.
+     * @param comparator   the comparator used to order the keys, or null to use the natural ordering.
+     * @param nodeCapacity the maximum number of keys in a node.
+     * @throws IllegalArgumentException if nodeCapacity is smaller than 4.
+     */
+    public TxnBTreeMap(Stm stm, Comparator<? super K> comparator, int nodeCapacity) {
+        super(stm);
+        if (nodeCapacity < MIN_NODE_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "nodeCapacity should be at least " + MIN_NODE_CAPACITY + ", found " + nodeCapacity);
+        }
+        this.comparator = comparator;
+        this.nodeCapacity = nodeCapacity;
+        this.root = defaultRefFactory.<Node>newTxnRef(new Leaf(EMPTY, EMPTY, null));
+        this.size = new StripedTxnCounter(defaultRefFactory);
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return size.get(txn);
+    }
+
+    @Override
+    public boolean isEmpty(Txn txn) {
+        return firstCursor(txn) == null;
+    }
+
+    // ====================== searching ==========================
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object k1, Object k2) {
+        return comparator == null
+                ? ((Comparable<Object>) k1).compareTo(k2)
+                : comparator.compare((K) k1, (K) k2);
+    }
+
+    /**
+     * Does a binary search for the key, with the same result as {@link java.util.Arrays#binarySearch}.
+     */
+    private int search(Object[] keys, Object key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(keys[mid], key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the index of the child of an inner node that contains the key; a key equal to a separator is found in
+     * the child on the right of the separator.
+     */
+    private int childIndex(Inner inner, Object key) {
+        int i = search(inner.keys, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private TxnRef<Node> findLeafRef(Txn txn, Object key) {
+        TxnRef<Node> ref = root;
+        Node node = ref.get(txn);
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            ref = inner.children[childIndex(inner, key)];
+            node = ref.get(txn);
+        }
+        return ref;
+    }
+
+    /**
+     * Returns the cursor on the first entry with a key larger than (or equal to if inclusive) the given key, or null
+     * if there is none.
+     */
+    private Cursor ceilingCursor(Txn txn, Object key, boolean inclusive) {
+        TxnRef<Node> ref = findLeafRef(txn, key);
+        Leaf leaf = (Leaf) ref.get(txn);
+        int i = search(leaf.keys, key);
+        return cursor(txn, ref, leaf, i >= 0 ? (inclusive ? i : i + 1) : -i - 1);
+    }
+
+    private Cursor firstCursor(Txn txn) {
+        TxnRef<Node> ref = root;
+        Node node = ref.get(txn);
+        while (node instanceof Inner) {
+            ref = ((Inner) node).children[0];
+            node = ref.get(txn);
+        }
+        return cursor(txn, ref, (Leaf) node, 0);
+    }
+
+    /**
+     * Creates a cursor on the given position, and if the position is beyond the end of the leaf, moves it to the
+     * start of the next non empty leaf.
+     */
+    private static Cursor cursor(Txn txn, TxnRef<Node> ref, Leaf leaf, int index) {
+        while (index >= leaf.keys.length) {
+            ref = leaf.next;
+            if (ref == null) {
+                return null;
+            }
+            leaf = (Leaf) ref.get(txn);
+            index = 0;
+        }
+        return new Cursor(ref, leaf, index);
+    }
+
+    /**
+     * Returns the last entry with a key smaller than (or equal to if inclusive) the given key. Since the leaves are
+     * only linked forward, the search continues in the children on the left when a subtree has no such entry.
+     */
+    private Entry<K, V> floorEntry(Txn txn, Node node, Object key, boolean inclusive) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf.keys, key);
+            int index = i >= 0 ? (inclusive ? i : i - 1) : -i - 2;
+            return index >= 0 ? toEntry(leaf, index) : null;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        Entry<K, V> entry = floorEntry(txn, inner.children[c].get(txn), key, inclusive);
+        for (int k = c - 1; entry == null && k >= 0; k--) {
+            entry = lastEntry(txn, inner.children[k].get(txn));
+        }
+        return entry;
+    }
+
+    private Entry<K, V> lastEntry(Txn txn, Node node) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            return leaf.keys.length == 0 ? null : toEntry(leaf, leaf.keys.length - 1);
+        }
+
+        Inner inner = (Inner) node;
+        for (int k = inner.children.length - 1; k >= 0; k--) {
+            Entry<K, V> entry = lastEntry(txn, inner.children[k].get(txn));
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the entry closest to the given key using the given relation (a combination of LT, EQ and GT), or null
+     * if there is no such entry.
+     */
+    Entry<K, V> findNear(Txn txn, Object key, int rel) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        if ((rel & LT) != 0) {
+            return floorEntry(txn, root.get(txn), key, (rel & EQ) != 0);
+        }
+        return toEntry(ceilingCursor(txn, key, (rel & EQ) != 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> toEntry(Leaf leaf, int index) {
+        return new AbstractMap.SimpleImmutableEntry<K, V>((K) leaf.keys[index], (V) leaf.values[index]);
+    }
+
+    private Entry<K, V> toEntry(Cursor cursor) {
+        return cursor == null ? null : toEntry(cursor.leaf, cursor.index);
+    }
+
+    static <K> K keyOrNull(Entry<K, ?> entry) {
+        return entry == null ? null : entry.getKey();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Txn txn, Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        Leaf leaf = (Leaf) findLeafRef(txn, key).get(txn);
+        int i = search(leaf.keys, key);
+        return i >= 0 ? (V) leaf.values[i] : null;
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, Object key) {
+        return get(txn, key) != null;
+    }
+
+    // ====================== navigation ==========================
+
+    @Override
+    public Entry<K, V> lowerEntry(Txn txn, K key) {
+        return findNear(txn, key, LT);
+    }
+
+    @Override
+    public K lowerKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, LT));
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(Txn txn, K key) {
+        return findNear(txn, key, LT | EQ);
+    }
+
+    @Override
+    public K floorKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, LT | EQ));
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(Txn txn, K key) {
+        return findNear(txn, key, GT | EQ);
+    }
+
+    @Override
+    public K ceilingKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, GT | EQ));
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(Txn txn, K key) {
+        return findNear(txn, key, GT);
+    }
+
+    @Override
+    public K higherKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, GT));
+    }
+
+    @Override
+    public Entry<K, V> firstEntry(Txn txn) {
+        return toEntry(firstCursor(txn));
+    }
+
+    @Override
+    public Entry<K, V> lastEntry(Txn txn) {
+        return lastEntry(txn, root.get(txn));
+    }
+
+    @Override
+    public Entry<K, V> pollFirstEntry(Txn txn) {
+        return poll(txn, firstEntry(txn));
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry(Txn txn) {
+        return poll(txn, lastEntry(txn));
+    }
+
+    Entry<K, V> poll(Txn txn, Entry<K, V> entry) {
+        if (entry != null) {
+            remove(txn, entry.getKey());
+        }
+        return entry;
+    }
+
+    // ====================== updating ==========================
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(Txn txn, K key, V value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        Insertion insertion = new Insertion();
+        insert(txn, root, key, value, insertion);
+
+        if (insertion.right != null) {
+            //the root has been split; the root ref stays the root, so the left half is moved to a new ref.
+            TxnRef<Node> left = defaultRefFactory.newTxnRef(root.get(txn));
+            root.set(txn, new Inner(new Object[]{insertion.separator}, new TxnRef[]{left, insertion.right}));
+        }
+
+        if (!insertion.found) {
+            size.increment(txn, key.hashCode());
+        }
+        return (V) insertion.oldValue;
+    }
+
+    /**
+     * Inserts the entry in the subtree of the given ref. If the node of the ref is split, the ref keeps the left half
+     * and the separator and the ref of the right half are stored in the insertion, so the parent can add them.
+     */
+    @SuppressWarnings("unchecked")
+    private void insert(Txn txn, TxnRef<Node> ref, Object key, Object value, Insertion insertion) {
+        Node node = ref.get(txn);
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf.keys, key);
+            if (i >= 0) {
+                insertion.found = true;
+                insertion.oldValue = leaf.values[i];
+                Object[] values = leaf.values.clone();
+                values[i] = value;
+                ref.set(txn, new Leaf(leaf.keys, values, leaf.next));
+                return;
+            }
+
+            int index = -i - 1;
+            Object[] keys = insertAt(leaf.keys, index, key, new Object[leaf.keys.length + 1]);
+            Object[] values = insertAt(leaf.values, index, value, new Object[leaf.values.length + 1]);
+            if (keys.length <= nodeCapacity) {
+                ref.set(txn, new Leaf(keys, values, leaf.next));
+                return;
+            }
+
+            //the new leaf only becomes visible when the transaction commits, so its ref can be created with its
+            //content as initial value.
+            int mid = keys.length / 2;
+            TxnRef<Node> right = defaultRefFactory.<Node>newTxnRef(
+                    new Leaf(copyOfRange(keys, mid, keys.length), copyOfRange(values, mid, values.length), leaf.next));
+            ref.set(txn, new Leaf(copyOfRange(keys, 0, mid), copyOfRange(values, 0, mid), right));
+            insertion.separator = keys[mid];
+            insertion.right = right;
+            return;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        insert(txn, inner.children[c], key, value, insertion);
+        if (insertion.right == null) {
+            return;
+        }
+
+        Object[] keys = insertAt(inner.keys, c, insertion.separator, new Object[inner.keys.length + 1]);
+        TxnRef<Node>[] children = insertAt(
+                inner.children, c + 1, insertion.right, new TxnRef[inner.children.length + 1]);
+        if (keys.length <= nodeCapacity) {
+            ref.set(txn, new Inner(keys, children));
+            insertion.separator = null;
+            insertion.right = null;
+            return;
+        }
+
+        //the middle key moves up to the parent.
+        int mid = keys.length / 2;
+        TxnRef<Node> right = defaultRefFactory.<Node>newTxnRef(
+                new Inner(copyOfRange(keys, mid + 1, keys.length), copyOfRange(children, mid + 1, children.length)));
+        ref.set(txn, new Inner(copyOfRange(keys, 0, mid), copyOfRange(children, 0, mid + 1)));
+        insertion.separator = keys[mid];
+        insertion.right = right;
+    }
+
+    private static <E> E[] insertAt(E[] array, int index, E item, E[] result) {
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = item;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Txn txn, Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        Removal removal = new Removal();
+        if (remove(txn, root, key, null, removal)) {
+            //the last leaf has been removed.
+            root.set(txn, new Leaf(EMPTY, EMPTY, null));
+        }
+
+        if (removal.key == null) {
+            return null;
+        }
+
+        size.decrement(txn, removal.key.hashCode());
+        return (V) removal.oldValue;
+    }
+
+    /**
+     * Removes the key from the subtree of the given ref. If the node of the ref becomes empty, true is returned so
+     * that the parent removes it; the root leaf is never removed.
+     *
+     * @param leftSubtree the ref of the subtree directly left of this one, so its rightmost leaf is the leaf before
+     *                    the leaves of this subtree. Null if this subtree contains the first leaf.
+     */
+    private boolean remove(Txn txn, TxnRef<Node> ref, Object key, TxnRef<Node> leftSubtree, Removal removal) {
+        Node node = ref.get(txn);
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf.keys, key);
+            if (i < 0) {
+                return false;
+            }
+
+            removal.key = leaf.keys[i];
+            removal.oldValue = leaf.values[i];
+            if (leaf.keys.length > 1 || ref == root) {
+                ref.set(txn, new Leaf(removeAt(leaf.keys, i), removeAt(leaf.values, i), leaf.next));
+                return false;
+            }
+
+            //the leaf becomes empty. It still gets an empty leaf, so a cursor on it notices the change, and the leaf
+            //before it is linked to the leaf after it.
+            ref.set(txn, new Leaf(EMPTY, EMPTY, leaf.next));
+            if (leftSubtree != null) {
+                TxnRef<Node> previousRef = lastLeafRef(txn, leftSubtree);
+                Leaf previous = (Leaf) previousRef.get(txn);
+                previousRef.set(txn, new Leaf(previous.keys, previous.values, leaf.next));
+            }
+            return true;
+        }
+
+        Inner inner = (Inner) node;
+        int c = childIndex(inner, key);
+        TxnRef<Node> childLeftSubtree = c == 0 ? leftSubtree : inner.children[c - 1];
+        if (!remove(txn, inner.children[c], key, childLeftSubtree, removal)) {
+            return false;
+        }
+
+        if (inner.children.length == 1) {
+            return true;
+        }
+
+        //the separator on the left of the child is removed, or the one on the right if it is the first child.
+        ref.set(txn, new Inner(removeAt(inner.keys, c == 0 ? 0 : c - 1), removeChildAt(inner.children, c)));
+        return false;
+    }
+
+    private static TxnRef<Node> lastLeafRef(Txn txn, TxnRef<Node> ref) {
+        Node node = ref.get(txn);
+        while (node instanceof Inner) {
+            TxnRef<Node>[] children = ((Inner) node).children;
+            ref = children[children.length - 1];
+            node = ref.get(txn);
+        }
+        return ref;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TxnRef<Node>[] removeChildAt(TxnRef<Node>[] children, int index) {
+        TxnRef<Node>[] result = new TxnRef[children.length - 1];
+        System.arraycopy(children, 0, result, 0, index);
+        System.arraycopy(children, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    /**
+     * Returns the number of leaves, including the empty ones. Only used for testing.
+     */
+    int leafCount(Txn txn) {
+        TxnRef<Node> ref = root;
+        Node node = ref.get(txn);
+        while (node instanceof Inner) {
+            ref = ((Inner) node).children[0];
+            node = ref.get(txn);
+        }
+
+        int count = 0;
+        for (; ref != null; ref = ((Leaf) ref.get(txn)).next) {
+            count++;
+        }
+        return count;
+    }
+
+    private static Object[] removeAt(Object[] array, int index) {
+        if (array.length == 1) {
+            return EMPTY;
+        }
+
+        Object[] result = new Object[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        Node node = root.get(txn);
+        if (node instanceof Leaf && node.keys.length == 0) {
+            return;
+        }
+
+        //the removed entries are subtracted from the size counters instead of setting them to 0. So a concurrent
+        //commuting increment of the size doesn't get lost.
+        final int[] removed = new int[size.stripeCount()];
+        for (Cursor cursor = firstCursor(txn); cursor != null; ) {
+            for (Object key : cursor.leaf.keys) {
+                removed[size.stripeIndex(key.hashCode())]++;
+            }
+            cursor = cursor(txn, cursor.ref, cursor.leaf, cursor.leaf.keys.length);
+        }
+
+        root.set(txn, new Leaf(EMPTY, EMPTY, null));
+
+        for (int k = 0; k < removed.length; k++) {
+            if (removed[k] > 0) {
+                size.addToStripe(txn, k, -removed[k]);
+            }
+        }
+    }
+
+    // ====================== views ==========================
+
+    @Override
+    public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+        return new EntrySetView();
+    }
+
+    @Override
+    public TxnSet<K> keySet(Txn txn) {
+        return new KeySetView();
+    }
+
+    @Override
+    public TxnCollection<V> values(Txn txn) {
+        return new ValuesView();
+    }
+
+    @Override
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+        return new EntryIterator(null);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        if (fromKey == null || toKey == null) {
+            throw new NullPointerException();
+        }
+        return new SubMap(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        if (toKey == null) {
+            throw new NullPointerException();
+        }
+        return new SubMap(null, false, toKey, inclusive);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        if (fromKey == null) {
+            throw new NullPointerException();
+        }
+        return new SubMap(fromKey, inclusive, null, false);
+    }
+
+    /**
+     * Walks over the leaves. If the leaf of the next entry has been changed by the transaction itself (e.g. by a
+     * remove using this iterator), the iterator continues at the entry following the key that was returned last.
+     */
+    private final class EntryIterator extends AbstractTxnIterator<Entry<K, V>> {
+        private final SubMap bounds;
+        private boolean started;
+        private Cursor next;
+        private Object lastKey;
+        private boolean removable;
+
+        EntryIterator(SubMap bounds) {
+            this.bounds = bounds;
+        }
+
+        private void advance(Txn txn) {
+            if (!started) {
+                started = true;
+                next = bounds == null ? firstCursor(txn) : bounds.lowestCursor(txn);
+            } else if (next != null && next.ref.get(txn) != next.leaf) {
+                next = lastKey == null
+                        ? (bounds == null ? firstCursor(txn) : bounds.lowestCursor(txn))
+                        : ceilingCursor(txn, lastKey, false);
+            }
+
+            if (next != null && bounds != null && bounds.tooHigh(next.key())) {
+                next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext(Txn txn) {
+            advance(txn);
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next(Txn txn) {
+            advance(txn);
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            Entry<K, V> entry = toEntry(next);
+            lastKey = entry.getKey();
+            removable = true;
+            next = cursor(txn, next.ref, next.leaf, next.index + 1);
+            return entry;
+        }
+
+        @Override
+        public void remove(Txn txn) {
+            if (!removable) {
+                throw new IllegalStateException();
+            }
+
+            TxnBTreeMap.this.remove(txn, lastKey);
+            removable = false;
+        }
+    }
+
+    /**
+     * A view on a range of the map. A null bound means that the range is unbounded on that side.
+     */
+    private final class SubMap extends AbstractTxnNavigableMap<K, V> {
+        private final K lo;
+        private final boolean loInclusive;
+        private final K hi;
+        private final boolean hiInclusive;
+
+        SubMap(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+            super(TxnBTreeMap.this.stm);
+            if (lo != null && hi != null && compare(lo, hi) > 0) {
+                throw new IllegalArgumentException("inconsistent range");
+            }
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+        }
+
+        boolean tooLow(Object key) {
+            if (lo == null) {
+                return false;
+            }
+            int c = compare(key, lo);
+            return c < 0 || (c == 0 && !loInclusive);
+        }
+
+        boolean tooHigh(Object key) {
+            if (hi == null) {
+                return false;
+            }
+            int c = compare(key, hi);
+            return c > 0 || (c == 0 && !hiInclusive);
+        }
+
+        boolean inRange(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        Cursor lowestCursor(Txn txn) {
+            return lo == null ? firstCursor(txn) : ceilingCursor(txn, lo, loInclusive);
+        }
+
+        Entry<K, V> lowestEntry(Txn txn) {
+            Entry<K, V> entry = toEntry(lowestCursor(txn));
+            return entry == null || tooHigh(entry.getKey()) ? null : entry;
+        }
+
+        Entry<K, V> highestEntry(Txn txn) {
+            Entry<K, V> entry = hi == null
+                    ? TxnBTreeMap.this.lastEntry(txn)
+                    : findNear(txn, hi, hiInclusive ? LT | EQ : LT);
+            return entry == null || tooLow(entry.getKey()) ? null : entry;
+        }
+
+        Entry<K, V> findNearInRange(Txn txn, K key, int rel) {
+            if (tooLow(key)) {
+                return (rel & LT) == 0 ? lowestEntry(txn) : null;
+            }
+
+            if (tooHigh(key)) {
+                return (rel & LT) != 0 ? highestEntry(txn) : null;
+            }
+
+            Entry<K, V> entry = findNear(txn, key, rel);
+            return entry == null || !inRange(entry.getKey()) ? null : entry;
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public int size(Txn txn) {
+            int result = 0;
+            for (TxnIterator<Entry<K, V>> it = entryIterator(txn); it.hasNext(txn); it.next(txn)) {
+                result++;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isEmpty(Txn txn) {
+            return lowestEntry(txn) == null;
+        }
+
+        @Override
+        public void clear(Txn txn) {
+            for (TxnIterator<Entry<K, V>> it = entryIterator(txn); it.hasNext(txn); ) {
+                it.next(txn);
+                it.remove(txn);
+            }
+        }
+
+        @Override
+        public V get(Txn txn, Object key) {
+            return inRange(key) ? TxnBTreeMap.this.get(txn, key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Txn txn, Object key) {
+            return inRange(key) && TxnBTreeMap.this.containsKey(txn, key);
+        }
+
+        @Override
+        public V put(Txn txn, K key, V value) {
+            if (key == null) {
+                throw new NullPointerException();
+            }
+
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+            return TxnBTreeMap.this.put(txn, key, value);
+        }
+
+        @Override
+        public V remove(Txn txn, Object key) {
+            return inRange(key) ? TxnBTreeMap.this.remove(txn, key) : null;
+        }
+
+        @Override
+        public Entry<K, V> lowerEntry(Txn txn, K key) {
+            return findNearInRange(txn, key, LT);
+        }
+
+        @Override
+        public K lowerKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, LT));
+        }
+
+        @Override
+        public Entry<K, V> floorEntry(Txn txn, K key) {
+            return findNearInRange(txn, key, LT | EQ);
+        }
+
+        @Override
+        public K floorKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, LT | EQ));
+        }
+
+        @Override
+        public Entry<K, V> ceilingEntry(Txn txn, K key) {
+            return findNearInRange(txn, key, GT | EQ);
+        }
+
+        @Override
+        public K ceilingKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, GT | EQ));
+        }
+
+        @Override
+        public Entry<K, V> higherEntry(Txn txn, K key) {
+            return findNearInRange(txn, key, GT);
+        }
+
+        @Override
+        public K higherKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, GT));
+        }
+
+        @Override
+        public Entry<K, V> firstEntry(Txn txn) {
+            return lowestEntry(txn);
+        }
+
+        @Override
+        public Entry<K, V> lastEntry(Txn txn) {
+            return highestEntry(txn);
+        }
+
+        @Override
+        public Entry<K, V> pollFirstEntry(Txn txn) {
+            return poll(txn, lowestEntry(txn));
+        }
+
+        @Override
+        public Entry<K, V> pollLastEntry(Txn txn) {
+            return poll(txn, highestEntry(txn));
+        }
+
+        @Override
+        public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+            return new EntrySetView();
+        }
+
+        @Override
+        public TxnSet<K> keySet(Txn txn) {
+            return new KeySetView();
+        }
+
+        @Override
+        public TxnCollection<V> values(Txn txn) {
+            return new ValuesView();
+        }
+
+        @Override
+        protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+            return new EntryIterator(this);
+        }
+
+        @Override
+        public TxnNavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null) {
+                throw new NullPointerException();
+            }
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        @Override
+        public TxnNavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null) {
+                throw new NullPointerException();
+            }
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        @Override
+        public TxnNavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null) {
+                throw new NullPointerException();
+            }
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        private SubMap newSubMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                } else {
+                    int c = compare(fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive)) {
+                        throw new IllegalArgumentException("key out of range");
+                    }
+                }
+            }
+
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                } else {
+                    int c = compare(toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive)) {
+                        throw new IllegalArgumentException("key out of range");
+                    }
+                }
+            }
+
+            return new SubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+    }
+
+    // ====================== internal structures ==========================
+
+    /**
+     * An immutable node; a change to a node is made by writing a new node to its ref.
+     */
+    abstract static class Node {
+        final Object[] keys;
+
+        Node(Object[] keys) {
+            this.keys = keys;
+        }
+    }
+
+    static final class Leaf extends Node {
+        final Object[] values;
+        final TxnRef<Node> next;
+
+        Leaf(Object[] keys, Object[] values, TxnRef<Node> next) {
+            super(keys);
+            this.values = values;
+            this.next = next;
+        }
+    }
+
+    static final class Inner extends Node {
+        //children[k] contains the keys smaller than keys[k], and larger than or equal to keys[k-1].
+        final TxnRef<Node>[] children;
+
+        Inner(Object[] keys, TxnRef<Node>[] children) {
+            super(keys);
+            this.children = children;
+        }
+    }
+
+    /**
+     * A position in a leaf; the leaf is the content of the ref when the cursor was created.
+     */
+    static final class Cursor {
+        final TxnRef<Node> ref;
+        final Leaf leaf;
+        final int index;
+
+        Cursor(TxnRef<Node> ref, Leaf leaf, int index) {
+            this.ref = ref;
+            this.leaf = leaf;
+            this.index = index;
+        }
+
+        Object key() {
+            return leaf.keys[index];
+        }
+    }
+
+    private static final class Removal {
+        Object key;
+        Object oldValue;
+    }
+
+    private static final class Insertion {
+        boolean found;
+        Object oldValue;
+        Object separator;
+        TxnRef<Node> right;
+    }
+}
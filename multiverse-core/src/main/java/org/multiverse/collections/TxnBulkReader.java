@@ -0,0 +1,295 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.LockMode;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.TxnFactory;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.collections.TxnAggregator;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnSpliterable;
+import org.multiverse.api.collections.TxnSpliterator;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.api.exceptions.TooManyRetriesException;
+import org.multiverse.api.exceptions.TxnExecutionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.lang.String.format;
+
+/**
+ * Reads a {@link TxnSpliterable} in parallel: the content is split in parts using a {@link TxnSpliterator}, and every
+ * part is aggregated by its own transaction on a thread of an {@link ExecutorService}. So a large collection is not
+ * read by a single core and not a single transaction needs to track all reads.
+ * <p/>
+ * There are 2 modes:
+ * <ol>
+ * <li>{@link #aggregate(TxnSpliterable, TxnAggregator)}: the parts are read by readonly transactions that acquire a
+ * read lock on every ref they read, and the transactions only commit (and release the locks) after all parts have
+ * been read. So the result is based on a single consistent snapshot. Writers that want to update a ref that has been
+ * read, run into a conflict until the read is completed.</li>
+ * <li>{@link #aggregatePerPart(TxnSpliterable, TxnAggregator)}: every part is read by an independent readonly
+ * transaction that commits as soon as the part has been read. So every part is consistent, but the parts can
+ * reflect different moments in time. Writers are not held up.</li>
+ * </ol>
+ *
+ * @author Peter Veentjer.
+ */
+public final class TxnBulkReader {
+
+    /**
+     * The number of parts per thread; more parts than threads are created so that a thread that completes a small
+     * part can help with the remaining ones.
+     */
+    static final int PARTS_PER_THREAD = 4;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final TxnFactory snapshotTxnFactory;
+    private final TxnExecutor partTxnExecutor;
+
+    /**
+     * Creates a TxnBulkReader.
+     *
+     * @param stm         the Stm the transactions are created with.
+     * @param executor    the ExecutorService that executes the parts.
+     * @param parallelism the number of threads of the executor that can be used.
+     * @throws NullPointerException     if stm or executor is null.
+     * @throws IllegalArgumentException if parallelism is smaller than 1.
+     */
+    public TxnBulkReader(Stm stm, ExecutorService executor, int parallelism) {
+        if (stm == null || executor == null) {
+            throw new NullPointerException();
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism should be larger than 0, found " + parallelism);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.snapshotTxnFactory = stm.newTxnFactoryBuilder()
+                .setReadonly(true)
+                .setReadLockMode(LockMode.Read)
+                .setSpeculative(false)
+                .newTransactionFactory();
+        this.partTxnExecutor = stm.newTxnFactoryBuilder()
+                .setReadonly(true)
+                .newTxnExecutor();
+    }
+
+    /**
+     * Aggregates all items of the source based on a single consistent snapshot.
+     *
+     * @param source     the structure to read.
+     * @param aggregator the aggregator used to aggregate the items.
+     * @return the aggregated result.
+     * @throws TooManyRetriesException if a part could not be read without conflicts.
+     * @throws TxnExecutionException   if the thread is interrupted while waiting for the parts.
+     */
+    public <E, R> R aggregate(final TxnSpliterable<E> source, final TxnAggregator<E, R> aggregator) {
+        List<LockedRead<?>> reads = new ArrayList<LockedRead<?>>();
+        boolean success = false;
+        try {
+            LockedRead<TxnSpliterator<E>> rootRead = new LockedRead<TxnSpliterator<E>>() {
+                @Override
+                TxnSpliterator<E> read(Txn txn) {
+                    return source.spliterator(txn);
+                }
+            };
+            reads.add(rootRead);
+
+            List<TxnSpliterator<E>> parts = split(rootRead.call());
+            List<Future<R>> futures = new ArrayList<Future<R>>(parts.size());
+            for (final TxnSpliterator<E> part : parts) {
+                LockedRead<R> partRead = new LockedRead<R>() {
+                    @Override
+                    R read(Txn txn) {
+                        return aggregatePart(txn, part, aggregator);
+                    }
+                };
+                reads.add(partRead);
+                futures.add(executor.submit(partRead));
+            }
+
+            R result = combine(futures, aggregator);
+
+            for (LockedRead<?> read : reads) {
+                read.txn.commit();
+            }
+            success = true;
+            return result;
+        } finally {
+            if (!success) {
+                //a part that still is running, could acquire locks after the others have been aborted.
+                for (LockedRead<?> read : reads) {
+                    read.abandon();
+                    if (read.txn != null) {
+                        read.txn.abort();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Aggregates all items of the source, where every part is read by its own transaction. So the result doesn't
+     * need to be based on a single consistent snapshot.
+     *
+     * @param source     the structure to read.
+     * @param aggregator the aggregator used to aggregate the items.
+     * @return the aggregated result.
+     * @throws TxnExecutionException if the thread is interrupted while waiting for the parts.
+     */
+    public <E, R> R aggregatePerPart(final TxnSpliterable<E> source, final TxnAggregator<E, R> aggregator) {
+        TxnSpliterator<E> root = partTxnExecutor.execute(new TxnCallable<TxnSpliterator<E>>() {
+            @Override
+            public TxnSpliterator<E> call(Txn txn) {
+                return source.spliterator(txn);
+            }
+        });
+
+        List<Future<R>> futures = new ArrayList<Future<R>>();
+        for (final TxnSpliterator<E> part : split(root)) {
+            futures.add(executor.submit(new Callable<R>() {
+                @Override
+                public R call() {
+                    return partTxnExecutor.execute(new TxnCallable<R>() {
+                        @Override
+                        public R call(Txn txn) {
+                            return aggregatePart(txn, part, aggregator);
+                        }
+                    });
+                }
+            }));
+        }
+
+        return combine(futures, aggregator);
+    }
+
+    private <E> List<TxnSpliterator<E>> split(TxnSpliterator<E> root) {
+        List<TxnSpliterator<E>> parts = new ArrayList<TxnSpliterator<E>>();
+        parts.add(root);
+        int maxParts = parallelism * PARTS_PER_THREAD;
+        //every round splits all parts, so the parts have about the same size.
+        for (int splitCount = 1; splitCount > 0 && parts.size() < maxParts; ) {
+            splitCount = 0;
+            for (int k = parts.size() - 1; k >= 0 && parts.size() < maxParts; k--) {
+                TxnSpliterator<E> prefix = parts.get(k).trySplit();
+                if (prefix != null) {
+                    parts.add(prefix);
+                    splitCount++;
+                }
+            }
+        }
+        return parts;
+    }
+
+    private static <E, R> R aggregatePart(Txn txn, TxnSpliterator<E> part, TxnAggregator<E, R> aggregator) {
+        R result = aggregator.newResult();
+        for (TxnIterator<E> it = part.iterator(txn); it.hasNext(txn); ) {
+            result = aggregator.add(result, it.next(txn));
+        }
+        return result;
+    }
+
+    private static <E, R> R combine(List<Future<R>> futures, TxnAggregator<E, R> aggregator) {
+        R result = aggregator.newResult();
+        for (Future<R> future : futures) {
+            try {
+                result = aggregator.combine(result, future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TxnExecutionException("Interrupted while waiting for the parts to be read", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new TxnExecutionException(cause);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads something in a transaction that acquires read locks and leaves the transaction open, so the locks stay
+     * acquired. A conflict only aborts this read, the locks acquired by the other reads are kept.
+     */
+    private abstract class LockedRead<T> implements Callable<T> {
+        volatile Txn txn;
+        private boolean started;
+        private boolean completed;
+        private boolean abandoned;
+
+        abstract T read(Txn txn);
+
+        @Override
+        public final T call() {
+            synchronized (this) {
+                if (abandoned) {
+                    return null;
+                }
+                started = true;
+            }
+
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    Txn attemptTxn = snapshotTxnFactory.newTxn();
+                    try {
+                        T result = read(attemptTxn);
+                        txn = attemptTxn;
+                        return result;
+                    } catch (ReadWriteConflict e) {
+                        attemptTxn.abort();
+                        if (attempt >= snapshotTxnFactory.getConfig().getMaxRetries()) {
+                            throw new TooManyRetriesException(
+                                    format("Failed to read a part after %s attempts", attempt), e);
+                        }
+                        snapshotTxnFactory.getConfig().getBackoffPolicy().delayUninterruptible(attempt);
+                    } catch (RuntimeException e) {
+                        attemptTxn.abort();
+                        throw e;
+                    } catch (Error e) {
+                        attemptTxn.abort();
+                        throw e;
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    completed = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Makes sure that the read won't acquire any more locks: a read that has not started yet won't start anymore,
+         * and a read that is running is waited for.
+         */
+        synchronized void abandon() {
+            abandoned = true;
+            boolean interrupted = false;
+            while (started && !completed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnCache;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.api.references.TxnRefFactory;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link TxnCache} that approximates LRU using the CLOCK (second chance) algorithm. The entries are stored in a
+ * {@link TxnHashMap}; besides that every entry occupies a slot in a ring. A get only sets a (non transactional)
+ * referenced flag of the entry, so reading from the cache never writes transactional state and doesn't cause
+ * conflicts. A new key gets a free slot if there is one; the free slots (initially all of them, and the ones released
+ * by a remove or clear) are kept in a transactional free list. Only when the ring is full, the clock hand moves over
+ * the ring: an entry that has been referenced gets a second chance (its flag is cleared), the first entry that hasn't
+ * been referenced is evicted. So the cache never evicts while it is below its maximum size.
+ * <p/>
+ * A new entry starts without the referenced flag, so an entry that is used only once is evicted before an entry that
+ * is used repeatedly.
+ * <p/>
+ * Every key that is added moves the clock hand, so transactions that add keys would conflict on it. That is why the
+ * cache is split in segments (selected on the hash of the key) that each have their own ring and hand. The eviction
+ * is done per segment, so the entry that is evicted is the least recently used of its segment.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class TxnClockCache<K, V> implements TxnCache<K, V> {
+
+    static final int MAX_SEGMENT_COUNT = 16;
+
+    private final Stm stm;
+    private final int maximumSize;
+    private final TxnHashMap<K, Node<K, V>> map;
+    private final Segment<K, V>[] segments;
+
+    /**
+     * Creates a TxnClockCache.
+     *
+     * @param stm         the Stm used to create the internal references.
+     * @param maximumSize the maximum number of entries in the cache.
+     * @throws NullPointerException     if stm is null.
+     * @throws IllegalArgumentException if maximumSize is smaller than 1.
+     */
+    public TxnClockCache(Stm stm, int maximumSize) {
+        this(stm, maximumSize, defaultSegmentCount(maximumSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    TxnClockCache(Stm stm, int maximumSize, int segmentCount) {
+        if (stm == null) {
+            throw new NullPointerException();
+        }
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize should be larger than 0, found " + maximumSize);
+        }
+
+        if (Integer.bitCount(segmentCount) != 1 || segmentCount > maximumSize) {
+            throw new IllegalArgumentException("segmentCount should be a power of 2 not larger than maximumSize, found "
+                    + segmentCount);
+        }
+
+        this.stm = stm;
+        this.maximumSize = maximumSize;
+        this.map = new TxnHashMap<K, Node<K, V>>(stm, maximumSize, TxnHashMap.DEFAULT_LOAD_FACTOR);
+
+        TxnRefFactory refFactory = stm.getDefaultRefFactory();
+        this.segments = new Segment[segmentCount];
+        for (int k = 0; k < segmentCount; k++) {
+            int capacity = maximumSize / segmentCount + (k < maximumSize % segmentCount ? 1 : 0);
+            segments[k] = new Segment<K, V>(refFactory, capacity);
+        }
+    }
+
+    /**
+     * Returns a power of 2 that is at most the number of processors (or MAX_SEGMENT_COUNT), and that leaves at least
+     * 2 slots per segment.
+     */
+    private static int defaultSegmentCount(int maximumSize) {
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENT_COUNT
+                && segmentCount < Runtime.getRuntime().availableProcessors()
+                && segmentCount * 4 <= maximumSize) {
+            segmentCount <<= 1;
+        }
+        return segmentCount;
+    }
+
+    @Override
+    public Stm getStm() {
+        return stm;
+    }
+
+    @Override
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return segments[(hash >>> 16) & (segments.length - 1)];
+    }
+
+    @Override
+    public int size() {
+        return size(getThreadLocalTxn());
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return map.size(txn);
+    }
+
+    @Override
+    public V get(K key) {
+        return get(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public V get(Txn txn, K key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        Node<K, V> node = map.get(txn, key);
+        if (node == null) {
+            return null;
+        }
+
+        //the check prevents writing (and invalidating the cache line) for every get of a popular entry.
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return containsKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, K key) {
+        return key != null && map.containsKey(txn, key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(getThreadLocalTxn(), key, value);
+    }
+
+    @Override
+    public V put(Txn txn, K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+
+        Segment<K, V> segment = segmentFor(key);
+        Node<K, V> old = map.get(txn, key);
+        if (old != null) {
+            Node<K, V> node = new Node<K, V>(key, value, old.slot);
+            node.referenced = true;
+            segment.slots[old.slot].set(txn, node);
+            map.put(txn, key, node);
+            return old.value;
+        }
+
+        int slot = segment.claimSlot(txn, map);
+        Node<K, V> node = new Node<K, V>(key, value, slot);
+        segment.slots[slot].set(txn, node);
+        map.put(txn, key, node);
+        return null;
+    }
+
+    @Override
+    public V remove(K key) {
+        return remove(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public V remove(Txn txn, K key) {
+        if (key == null) {
+            return null;
+        }
+
+        Node<K, V> node = map.remove(txn, key);
+        if (node == null) {
+            return null;
+        }
+
+        Segment<K, V> segment = segmentFor(key);
+        segment.slots[node.slot].set(txn, null);
+        segment.free.set(txn, new FreeSlot(node.slot, segment.free.get(txn)));
+        return node.value;
+    }
+
+    @Override
+    public void clear() {
+        clear(getThreadLocalTxn());
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        if (map.isEmpty(txn)) {
+            return;
+        }
+
+        map.clear(txn);
+        for (Segment<K, V> segment : segments) {
+            for (TxnRef<Node<K, V>> slot : segment.slots) {
+                slot.set(txn, null);
+            }
+            segment.free.set(txn, segment.allFree);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return map.toString();
+    }
+
+    static final class Segment<K, V> {
+        final TxnRef<Node<K, V>>[] slots;
+        final TxnInteger hand;
+        //the free list when all slots are free; it is immutable, so it can be shared by the constructor and clear.
+        final FreeSlot allFree;
+        final TxnRef<FreeSlot> free;
+
+        @SuppressWarnings("unchecked")
+        Segment(TxnRefFactory refFactory, int capacity) {
+            this.slots = new TxnRef[capacity];
+            FreeSlot allFree = null;
+            for (int k = capacity - 1; k >= 0; k--) {
+                slots[k] = refFactory.newTxnRef(null);
+                allFree = new FreeSlot(k, allFree);
+            }
+            this.hand = refFactory.newTxnInteger(0);
+            this.allFree = allFree;
+            this.free = refFactory.newTxnRef(allFree);
+        }
+
+        /**
+         * Returns a free slot if there is one. Otherwise moves the hand until it finds an entry that can be evicted,
+         * and returns that slot. Since other transactions can set the flags again, the entry under the hand is evicted
+         * anyway after 2 rounds.
+         */
+        int claimSlot(Txn txn, TxnHashMap<K, ?> map) {
+            FreeSlot freeSlot = free.get(txn);
+            if (freeSlot != null) {
+                free.set(txn, freeSlot.next);
+                return freeSlot.slot;
+            }
+
+            int index = hand.get(txn);
+            for (int moves = 0; ; moves++) {
+                Node<K, V> node = slots[index].get(txn);
+                if (node == null) {
+                    break;
+                }
+
+                if (!node.referenced || moves >= 2 * slots.length) {
+                    map.remove(txn, node.key);
+                    break;
+                }
+
+                //the flag isn't transactional, so it also remains cleared if the transaction aborts; this only
+                //influences which entry is evicted.
+                node.referenced = false;
+                index = index == slots.length - 1 ? 0 : index + 1;
+            }
+
+            hand.set(txn, index == slots.length - 1 ? 0 : index + 1);
+            return index;
+        }
+    }
+
+    static final class FreeSlot {
+        final int slot;
+        final FreeSlot next;
+
+        FreeSlot(int slot, FreeSlot next) {
+            this.slot = slot;
+            this.next = next;
+        }
+    }
+
+    static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int slot;
+        volatile boolean referenced;
+
+        Node(K key, V value, int slot) {
+            this.key = key;
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
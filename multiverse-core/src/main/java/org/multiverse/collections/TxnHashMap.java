@@ -0,0 +1,635 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.ScanMode;
+import org.multiverse.api.collections.TxnCollection;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnSet;
+import org.multiverse.api.collections.TxnSpliterable;
+import org.multiverse.api.collections.TxnSpliterator;
+import org.multiverse.api.references.TxnRef;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link org.multiverse.api.collections.TxnMap} based on a hash table that is designed to scale with the number of
+ * concurrent transactions that access different keys.
+ * <p/>
+ * Transactions that access different keys normally don't conflict:
+ * <ol>
+ * <li>every bucket is a separate TxnRef containing an immutable chain of entries, so a put/remove only writes the
+ * bucket of the key.</li>
+ * <li>the size is spread over a number of counters (selected on the hash of the key) that are updated using a commuting
+ * increment, so updating the size doesn't cause read/write conflicts.</li>
+ * <li>the decision to resize is based on a non transactional read of the size counters, so a put doesn't read all
+ * counters or a shared threshold.</li>
+ * <li>resizing is done incrementally: the transaction that starts a resize only creates the new table, and every
+ * transaction that updates the map during the resize moves its own bucket and a few others to the new table. When
+ * all buckets have been moved, the new table replaces the old one. A moved bucket contains a forwarding entry, so
+ * readers always know where to look.</li>
+ * </ol>
+ * Null keys are not allowed, null values are.
+ * <p/>
+ * The entries returned by the {@link #entrySet()} are immutable snapshots; use {@link #put(Txn, Object, Object)} to
+ * change the value of a key.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class TxnHashMap<K, V> extends AbstractTxnMap<K, V> implements TxnSpliterable<Map.Entry<K, V>> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified by either of the constructors with
+     * arguments. MUST be a power of two <= 1<<30.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * The number of buckets a transaction moves to the new table (besides its own bucket) when it updates the map
+     * while a resize is in progress.
+     */
+    static final int MIGRATION_STRIDE = 2;
+    /**
+     * Once all buckets have been handed out, only one in this many updating transactions tries to complete the resize
+     * to prevent all of them conflicting on it.
+     */
+    static final int COMPLETE_RESIZE_INTERVAL = 16;
+    /**
+     * The size counters only are checked to see if a resize is needed when the chain a key was added to has at least
+     * this length, since a short chain is a sign that the table isn't full.
+     */
+    static final int RESIZE_CHECK_CHAIN_LENGTH = 2;
+    /**
+     * A chain of at least this length starts a resize, even if the size counters say the table isn't full. The
+     * counters are read non transactionally, so they don't include the keys added by the current transaction; e.g.
+     * when the map is filled by a single transaction.
+     */
+    static final int FORCE_RESIZE_CHAIN_LENGTH = 8;
+
+    private final TxnRef<TxnRef<Node<K, V>>[]> table;
+    private final TxnRef<Resize<K, V>> resize;
+    private final StripedTxnCounter size;
+    private final float loadFactor;
+
+    /**
+     * Creates a TxnHashMap with the default initial capacity and load factor.
+     *
+     * @param stm the Stm used to create the internal references.
+     * @throws NullPointerException if stm is null.
+     */
+    public TxnHashMap(Stm stm) {
+        this(stm, DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a TxnHashMap.
+     *
+     * @param stm             the Stm used to create the internal references.
+     * @param initialCapacity the initial number of buckets (is rounded up to a power of two).
+     * @param loadFactor      the load factor that determines when the table is resized.
+     * @throws NullPointerException     if stm is null.
+     * @throws IllegalArgumentException if initialCapacity is smaller than 0 or loadFactor not larger than 0.
+     */
+    public TxnHashMap(Stm stm, int initialCapacity, float loadFactor) {
+        super(stm);
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity can't be smaller than 0, found " + initialCapacity);
+        }
+
+        if (loadFactor <= 0 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("loadFactor should be larger than 0, found " + loadFactor);
+        }
+
+        this.loadFactor = loadFactor;
+        this.table = defaultRefFactory.newTxnRef(newTable(tableSizeFor(initialCapacity)));
+        this.resize = defaultRefFactory.newTxnRef(null);
+        this.size = new StripedTxnCounter(defaultRefFactory);
+    }
+
+    public float getLoadFactor() {
+        return loadFactor;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = 1;
+        while (n < capacity && n < MAXIMUM_CAPACITY) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TxnRef<Node<K, V>>[] newTable(int capacity) {
+        TxnRef<Node<K, V>>[] result = new TxnRef[capacity];
+        for (int k = 0; k < capacity; k++) {
+            result[k] = defaultRefFactory.newTxnRef(null);
+        }
+        return result;
+    }
+
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    static int indexFor(int hash, int length) {
+        return hash & (length - 1);
+    }
+
+    // ====================== reading ==========================
+
+    @Override
+    public int size(Txn txn) {
+        return size.get(txn);
+    }
+
+    @Override
+    public V get(Txn txn, Object key) {
+        Node<K, V> node = getNode(txn, key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, Object key) {
+        return getNode(txn, key) != null;
+    }
+
+    private Node<K, V> getNode(Txn txn, Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        final int hash = spread(key.hashCode());
+        TxnRef<Node<K, V>>[] tab = table.get(txn);
+        Node<K, V> node = tab[indexFor(hash, tab.length)].get(txn);
+        if (node instanceof ForwardingNode) {
+            tab = ((ForwardingNode<K, V>) node).nextTable;
+            node = tab[indexFor(hash, tab.length)].get(txn);
+        }
+
+        for (; node != null; node = node.next) {
+            if (node.matches(hash, key)) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    // ====================== updating ==========================
+
+    @Override
+    public V put(Txn txn, K key, V value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        final int hash = spread(key.hashCode());
+        final TxnRef<Node<K, V>> bucket = bucketForUpdate(txn, hash);
+        final Node<K, V> head = bucket.get(txn);
+
+        int chainLength = 0;
+        for (Node<K, V> node = head; node != null; node = node.next) {
+            if (node.matches(hash, key)) {
+                final V oldValue = node.value;
+                if (oldValue != value) {
+                    bucket.set(txn, replace(head, node, new Node<K, V>(hash, node.key, value, node.next)));
+                }
+                return oldValue;
+            }
+            chainLength++;
+        }
+
+        bucket.set(txn, new Node<K, V>(hash, key, value, head));
+        size.increment(txn, hash);
+
+        if (chainLength + 1 >= RESIZE_CHECK_CHAIN_LENGTH) {
+            startResizeIfNeeded(txn, chainLength + 1);
+        }
+        return null;
+    }
+
+    @Override
+    public V remove(Txn txn, Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        final int hash = spread(key.hashCode());
+        final TxnRef<Node<K, V>> bucket = bucketForUpdate(txn, hash);
+        final Node<K, V> head = bucket.get(txn);
+
+        for (Node<K, V> node = head; node != null; node = node.next) {
+            if (node.matches(hash, key)) {
+                bucket.set(txn, replace(head, node, node.next));
+                size.decrement(txn, hash);
+                return node.value;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates a new chain where the node is replaced by the replacement. The nodes before the node are copied, the
+     * nodes after it are shared.
+     */
+    private static <K, V> Node<K, V> replace(Node<K, V> head, Node<K, V> node, Node<K, V> replacement) {
+        if (head == node) {
+            return replacement;
+        }
+
+        return new Node<K, V>(head.hash, head.key, head.value, replace(head.next, node, replacement));
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        final TxnRef<Node<K, V>>[] tab = table.get(txn);
+        final Resize<K, V> r = resize.get(txn);
+
+        //the removed entries are subtracted from the size counters instead of setting them to 0. So a concurrent
+        //transaction that adds to an empty bucket (a bucket that isn't written here) still is counted correctly.
+        final int[] removed = new int[size.stripeCount()];
+        clearBuckets(txn, tab, removed);
+        if (r != null) {
+            clearBuckets(txn, r.nextTable, removed);
+        }
+
+        for (int k = 0; k < removed.length; k++) {
+            if (removed[k] > 0) {
+                size.addToStripe(txn, k, -removed[k]);
+            }
+        }
+    }
+
+    private void clearBuckets(Txn txn, TxnRef<Node<K, V>>[] tab, int[] removed) {
+        for (TxnRef<Node<K, V>> bucket : tab) {
+            Node<K, V> node = bucket.get(txn);
+            if (node == null || node instanceof ForwardingNode) {
+                continue;
+            }
+
+            bucket.set(txn, null);
+            for (; node != null; node = node.next) {
+                removed[size.stripeIndex(node.hash)]++;
+            }
+        }
+    }
+
+    // ====================== resizing ==========================
+
+    /**
+     * Returns the bucket that should be updated for the given hash. If a resize is in progress, the bucket is moved
+     * to the new table first (so the bucket in the new table is returned) and a few other buckets are moved as well.
+     */
+    private TxnRef<Node<K, V>> bucketForUpdate(Txn txn, int hash) {
+        final TxnRef<Node<K, V>>[] tab = table.get(txn);
+        final Resize<K, V> r = resize.get(txn);
+        if (r == null) {
+            return tab[indexFor(hash, tab.length)];
+        }
+
+        moveBucket(txn, tab, r, indexFor(hash, tab.length));
+        helpResize(txn, tab, r);
+        return r.nextTable[indexFor(hash, r.nextTable.length)];
+    }
+
+    private void startResizeIfNeeded(Txn txn, int chainLength) {
+        if (resize.get(txn) != null) {
+            return;
+        }
+
+        final TxnRef<Node<K, V>>[] tab = table.get(txn);
+        if (tab.length >= MAXIMUM_CAPACITY) {
+            return;
+        }
+
+        if (chainLength < FORCE_RESIZE_CHAIN_LENGTH && size.approximateGet() < (int) (tab.length * loadFactor)) {
+            return;
+        }
+
+        resize.set(txn, new Resize<K, V>(newTable(tab.length * 2)));
+    }
+
+    private void helpResize(Txn txn, TxnRef<Node<K, V>>[] tab, Resize<K, V> r) {
+        final int start = r.transferIndex.getAndAdd(MIGRATION_STRIDE);
+        if (start < tab.length) {
+            final int end = Math.min(start + MIGRATION_STRIDE, tab.length);
+            for (int k = start; k < end; k++) {
+                moveBucket(txn, tab, r, k);
+            }
+            return;
+        }
+
+        if (((start - tab.length) / MIGRATION_STRIDE) % COMPLETE_RESIZE_INTERVAL != 0) {
+            return;
+        }
+
+        //all buckets have been handed out, but the transaction moving one of them could have aborted. So all buckets
+        //are checked before the new table is installed.
+        for (int k = 0; k < tab.length; k++) {
+            moveBucket(txn, tab, r, k);
+        }
+        table.set(txn, r.nextTable);
+        resize.set(txn, null);
+    }
+
+    /**
+     * Moves a bucket of the old table to the new table. Since the table doubles, the entries of bucket i end up in
+     * bucket i or bucket i + oldLength of the new table; these buckets only receive entries once the old bucket has
+     * been moved, so they are empty.
+     */
+    private void moveBucket(Txn txn, TxnRef<Node<K, V>>[] tab, Resize<K, V> r, int index) {
+        final TxnRef<Node<K, V>> bucket = tab[index];
+        final Node<K, V> head = bucket.get(txn);
+        if (head instanceof ForwardingNode) {
+            return;
+        }
+
+        Node<K, V> low = null;
+        Node<K, V> high = null;
+        for (Node<K, V> node = head; node != null; node = node.next) {
+            if ((node.hash & tab.length) == 0) {
+                low = new Node<K, V>(node.hash, node.key, node.value, low);
+            } else {
+                high = new Node<K, V>(node.hash, node.key, node.value, high);
+            }
+        }
+
+        if (low != null) {
+            r.nextTable[index].set(txn, low);
+        }
+
+        if (high != null) {
+            r.nextTable[index + tab.length].set(txn, high);
+        }
+
+        bucket.set(txn, r.forwardingNode);
+    }
+
+    // ====================== views ==========================
+
+    @Override
+    public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+        return new EntrySetView();
+    }
+
+    @Override
+    public TxnSet<K> keySet(Txn txn) {
+        return new KeySetView();
+    }
+
+    @Override
+    public TxnCollection<V> values(Txn txn) {
+        return new ValuesView();
+    }
+
+    @Override
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+        return entryIterator(txn, TxnScans.defaultScanMode(txn));
+    }
+
+    /**
+     * Supports {@link ScanMode#Untracked} scans: the table and the buckets are read atomically. A bucket contains an
+     * immutable chain of entries, so an untracked scan sees a consistent state of every bucket.
+     */
+    @Override
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn, ScanMode scanMode) {
+        if (scanMode == null) {
+            throw new NullPointerException();
+        }
+
+        TxnRef<Node<K, V>>[] tab = TxnScans.read(txn, table, scanMode);
+        return new EntryIterator(tab, 0, tab.length, scanMode);
+    }
+
+    /**
+     * Returns a {@link TxnSpliterator} over the entries that splits the buckets of the current table. Since every
+     * bucket is a separate ref, the parts can be read by different transactions.
+     */
+    @Override
+    public TxnSpliterator<Entry<K, V>> spliterator(Txn txn) {
+        TxnRef<Node<K, V>>[] tab = table.get(txn);
+        return new EntrySpliterator(tab, 0, tab.length);
+    }
+
+    private final class EntrySpliterator implements TxnSpliterator<Entry<K, V>> {
+        private final TxnRef<Node<K, V>>[] tab;
+        private int from;
+        private final int to;
+
+        EntrySpliterator(TxnRef<Node<K, V>>[] tab, int from, int to) {
+            this.tab = tab;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public TxnSpliterator<Entry<K, V>> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle == from) {
+                return null;
+            }
+
+            TxnSpliterator<Entry<K, V>> prefix = new EntrySpliterator(tab, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public int estimateSize() {
+            //the buckets are not read, so the load factor is used as estimate of the number of entries per bucket.
+            return (int) ((to - from) * loadFactor);
+        }
+
+        @Override
+        public TxnIterator<Entry<K, V>> iterator(Txn txn) {
+            return new EntryIterator(tab, from, to, ScanMode.Tracked);
+        }
+    }
+
+    /**
+     * Iterates over a range of buckets of a table. A bucket that already has been moved to the new table is
+     * replaced by the 2 buckets in the new table its entries have been moved to. The table doesn't need to be the
+     * current one (e.g. when the range was created by a spliterator in another transaction), so a bucket in the new
+     * table also can have been moved.
+     */
+    private final class EntryIterator extends AbstractTxnIterator<Entry<K, V>> {
+        private final TxnRef<Node<K, V>>[] tab;
+        private int index;
+        private final int to;
+        private final ScanMode scanMode;
+        private PendingBucket<K, V> pending;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+
+        EntryIterator(TxnRef<Node<K, V>>[] tab, int from, int to, ScanMode scanMode) {
+            this.tab = tab;
+            this.index = from;
+            this.to = to;
+            this.scanMode = scanMode;
+        }
+
+        private void advance(Txn txn) {
+            while (next == null) {
+                TxnRef<Node<K, V>>[] bucketTable;
+                int bucketIndex;
+                if (pending != null) {
+                    bucketTable = pending.table;
+                    bucketIndex = pending.index;
+                    pending = pending.next;
+                } else if (index < to) {
+                    bucketTable = tab;
+                    bucketIndex = index;
+                    index++;
+                } else {
+                    return;
+                }
+
+                Node<K, V> head = TxnScans.read(txn, bucketTable[bucketIndex], scanMode);
+                if (head instanceof ForwardingNode) {
+                    TxnRef<Node<K, V>>[] nextTable = ((ForwardingNode<K, V>) head).nextTable;
+                    pending = new PendingBucket<K, V>(nextTable, bucketIndex + bucketTable.length,
+                            new PendingBucket<K, V>(nextTable, bucketIndex, pending));
+                    continue;
+                }
+                next = head;
+            }
+        }
+
+        @Override
+        public boolean hasNext(Txn txn) {
+            advance(txn);
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next(Txn txn) {
+            advance(txn);
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturned = next;
+            next = next.next;
+            return lastReturned;
+        }
+
+        @Override
+        public void remove(Txn txn) {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+
+            TxnHashMap.this.remove(txn, lastReturned.key);
+            lastReturned = null;
+        }
+    }
+
+    private static final class PendingBucket<K, V> {
+        final TxnRef<Node<K, V>>[] table;
+        final int index;
+        final PendingBucket<K, V> next;
+
+        PendingBucket(TxnRef<Node<K, V>>[] table, int index, PendingBucket<K, V> next) {
+            this.table = table;
+            this.index = index;
+            this.next = next;
+        }
+    }
+
+    // ====================== internal structures ==========================
+
+    static class Node<K, V> implements Map.Entry<K, V> {
+        final int hash;
+        final K key;
+        final V value;
+        final Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        final boolean matches(int hash, Object key) {
+            Object k;
+            return this.hash == hash && ((k = this.key) == key || key.equals(k));
+        }
+
+        @Override
+        public final K getKey() {
+            return key;
+        }
+
+        @Override
+        public final V getValue() {
+            return value;
+        }
+
+        @Override
+        public final V setValue(V value) {
+            throw new UnsupportedOperationException("entries are immutable, use TxnHashMap.put instead");
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry e = (Map.Entry) o;
+            Object k = e.getKey();
+            Object v = e.getValue();
+            return (key == k || (key != null && key.equals(k)))
+                    && (value == v || (value != null && value.equals(v)));
+        }
+
+        @Override
+        public final int hashCode() {
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public final String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Placed in a bucket of the old table once its entries have been moved to the new table.
+     */
+    static final class ForwardingNode<K, V> extends Node<K, V> {
+        final TxnRef<Node<K, V>>[] nextTable;
+
+        ForwardingNode(TxnRef<Node<K, V>>[] nextTable) {
+            super(-1, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * The state of a resize in progress. The transferIndex is a non transactional hint that spreads the buckets to
+     * move over the updating transactions; if a transaction that moved a bucket aborts, the bucket will be moved when
+     * the resize is completed.
+     */
+    static final class Resize<K, V> {
+        final TxnRef<Node<K, V>>[] nextTable;
+        final ForwardingNode<K, V> forwardingNode;
+        final AtomicInteger transferIndex = new AtomicInteger();
+
+        Resize(TxnRef<Node<K, V>>[] nextTable) {
+            this.nextTable = nextTable;
+            this.forwardingNode = new ForwardingNode<K, V>(nextTable);
+        }
+    }
+}
@@ -0,0 +1,639 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnCollection;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnSet;
+import org.multiverse.api.references.TxnRef;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link org.multiverse.api.collections.TxnMap} backed by a persistent (immutable) hash array mapped trie (HAMT).
+ * It is designed for large maps that are read far more often than written.
+ * <p/>
+ * The trie is split in a fixed number of subtrees (selected on the highest bits of the hash) and every subtree is
+ * stored in a single TxnRef. An update creates a copy of the path from the root of the subtree to the changed entry
+ * and writes the new root; the rest of the subtree is shared with the old version. So:
+ * <ol>
+ * <li>transactions that update different subtrees don't conflict.</li>
+ * <li>a consistent {@link #snapshot(Txn) snapshot} of the complete map only needs to read the roots of the subtrees,
+ * independent of the size of the map. The snapshot is immutable and can be used outside of the transaction.</li>
+ * <li>iterating over the map uses such a snapshot, so the read set of the transaction doesn't grow with the number
+ * of entries.</li>
+ * </ol>
+ * Null keys are not permitted, null values are.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class TxnHashTrieMap<K, V> extends AbstractTxnMap<K, V> {
+
+    static final int SUBTREE_BITS = 6;
+    static final int SUBTREE_COUNT = 1 << SUBTREE_BITS;
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private static final Root EMPTY_ROOT = new Root(null, 0);
+
+    private final TxnRef<Root>[] subtrees;
+
+    @SuppressWarnings("unchecked")
+    public TxnHashTrieMap(Stm stm) {
+        super(stm);
+        this.subtrees = new TxnRef[SUBTREE_COUNT];
+        for (int k = 0; k < SUBTREE_COUNT; k++) {
+            subtrees[k] = defaultRefFactory.newTxnRef(EMPTY_ROOT);
+        }
+    }
+
+    /**
+     * Mixes the bits of the hashcode, so the subtree (that uses the highest bits) and the path in the trie (that
+     * uses the lowest bits first) depend on all bits of the hashcode. This is a bijection, so different hashcodes
+     * never collide.
+     */
+    static int hash(Object key) {
+        return key.hashCode() * 0x9E3779B9;
+    }
+
+    private TxnRef<Root> subtree(int hash) {
+        return subtrees[hash >>> (32 - SUBTREE_BITS)];
+    }
+
+    @Override
+    public int size(Txn txn) {
+        int result = 0;
+        for (TxnRef<Root> subtree : subtrees) {
+            result += subtree.get(txn).size;
+        }
+        return result;
+    }
+
+    @Override
+    public V get(Txn txn, Object key) {
+        Leaf leaf = find(txn, key);
+        return leaf == null ? null : leaf.<V>value();
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, Object key) {
+        return find(txn, key) != null;
+    }
+
+    private Leaf find(Txn txn, Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        final int hash = hash(key);
+        final TrieNode node = subtree(hash).get(txn).node;
+        return node == null ? null : node.find(hash, key, 0);
+    }
+
+    @Override
+    public V put(Txn txn, K key, V value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        final int hash = hash(key);
+        final TxnRef<Root> subtree = subtree(hash);
+        final Root root = subtree.get(txn);
+        final Change change = new Change();
+        final Leaf leaf = new Leaf(hash, key, value);
+        final TrieNode node = root.node == null ? leaf : root.node.put(leaf, 0, change);
+        subtree.set(txn, new Root(node, change.old == null ? root.size + 1 : root.size));
+        return change.old == null ? null : change.old.<V>value();
+    }
+
+    @Override
+    public V remove(Txn txn, Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        final int hash = hash(key);
+        final TxnRef<Root> subtree = subtree(hash);
+        final Root root = subtree.get(txn);
+        if (root.node == null) {
+            return null;
+        }
+
+        final Change change = new Change();
+        final TrieNode node = root.node.remove(hash, key, 0, change);
+        if (change.old == null) {
+            return null;
+        }
+
+        subtree.set(txn, node == null ? EMPTY_ROOT : new Root(node, root.size - 1));
+        return change.old.value();
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        for (TxnRef<Root> subtree : subtrees) {
+            if (subtree.get(txn).node != null) {
+                subtree.set(txn, EMPTY_ROOT);
+            }
+        }
+    }
+
+    // ====================== snapshots ==========================
+
+    /**
+     * Returns an immutable snapshot of the content of this map. Only the roots of the subtrees are read, so the cost
+     * doesn't depend on the size of the map. The returned map is not connected to the transaction and can be used
+     * after the transaction has completed.
+     *
+     * @param txn the transaction used.
+     * @return the snapshot.
+     */
+    public Map<K, V> snapshot(Txn txn) {
+        final TrieNode[] roots = new TrieNode[SUBTREE_COUNT];
+        int size = 0;
+        for (int k = 0; k < SUBTREE_COUNT; k++) {
+            Root root = subtrees[k].get(txn);
+            roots[k] = root.node;
+            size += root.size;
+        }
+        return new Snapshot<K, V>(roots, size);
+    }
+
+    public Map<K, V> snapshot() {
+        return snapshot(getThreadLocalTxn());
+    }
+
+    // ====================== views ==========================
+
+    @Override
+    public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+        return new EntrySetView();
+    }
+
+    @Override
+    public TxnSet<K> keySet(Txn txn) {
+        return new KeySetView();
+    }
+
+    @Override
+    public TxnCollection<V> values(Txn txn) {
+        return new ValuesView();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+        final Snapshot<K, V> snapshot = (Snapshot<K, V>) snapshot(txn);
+        return new AbstractTxnIterator<Entry<K, V>>() {
+            private final TrieIterator<K, V> it = new TrieIterator<K, V>(snapshot.roots);
+            private Entry<K, V> lastReturned;
+
+            @Override
+            public boolean hasNext(Txn txn) {
+                return it.hasNext();
+            }
+
+            @Override
+            public Entry<K, V> next(Txn txn) {
+                lastReturned = it.next();
+                return lastReturned;
+            }
+
+            @Override
+            public void remove(Txn txn) {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+
+                //the iterator works on a snapshot, so it isn't affected by the remove.
+                TxnHashTrieMap.this.remove(txn, lastReturned.getKey());
+                lastReturned = null;
+            }
+        };
+    }
+
+    static final class Snapshot<K, V> extends AbstractMap<K, V> {
+        private final TrieNode[] roots;
+        private final int size;
+
+        Snapshot(TrieNode[] roots, int size) {
+            this.roots = roots;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public V get(Object key) {
+            Leaf leaf = find(key);
+            return leaf == null ? null : leaf.<V>value();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) != null;
+        }
+
+        private Leaf find(Object key) {
+            if (key == null) {
+                return null;
+            }
+
+            final int hash = hash(key);
+            final TrieNode node = roots[hash >>> (32 - SUBTREE_BITS)];
+            return node == null ? null : node.find(hash, key, 0);
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new TrieIterator<K, V>(roots);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Iterates over the leaves of a set of tries using an explicit stack, so no garbage is created per level.
+     */
+    static final class TrieIterator<K, V> implements Iterator<Entry<K, V>> {
+        //the maximum depth: a level for every 5 bits of the hash, a collision node and the roots themselves.
+        private final TrieNode[][] stack = new TrieNode[9][];
+        private final int[] indices = new int[9];
+        private int depth;
+        private Leaf next;
+
+        TrieIterator(TrieNode[] roots) {
+            stack[0] = roots;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                TrieNode[] nodes = stack[depth];
+                int index = indices[depth];
+                if (index == nodes.length) {
+                    depth--;
+                    continue;
+                }
+
+                indices[depth] = index + 1;
+                TrieNode node = nodes[index];
+                if (node == null) {
+                    continue;
+                }
+
+                if (node instanceof Leaf) {
+                    next = (Leaf) node;
+                    return;
+                }
+
+                depth++;
+                stack[depth] = node.children();
+                indices[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            Leaf result = next;
+            advance();
+            return (Entry<K, V>) result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // ====================== internal structures ==========================
+
+    static final class Root {
+        final TrieNode node;
+        final int size;
+
+        Root(TrieNode node, int size) {
+            this.node = node;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Records the leaf that was replaced or removed by an update; null if there was none.
+     */
+    static final class Change {
+        Leaf old;
+    }
+
+    abstract static class TrieNode {
+
+        abstract Leaf find(int hash, Object key, int shift);
+
+        abstract TrieNode put(Leaf leaf, int shift, Change change);
+
+        /**
+         * Returns the node without the key, or null if the node becomes empty. If nothing was removed, the same
+         * node is returned.
+         */
+        abstract TrieNode remove(int hash, Object key, int shift, Change change);
+
+        TrieNode[] children() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Creates the node containing 2 nodes with a different hash (both are a leaf or a collision node).
+         */
+        static TrieNode merge(TrieNode n1, int hash1, TrieNode n2, int hash2, int shift) {
+            int index1 = (hash1 >>> shift) & LEVEL_MASK;
+            int index2 = (hash2 >>> shift) & LEVEL_MASK;
+            if (index1 == index2) {
+                return new BitmapNode(1 << index1, new TrieNode[]{merge(n1, hash1, n2, hash2, shift + BITS_PER_LEVEL)});
+            }
+
+            TrieNode[] children = index1 < index2 ? new TrieNode[]{n1, n2} : new TrieNode[]{n2, n1};
+            return new BitmapNode((1 << index1) | (1 << index2), children);
+        }
+    }
+
+    static final class Leaf extends TrieNode implements Map.Entry<Object, Object> {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> V value() {
+            return (V) value;
+        }
+
+        boolean matches(int hash, Object key) {
+            return this.hash == hash && (this.key == key || this.key.equals(key));
+        }
+
+        @Override
+        Leaf find(int hash, Object key, int shift) {
+            return matches(hash, key) ? this : null;
+        }
+
+        @Override
+        TrieNode put(Leaf leaf, int shift, Change change) {
+            if (matches(leaf.hash, leaf.key)) {
+                change.old = this;
+                return leaf;
+            }
+
+            if (hash == leaf.hash) {
+                return new CollisionNode(hash, new Leaf[]{this, leaf});
+            }
+
+            return merge(this, hash, leaf, leaf.hash, shift);
+        }
+
+        @Override
+        TrieNode remove(int hash, Object key, int shift, Change change) {
+            if (!matches(hash, key)) {
+                return this;
+            }
+
+            change.old = this;
+            return null;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException("entries are immutable, use TxnHashTrieMap.put instead");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+
+            Map.Entry e = (Map.Entry) o;
+            Object k = e.getKey();
+            Object v = e.getValue();
+            return key.equals(k) && (value == v || (value != null && value.equals(v)));
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Contains the leaves of different keys with exactly the same hash.
+     */
+    static final class CollisionNode extends TrieNode {
+        final int hash;
+        final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Leaf find(int hash, Object key, int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+
+            for (Leaf leaf : leaves) {
+                if (leaf.matches(hash, key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        TrieNode put(Leaf leaf, int shift, Change change) {
+            if (leaf.hash != hash) {
+                return merge(this, hash, leaf, leaf.hash, shift);
+            }
+
+            for (int k = 0; k < leaves.length; k++) {
+                if (leaves[k].matches(leaf.hash, leaf.key)) {
+                    change.old = leaves[k];
+                    Leaf[] newLeaves = leaves.clone();
+                    newLeaves[k] = leaf;
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+
+            Leaf[] newLeaves = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+            newLeaves[leaves.length] = leaf;
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        TrieNode remove(int hash, Object key, int shift, Change change) {
+            if (hash != this.hash) {
+                return this;
+            }
+
+            for (int k = 0; k < leaves.length; k++) {
+                if (leaves[k].matches(hash, key)) {
+                    change.old = leaves[k];
+                    if (leaves.length == 2) {
+                        return leaves[1 - k];
+                    }
+
+                    Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, newLeaves, 0, k);
+                    System.arraycopy(leaves, k + 1, newLeaves, k, leaves.length - k - 1);
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        TrieNode[] children() {
+            return leaves;
+        }
+    }
+
+    /**
+     * A node with up to 32 children; the bitmap contains the positions that are in use.
+     */
+    static final class BitmapNode extends TrieNode {
+        final int bitmap;
+        final TrieNode[] children;
+
+        BitmapNode(int bitmap, TrieNode[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Leaf find(int hash, Object key, int shift) {
+            int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            return children[index(bit)].find(hash, key, shift + BITS_PER_LEVEL);
+        }
+
+        @Override
+        TrieNode put(Leaf leaf, int shift, Change change) {
+            int bit = 1 << ((leaf.hash >>> shift) & LEVEL_MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                TrieNode[] newChildren = new TrieNode[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = leaf;
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                return new BitmapNode(bitmap | bit, newChildren);
+            }
+
+            TrieNode[] newChildren = children.clone();
+            newChildren[index] = children[index].put(leaf, shift + BITS_PER_LEVEL, change);
+            return new BitmapNode(bitmap, newChildren);
+        }
+
+        @Override
+        TrieNode remove(int hash, Object key, int shift, Change change) {
+            int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            int index = index(bit);
+            TrieNode child = children[index];
+            TrieNode newChild = child.remove(hash, key, shift + BITS_PER_LEVEL, change);
+            if (newChild == child) {
+                return this;
+            }
+
+            if (newChild != null) {
+                //a single leaf or collision node doesn't need a bitmap node above it.
+                if (children.length == 1 && !(newChild instanceof BitmapNode)) {
+                    return newChild;
+                }
+
+                TrieNode[] newChildren = children.clone();
+                newChildren[index] = newChild;
+                return new BitmapNode(bitmap, newChildren);
+            }
+
+            if (children.length == 1) {
+                return null;
+            }
+
+            if (children.length == 2 && !(children[1 - index] instanceof BitmapNode)) {
+                return children[1 - index];
+            }
+
+            TrieNode[] newChildren = new TrieNode[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, newChildren);
+        }
+
+        @Override
+        TrieNode[] children() {
+            return children;
+        }
+    }
+}
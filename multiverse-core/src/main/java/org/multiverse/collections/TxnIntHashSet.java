@@ -0,0 +1,104 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnIntSet;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link TxnIntSet} based on a hash table with open addressing; see {@link AbstractTxnLongHashTable} for the
+ * details. Every value costs a single TxnLong and a lookup doesn't allocate anything.
+ *
+ * @author Peter Veentjer.
+ */
+public final class TxnIntHashSet extends AbstractTxnLongHashTable<Void> implements TxnIntSet {
+
+    public TxnIntHashSet(Stm stm) {
+        this(stm, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a TxnIntHashSet.
+     *
+     * @param stm             the Stm used to create the internal references.
+     * @param initialCapacity the number of values the set can contain without being resized.
+     * @throws NullPointerException     if stm is null.
+     * @throws IllegalArgumentException if initialCapacity is smaller than 0.
+     */
+    public TxnIntHashSet(Stm stm, int initialCapacity) {
+        super(stm, initialCapacity);
+    }
+
+    @Override
+    Void newValues(int length) {
+        return null;
+    }
+
+    @Override
+    Void copyValues(Txn txn, Void oldValues, int[] moveFrom) {
+        return null;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return contains(getThreadLocalTxn(), value);
+    }
+
+    @Override
+    public boolean contains(Txn txn, int value) {
+        return indexOf(txn, tableForRead(txn), value) != -1;
+    }
+
+    @Override
+    public boolean add(int value) {
+        return add(getThreadLocalTxn(), value);
+    }
+
+    @Override
+    public boolean add(Txn txn, int value) {
+        return slotForPut(txn, value) < 0;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        return remove(getThreadLocalTxn(), value);
+    }
+
+    @Override
+    public boolean remove(Txn txn, int value) {
+        return removeKey(txn, value) != -1;
+    }
+
+    @Override
+    public int[] toArray() {
+        return toArray(getThreadLocalTxn());
+    }
+
+    @Override
+    public int[] toArray(Txn txn) {
+        long[] keys = keyArray(txn);
+        int[] result = new int[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            result[k] = (int) keys[k];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        int[] values = toArray(txn);
+        if (values.length == 0) {
+            return "[]";
+        }
+
+        StringBuilder sb = new StringBuilder("[");
+        for (int k = 0; k < values.length; k++) {
+            if (k > 0) {
+                sb.append(", ");
+            }
+            sb.append(values[k]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,489 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.IsolationLevel;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnBooleanCallable;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnIntCallable;
+import org.multiverse.api.collections.TxnBlockingQueue;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.exceptions.RetryInterruptedException;
+import org.multiverse.api.exceptions.RetryTimeoutException;
+import org.multiverse.api.exceptions.TxnNotAllowedException;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.api.references.TxnRefFactory;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link TxnBlockingQueue} that stores its items in a {@link TxnLinkedQueue}, so producers and consumers that
+ * don't block don't conflict.
+ * <p/>
+ * A thread that needs to wait, adds a waiter to the FIFO list of waiting consumers or waiting producers and commits.
+ * Then it blocks in a transaction that only reads the slot of its own waiter. A producer that finds a waiting consumer
+ * doesn't add the item to the queue, but removes the first waiter from the list and writes the item to its slot. A
+ * consumer that takes an item while a producer is waiting, moves the item of the first waiting producer into the
+ * queue and writes to its slot. So every item wakes up exactly one waiting thread, and waiting threads are served in
+ * FIFO order.
+ * <p/>
+ * A waiter that times out or is interrupted, cancels its slot; a cancelled waiter is skipped when it is removed from
+ * the list, and cancelled waiters at the front of the list are removed when a new waiter is added. If the slot
+ * already was filled, the waiter has been served and the item is returned.
+ * <p/>
+ * The queue contains no items while a consumer waits, and it is full while a producer waits. The check if the queue
+ * is empty (or full) and the registration of the waiter are done in a serializable transaction. A producer or
+ * consumer that finds no waiters uses {@link TxnRef#ensure(Txn)}. Both are needed because else a waiter could be
+ * registered concurrently with an item being added, which would leave both the waiter and the item waiting.
+ * <p/>
+ * Null items are not permitted.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ */
+public final class TxnLinkedBlockingQueue<E> extends AbstractQueue<E> implements TxnBlockingQueue<E> {
+
+    private static final Object ADMITTED = new Object();
+    private static final Object CANCELLED = new Object();
+
+    private final Stm stm;
+    private final TxnRefFactory refFactory;
+    private final int capacity;
+    private final TxnLinkedQueue<E> items;
+    private final WaiterList takers;
+    private final WaiterList putters;
+    private final TxnExecutor executor;
+    private final TxnExecutor registerExecutor;
+    private final TxnExecutor awaitExecutor;
+    private final TxnExecutor cancelExecutor;
+
+    public TxnLinkedBlockingQueue(Stm stm) {
+        this(stm, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a TxnLinkedBlockingQueue.
+     *
+     * @param stm      the Stm the queue is created for.
+     * @param capacity the maximum number of items in the queue.
+     * @throws NullPointerException     if stm is null.
+     * @throws IllegalArgumentException if capacity is smaller than 1.
+     */
+    public TxnLinkedBlockingQueue(Stm stm, int capacity) {
+        if (stm == null) {
+            throw new NullPointerException();
+        }
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity should be larger than 0, found " + capacity);
+        }
+
+        this.stm = stm;
+        this.refFactory = stm.getDefaultRefFactory();
+        this.capacity = capacity;
+        this.items = new TxnLinkedQueue<E>(stm, capacity);
+        this.takers = new WaiterList();
+        this.putters = new WaiterList();
+        this.executor = stm.newTxnFactoryBuilder()
+                .newTxnExecutor();
+        this.registerExecutor = stm.newTxnFactoryBuilder()
+                .setIsolationLevel(IsolationLevel.Serializable)
+                .newTxnExecutor();
+        this.awaitExecutor = newAwaitExecutor(Long.MAX_VALUE);
+        this.cancelExecutor = stm.newTxnFactoryBuilder()
+                .newTxnExecutor();
+    }
+
+    private TxnExecutor newAwaitExecutor(long timeoutNs) {
+        return stm.newTxnFactoryBuilder()
+                .setInterruptible(true)
+                .setTimeoutNs(timeoutNs)
+                .newTxnExecutor();
+    }
+
+    @Override
+    public Stm getStm() {
+        return stm;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return items.size(txn);
+    }
+
+    @Override
+    public int size() {
+        return executor.execute(new TxnIntCallable() {
+            @Override
+            public int call(Txn txn) {
+                return size(txn);
+            }
+        });
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity == Integer.MAX_VALUE ? Integer.MAX_VALUE : capacity - size();
+    }
+
+    // ================ producer side ==========================
+
+    @Override
+    public boolean offer(Txn txn, E item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        Waiter taker = takers.poll(txn);
+        if (taker != null) {
+            taker.slot.set(txn, item);
+            return true;
+        }
+
+        return items.offer(txn, item);
+    }
+
+    @Override
+    public boolean offer(final E item) {
+        return executor.execute(new TxnBooleanCallable() {
+            @Override
+            public boolean call(Txn txn) {
+                return offer(txn, item);
+            }
+        });
+    }
+
+    @Override
+    public void put(E item) throws InterruptedException {
+        offer(item, Long.MAX_VALUE);
+    }
+
+    @Override
+    public boolean offer(E item, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNs = unit.toNanos(timeout);
+        if (timeoutNs <= 0) {
+            return offer(item);
+        }
+        return offer(item, timeoutNs);
+    }
+
+    private boolean offer(final E item, long timeoutNs) throws InterruptedException {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        ensureNoActiveTxn();
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        Object result = registerExecutor.execute(new TxnCallable<Object>() {
+            @Override
+            public Object call(Txn txn) {
+                if (offer(txn, item)) {
+                    return ADMITTED;
+                }
+
+                Waiter waiter = new Waiter(item, refFactory);
+                putters.add(txn, waiter);
+                return waiter;
+            }
+        });
+
+        return result == ADMITTED || await((Waiter) result, timeoutNs) != null;
+    }
+
+    // ================ consumer side ==========================
+
+    @Override
+    public E poll(Txn txn) {
+        E item = items.poll(txn);
+        if (item != null) {
+            admitPutter(txn);
+        }
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void admitPutter(Txn txn) {
+        if (capacity == Integer.MAX_VALUE) {
+            //an unbound queue never is full, so there are no waiting producers.
+            return;
+        }
+
+        Waiter putter = putters.poll(txn);
+        if (putter != null) {
+            items.offer(txn, (E) putter.item);
+            putter.slot.set(txn, ADMITTED);
+        }
+    }
+
+    @Override
+    public E poll() {
+        return executor.execute(new TxnCallable<E>() {
+            @Override
+            public E call(Txn txn) {
+                return poll(txn);
+            }
+        });
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return poll(Long.MAX_VALUE);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNs = unit.toNanos(timeout);
+        if (timeoutNs <= 0) {
+            return poll();
+        }
+        return poll(timeoutNs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E poll(long timeoutNs) throws InterruptedException {
+        ensureNoActiveTxn();
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        Object result = registerExecutor.execute(new TxnCallable<Object>() {
+            @Override
+            public Object call(Txn txn) {
+                E item = poll(txn);
+                if (item != null) {
+                    return item;
+                }
+
+                Waiter waiter = new Waiter(null, refFactory);
+                takers.add(txn, waiter);
+                return waiter;
+            }
+        });
+
+        return (E) (result instanceof Waiter ? await((Waiter) result, timeoutNs) : result);
+    }
+
+    @Override
+    public E peek(Txn txn) {
+        return items.peek(txn);
+    }
+
+    @Override
+    public E peek() {
+        return executor.execute(new TxnCallable<E>() {
+            @Override
+            public E call(Txn txn) {
+                return peek(txn);
+            }
+        });
+    }
+
+    @Override
+    public boolean remove(final Object item) {
+        return executor.execute(new TxnBooleanCallable() {
+            @Override
+            public boolean call(Txn txn) {
+                if (!items.remove(txn, item)) {
+                    return false;
+                }
+
+                admitPutter(txn);
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, final int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+
+        List<E> drained = executor.execute(new TxnCallable<List<E>>() {
+            @Override
+            public List<E> call(Txn txn) {
+                List<E> result = new ArrayList<E>();
+                for (E item; result.size() < maxElements && (item = poll(txn)) != null; ) {
+                    result.add(item);
+                }
+                return result;
+            }
+        });
+
+        c.addAll(drained);
+        return drained.size();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the items; the iterator doesn't support removal.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        List<E> snapshot = executor.execute(new TxnCallable<List<E>>() {
+            @Override
+            public List<E> call(Txn txn) {
+                List<E> result = new ArrayList<E>();
+                for (TxnIterator<E> it = items.iterator(txn); it.hasNext(txn); ) {
+                    result.add(it.next(txn));
+                }
+                return result;
+            }
+        });
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    // ================ waiting ==========================
+
+    /**
+     * A blocking operation needs to commit the registration of the waiter before it blocks, so it can't be part of
+     * the transaction of the caller.
+     */
+    private static void ensureNoActiveTxn() {
+        Txn txn = getThreadLocalTxn();
+        if (txn != null && txn.getStatus().isAlive()) {
+            throw new TxnNotAllowedException(
+                    "A blocking operation of a TxnBlockingQueue can't be executed in a transaction, but txn '"
+                            + txn.getConfig().getFamilyName() + "' was found");
+        }
+    }
+
+    /**
+     * Waits until the slot of the waiter is filled. If the wait times out or is interrupted, the waiter is cancelled.
+     *
+     * @return the content of the slot, or null if the wait timed out.
+     */
+    private Object await(final Waiter waiter, long timeoutNs) throws InterruptedException {
+        TxnExecutor executor = timeoutNs == Long.MAX_VALUE ? awaitExecutor : newAwaitExecutor(timeoutNs);
+        try {
+            return executor.execute(new TxnCallable<Object>() {
+                @Override
+                public Object call(Txn txn) {
+                    Object content = waiter.slot.get(txn);
+                    if (content == null) {
+                        txn.retry();
+                    }
+                    return content;
+                }
+            });
+        } catch (RetryTimeoutException e) {
+            return cancel(waiter);
+        } catch (RetryInterruptedException e) {
+            Object content = cancel(waiter);
+            if (content == null) {
+                Thread.interrupted();
+                throw new InterruptedException();
+            }
+            //the waiter was served before it could be cancelled, so the interrupt is only restored.
+            return content;
+        }
+    }
+
+    private Object cancel(final Waiter waiter) {
+        return cancelExecutor.execute(new TxnCallable<Object>() {
+            @Override
+            public Object call(Txn txn) {
+                Object content = waiter.slot.get(txn);
+                if (content == null) {
+                    waiter.slot.set(txn, CANCELLED);
+                }
+                return content;
+            }
+        });
+    }
+
+    private static final class Waiter {
+        //the item of a waiting producer, null for a waiting consumer.
+        final Object item;
+        //null while waiting, then ADMITTED or the item for a consumer, or CANCELLED.
+        final TxnRef<Object> slot;
+        final TxnRef<Waiter> next;
+
+        Waiter(Object item, TxnRefFactory refFactory) {
+            this.item = item;
+            this.slot = refFactory.newTxnRef(null);
+            this.next = refFactory.newTxnRef(null);
+        }
+    }
+
+    /**
+     * A FIFO list of waiters.
+     */
+    private final class WaiterList {
+        private final TxnRef<Waiter> first = refFactory.newTxnRef(null);
+        private final TxnRef<Waiter> last = refFactory.newTxnRef(null);
+
+        void add(Txn txn, Waiter waiter) {
+            //cancelled waiters at the front are removed, so waiters that time out without ever being served don't
+            //accumulate.
+            for (Waiter front = first.get(txn); front != null && front.slot.get(txn) == CANCELLED; ) {
+                front = front.next.get(txn);
+                first.set(txn, front);
+                if (front == null) {
+                    last.set(txn, null);
+                }
+            }
+
+            Waiter oldLast = last.get(txn);
+            if (oldLast == null) {
+                first.set(txn, waiter);
+            } else {
+                oldLast.next.set(txn, waiter);
+            }
+            last.set(txn, waiter);
+        }
+
+        /**
+         * Removes the first waiter that is not cancelled.
+         *
+         * @return the removed waiter, or null if there are no waiters.
+         */
+        Waiter poll(Txn txn) {
+            for (; ; ) {
+                Waiter waiter = first.get(txn);
+                if (waiter == null) {
+                    //a waiter that is registered concurrently must cause a conflict.
+                    first.ensure(txn);
+                    return null;
+                }
+
+                Waiter next = waiter.next.get(txn);
+                first.set(txn, next);
+                if (next == null) {
+                    last.set(txn, null);
+                }
+
+                if (waiter.slot.get(txn) != CANCELLED) {
+                    return waiter;
+                }
+            }
+        }
+    }
+}
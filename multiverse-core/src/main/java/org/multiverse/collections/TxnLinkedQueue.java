@@ -0,0 +1,352 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.ScanMode;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnQueue;
+import org.multiverse.api.references.TxnLong;
+import org.multiverse.api.references.TxnRef;
+
+import java.util.NoSuchElementException;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A FIFO {@link TxnQueue} based on a singly linked list with separate head and tail refs, so that producers
+ * (that only touch the tail) and consumers (that only touch the head) don't conflict. Producers only contend with
+ * producers and consumers only with consumers; the only exception is a consumer that finds the queue empty, since it
+ * reads the same ref the next producer writes.
+ * <p/>
+ * The head always points to a dummy node; the first item is stored in the node after it. When an item is taken, its
+ * node becomes the new dummy. So taking the last item and adding a new item touch different refs. Taking or
+ * removing an item always writes the next ref of the node before it, and removing also clears the next ref of the
+ * node itself. So transactions that remove adjacent items run into a write/write conflict, also when a lower
+ * isolation level is used.
+ * <p/>
+ * The size is derived from 2 counters: the number of items ever added (only updated by producers) and the number of
+ * items ever taken (only updated by consumers), so the counters don't cause conflicts between producers and
+ * consumers. A bounded queue needs to know the size when adding an item; the producer uses a non transactional read
+ * of the take counter for that.
+ * Since that counter only increases, the estimated size never is too small, so the capacity never is exceeded. Only
+ * when the estimate says the queue is full, the take counter is read transactionally to make sure (and to wake up
+ * a blocked {@link #put(Txn, Object)} when a consumer takes an item).
+ * <p/>
+ * Null items are not permitted.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ */
+public final class TxnLinkedQueue<E> extends AbstractTxnCollection<E> implements TxnQueue<E> {
+
+    private final int capacity;
+    private final TxnRef<Node<E>> head;
+    private final TxnRef<Node<E>> tail;
+    private final TxnLong putCount;
+    private final TxnLong takeCount;
+
+    public TxnLinkedQueue(Stm stm) {
+        this(stm, Integer.MAX_VALUE);
+    }
+
+    public TxnLinkedQueue(Stm stm, int capacity) {
+        super(stm);
+
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.capacity = capacity;
+        Node<E> dummy = new Node<E>(null, defaultRefFactory.<Node<E>>newTxnRef(null));
+        this.head = defaultRefFactory.newTxnRef(dummy);
+        this.tail = defaultRefFactory.newTxnRef(dummy);
+        this.putCount = defaultRefFactory.newTxnLong(0);
+        this.takeCount = defaultRefFactory.newTxnLong(0);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return (int) (putCount.get(txn) - takeCount.get(txn));
+    }
+
+    @Override
+    public boolean isEmpty(Txn txn) {
+        return head.get(txn).next.get(txn) == null;
+    }
+
+    // ================ producer side ==========================
+
+    @Override
+    public boolean offer(E item) {
+        return offer(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public boolean offer(Txn txn, E item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        if (capacity != Integer.MAX_VALUE) {
+            long puts = putCount.get(txn);
+            if (puts - takeCount.atomicWeakGet() >= capacity && puts - takeCount.get(txn) >= capacity) {
+                return false;
+            }
+        }
+
+        Node<E> node = new Node<E>(item, defaultRefFactory.<Node<E>>newTxnRef(null));
+        tail.get(txn).next.set(txn, node);
+        tail.set(txn, node);
+        putCount.incrementAndGet(txn, 1);
+        return true;
+    }
+
+    @Override
+    public boolean add(Txn txn, E item) {
+        if (!offer(txn, item)) {
+            throw new IllegalStateException("TxnLinkedQueue full");
+        }
+
+        return true;
+    }
+
+    @Override
+    public void put(E item) {
+        put(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public void put(Txn txn, E item) {
+        if (!offer(txn, item)) {
+            txn.retry();
+        }
+    }
+
+    // ================ consumer side ==========================
+
+    @Override
+    public E poll() {
+        return poll(getThreadLocalTxn());
+    }
+
+    @Override
+    public E poll(Txn txn) {
+        Node<E> dummy = head.get(txn);
+        Node<E> first = dummy.next.get(txn);
+        if (first == null) {
+            return null;
+        }
+
+        head.set(txn, first);
+        dummy.next.set(txn, null);
+        takeCount.incrementAndGet(txn, 1);
+        return first.item;
+    }
+
+    @Override
+    public E take() {
+        return take(getThreadLocalTxn());
+    }
+
+    @Override
+    public E take(Txn txn) {
+        E item = poll(txn);
+        if (item == null) {
+            txn.retry();
+        }
+        return item;
+    }
+
+    @Override
+    public E remove() {
+        return remove(getThreadLocalTxn());
+    }
+
+    @Override
+    public E remove(Txn txn) {
+        E item = poll(txn);
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        return item;
+    }
+
+    @Override
+    public E peek() {
+        return peek(getThreadLocalTxn());
+    }
+
+    @Override
+    public E peek(Txn txn) {
+        Node<E> first = head.get(txn).next.get(txn);
+        return first == null ? null : first.item;
+    }
+
+    @Override
+    public E element() {
+        return element(getThreadLocalTxn());
+    }
+
+    @Override
+    public E element(Txn txn) {
+        E item = peek(txn);
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        return item;
+    }
+
+    // ================ misc ==========================
+
+    @Override
+    public boolean contains(Txn txn, Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        for (Node<E> node = head.get(txn).next.get(txn); node != null; node = node.next.get(txn)) {
+            if (o.equals(node.item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Txn txn, Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        Node<E> pred = head.get(txn);
+        for (Node<E> node = pred.next.get(txn); node != null; node = node.next.get(txn)) {
+            if (o.equals(node.item)) {
+                unlink(txn, pred, node);
+                return true;
+            }
+            pred = node;
+        }
+        return false;
+    }
+
+    private void unlink(Txn txn, Node<E> pred, Node<E> node) {
+        Node<E> next = node.next.get(txn);
+        pred.next.set(txn, next);
+        if (next == null) {
+            tail.set(txn, pred);
+        } else {
+            node.next.set(txn, null);
+        }
+        //a removed item is counted as a take, so the size remains putCount-takeCount.
+        takeCount.incrementAndGet(txn, 1);
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        Node<E> dummy = head.get(txn);
+        Node<E> last = tail.get(txn);
+        if (dummy == last) {
+            return;
+        }
+
+        for (Node<E> node = dummy; node != last; ) {
+            Node<E> next = node.next.get(txn);
+            node.next.set(txn, null);
+            node = next;
+        }
+
+        long removed = putCount.get(txn) - takeCount.get(txn);
+        head.set(txn, last);
+        takeCount.incrementAndGet(txn, removed);
+    }
+
+    @Override
+    public TxnIterator<E> iterator(Txn txn) {
+        return iterator(txn, TxnScans.defaultScanMode(txn));
+    }
+
+    /**
+     * Supports {@link ScanMode#Untracked} scans. The predecessor of a node can't be determined reliably without
+     * tracking the reads, so the iterator of an untracked scan doesn't support remove.
+     */
+    @Override
+    public TxnIterator<E> iterator(Txn txn, final ScanMode scanMode) {
+        if (scanMode == null) {
+            throw new NullPointerException();
+        }
+
+        final Node<E> dummy = TxnScans.read(txn, head, scanMode);
+        final Node<E> first = TxnScans.read(txn, dummy.next, scanMode);
+        return new AbstractTxnIterator<E>() {
+            private Node<E> pred = dummy;
+            private Node<E> lastReturned;
+            private Node<E> next = first;
+
+            @Override
+            public boolean hasNext(Txn txn) {
+                return next != null;
+            }
+
+            @Override
+            public E next(Txn txn) {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                if (lastReturned != null) {
+                    pred = lastReturned;
+                }
+                lastReturned = next;
+                next = TxnScans.read(txn, next.next, scanMode);
+                return lastReturned.item;
+            }
+
+            @Override
+            public void remove(Txn txn) {
+                if (scanMode == ScanMode.Untracked) {
+                    throw new UnsupportedOperationException();
+                }
+
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+
+                unlink(txn, pred, lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        Node<E> node = head.get(txn).next.get(txn);
+        if (node == null) {
+            return "[]";
+        }
+
+        StringBuilder sb = new StringBuilder("[");
+        for (; ; ) {
+            sb.append(node.item);
+            node = node.next.get(txn);
+            if (node == null) {
+                return sb.append(']').toString();
+            }
+            sb.append(", ");
+        }
+    }
+
+    static final class Node<E> {
+        final E item;
+        final TxnRef<Node<E>> next;
+
+        Node(E item, TxnRef<Node<E>> next) {
+            this.item = item;
+            this.next = next;
+        }
+    }
+}
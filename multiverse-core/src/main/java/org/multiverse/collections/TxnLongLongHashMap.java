@@ -0,0 +1,137 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnLongLongMap;
+import org.multiverse.api.references.TxnLong;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link TxnLongLongMap} based on a hash table with open addressing; see {@link AbstractTxnLongHashTable} for
+ * the details. Every entry costs 2 TxnLongs, and a get or an update of an existing key doesn't allocate anything.
+ *
+ * @author Peter Veentjer.
+ */
+public final class TxnLongLongHashMap extends AbstractTxnLongHashTable<TxnLong[]> implements TxnLongLongMap {
+
+    private final long noEntryValue;
+
+    public TxnLongLongHashMap(Stm stm) {
+        this(stm, DEFAULT_INITIAL_CAPACITY, 0);
+    }
+
+    /**
+     * Creates a TxnLongLongHashMap.
+     *
+     * @param stm             the Stm used to create the internal references.
+     * @param initialCapacity the number of keys the map can contain without being resized.
+     * @param noEntryValue    the value returned if there is no mapping for a key.
+     * @throws NullPointerException     if stm is null.
+     * @throws IllegalArgumentException if initialCapacity is smaller than 0.
+     */
+    public TxnLongLongHashMap(Stm stm, int initialCapacity, long noEntryValue) {
+        super(stm, initialCapacity);
+        this.noEntryValue = noEntryValue;
+    }
+
+    @Override
+    TxnLong[] newValues(int length) {
+        TxnLong[] values = new TxnLong[length];
+        for (int k = 0; k < length; k++) {
+            values[k] = defaultRefFactory.newTxnLong(0);
+        }
+        return values;
+    }
+
+    @Override
+    TxnLong[] copyValues(Txn txn, TxnLong[] oldValues, int[] moveFrom) {
+        TxnLong[] values = new TxnLong[moveFrom.length];
+        for (int k = 0; k < moveFrom.length; k++) {
+            long value = moveFrom[k] == -1 ? 0 : oldValues[moveFrom[k]].get(txn);
+            values[k] = defaultRefFactory.newTxnLong(value);
+        }
+        return values;
+    }
+
+    @Override
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return containsKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, long key) {
+        return indexOf(txn, tableForRead(txn), key) != -1;
+    }
+
+    @Override
+    public long get(long key) {
+        return get(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public long get(Txn txn, long key) {
+        Table<TxnLong[]> tab = tableForRead(txn);
+        int slot = indexOf(txn, tab, key);
+        return slot == -1 ? noEntryValue : tab.values[slot].get(txn);
+    }
+
+    @Override
+    public long put(long key, long value) {
+        return put(getThreadLocalTxn(), key, value);
+    }
+
+    @Override
+    public long put(Txn txn, long key, long value) {
+        int slot = slotForPut(txn, key);
+        if (slot < 0) {
+            tableForRead(txn).values[-(slot + 1)].set(txn, value);
+            return noEntryValue;
+        }
+
+        return tableForRead(txn).values[slot].getAndSet(txn, value);
+    }
+
+    @Override
+    public long remove(long key) {
+        return remove(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public long remove(Txn txn, long key) {
+        int slot = removeKey(txn, key);
+        return slot == -1 ? noEntryValue : tableForRead(txn).values[slot].get(txn);
+    }
+
+    @Override
+    public long[] keys() {
+        return keys(getThreadLocalTxn());
+    }
+
+    @Override
+    public long[] keys(Txn txn) {
+        return keyArray(txn);
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        long[] keys = keyArray(txn);
+        if (keys.length == 0) {
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        for (int k = 0; k < keys.length; k++) {
+            if (k > 0) {
+                sb.append(", ");
+            }
+            sb.append(keys[k]).append('=').append(get(txn, keys[k]));
+        }
+        return sb.append('}').toString();
+    }
+}
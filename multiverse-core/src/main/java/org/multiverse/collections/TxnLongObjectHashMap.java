@@ -0,0 +1,141 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnLongObjectMap;
+import org.multiverse.api.references.TxnRef;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link TxnLongObjectMap} based on a hash table with open addressing; see {@link AbstractTxnLongHashTable} for
+ * the details. Every entry costs a TxnLong and a TxnRef, and a get or an update of an existing key doesn't
+ * allocate anything.
+ *
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class TxnLongObjectHashMap<V> extends AbstractTxnLongHashTable<TxnRef<V>[]> implements TxnLongObjectMap<V> {
+
+    public TxnLongObjectHashMap(Stm stm) {
+        this(stm, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a TxnLongObjectHashMap.
+     *
+     * @param stm             the Stm used to create the internal references.
+     * @param initialCapacity the number of keys the map can contain without being resized.
+     * @throws NullPointerException     if stm is null.
+     * @throws IllegalArgumentException if initialCapacity is smaller than 0.
+     */
+    public TxnLongObjectHashMap(Stm stm, int initialCapacity) {
+        super(stm, initialCapacity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    TxnRef<V>[] newValues(int length) {
+        TxnRef<V>[] values = new TxnRef[length];
+        for (int k = 0; k < length; k++) {
+            values[k] = defaultRefFactory.newTxnRef(null);
+        }
+        return values;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    TxnRef<V>[] copyValues(Txn txn, TxnRef<V>[] oldValues, int[] moveFrom) {
+        TxnRef<V>[] values = new TxnRef[moveFrom.length];
+        for (int k = 0; k < moveFrom.length; k++) {
+            V value = moveFrom[k] == -1 ? null : oldValues[moveFrom[k]].get(txn);
+            values[k] = defaultRefFactory.newTxnRef(value);
+        }
+        return values;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return containsKey(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, long key) {
+        return indexOf(txn, tableForRead(txn), key) != -1;
+    }
+
+    @Override
+    public V get(long key) {
+        return get(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public V get(Txn txn, long key) {
+        Table<TxnRef<V>[]> tab = tableForRead(txn);
+        int slot = indexOf(txn, tab, key);
+        return slot == -1 ? null : tab.values[slot].get(txn);
+    }
+
+    @Override
+    public V put(long key, V value) {
+        return put(getThreadLocalTxn(), key, value);
+    }
+
+    @Override
+    public V put(Txn txn, long key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        int slot = slotForPut(txn, key);
+        if (slot < 0) {
+            tableForRead(txn).values[-(slot + 1)].set(txn, value);
+            return null;
+        }
+
+        return tableForRead(txn).values[slot].getAndSet(txn, value);
+    }
+
+    @Override
+    public V remove(long key) {
+        return remove(getThreadLocalTxn(), key);
+    }
+
+    @Override
+    public V remove(Txn txn, long key) {
+        int slot = removeKey(txn, key);
+        if (slot == -1) {
+            return null;
+        }
+
+        //the value is cleared so it can be garbage collected.
+        return tableForRead(txn).values[slot].getAndSet(txn, null);
+    }
+
+    @Override
+    public long[] keys() {
+        return keys(getThreadLocalTxn());
+    }
+
+    @Override
+    public long[] keys(Txn txn) {
+        return keyArray(txn);
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        long[] keys = keyArray(txn);
+        if (keys.length == 0) {
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        for (int k = 0; k < keys.length; k++) {
+            if (k > 0) {
+                sb.append(", ");
+            }
+            sb.append(keys[k]).append('=').append(get(txn, keys[k]));
+        }
+        return sb.append('}').toString();
+    }
+}
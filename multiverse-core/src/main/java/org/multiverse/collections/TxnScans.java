@@ -0,0 +1,55 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnConfig;
+import org.multiverse.api.collections.ScanMode;
+import org.multiverse.api.exceptions.LockedException;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.api.references.TxnRef;
+
+/**
+ * Support for the collections that implement the {@link ScanMode#Untracked} scans.
+ *
+ * @author Peter Veentjer.
+ */
+final class TxnScans {
+
+    /**
+     * Returns the ScanMode of an iterator that is created without an explicit ScanMode. A readonly transaction that
+     * has read tracking disabled doesn't need the reads to be tracked, so it gets an untracked scan.
+     *
+     * @param txn the transaction.
+     * @return the ScanMode.
+     */
+    static ScanMode defaultScanMode(Txn txn) {
+        TxnConfig config = txn.getConfig();
+        return config.isReadonly() && !config.isReadTrackingEnabled() ? ScanMode.Untracked : ScanMode.Tracked;
+    }
+
+    /**
+     * Reads a ref using the given ScanMode. An untracked read of a ref that remains locked aborts the transaction
+     * with a {@link ReadWriteConflict}, so it is retried just like a tracked read of a locked ref.
+     *
+     * @param txn      the transaction.
+     * @param ref      the ref to read.
+     * @param scanMode the ScanMode.
+     * @return the value.
+     */
+    static <E> E read(Txn txn, TxnRef<E> ref, ScanMode scanMode) {
+        if (scanMode == ScanMode.Tracked) {
+            return ref.get(txn);
+        }
+
+        try {
+            return ref.atomicGet();
+        } catch (LockedException e) {
+            txn.abort();
+            throw txn.getConfig().isControlFlowErrorsReused()
+                    ? ReadWriteConflict.INSTANCE
+                    : new ReadWriteConflict("Failed to do an untracked read, reason: the ref remains locked", e);
+        }
+    }
+
+    private TxnScans() {
+    }
+}
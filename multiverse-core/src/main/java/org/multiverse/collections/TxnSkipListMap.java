@@ -0,0 +1,847 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnCollection;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnNavigableMap;
+import org.multiverse.api.collections.TxnSet;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.api.references.TxnRefFactory;
+import org.multiverse.utils.ThreadLocalRandom;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link TxnNavigableMap} based on a skip list, so it supports ordered iteration and range queries.
+ * <p/>
+ * Transactions that access different regions of the map normally don't conflict:
+ * <ol>
+ * <li>every level of the tower of a node is a separate TxnRef, so an insert or remove only writes the refs of the
+ * neighbours of the node it inserts or removes. Only when a node is added that is higher than all nodes before it, the
+ * head of the list is written.</li>
+ * <li>a lookup only reads the refs on its search path and a range scan only the refs of the nodes it visits.</li>
+ * <li>the value of a node is stored in a separate TxnRef, so replacing the value of an existing key doesn't touch the
+ * structure of the list.</li>
+ * <li>the size is spread over a number of counters that are updated using a commuting increment.</li>
+ * </ol>
+ * A removed node is unlinked by writing all refs of its tower (and its value), so a concurrent transaction that
+ * inserts next to the removed node or updates its value always runs into a write/write conflict. This prevents
+ * updates getting lost when a lower isolation level is used.
+ * <p/>
+ * Null keys are not permitted. The keys are ordered using the {@link Comparator} or, if none is provided, the
+ * natural ordering of the keys. The descending views of the {@link java.util.NavigableMap} are not supported.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Peter Veentjer.
+ */
+public final class TxnSkipListMap<K, V> extends AbstractTxnNavigableMap<K, V> {
+
+    /**
+     * The maximum height of a tower. With a probability of 1/2 for every next level, this is enough for any map
+     * that fits in memory.
+     */
+    static final int MAX_LEVEL = 32;
+
+    /**
+     * Gives a tower of height 1 with a probability of 1/2, of height 2 with a probability of 1/4, etc.
+     */
+    static final LevelGenerator RANDOM_LEVELS = new LevelGenerator() {
+        @Override
+        public int nextLevel() {
+            int level = 1 + Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt());
+            return level > MAX_LEVEL ? MAX_LEVEL : level;
+        }
+    };
+
+    private static final Object REMOVED = new Object();
+
+    private static final int LT = 1;
+    private static final int EQ = 2;
+    private static final int GT = 0;
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> head;
+    private final StripedTxnCounter size;
+    private final LevelGenerator levelGenerator;
+
+    /**
+     * The number of levels a search needs to start at. It is a non transactional hint that only increases; it is
+     * raised before a higher node is inserted. If a search starts at a lower level than the highest node it still
+     * finds the right result, only slower.
+     */
+    private final AtomicInteger levelHint = new AtomicInteger(1);
+
+    public TxnSkipListMap(Stm stm) {
+        this(stm, null);
+    }
+
+    public TxnSkipListMap(Stm stm, Comparator<? super K> comparator) {
+        this(stm, comparator, RANDOM_LEVELS);
+    }
+
+    /**
+     * Creates a TxnSkipListMap with the given LevelGenerator; only used by tests that need a predictable shape.
+     */
+    TxnSkipListMap(Stm stm, Comparator<? super K> comparator, LevelGenerator levelGenerator) {
+        super(stm);
+        this.comparator = comparator;
+        this.levelGenerator = levelGenerator;
+        this.head = new Node<K, V>(null, null, new Node[MAX_LEVEL], defaultRefFactory);
+        this.size = new StripedTxnCounter(defaultRefFactory);
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return size.get(txn);
+    }
+
+    @Override
+    public boolean isEmpty(Txn txn) {
+        return head.next[0].get(txn) == null;
+    }
+
+    // ====================== searching ==========================
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object k1, Object k2) {
+        return comparator == null
+                ? ((Comparable<Object>) k1).compareTo(k2)
+                : comparator.compare((K) k1, (K) k2);
+    }
+
+    /**
+     * Returns the node with the given key, or null if not found. Contrary to the {@link #findPredecessors} the search
+     * stops at the highest level the key is found.
+     */
+    private Node<K, V> findNode(Txn txn, Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        Node<K, V> x = head;
+        for (int level = levelHint.get() - 1; level >= 0; level--) {
+            for (; ; ) {
+                Node<K, V> n = x.next[level].get(txn);
+                if (n == null) {
+                    break;
+                }
+
+                int c = compare(n.key, key);
+                if (c == 0) {
+                    return n;
+                } else if (c > 0) {
+                    break;
+                }
+                x = n;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fills preds with the last node that has a key smaller than the given key for the levels top down to
+     * bottom (inclusive), starting at the head on the top level.
+     */
+    private void findPredecessors(Txn txn, Object key, Node<K, V>[] preds, int top, int bottom) {
+        Node<K, V> x = head;
+        for (int level = top; level >= bottom; level--) {
+            for (; ; ) {
+                Node<K, V> n = x.next[level].get(txn);
+                if (n == null || compare(n.key, key) >= 0) {
+                    break;
+                }
+                x = n;
+            }
+            preds[level] = x;
+        }
+    }
+
+    /**
+     * Returns the node closest to the given key using the given relation (a combination of LT, EQ and GT), or null
+     * if there is no such node.
+     */
+    Node<K, V> findNear(Txn txn, Object key, int rel) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        Node<K, V> x = head;
+        for (int level = levelHint.get() - 1; level >= 0; level--) {
+            for (; ; ) {
+                Node<K, V> n = x.next[level].get(txn);
+                if (n == null || compare(n.key, key) >= 0) {
+                    break;
+                }
+                x = n;
+            }
+        }
+
+        if ((rel & LT) != 0) {
+            if ((rel & EQ) != 0) {
+                Node<K, V> n = x.next[0].get(txn);
+                if (n != null && compare(n.key, key) == 0) {
+                    return n;
+                }
+            }
+            return x == head ? null : x;
+        }
+
+        Node<K, V> n = x.next[0].get(txn);
+        if (n != null && (rel & EQ) == 0 && compare(n.key, key) == 0) {
+            n = n.next[0].get(txn);
+        }
+        return n;
+    }
+
+    Node<K, V> firstNode(Txn txn) {
+        return head.next[0].get(txn);
+    }
+
+    Node<K, V> lastNode(Txn txn) {
+        Node<K, V> x = head;
+        for (int level = levelHint.get() - 1; level >= 0; level--) {
+            for (; ; ) {
+                Node<K, V> n = x.next[level].get(txn);
+                if (n == null) {
+                    break;
+                }
+                x = n;
+            }
+        }
+        return x == head ? null : x;
+    }
+
+    Entry<K, V> toEntry(Txn txn, Node<K, V> node) {
+        return node == null ? null : new AbstractMap.SimpleImmutableEntry<K, V>(node.key, node.getValue(txn));
+    }
+
+    static <K> K keyOrNull(Node<K, ?> node) {
+        return node == null ? null : node.key;
+    }
+
+    @Override
+    public V get(Txn txn, Object key) {
+        Node<K, V> node = findNode(txn, key);
+        return node == null ? null : node.getValue(txn);
+    }
+
+    @Override
+    public boolean containsKey(Txn txn, Object key) {
+        return findNode(txn, key) != null;
+    }
+
+    // ====================== navigation ==========================
+
+    @Override
+    public Entry<K, V> lowerEntry(Txn txn, K key) {
+        return toEntry(txn, findNear(txn, key, LT));
+    }
+
+    @Override
+    public K lowerKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, LT));
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(Txn txn, K key) {
+        return toEntry(txn, findNear(txn, key, LT | EQ));
+    }
+
+    @Override
+    public K floorKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, LT | EQ));
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(Txn txn, K key) {
+        return toEntry(txn, findNear(txn, key, GT | EQ));
+    }
+
+    @Override
+    public K ceilingKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, GT | EQ));
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(Txn txn, K key) {
+        return toEntry(txn, findNear(txn, key, GT));
+    }
+
+    @Override
+    public K higherKey(Txn txn, K key) {
+        return keyOrNull(findNear(txn, key, GT));
+    }
+
+    @Override
+    public Entry<K, V> firstEntry(Txn txn) {
+        return toEntry(txn, firstNode(txn));
+    }
+
+    @Override
+    public K firstKey(Txn txn) {
+        Node<K, V> node = firstNode(txn);
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.key;
+    }
+
+    @Override
+    public Entry<K, V> lastEntry(Txn txn) {
+        return toEntry(txn, lastNode(txn));
+    }
+
+    @Override
+    public K lastKey(Txn txn) {
+        Node<K, V> node = lastNode(txn);
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.key;
+    }
+
+    @Override
+    public Entry<K, V> pollFirstEntry(Txn txn) {
+        return poll(txn, firstNode(txn));
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry(Txn txn) {
+        return poll(txn, lastNode(txn));
+    }
+
+    Entry<K, V> poll(Txn txn, Node<K, V> node) {
+        if (node == null) {
+            return null;
+        }
+
+        V value = node.getValue(txn);
+        remove(txn, node.key);
+        return new AbstractMap.SimpleImmutableEntry<K, V>(node.key, value);
+    }
+
+    // ====================== updating ==========================
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(Txn txn, K key, V value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        final int height = Math.min(levelGenerator.nextLevel(), MAX_LEVEL);
+        raiseLevelHint(height);
+
+        final int top = levelHint.get() - 1;
+        final Node<K, V>[] preds = new Node[top + 1];
+        findPredecessors(txn, key, preds, top, 0);
+
+        final Node<K, V> found = preds[0].next[0].get(txn);
+        if (found != null && compare(found.key, key) == 0) {
+            return (V) found.value.getAndSet(txn, value);
+        }
+
+        //the node only becomes visible when the transaction commits, so its refs can be created with the successors
+        //as initial value.
+        final Node<K, V>[] succs = new Node[height];
+        for (int level = 0; level < height; level++) {
+            succs[level] = preds[level].next[level].get(txn);
+        }
+
+        final Node<K, V> node = new Node<K, V>(key, value, succs, defaultRefFactory);
+        for (int level = 0; level < height; level++) {
+            preds[level].next[level].set(txn, node);
+        }
+        size.increment(txn, key.hashCode());
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Txn txn, Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        final int top = levelHint.get() - 1;
+        final Node<K, V>[] preds = new Node[MAX_LEVEL];
+        findPredecessors(txn, key, preds, top, 0);
+
+        final Node<K, V> node = preds[0].next[0].get(txn);
+        if (node == null || compare(node.key, key) != 0) {
+            return null;
+        }
+
+        final int height = node.next.length;
+        if (height > top + 1) {
+            //the node was inserted after the search started, so the predecessors of the missing levels are searched.
+            findPredecessors(txn, key, preds, height - 1, top + 1);
+        }
+
+        final V oldValue = (V) node.value.getAndSet(txn, REMOVED);
+        for (int level = 0; level < height; level++) {
+            preds[level].next[level].set(txn, node.next[level].get(txn));
+            node.next[level].set(txn, unlinked());
+        }
+        size.decrement(txn, node.key.hashCode());
+        return oldValue;
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        Node<K, V> node = head.next[0].get(txn);
+        if (node == null) {
+            return;
+        }
+
+        //the removed entries are subtracted from the size counters instead of setting them to 0. So a concurrent
+        //commuting increment of the size doesn't get lost.
+        final int[] removed = new int[size.stripeCount()];
+        while (node != null) {
+            Node<K, V> next = node.next[0].get(txn);
+            removed[size.stripeIndex(node.key.hashCode())]++;
+            node.value.set(txn, REMOVED);
+            for (int level = 0; level < node.next.length; level++) {
+                node.next[level].set(txn, unlinked());
+            }
+            node = next;
+        }
+
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            if (head.next[level].get(txn) != null) {
+                head.next[level].set(txn, null);
+            }
+        }
+
+        for (int k = 0; k < removed.length; k++) {
+            if (removed[k] > 0) {
+                size.addToStripe(txn, k, -removed[k]);
+            }
+        }
+    }
+
+    private void raiseLevelHint(int level) {
+        for (; ; ) {
+            int current = levelHint.get();
+            if (current >= level || levelHint.compareAndSet(current, level)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V> unlinked() {
+        return (Node<K, V>) UNLINKED;
+    }
+
+    // ====================== views ==========================
+
+    @Override
+    public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+        return new EntrySetView();
+    }
+
+    @Override
+    public TxnSet<K> keySet(Txn txn) {
+        return new KeySetView();
+    }
+
+    @Override
+    public TxnCollection<V> values(Txn txn) {
+        return new ValuesView();
+    }
+
+    @Override
+    protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+        return new EntryIterator(null);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        if (fromKey == null || toKey == null) {
+            throw new NullPointerException();
+        }
+        return new SubMap(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        if (toKey == null) {
+            throw new NullPointerException();
+        }
+        return new SubMap(null, false, toKey, inclusive);
+    }
+
+    @Override
+    public TxnNavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        if (fromKey == null) {
+            throw new NullPointerException();
+        }
+        return new SubMap(fromKey, inclusive, null, false);
+    }
+
+    /**
+     * Iterates over the nodes on the lowest level. If the next node is removed by the transaction itself, the
+     * iterator continues at the node following the key that was returned last.
+     */
+    private final class EntryIterator extends AbstractTxnIterator<Entry<K, V>> {
+        private final SubMap bounds;
+        private boolean started;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+
+        EntryIterator(SubMap bounds) {
+            this.bounds = bounds;
+        }
+
+        private void advance(Txn txn) {
+            if (!started) {
+                started = true;
+                next = bounds == null ? firstNode(txn) : bounds.lowestNode(txn);
+            } else if (next != null && next.next[0].get(txn) == UNLINKED) {
+                next = lastReturned == null
+                        ? (bounds == null ? firstNode(txn) : bounds.lowestNode(txn))
+                        : findNear(txn, lastReturned.key, GT);
+            }
+
+            if (next != null && bounds != null && bounds.tooHigh(next.key)) {
+                next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext(Txn txn) {
+            advance(txn);
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next(Txn txn) {
+            advance(txn);
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturned = next;
+            next = next.next[0].get(txn);
+            return toEntry(txn, lastReturned);
+        }
+
+        @Override
+        public void remove(Txn txn) {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+
+            TxnSkipListMap.this.remove(txn, lastReturned.key);
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * A view on a range of the map. A null bound means that the range is unbounded on that side.
+     */
+    private final class SubMap extends AbstractTxnNavigableMap<K, V> {
+        private final K lo;
+        private final boolean loInclusive;
+        private final K hi;
+        private final boolean hiInclusive;
+
+        SubMap(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+            super(TxnSkipListMap.this.stm);
+            if (lo != null && hi != null && compare(lo, hi) > 0) {
+                throw new IllegalArgumentException("inconsistent range");
+            }
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+        }
+
+        boolean tooLow(Object key) {
+            if (lo == null) {
+                return false;
+            }
+            int c = compare(key, lo);
+            return c < 0 || (c == 0 && !loInclusive);
+        }
+
+        boolean tooHigh(Object key) {
+            if (hi == null) {
+                return false;
+            }
+            int c = compare(key, hi);
+            return c > 0 || (c == 0 && !hiInclusive);
+        }
+
+        boolean inRange(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        Node<K, V> lowestNode(Txn txn) {
+            Node<K, V> node = lo == null
+                    ? firstNode(txn)
+                    : findNear(txn, lo, loInclusive ? GT | EQ : GT);
+            return node == null || tooHigh(node.key) ? null : node;
+        }
+
+        Node<K, V> highestNode(Txn txn) {
+            Node<K, V> node = hi == null
+                    ? lastNode(txn)
+                    : findNear(txn, hi, hiInclusive ? LT | EQ : LT);
+            return node == null || tooLow(node.key) ? null : node;
+        }
+
+        Node<K, V> findNearInRange(Txn txn, K key, int rel) {
+            if (tooLow(key)) {
+                return (rel & LT) == 0 ? lowestNode(txn) : null;
+            }
+
+            if (tooHigh(key)) {
+                return (rel & LT) != 0 ? highestNode(txn) : null;
+            }
+
+            Node<K, V> node = findNear(txn, key, rel);
+            return node == null || !inRange(node.key) ? null : node;
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public int size(Txn txn) {
+            int result = 0;
+            for (TxnIterator<Entry<K, V>> it = entryIterator(txn); it.hasNext(txn); it.next(txn)) {
+                result++;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isEmpty(Txn txn) {
+            return lowestNode(txn) == null;
+        }
+
+        @Override
+        public void clear(Txn txn) {
+            for (TxnIterator<Entry<K, V>> it = entryIterator(txn); it.hasNext(txn); ) {
+                it.next(txn);
+                it.remove(txn);
+            }
+        }
+
+        @Override
+        public V get(Txn txn, Object key) {
+            return inRange(key) ? TxnSkipListMap.this.get(txn, key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Txn txn, Object key) {
+            return inRange(key) && TxnSkipListMap.this.containsKey(txn, key);
+        }
+
+        @Override
+        public V put(Txn txn, K key, V value) {
+            if (key == null) {
+                throw new NullPointerException();
+            }
+
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+            return TxnSkipListMap.this.put(txn, key, value);
+        }
+
+        @Override
+        public V remove(Txn txn, Object key) {
+            return inRange(key) ? TxnSkipListMap.this.remove(txn, key) : null;
+        }
+
+        @Override
+        public Entry<K, V> lowerEntry(Txn txn, K key) {
+            return toEntry(txn, findNearInRange(txn, key, LT));
+        }
+
+        @Override
+        public K lowerKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, LT));
+        }
+
+        @Override
+        public Entry<K, V> floorEntry(Txn txn, K key) {
+            return toEntry(txn, findNearInRange(txn, key, LT | EQ));
+        }
+
+        @Override
+        public K floorKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, LT | EQ));
+        }
+
+        @Override
+        public Entry<K, V> ceilingEntry(Txn txn, K key) {
+            return toEntry(txn, findNearInRange(txn, key, GT | EQ));
+        }
+
+        @Override
+        public K ceilingKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, GT | EQ));
+        }
+
+        @Override
+        public Entry<K, V> higherEntry(Txn txn, K key) {
+            return toEntry(txn, findNearInRange(txn, key, GT));
+        }
+
+        @Override
+        public K higherKey(Txn txn, K key) {
+            return keyOrNull(findNearInRange(txn, key, GT));
+        }
+
+        @Override
+        public Entry<K, V> firstEntry(Txn txn) {
+            return toEntry(txn, lowestNode(txn));
+        }
+
+        @Override
+        public Entry<K, V> lastEntry(Txn txn) {
+            return toEntry(txn, highestNode(txn));
+        }
+
+        @Override
+        public Entry<K, V> pollFirstEntry(Txn txn) {
+            return poll(txn, lowestNode(txn));
+        }
+
+        @Override
+        public Entry<K, V> pollLastEntry(Txn txn) {
+            return poll(txn, highestNode(txn));
+        }
+
+        @Override
+        public TxnSet<Entry<K, V>> entrySet(Txn txn) {
+            return new EntrySetView();
+        }
+
+        @Override
+        public TxnSet<K> keySet(Txn txn) {
+            return new KeySetView();
+        }
+
+        @Override
+        public TxnCollection<V> values(Txn txn) {
+            return new ValuesView();
+        }
+
+        @Override
+        protected TxnIterator<Entry<K, V>> entryIterator(Txn txn) {
+            return new EntryIterator(this);
+        }
+
+        @Override
+        public TxnNavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null) {
+                throw new NullPointerException();
+            }
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        @Override
+        public TxnNavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null) {
+                throw new NullPointerException();
+            }
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        @Override
+        public TxnNavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null) {
+                throw new NullPointerException();
+            }
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        private SubMap newSubMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                } else {
+                    int c = compare(fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive)) {
+                        throw new IllegalArgumentException("key out of range");
+                    }
+                }
+            }
+
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                } else {
+                    int c = compare(toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive)) {
+                        throw new IllegalArgumentException("key out of range");
+                    }
+                }
+            }
+
+            return new SubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+    }
+
+    // ====================== internal structures ==========================
+
+    /**
+     * The node the refs of a removed node point to.
+     */
+    @SuppressWarnings("unchecked")
+    private static final Node UNLINKED = new Node(null, null, new Node[0], null);
+
+    /**
+     * Determines the height of the tower of a new node.
+     */
+    interface LevelGenerator {
+
+        /**
+         * Returns the height of the tower of the next node.
+         *
+         * @return the height, at least 1.
+         */
+        int nextLevel();
+    }
+
+    static final class Node<K, V> {
+        final K key;
+        final TxnRef<Object> value;
+        final TxnRef<Node<K, V>>[] next;
+
+        @SuppressWarnings("unchecked")
+        Node(K key, V value, Node<K, V>[] succs, TxnRefFactory refFactory) {
+            this.key = key;
+            this.value = refFactory == null ? null : refFactory.<Object>newTxnRef(value);
+            this.next = new TxnRef[succs.length];
+            for (int level = 0; level < succs.length; level++) {
+                next[level] = refFactory.newTxnRef(succs[level]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V getValue(Txn txn) {
+            Object v = value.get(txn);
+            return v == REMOVED ? null : (V) v;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnPriorityQueue;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.multiverse.api.TxnThreadLocal.getThreadLocalTxn;
+
+/**
+ * A {@link TxnPriorityQueue} backed by a {@link TxnSkipListMap}. An offer only writes the refs of the nodes
+ * surrounding the position of the new item, so concurrent offers of items with a different priority normally don't
+ * conflict. A poll always removes the first node, so consumers contend with each other, and with a producer that
+ * adds a new least item.
+ * <p/>
+ * Items that are equal according to the ordering are made unique by a sequence number that is taken when the item
+ * is added. The sequence is not transactional (so it doesn't cause conflicts); it only needs to be unique and
+ * increasing.
+ * <p/>
+ * Null items are not permitted.
+ *
+ * @param <E> the type of the items.
+ * @author Peter Veentjer.
+ */
+public final class TxnSkipListPriorityQueue<E> extends AbstractTxnCollection<E> implements TxnPriorityQueue<E> {
+
+    private final Comparator<? super E> comparator;
+    private final TxnSkipListMap<Item<E>, E> map;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public TxnSkipListPriorityQueue(Stm stm) {
+        this(stm, null);
+    }
+
+    public TxnSkipListPriorityQueue(Stm stm, Comparator<? super E> comparator) {
+        this(stm, comparator, TxnSkipListMap.RANDOM_LEVELS);
+    }
+
+    /**
+     * Creates a TxnSkipListPriorityQueue with the given LevelGenerator; only used by tests that need a predictable
+     * shape.
+     */
+    TxnSkipListPriorityQueue(Stm stm, Comparator<? super E> comparator, TxnSkipListMap.LevelGenerator levelGenerator) {
+        super(stm);
+        this.comparator = comparator;
+        this.map = new TxnSkipListMap<Item<E>, E>(stm, new ItemComparator<E>(comparator), levelGenerator);
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int getCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int size(Txn txn) {
+        return map.size(txn);
+    }
+
+    @Override
+    public boolean isEmpty(Txn txn) {
+        return map.isEmpty(txn);
+    }
+
+    // ================ producer side ==========================
+
+    @Override
+    public boolean offer(E item) {
+        return offer(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public boolean offer(Txn txn, E item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        if (comparator == null && !(item instanceof Comparable)) {
+            throw new ClassCastException(item.getClass().getName() + " is not Comparable");
+        }
+
+        map.put(txn, new Item<E>(item, sequence.incrementAndGet()), item);
+        return true;
+    }
+
+    @Override
+    public boolean add(Txn txn, E item) {
+        return offer(txn, item);
+    }
+
+    @Override
+    public void put(E item) {
+        put(getThreadLocalTxn(), item);
+    }
+
+    @Override
+    public void put(Txn txn, E item) {
+        offer(txn, item);
+    }
+
+    // ================ consumer side ==========================
+
+    @Override
+    public E poll() {
+        return poll(getThreadLocalTxn());
+    }
+
+    @Override
+    public E poll(Txn txn) {
+        Map.Entry<Item<E>, E> entry = map.pollFirstEntry(txn);
+        return entry == null ? null : entry.getValue();
+    }
+
+    @Override
+    public E take() {
+        return take(getThreadLocalTxn());
+    }
+
+    @Override
+    public E take(Txn txn) {
+        E item = poll(txn);
+        if (item == null) {
+            txn.retry();
+        }
+        return item;
+    }
+
+    @Override
+    public E remove() {
+        return remove(getThreadLocalTxn());
+    }
+
+    @Override
+    public E remove(Txn txn) {
+        E item = poll(txn);
+        if (item == null) {
+            throw new NoSuchElementException("TxnSkipListPriorityQueue is empty");
+        }
+        return item;
+    }
+
+    @Override
+    public E peek() {
+        return peek(getThreadLocalTxn());
+    }
+
+    @Override
+    public E peek(Txn txn) {
+        Map.Entry<Item<E>, E> entry = map.firstEntry(txn);
+        return entry == null ? null : entry.getValue();
+    }
+
+    @Override
+    public E element() {
+        return element(getThreadLocalTxn());
+    }
+
+    @Override
+    public E element(Txn txn) {
+        E item = peek(txn);
+        if (item == null) {
+            throw new NoSuchElementException("TxnSkipListPriorityQueue is empty");
+        }
+        return item;
+    }
+
+    // ================ misc ==========================
+
+    @Override
+    public boolean contains(Txn txn, Object o) {
+        return o != null && map.containsValue(txn, o);
+    }
+
+    @Override
+    public boolean remove(Txn txn, Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        TxnIterator<E> it = iterator(txn);
+        while (it.hasNext(txn)) {
+            if (o.equals(it.next(txn))) {
+                it.remove(txn);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear(Txn txn) {
+        map.clear(txn);
+    }
+
+    /**
+     * Returns an iterator over the items in priority order.
+     */
+    @Override
+    public TxnIterator<E> iterator(Txn txn) {
+        return map.values(txn).iterator(txn);
+    }
+
+    @Override
+    public String toString(Txn txn) {
+        return map.values(txn).toString(txn);
+    }
+
+    static final class Item<E> {
+        final E element;
+        final long sequence;
+
+        Item(E element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    static final class ItemComparator<E> implements Comparator<Item<E>> {
+        private final Comparator<? super E> comparator;
+
+        ItemComparator(Comparator<? super E> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compare(Item<E> i1, Item<E> i2) {
+            int c = comparator == null
+                    ? ((Comparable<? super E>) i1.element).compareTo(i2.element)
+                    : comparator.compare(i1.element, i2.element);
+            if (c != 0) {
+                return c;
+            }
+
+            return i1.sequence < i2.sequence ? -1 : (i1.sequence == i2.sequence ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.collections.TxnTable;
+import org.multiverse.api.collections.TxnTableColumn;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Declares a {@link TxnTable}: the primary key and the secondary indexes. The indexes are declared up front, so the
+ * table never needs to build an index while it is used.
+ * <p/>
+ * A hash index supports lookups of a single value, an ordered index also supports range queries.
+ *
+ * @param <K> the type of the primary key.
+ * @param <R> the type of the rows.
+ * @author Peter Veentjer.
+ */
+public final class TxnTableBuilder<K, R> {
+
+    private final Stm stm;
+    private final TxnTableColumn<R, K> primaryKey;
+    private final List<DefaultTxnTable.IndexDefinition<R>> indexes = new ArrayList<DefaultTxnTable.IndexDefinition<R>>();
+
+    /**
+     * Creates a TxnTableBuilder.
+     *
+     * @param stm        the Stm the table is created for.
+     * @param primaryKey the column that contains the primary key of a row.
+     * @throws NullPointerException if stm or primaryKey is null.
+     */
+    public TxnTableBuilder(Stm stm, TxnTableColumn<R, K> primaryKey) {
+        if (stm == null || primaryKey == null) {
+            throw new NullPointerException();
+        }
+        this.stm = stm;
+        this.primaryKey = primaryKey;
+    }
+
+    /**
+     * Adds a secondary index based on the hash of the values; the values only need a proper equals and hashCode.
+     *
+     * @param name   the name of the index.
+     * @param column the column the index is based on.
+     * @return this TxnTableBuilder.
+     * @throws NullPointerException     if name or column is null.
+     * @throws IllegalArgumentException if there already is an index with that name.
+     */
+    public <V> TxnTableBuilder<K, R> addHashIndex(String name, TxnTableColumn<R, V> column) {
+        return addIndex(name, column, false, null);
+    }
+
+    /**
+     * Adds an ordered secondary index that orders the values by their natural ordering.
+     *
+     * @param name   the name of the index.
+     * @param column the column the index is based on.
+     * @return this TxnTableBuilder.
+     * @throws NullPointerException     if name or column is null.
+     * @throws IllegalArgumentException if there already is an index with that name.
+     */
+    public <V extends Comparable<? super V>> TxnTableBuilder<K, R> addOrderedIndex(
+            String name, TxnTableColumn<R, V> column) {
+        return addIndex(name, column, true, null);
+    }
+
+    /**
+     * Adds an ordered secondary index that orders the values using the given comparator.
+     *
+     * @param name       the name of the index.
+     * @param column     the column the index is based on.
+     * @param comparator the comparator used to order the values.
+     * @return this TxnTableBuilder.
+     * @throws NullPointerException     if name, column or comparator is null.
+     * @throws IllegalArgumentException if there already is an index with that name.
+     */
+    public <V> TxnTableBuilder<K, R> addOrderedIndex(
+            String name, TxnTableColumn<R, V> column, Comparator<? super V> comparator) {
+        if (comparator == null) {
+            throw new NullPointerException();
+        }
+        return addIndex(name, column, true, comparator);
+    }
+
+    private <V> TxnTableBuilder<K, R> addIndex(
+            String name, TxnTableColumn<R, V> column, boolean ordered, Comparator<? super V> comparator) {
+        if (name == null || column == null) {
+            throw new NullPointerException();
+        }
+
+        for (DefaultTxnTable.IndexDefinition<R> index : indexes) {
+            if (index.name.equals(name)) {
+                throw new IllegalArgumentException("Duplicate index name " + name);
+            }
+        }
+
+        indexes.add(new DefaultTxnTable.IndexDefinition<R>(name, column, ordered, comparator));
+        return this;
+    }
+
+    /**
+     * Creates a new empty TxnTable with the declared indexes.
+     *
+     * @return the created TxnTable.
+     */
+    public TxnTable<K, R> newTable() {
+        return new DefaultTxnTable<K, R>(stm, primaryKey, indexes);
+    }
+}
@@ -4,15 +4,16 @@ import org.multiverse.api.Txn;
 import org.multiverse.api.exceptions.DeadTxnException;
 import org.multiverse.api.exceptions.TodoException;
 import org.multiverse.utils.StandardThreadFactory;
+import org.multiverse.utils.ToolUnsafe;
+import sun.misc.Unsafe;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
 
 import static java.lang.String.format;
 
@@ -20,6 +21,17 @@ import static java.lang.String.format;
  * A CommitBarrier is a blocking structure like the {@link java.util.concurrent.CyclicBarrier} but
  * tailored to work with transactions. Based on this functionality, it is possible to create
  * a 2-phase commit for example.
+ * <p/>
+ * The CommitBarrier is lock free, so a barrier with a lot of parties doesn't serialize on a lock:
+ * <ol>
+ * <li>the status, the number of waiting parties and the number of parties are stored in a single long
+ * that is updated using a cas. So a party joins with a single cas, and the last party commits the barrier
+ * with that same cas.</li>
+ * <li>the threads waiting for the barrier to open are pushed on a lock free stack, and are parked. The thread
+ * that opens the barrier detaches the stack and unparks the waiting threads.</li>
+ * <li>the onCommit and onAbort tasks are pushed on lock free stacks as well. The thread that opens the barrier
+ * detaches them (they are drained only once) and executes them.</li>
+ * </ol>
  *
  * @author Peter Veentjer.
  */
@@ -31,35 +43,114 @@ public abstract class CommitBarrier {
     private final static ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(
             corePoolSize, new StandardThreadFactory(Thread.NORM_PRIORITY, runAsDaemon));
 
-    private volatile ScheduledExecutorService executorService = EXECUTOR;
-    protected final Lock lock;
-    protected final Condition statusCondition;
+    private static final Unsafe ___unsafe = ToolUnsafe.getUnsafe();
+    private static final long stateOffset;
+    private static final long waitersOffset;
+    private static final long onCommitTasksOffset;
+    private static final long onAbortTasksOffset;
+
+    static {
+        try {
+            stateOffset = ___unsafe.objectFieldOffset(
+                    CommitBarrier.class.getDeclaredField("state"));
+            waitersOffset = ___unsafe.objectFieldOffset(
+                    CommitBarrier.class.getDeclaredField("waiters"));
+            onCommitTasksOffset = ___unsafe.objectFieldOffset(
+                    CommitBarrier.class.getDeclaredField("onCommitTasks"));
+            onAbortTasksOffset = ___unsafe.objectFieldOffset(
+                    CommitBarrier.class.getDeclaredField("onAbortTasks"));
+        } catch (Exception ex) {
+            throw new Error(ex);
+        }
+    }
+
+    private static final Status[] STATUSES = Status.values();
 
-    private volatile Status status;
-    private volatile int numberWaiting = 0;
+    //the state contains the status (the lowest 2 bits), the number of waiting parties (the next 31 bits) and the
+    //number of parties (the highest 31 bits).
+    private static final int WAITING_SHIFT = 2;
+    private static final int PARTIES_SHIFT = 33;
+    private static final long STATUS_MASK = 0x3;
+    private static final long COUNT_MASK = 0x7FFFFFFFL;
 
-    //for all non final non volatile variables; they only should be accessed while the lock is acquired.
-    private List<Runnable> onAbortTasks = new LinkedList<Runnable>();
-    private List<Runnable> onCommitTasks = new LinkedList<Runnable>();
+    //the head of the waiters and tasks stacks once they have been detached by the thread that opened the barrier.
+    private static final WaitNode RELEASED = new WaitNode(null, null);
+    private static final TaskNode DRAINED = new TaskNode(null, null);
+
+    private volatile ScheduledExecutorService executorService = EXECUTOR;
+    private final boolean fair;
+
+    private volatile long state;
+    private volatile WaitNode waiters;
+    private volatile TaskNode onAbortTasks;
+    private volatile TaskNode onCommitTasks;
 
     /**
      * Creates a new CommitBarrier.
      *
      * @param status the initial status of the CommitBarrier.
-     * @param fair   if waking up threads is going to be fair.
+     * @param fair   if waking up threads is going to be fair; so the threads are woken up in the order they started
+     *               waiting.
      * @throws NullPointerException if status is null.
      */
     public CommitBarrier(Status status, boolean fair) {
+        this(status, 0, fair);
+    }
+
+    /**
+     * Creates a new CommitBarrier.
+     *
+     * @param status  the initial status of the CommitBarrier.
+     * @param parties the initial number of parties.
+     * @param fair    if waking up threads is going to be fair; so the threads are woken up in the order they started
+     *                waiting.
+     * @throws NullPointerException if status is null.
+     */
+    CommitBarrier(Status status, int parties, boolean fair) {
         if (status == null) {
             throw new NullPointerException();
         }
-        this.status = status;
-        this.lock = new ReentrantLock(fair);
-        this.statusCondition = lock.newCondition();
+        this.fair = fair;
+        this.state = newState(status, 0, parties);
+        if (status != Status.Closed) {
+            this.waiters = RELEASED;
+            this.onCommitTasks = DRAINED;
+            this.onAbortTasks = DRAINED;
+        }
+    }
+
+    private static long newState(Status status, int numberWaiting, int parties) {
+        return ((long) parties << PARTIES_SHIFT) | ((long) numberWaiting << WAITING_SHIFT) | status.ordinal();
+    }
+
+    private static Status status(long state) {
+        return STATUSES[(int) (state & STATUS_MASK)];
+    }
+
+    private static int numberWaiting(long state) {
+        return (int) ((state >>> WAITING_SHIFT) & COUNT_MASK);
+    }
+
+    private static int parties(long state) {
+        return (int) ((state >>> PARTIES_SHIFT) & COUNT_MASK);
+    }
+
+    private boolean casState(long expected, long update) {
+        return ___unsafe.compareAndSwapLong(this, stateOffset, expected, update);
     }
 
     protected final Status getStatus() {
-        return status;
+        return status(state);
+    }
+
+    /**
+     * Returns the number of parties this CommitBarrier is waiting for. Only used by barriers that open when
+     * all parties have joined.
+     *
+     * @return the number of parties.
+     */
+    protected final int getNumberOfParties() {
+        return parties(state);
     }
 
     /**
@@ -69,7 +160,7 @@ public abstract class CommitBarrier {
      * @return the number of transactions prepared.
      */
     public final int getNumberWaiting() {
-        return numberWaiting;
+        return numberWaiting(state);
     }
 
     /**
@@ -78,7 +169,7 @@ public abstract class CommitBarrier {
      * @return true if closed, false otherwise.
      */
     public final boolean isClosed() {
-        return status == Status.Closed;
+        return getStatus() == Status.Closed;
     }
 
     /**
@@ -87,7 +178,7 @@ public abstract class CommitBarrier {
      * @return true if committed, false otherwise.
      */
     public final boolean isCommitted() {
-        return status == Status.Committed;
+        return getStatus() == Status.Committed;
     }
 
     /**
@@ -96,69 +187,184 @@ public abstract class CommitBarrier {
      * @return true if aborted, false otherwise.
      */
     public final boolean isAborted() {
-        return status == Status.Aborted;
+        return getStatus() == Status.Aborted;
     }
 
     /**
-     * Only should be made when the lock is acquired.
+     * Commits this CommitBarrier if it is closed.
      *
-     * @return the List of onCommitTasks that needs to be executed (is allowed to be null).
+     * @return the List of onCommitTasks that needs to be executed, or null if this CommitBarrier already was open.
      */
     protected final List<Runnable> signalCommit() {
-        numberWaiting = 0;
-        status = Status.Committed;
-        statusCondition.signalAll();
-        onAbortTasks = null;
-        List<Runnable> result = onCommitTasks;
-        onCommitTasks = new LinkedList<Runnable>();
-        return result;
+        return open(Status.Committed);
     }
 
     /**
-     * Only should be made when the lock is acquired.
+     * Aborts this CommitBarrier if it is closed.
      *
-     * @return the List of onAbortTasks that needs to be executed (is allowed to be null).
+     * @return the List of onAbortTasks that needs to be executed, or null if this CommitBarrier already was open.
      */
     protected final List<Runnable> signalAborted() {
-        numberWaiting = 0;
-        status = Status.Aborted;
-        statusCondition.signalAll();
-        onCommitTasks = new LinkedList<Runnable>();
-        List<Runnable> result = onAbortTasks;
-        onAbortTasks = new LinkedList<Runnable>();
-        return result;
+        return open(Status.Aborted);
+    }
+
+    private List<Runnable> open(Status status) {
+        for (; ; ) {
+            final long current = state;
+            if (status(current) != Status.Closed) {
+                return null;
+            }
+
+            if (casState(current, newState(status, 0, parties(current)))) {
+                return released(status);
+            }
+        }
     }
 
     /**
-     * Aborts this CommitBarrier. If there are any prepared transactions that are waiting for this CommitBarrier
-     * to complete, they are aborted as well.
-     * <p/>
-     * If the CommitBarrier already is aborted, this call is ignored.
+     * Wakes up the waiting threads and drains the tasks. Should only be called by the thread that opened this
+     * CommitBarrier.
      *
-     * @throws CommitBarrierOpenException if this CommitBarrier already is committed.
+     * @param status the status the CommitBarrier was opened with.
+     * @return the tasks that need to be executed.
      */
-    public final void abort() {
-        List<Runnable> postAbortTasks = null;
+    private List<Runnable> released(Status status) {
+        WaitNode waiter = (WaitNode) ___unsafe.getAndSetObject(this, waitersOffset, RELEASED);
+        if (fair) {
+            waiter = reverse(waiter);
+        }
+        while (waiter != null) {
+            final Thread thread = waiter.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            waiter = waiter.next;
+        }
 
-        lock.lock();
-        try {
-            switch (status) {
+        final TaskNode onCommit = (TaskNode) ___unsafe.getAndSetObject(this, onCommitTasksOffset, DRAINED);
+        final TaskNode onAbort = (TaskNode) ___unsafe.getAndSetObject(this, onAbortTasksOffset, DRAINED);
+        return toList(status == Status.Committed ? onCommit : onAbort);
+    }
+
+    private static WaitNode reverse(WaitNode node) {
+        WaitNode result = null;
+        while (node != null) {
+            final Thread thread = node.thread;
+            if (thread != null) {
+                result = new WaitNode(thread, result);
+            }
+            node = node.next;
+        }
+        return result;
+    }
+
+    private static List<Runnable> toList(TaskNode node) {
+        if (node == null) {
+            return Collections.emptyList();
+        }
+
+        //the tasks are pushed on a stack, so they need to be reversed to execute them in the registration order.
+        final ArrayList<Runnable> result = new ArrayList<Runnable>();
+        for (; node != null; node = node.next) {
+            result.add(node.task);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Adds a waiting party. If the waiting party is the last party, this CommitBarrier is committed.
+     *
+     * @return the onCommitTasks that need to be executed if this call committed this CommitBarrier, null
+     *         otherwise.
+     * @throws CommitBarrierOpenException if this CommitBarrier isn't closed.
+     */
+    protected final List<Runnable> addJoiner() {
+        for (; ; ) {
+            final long current = state;
+            switch (status(current)) {
                 case Closed:
-                    postAbortTasks = signalAborted();
+                    final int numberWaiting = numberWaiting(current) + 1;
+                    final int parties = parties(current);
+                    if (isLastParty(numberWaiting, parties)) {
+                        if (casState(current, newState(Status.Committed, 0, parties))) {
+                            return released(Status.Committed);
+                        }
+                    } else if (casState(current, newState(Status.Closed, numberWaiting, parties))) {
+                        return null;
+                    }
                     break;
+                case Committed:
+                    throw new CommitBarrierOpenException("Can't join already committed CommitBarrier");
                 case Aborted:
-                    return;
+                    throw new CommitBarrierOpenException("Can't join already aborted CommitBarrier");
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * Adds parties to this CommitBarrier if it is closed. If the number of waiting parties reaches the new number of
+     * parties (when parties are removed), this CommitBarrier is committed.
+     *
+     * @param delta the number of parties to add (is allowed to be negative).
+     * @return the onCommitTasks that need to be executed if this call committed this CommitBarrier, null otherwise.
+     * @throws CommitBarrierOpenException if this CommitBarrier isn't closed.
+     */
+    protected final List<Runnable> addParties(int delta) {
+        for (; ; ) {
+            final long current = state;
+            switch (status(current)) {
+                case Closed:
+                    final int numberWaiting = numberWaiting(current);
+                    final int parties = parties(current) + delta;
+                    if (parties < 0) {
+                        throw new IllegalStateException();
+                    }
+
+                    if (isLastParty(numberWaiting, parties)) {
+                        if (casState(current, newState(Status.Committed, 0, parties))) {
+                            return released(Status.Committed);
+                        }
+                    } else if (casState(current, newState(Status.Closed, numberWaiting, parties))) {
+                        return null;
+                    }
+                    break;
                 case Committed:
-                    String commitMsg = "Can't abort already committed CommitBarrier";
-                    throw new CommitBarrierOpenException(commitMsg);
+                    throw new CommitBarrierOpenException("Can't add parties to already committed CommitBarrier");
+                case Aborted:
+                    throw new CommitBarrierOpenException("Can't add parties to already aborted CommitBarrier");
                 default:
                     throw new IllegalStateException();
             }
-        } finally {
-            lock.unlock();
         }
+    }
 
-        executeTasks(postAbortTasks);
+    /**
+     * Aborts this CommitBarrier. If there are any prepared transactions that are waiting for this CommitBarrier
+     * to complete, they are aborted as well.
+     * <p/>
+     * If the CommitBarrier already is aborted, this call is ignored.
+     *
+     * @throws CommitBarrierOpenException if this CommitBarrier already is committed.
+     */
+    public final void abort() {
+        final List<Runnable> postAbortTasks = signalAborted();
+        if (postAbortTasks != null) {
+            executeTasks(postAbortTasks);
+            return;
+        }
+
+        switch (getStatus()) {
+            case Aborted:
+                return;
+            case Committed:
+                String commitMsg = "Can't abort already committed CommitBarrier";
+                throw new CommitBarrierOpenException(commitMsg);
+            default:
+                throw new IllegalStateException();
+        }
     }
 
     /**
@@ -177,25 +383,146 @@ public abstract class CommitBarrier {
     }
 
     /**
-     * Awaits for this barrier to open (commit or abort). This call doesn't influence the state of this
-     * CommitBarrier.
+     * Waits for this CommitBarrier to open.
      *
-     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     * @param interruptible if the wait is responsive to interrupts. If not, the interrupt status is restored when
+     *                      the call completes.
+     * @param timed         if the wait is timed.
+     * @param timeoutNs     the timeout in nanoseconds, only used when timed.
+     * @return true if this CommitBarrier is open, false if the wait timed out.
+     * @throws InterruptedException if interruptible and the thread is interrupted while waiting.
      */
-    public final void awaitOpen() throws InterruptedException {
-        if (status != Status.Closed) {
-            return;
+    private boolean await(boolean interruptible, boolean timed, long timeoutNs) throws InterruptedException {
+        if (getStatus() != Status.Closed) {
+            return true;
+        }
+
+        if (interruptible && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        final WaitNode node = new WaitNode(Thread.currentThread(), null);
+        for (; ; ) {
+            final WaitNode head = waiters;
+            if (head == RELEASED) {
+                return true;
+            }
+
+            node.next = head;
+            if (___unsafe.compareAndSwapObject(this, waitersOffset, head, node)) {
+                break;
+            }
         }
 
-        lock.lockInterruptibly();
+        boolean restoreInterrupt = false;
         try {
-            while (status == Status.Closed) {
-                statusCondition.await();
+            final long deadlineNs = timed ? System.nanoTime() + timeoutNs : 0;
+            while (getStatus() == Status.Closed) {
+                if (timed) {
+                    if (timeoutNs <= 0) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, timeoutNs);
+                    timeoutNs = deadlineNs - System.nanoTime();
+                } else {
+                    LockSupport.park(this);
+                }
+
+                if (Thread.interrupted()) {
+                    if (interruptible && getStatus() == Status.Closed) {
+                        throw new InterruptedException();
+                    }
+                    restoreInterrupt = true;
+                }
             }
+            return true;
         } finally {
-            lock.unlock();
+            //if the wait timed out or was interrupted, the node needs to be removed, else a thread that keeps polling a
+            //closed barrier would make the stack grow without bound.
+            removeWaiter(node);
+
+            if (restoreInterrupt) {
+                Thread.currentThread().interrupt();
+            }
         }
+    }
 
+    /**
+     * Removes a waiter from the waiters stack. The thread of the node is cleared, and all nodes with a cleared thread
+     * are unlinked. If the stack is changed concurrently, the traversal is restarted. Once the barrier is open, the
+     * stack has been detached by the opening thread and there is nothing to remove.
+     *
+     * @param node the node of the waiter to remove.
+     */
+    private void removeWaiter(final WaitNode node) {
+        node.thread = null;
+
+        retry:
+        for (; ; ) {
+            WaitNode pred = null;
+            WaitNode current = waiters;
+            if (current == RELEASED) {
+                return;
+            }
+
+            while (current != null) {
+                final WaitNode next = current.next;
+                if (current.thread != null) {
+                    pred = current;
+                } else if (pred != null) {
+                    pred.next = next;
+                    if (pred.thread == null) {
+                        //the predecessor has been removed concurrently.
+                        continue retry;
+                    }
+                } else if (!___unsafe.compareAndSwapObject(this, waitersOffset, current, next)) {
+                    continue retry;
+                }
+                current = next;
+            }
+            return;
+        }
+    }
+
+    /**
+     * Returns the number of nodes on the waiters stack. Only used for testing purposes.
+     *
+     * @return the number of nodes on the waiters stack.
+     */
+    final int waiterCount() {
+        int count = 0;
+        for (WaitNode node = waiters; node != null && node != RELEASED; node = node.next) {
+            count++;
+        }
+        return count;
+    }
+
+    private void awaitUninterruptibly() {
+        try {
+            await(false, false, 0);
+        } catch (InterruptedException ex) {
+            //can't happen since the wait is not interruptible.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private boolean awaitUninterruptibly(long timeoutNs) {
+        try {
+            return await(false, true, timeoutNs);
+        } catch (InterruptedException ex) {
+            //can't happen since the wait is not interruptible.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Awaits for this barrier to open (commit or abort). This call doesn't influence the state of this
+     * CommitBarrier.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public final void awaitOpen() throws InterruptedException {
+        await(true, false, 0);
     }
 
     /**
@@ -205,16 +532,7 @@ public abstract class CommitBarrier {
      * This call is not responsive to interrupts.
      */
     public final void awaitOpenUninterruptibly() {
-        if (status == Status.Closed) {
-            lock.lock();
-            try {
-                while (status == Status.Closed) {
-                    statusCondition.awaitUninterruptibly();
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
+        awaitUninterruptibly();
     }
 
     /**
@@ -232,23 +550,7 @@ public abstract class CommitBarrier {
             throw new NullPointerException();
         }
 
-        if (status == Status.Closed) {
-            long timeoutNs = unit.toNanos(timeout);
-
-            lock.lockInterruptibly();
-            try {
-                while (status == Status.Closed) {
-                    timeoutNs = statusCondition.awaitNanos(timeoutNs);
-                    if (timeoutNs <= 0) {
-                        return false;
-                    }
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        return true;
+        return await(true, true, unit.toNanos(timeout));
     }
 
     /**
@@ -266,43 +568,7 @@ public abstract class CommitBarrier {
             throw new NullPointerException();
         }
 
-        if (status == Status.Closed) {
-            long timeoutNs = unit.toNanos(timeout);
-            lock.lock();
-            try {
-                while (status == Status.Closed) {
-                    timeoutNs = awaitNanosUninterruptible(timeoutNs);
-                    if (timeoutNs <= 0) {
-                        return false;
-                    }
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        return true;
-    }
-
-    private long awaitNanosUninterruptible(long timeoutNs) {
-        boolean restoreInterrupt = Thread.interrupted();
-
-        try {
-            while (true) {
-                long startNs = System.nanoTime();
-                try {
-                    return statusCondition.awaitNanos(timeoutNs);
-                } catch (InterruptedException ex) {
-                    timeoutNs -= (System.nanoTime() - startNs);
-                    restoreInterrupt = true;
-                }
-            }
-        } finally {
-            //restore interrupt if needed
-            if (restoreInterrupt) {
-                Thread.currentThread().interrupt();
-            }
-        }
+        return awaitUninterruptibly(unit.toNanos(timeout));
     }
 
     /**
@@ -331,32 +597,47 @@ public abstract class CommitBarrier {
      * @throws CommitBarrierOpenException if the CommitBarrier already is aborted or committed.
      */
     public final void setTimeout(final long timeout, final TimeUnit unit) {
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    Runnable command = new Runnable() {
-                        @Override
-                        public void run() {
-                            try {
-                                abort();
-                            } catch (IllegalStateException ignore) {
-                            }
+        switch (getStatus()) {
+            case Closed:
+                Runnable command = new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            abort();
+                        } catch (IllegalStateException ignore) {
                         }
-                    };
-                    executorService.schedule(command, timeout, unit);
-                    break;
-                case Committed:
-                    String commitMsg = "Can't set a timeout on an already commit CommitBarrier.";
-                    throw new CommitBarrierOpenException(commitMsg);
-                case Aborted:
-                    String abortMsg = "Can't set a timeout on an already aborted CommitBarrier.";
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new IllegalStateException();
+                    }
+                };
+                executorService.schedule(command, timeout, unit);
+                break;
+            case Committed:
+                String commitMsg = "Can't set a timeout on an already commit CommitBarrier.";
+                throw new CommitBarrierOpenException(commitMsg);
+            case Aborted:
+                String abortMsg = "Can't set a timeout on an already aborted CommitBarrier.";
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Pushes a task on the onCommit or onAbort tasks stack.
+     *
+     * @return true if the task was pushed, false if the tasks already were drained because the barrier opened.
+     */
+    private boolean pushTask(long offset, Runnable task) {
+        final TaskNode node = new TaskNode(task, null);
+        for (; ; ) {
+            final TaskNode head = (TaskNode) ___unsafe.getObjectVolatile(this, offset);
+            if (head == DRAINED) {
+                return false;
+            }
+
+            node.next = head;
+            if (___unsafe.compareAndSwapObject(this, offset, head, node)) {
+                return true;
             }
-        } finally {
-            lock.unlock();
         }
     }
 
@@ -373,31 +654,25 @@ public abstract class CommitBarrier {
      * @throws CommitBarrierOpenException if this CommitBarrier already is aborted or committed.
      */
     public final void registerOnAbortTask(final Runnable task) {
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    if (task == null) {
-                        throw new NullPointerException();
-                    }
-
-                    if (onAbortTasks == null) {
-                        onAbortTasks = new LinkedList<Runnable>();
-                    }
+        if (getStatus() == Status.Closed) {
+            if (task == null) {
+                throw new NullPointerException();
+            }
 
-                    onAbortTasks.add(task);
-                    break;
-                case Committed:
-                    String commitMsg = "Can't register on abort task on already committed CommitBarrier";
-                    throw new CommitBarrierOpenException(commitMsg);
-                case Aborted:
-                    String abortMsg = "Can't register on abort task on already aborted CommitBarrier";
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new IllegalStateException();
+            if (pushTask(onAbortTasksOffset, task)) {
+                return;
             }
-        } finally {
-            lock.unlock();
+        }
+
+        switch (getStatus()) {
+            case Committed:
+                String commitMsg = "Can't register on abort task on already committed CommitBarrier";
+                throw new CommitBarrierOpenException(commitMsg);
+            case Aborted:
+                String abortMsg = "Can't register on abort task on already aborted CommitBarrier";
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
         }
     }
 
@@ -414,53 +689,30 @@ public abstract class CommitBarrier {
      * @throws CommitBarrierOpenException if this CommitBarrier already is aborted or committed.
      */
     public final void registerOnCommitTask(final Runnable task) {
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    if (task == null) {
-                        throw new NullPointerException();
-                    }
-
-                    if (onCommitTasks == null) {
-                        onCommitTasks = new LinkedList<Runnable>();
-                    }
+        if (getStatus() == Status.Closed) {
+            if (task == null) {
+                throw new NullPointerException();
+            }
 
-                    onCommitTasks.add(task);
-                    break;
-                case Committed:
-                    String commitMsg = "Can't register on commit task on already committed CommitBarrier";
-                    throw new CommitBarrierOpenException(commitMsg);
-                case Aborted:
-                    String abortMsg = "Can't register on commit task on already aborted CommitBarrier";
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new IllegalStateException();
+            if (pushTask(onCommitTasksOffset, task)) {
+                return;
             }
-        } finally {
-            lock.unlock();
         }
-    }
 
-    /**
-     * Adds a waiters.
-     * <p/>
-     * Should only be called when the main lock is acquired.
-     *
-     * @throws IllegalStateException if the transaction isn't closed.
-     */
-    protected final void addJoiner() {
-        if (status != Status.Closed) {
-            throw new IllegalStateException();
+        switch (getStatus()) {
+            case Committed:
+                String commitMsg = "Can't register on commit task on already committed CommitBarrier";
+                throw new CommitBarrierOpenException(commitMsg);
+            case Aborted:
+                String abortMsg = "Can't register on commit task on already aborted CommitBarrier";
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
         }
-
-        numberWaiting++;
     }
 
     /**
      * Finishes a Txn.
-     * <p/>
-     * Can be called without the mainlock is acquired.
      *
      * @param tx the transaction to finish
      */
@@ -481,8 +733,6 @@ public abstract class CommitBarrier {
 
     /**
      * Ensures that a transaction is not dead.
-     * <p/>
-     * Can be called without the mainlock is acquired.
      *
      * @param tx        the transaction to check.
      * @param operation the name of the operation to checks if this transaction is not dead. Needed to provide
@@ -503,6 +753,44 @@ public abstract class CommitBarrier {
         }
     }
 
+    /**
+     * Adds the prepared transaction as waiting party. If the barrier opened after the transaction was prepared,
+     * the transaction is aborted.
+     *
+     * @param tx the prepared transaction.
+     * @return the onCommitTasks that need to be executed if the transaction committed this CommitBarrier, null
+     *         otherwise.
+     * @throws CommitBarrierOpenException if this CommitBarrier isn't closed.
+     */
+    private List<Runnable> addPreparedJoiner(final Txn tx) {
+        try {
+            return addJoiner();
+        } catch (CommitBarrierOpenException ex) {
+            tx.abort();
+            throw ex;
+        }
+    }
+
+    /**
+     * Aborts this CommitBarrier and the transaction after the thread was interrupted while waiting. If the barrier
+     * opened in the meantime, the interrupt is restored and the transaction is finished based on the outcome.
+     *
+     * @param tx the prepared transaction.
+     * @param ex the InterruptedException.
+     * @throws InterruptedException if the barrier was aborted.
+     */
+    private void abortAfterInterrupt(final Txn tx, final InterruptedException ex) throws InterruptedException {
+        final List<Runnable> postAbortTasks = signalAborted();
+        if (postAbortTasks == null) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        tx.abort();
+        executeTasks(postAbortTasks);
+        throw ex;
+    }
+
     /**
      * Joins this CommitBarrier with the provided transaction. If the CommitBarrier can't commit yet, the method
      * will block.
@@ -523,44 +811,31 @@ public abstract class CommitBarrier {
     public void joinCommit(final Txn tx) throws InterruptedException {
         ensureNotDead(tx, "joinCommit");
 
-        List<Runnable> tasks = null;
+        switch (getStatus()) {
+            case Closed:
+                break;
+            case Committed:
+                String committedMsg = format("Can't await commit on already committed VetoCommitBarrier " +
+                        "with transaction %s", tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(committedMsg);
+            case Aborted:
+                String abortMsg = format("Can't await commit on already aborted VetoCommitBarrier " +
+                        "with transaction %s", tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
+        }
 
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    tx.prepare();
-                    addJoiner();
-                    if (isLastParty()) {
-                        tasks = signalCommit();
-                    } else {
-                        while (status == Status.Closed) {
-                            try {
-                                statusCondition.await();
-                            } catch (InterruptedException ex) {
-                                signalAborted();
-                                tx.abort();
-                                throw ex;
-                            }
-                        }
-                    }
-                    break;
-                case Committed:
-                    String committedMsg = format("Can't await commit on already committed VetoCommitBarrier " +
-                            "with transaction %s", tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(committedMsg);
-                case Aborted:
-                    String abortMsg = format("Can't await commit on already aborted VetoCommitBarrier " +
-                            "with transaction %s", tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new IllegalStateException();
+        tx.prepare();
+        final List<Runnable> tasks = addPreparedJoiner(tx);
+        if (tasks == null) {
+            try {
+                await(true, false, 0);
+            } catch (InterruptedException ex) {
+                abortAfterInterrupt(tx, ex);
             }
-        } finally {
-            lock.unlock();
         }
 
-        //todo: the the thread is interrupted, tx is not aborted.
         finish(tx);
 
         executeTasks(tasks);
@@ -582,39 +857,29 @@ public abstract class CommitBarrier {
     public void joinCommitUninterruptibly(final Txn tx) {
         ensureNotDead(tx, "joinCommitUninterruptibly");
 
-        List<Runnable> postCommitTasks = null;
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    tx.prepare();
-                    addJoiner();
-
-                    if (isLastParty()) {
-                        postCommitTasks = signalCommit();
-                    } else {
-                        while (status == Status.Closed) {
-                            statusCondition.awaitUninterruptibly();
-                        }
-                    }
-                    break;
-                case Aborted:
-                    tx.abort();
+        switch (getStatus()) {
+            case Closed:
+                break;
+            case Aborted:
+                tx.abort();
 
-                    String abortedMsg = format("Can't call joinCommitUninterruptible on already aborted " +
-                            "CountDownCommitBarrier with transaction %s ", tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(abortedMsg);
-                case Committed:
-                    tx.abort();
+                String abortedMsg = format("Can't call joinCommitUninterruptible on already aborted " +
+                        "CountDownCommitBarrier with transaction %s ", tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(abortedMsg);
+            case Committed:
+                tx.abort();
 
-                    String commitMsg = format("Can't call joinCommitUninterruptible on already committed " +
-                            "CountDownCommitBarrier with transaction %s ", tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(commitMsg);
-                default:
-                    throw new IllegalStateException();
-            }
-        } finally {
-            lock.unlock();
+                String commitMsg = format("Can't call joinCommitUninterruptible on already committed " +
+                        "CountDownCommitBarrier with transaction %s ", tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(commitMsg);
+            default:
+                throw new IllegalStateException();
+        }
+
+        tx.prepare();
+        final List<Runnable> postCommitTasks = addPreparedJoiner(tx);
+        if (postCommitTasks == null) {
+            awaitUninterruptibly();
         }
 
         finish(tx);
@@ -635,36 +900,34 @@ public abstract class CommitBarrier {
     public boolean tryJoinCommit(final Txn tx) {
         ensureNotDead(tx, "tryJoinCommit");
 
+        switch (getStatus()) {
+            case Closed:
+                break;
+            case Aborted:
+                tx.abort();
+                String abortMsg = format("[%s] Can't call tryJoinCommit on already aborted " +
+                        "CountDownCommitBarrier", tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(abortMsg);
+            case Committed:
+                tx.abort();
+                String commitMsg = format("[%s] Can't call tryJoinCommit on already committed " +
+                        "CountDownCommitBarrier", tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(commitMsg);
+            default:
+                throw new IllegalStateException();
+        }
+
         List<Runnable> postCommitTasks = null;
         boolean abort = true;
-        lock.lock();
         try {
-            switch (status) {
-                case Closed:
-                    tx.prepare();
-                    addJoiner();
-
-                    if (isLastParty()) {
-                        postCommitTasks = signalCommit();
-                        abort = false;
-                    } else {
-                        postCommitTasks = signalAborted();
-                    }
-                    break;
-                case Aborted:
-                    String abortMsg = format("[%s] Can't call tryJoinCommit on already aborted " +
-                            "CountDownCommitBarrier", tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(abortMsg);
-                case Committed:
-                    String commitMsg = format("[%s] Can't call tryJoinCommit on already committed " +
-                            "CountDownCommitBarrier", tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(commitMsg);
-                default:
-                    throw new IllegalStateException();
+            tx.prepare();
+            postCommitTasks = addJoiner();
+            if (postCommitTasks != null) {
+                abort = false;
+            } else {
+                postCommitTasks = signalAborted();
             }
-
         } finally {
-            lock.unlock();
             if (abort) {
                 tx.abort();
             } else {
@@ -702,48 +965,40 @@ public abstract class CommitBarrier {
     public boolean tryJoinCommit(final Txn tx, final long timeout, final TimeUnit unit) throws InterruptedException {
         ensureNotDead(tx, "tryJoinCommit");
 
-        long timeoutNs = unit.toNanos(timeout);
-
-        List<Runnable> postCommitTasks = null;
+        final long timeoutNs = unit.toNanos(timeout);
+
+        switch (getStatus()) {
+            case Closed:
+                break;
+            case Committed:
+                String commitMsg = "Can't await commit on an already committed VetoCommitBarrier";
+                throw new CommitBarrierOpenException(commitMsg);
+            case Aborted:
+                String abortMsg = "Can't await commit on an already aborted VetoCommitBarrier";
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
+        }
 
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    tx.prepare();
-                    addJoiner();
-                    if (isLastParty()) {
-                        postCommitTasks = signalCommit();
-                    } else {
-                        while (status == Status.Closed) {
-                            try {
-                                timeoutNs = statusCondition.awaitNanos(timeoutNs);
-                                if (timeoutNs <= 0) {
-                                    signalAborted();
-                                    tx.abort();
-                                    return false;
-                                }
-                            } catch (InterruptedException ex) {
-                                signalAborted();
-                                tx.abort();
-                                //for the time being.. needs to be replaced with a really uninterruptible version
-                                throw ex;
-                            }
-                        }
-                    }
+        tx.prepare();
+        final List<Runnable> postCommitTasks = addPreparedJoiner(tx);
+        if (postCommitTasks == null) {
+            boolean open = true;
+            try {
+                open = await(true, true, timeoutNs);
+            } catch (InterruptedException ex) {
+                abortAfterInterrupt(tx, ex);
+            }
 
-                    break;
-                case Committed:
-                    String commitMsg = "Can't await commit on an already committed VetoCommitBarrier";
-                    throw new CommitBarrierOpenException(commitMsg);
-                case Aborted:
-                    String abortMsg = "Can't await commit on an already aborted VetoCommitBarrier";
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new NullPointerException();
+            if (!open) {
+                final List<Runnable> postAbortTasks = signalAborted();
+                if (postAbortTasks != null) {
+                    tx.abort();
+                    executeTasks(postAbortTasks);
+                    return false;
+                }
+                //the barrier opened just after the timeout, so finish the transaction based on the outcome.
             }
-        } finally {
-            lock.unlock();
         }
 
         finish(tx);
@@ -773,41 +1028,30 @@ public abstract class CommitBarrier {
     public boolean tryJoinCommitUninterruptibly(final Txn tx, final long timeout, final TimeUnit unit) {
         ensureNotDead(tx, "tryJoinCommitUninterruptibly");
 
-        long timeoutNs = unit.toNanos(timeout);
+        final long timeoutNs = unit.toNanos(timeout);
+
+        switch (getStatus()) {
+            case Closed:
+                break;
+            case Committed:
+                String commitMsg = "Can't await commit on an already committed VetoCommitBarrier";
+                throw new CommitBarrierOpenException(commitMsg);
+            case Aborted:
+                String abortMsg = "Can't await commit on an already aborted VetoCommitBarrier";
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
+        }
 
-        lock.lock();
-        try {
-            switch (status) {
-                case Closed:
-                    tx.prepare();
-                    addJoiner();
-                    while (status == Status.Closed) {
-                        try {
-                            timeoutNs = statusCondition.awaitNanos(timeoutNs);
-                            if (timeoutNs <= 0) {
-                                signalAborted();
-                                tx.abort();
-                                return false;
-                            }
-                        } catch (InterruptedException ex) {
-                            signalAborted();
-                            tx.abort();
-                            //for the time being.. needs to be replaced with a really uninterruptible version
-                            throw new RuntimeException(ex);
-                        }
-                    }
-                    break;
-                case Committed:
-                    String commitMsg = "Can't await commit on an already committed VetoCommitBarrier";
-                    throw new CommitBarrierOpenException(commitMsg);
-                case Aborted:
-                    String abortMsg = "Can't await commit on an already aborted VetoCommitBarrier";
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new NullPointerException();
+        tx.prepare();
+        final List<Runnable> postCommitTasks = addPreparedJoiner(tx);
+        if (postCommitTasks == null && !awaitUninterruptibly(timeoutNs)) {
+            final List<Runnable> postAbortTasks = signalAborted();
+            if (postAbortTasks != null) {
+                tx.abort();
+                executeTasks(postAbortTasks);
+                return false;
             }
-        } finally {
-            lock.unlock();
         }
 
         finish(tx);
@@ -815,9 +1059,36 @@ public abstract class CommitBarrier {
         throw new TodoException();
     }
 
-    protected abstract boolean isLastParty();
+    /**
+     * Checks if a party that joins is the last party, so that the CommitBarrier can commit.
+     *
+     * @param numberWaiting the number of waiting parties including the party that joins.
+     * @param parties       the number of parties.
+     * @return true if the last party, false otherwise.
+     */
+    protected abstract boolean isLastParty(int numberWaiting, int parties);
 
     enum Status {
         Closed, Committed, Aborted
     }
+
+    static final class WaitNode {
+        volatile Thread thread;
+        volatile WaitNode next;
+
+        WaitNode(Thread thread, WaitNode next) {
+            this.thread = thread;
+            this.next = next;
+        }
+    }
+
+    static final class TaskNode {
+        final Runnable task;
+        TaskNode next;
+
+        TaskNode(Runnable task, TaskNode next) {
+            this.task = task;
+            this.next = next;
+        }
+    }
 }
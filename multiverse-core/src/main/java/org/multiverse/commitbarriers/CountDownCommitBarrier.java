@@ -36,10 +36,8 @@ import static java.lang.String.format;
  */
 public final class CountDownCommitBarrier extends CommitBarrier {
 
-    private volatile int parties;
-
     /**
-     * Create a new CountDownCommitBarrier that uses an unfair lock.
+     * Create a new CountDownCommitBarrier that wakes up the waiting threads in any order.
      *
      * @param parties the number of parties waiting. If the number of parties is 0, the VetoCommitBarrier is created
      *                committed, else it will be closed.
@@ -54,17 +52,18 @@ public final class CountDownCommitBarrier extends CommitBarrier {
      *
      * @param parties the number of parties waiting. If the number of parties is 0, the VetoCommitBarrier is created
      *                committed, else it will be closed.
-     * @param fair    if the lock bu this CountDownCommitBarrier is fair.
+     * @param fair    if the waiting threads are woken up in the order they started waiting.
      * @throws IllegalArgumentException if parties smaller than 0.
      */
     public CountDownCommitBarrier(int parties, boolean fair) {
-        super(parties == 0 ? Status.Committed : Status.Closed, fair);
+        super(parties == 0 ? Status.Committed : Status.Closed, checkParties(parties), fair);
+    }
 
+    private static int checkParties(int parties) {
         if (parties < 0) {
             throw new IllegalArgumentException();
         }
-
-        this.parties = parties;
+        return parties;
     }
 
     /**
@@ -73,11 +72,12 @@ public final class CountDownCommitBarrier extends CommitBarrier {
      * @return the number of parties.
      */
     public int getParties() {
-        return parties;
+        return getNumberOfParties();
     }
 
-    protected boolean isLastParty() {
-        return getNumberWaiting() == parties;
+    @Override
+    protected boolean isLastParty(int numberWaiting, int parties) {
+        return numberWaiting == parties;
     }
 
     /**
@@ -88,27 +88,16 @@ public final class CountDownCommitBarrier extends CommitBarrier {
      * as the {@link java.util.concurrent.CountDownLatch#countDown()} method provides.
      */
     public void countDown() {
-        List<Runnable> onCommitTasks = null;
+        if (!isClosed()) {
+            return;
+        }
 
-        lock.lock();
+        final List<Runnable> onCommitTasks;
         try {
-            switch (getStatus()) {
-                case Closed:
-                    addJoiner();
-
-                    if (isLastParty()) {
-                        onCommitTasks = signalCommit();
-                    }
-                    break;
-                case Aborted:
-                    break;
-                case Committed:
-                    break;
-                default:
-                    throw new IllegalStateException();
-            }
-        } finally {
-            lock.unlock();
+            onCommitTasks = addJoiner();
+        } catch (CommitBarrierOpenException ignore) {
+            //the barrier opened concurrently.
+            return;
         }
 
         executeTasks(onCommitTasks);
@@ -142,27 +131,22 @@ public final class CountDownCommitBarrier extends CommitBarrier {
             throw new IllegalArgumentException();
         }
 
-        lock.lock();
-        try {
-            switch (getStatus()) {
-                case Closed:
-                    if (extra == 0) {
-                        return;
-                    }
+        switch (getStatus()) {
+            case Closed:
+                if (extra == 0) {
+                    return;
+                }
 
-                    parties += extra;
-                    break;
-                case Aborted:
-                    String abortMsg = "Can't call countDown on already aborted CountDownCommitBarrier";
-                    throw new CommitBarrierOpenException(abortMsg);
-                case Committed:
-                    String commitMsg = "Can't call countDown on already committed CountDownCommitBarrier";
-                    throw new CommitBarrierOpenException(commitMsg);
-                default:
-                    throw new IllegalStateException();
-            }
-        } finally {
-            lock.unlock();
+                addParties(extra);
+                break;
+            case Aborted:
+                String abortMsg = "Can't call countDown on already aborted CountDownCommitBarrier";
+                throw new CommitBarrierOpenException(abortMsg);
+            case Committed:
+                String commitMsg = "Can't call countDown on already committed CountDownCommitBarrier";
+                throw new CommitBarrierOpenException(commitMsg);
+            default:
+                throw new IllegalStateException();
         }
     }
 
@@ -209,30 +193,25 @@ public final class CountDownCommitBarrier extends CommitBarrier {
             throw new IllegalArgumentException();
         }
 
-        lock.lock();
-        try {
-            switch (getStatus()) {
-                case Closed:
-                    if (extra == 0) {
-                        return;
-                    }
+        switch (getStatus()) {
+            case Closed:
+                if (extra == 0) {
+                    return;
+                }
 
-                    parties += extra;
-                    tx.register(new RestorePartiesCompensatingTask(extra));
-                    break;
-                case Aborted:
-                    String abortMsg = format("[%s] Can't call incParties on already aborted CountDownCommitBarrier",
-                            tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(abortMsg);
-                case Committed:
-                    String commitMsg = format("[%s] Can't call incParties on already committed CountDownCommitBarrier",
-                            tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(commitMsg);
-                default:
-                    throw new IllegalStateException();
-            }
-        } finally {
-            lock.unlock();
+                addParties(extra);
+                tx.register(new RestorePartiesCompensatingTask(extra));
+                break;
+            case Aborted:
+                String abortMsg = format("[%s] Can't call incParties on already aborted CountDownCommitBarrier",
+                        tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(abortMsg);
+            case Committed:
+                String commitMsg = format("[%s] Can't call incParties on already committed CountDownCommitBarrier",
+                        tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(commitMsg);
+            default:
+                throw new IllegalStateException();
         }
     }
 
@@ -255,17 +234,16 @@ public final class CountDownCommitBarrier extends CommitBarrier {
                 return;
             }
 
-            List<Runnable> onCommitTasks = null;
-            lock.lock();
+            if (!isClosed()) {
+                return;
+            }
+
+            final List<Runnable> onCommitTasks;
             try {
-                if (getStatus() == Status.Closed) {
-                    parties -= extra;
-                    if (isLastParty()) {
-                        onCommitTasks = signalCommit();
-                    }
-                }
-            } finally {
-                lock.unlock();
+                onCommitTasks = addParties(-extra);
+            } catch (CommitBarrierOpenException ignore) {
+                //the barrier opened concurrently.
+                return;
             }
             executeTasks(onCommitTasks);
         }
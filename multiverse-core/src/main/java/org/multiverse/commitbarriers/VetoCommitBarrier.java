@@ -19,7 +19,7 @@ import static java.lang.String.format;
 public final class VetoCommitBarrier extends CommitBarrier {
 
     /**
-     * Creates a new VetoCommitBarrier that uses an unfair TxnLock.
+     * Creates a new VetoCommitBarrier that wakes up the waiting threads in any order.
      */
     public VetoCommitBarrier() {
         this(false);
@@ -28,14 +28,14 @@ public final class VetoCommitBarrier extends CommitBarrier {
     /**
      * Creates a new VetoCommitBarrier.
      *
-     * @param fair if the lock should be fair.
+     * @param fair if the waiting threads are woken up in the order they started waiting.
      */
     public VetoCommitBarrier(boolean fair) {
         super(Status.Closed, fair);
     }
 
     @Override
-    protected boolean isLastParty() {
+    protected boolean isLastParty(int numberWaiting, int parties) {
         return false;
     }
 
@@ -54,27 +54,22 @@ public final class VetoCommitBarrier extends CommitBarrier {
      * @throws CommitBarrierOpenException if the VetoCommitBarrier already is aborted.
      */
     public void atomicVetoCommit() {
-        List<Runnable> postCommitTasks = null;
-        lock.lock();
-        try {
-            switch (getStatus()) {
-                case Closed:
-                    postCommitTasks = signalCommit();
-                    break;
-                case Committed:
-                    //ignore it.
-                    return;
-                case Aborted:
-                    String abortMsg = "Can't veto a commit on already aborted VetoCommitBarrier";
-                    throw new CommitBarrierOpenException(abortMsg);
-                default:
-                    throw new IllegalStateException();
-            }
-        } finally {
-            lock.unlock();
+        final List<Runnable> postCommitTasks = signalCommit();
+        if (postCommitTasks != null) {
+            executeTasks(postCommitTasks);
+            return;
         }
 
-        executeTasks(postCommitTasks);
+        switch (getStatus()) {
+            case Committed:
+                //ignore it.
+                return;
+            case Aborted:
+                String abortMsg = "Can't veto a commit on already aborted VetoCommitBarrier";
+                throw new CommitBarrierOpenException(abortMsg);
+            default:
+                throw new IllegalStateException();
+        }
     }
 
     /**
@@ -98,29 +93,32 @@ public final class VetoCommitBarrier extends CommitBarrier {
     public void vetoCommit(Txn tx) {
         ensureNotDead(tx, "vetoCommit");
 
-        List<Runnable> postCommitTasks = null;
-        lock.lock();
-        try {
-            switch (getStatus()) {
-                case Closed:
-                    tx.prepare();
-                    postCommitTasks = signalCommit();
-                    break;
-                case Aborted:
-                    String abortMsg = format(
-                            "[%s] Can't veto commit on already aborted VetoCommitBarrier",
-                            tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(abortMsg);
-                case Committed:
-                    String commitMsg = format(
-                            "[%s] Can't veto commit on already committed VetoCommitBarrier",
-                            tx.getConfig().getFamilyName());
-                    throw new CommitBarrierOpenException(commitMsg);
-                default:
-                    throw new IllegalStateException();
-            }
-        } finally {
-            lock.unlock();
+        switch (getStatus()) {
+            case Closed:
+                tx.prepare();
+                break;
+            case Aborted:
+                String abortMsg = format(
+                        "[%s] Can't veto commit on already aborted VetoCommitBarrier",
+                        tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(abortMsg);
+            case Committed:
+                String commitMsg = format(
+                        "[%s] Can't veto commit on already committed VetoCommitBarrier",
+                        tx.getConfig().getFamilyName());
+                throw new CommitBarrierOpenException(commitMsg);
+            default:
+                throw new IllegalStateException();
+        }
+
+        final List<Runnable> postCommitTasks = signalCommit();
+        if (postCommitTasks == null) {
+            //the barrier opened after the transaction was prepared.
+            tx.abort();
+            String msg = format(
+                    "[%s] Can't veto commit on already %s VetoCommitBarrier",
+                    tx.getConfig().getFamilyName(), isAborted() ? "aborted" : "committed");
+            throw new CommitBarrierOpenException(msg);
         }
 
         tx.commit();
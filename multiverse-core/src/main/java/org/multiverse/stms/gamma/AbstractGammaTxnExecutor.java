@@ -13,6 +13,7 @@ public abstract class AbstractGammaTxnExecutor implements GammaTxnExecutor {
     protected final GammaTxnFactory txnFactory;
     protected final GammaTxnConfig txnConfig;
     protected final BackoffPolicy backoffPolicy;
+    protected final GammaTxnExecutorStatistics statistics;
 
     public AbstractGammaTxnExecutor(final GammaTxnFactory txnFactory) {
         if (txnFactory == null) {
@@ -21,5 +22,13 @@ public abstract class AbstractGammaTxnExecutor implements GammaTxnExecutor {
         this.txnFactory = txnFactory;
         this.txnConfig = txnFactory.getConfig();
         this.backoffPolicy = txnConfig.backoffPolicy;
+        this.statistics = txnConfig.statisticsEnabled
+                ? new GammaTxnExecutorStatistics(txnConfig.familyName)
+                : null;
+    }
+
+    @Override
+    public final GammaTxnExecutorStatistics getStatistics() {
+        return statistics;
     }
 }
@@ -0,0 +1,202 @@
+package org.multiverse.stms.gamma;
+
+/**
+ * A pool of objects of a single type that sizes itself based on the observed demand. It is a stack backed by an array
+ * that starts small and is doubled (up to a maximum) when an object is put in a full pool after a take found the pool
+ * empty. So a pool only grows if it was too small to serve the demand.
+ * <p/>
+ * Every {@link #TRIM_INTERVAL} takes the pool is trimmed: the objects that have not been taken during that interval
+ * (the low water mark of the stack) are released and the array is shrunk. So a pool that served a burst, shrinks again
+ * once the burst is over.
+ * <p/>
+ * The pool keeps the number of hits, misses and drops, see {@link #getStatistics()}.
+ * <p/>
+ * An AdaptivePool is not thread safe and should not be shared between threads.
+ *
+ * @param <E> the type of the pooled objects.
+ * @author Peter Veentjer.
+ */
+public final class AdaptivePool<E> {
+
+    public static final int TRIM_INTERVAL = 1 << 16;
+
+    private final String name;
+    private final int initialCapacity;
+    private final int maxCapacity;
+
+    private Object[] items;
+    private int size;
+    private int lowWaterMark;
+    private int highWaterMark;
+    private int takesUntilTrim = TRIM_INTERVAL;
+    private long missesAtLastResize;
+
+    private long hits;
+    private long misses;
+    private long drops;
+
+    /**
+     * Creates an AdaptivePool.
+     *
+     * @param name            the name of the pool (used in the statistics).
+     * @param initialCapacity the initial capacity, and the capacity the pool never shrinks below.
+     * @param maxCapacity     the maximum number of objects the pool keeps.
+     * @throws IllegalArgumentException if initialCapacity is smaller than 0 or larger than maxCapacity.
+     */
+    public AdaptivePool(String name, int initialCapacity, int maxCapacity) {
+        if (initialCapacity < 0 || initialCapacity > maxCapacity) {
+            throw new IllegalArgumentException(
+                    "initialCapacity should be between 0 and maxCapacity " + maxCapacity + ", found " + initialCapacity);
+        }
+
+        this.name = name;
+        this.initialCapacity = initialCapacity;
+        this.maxCapacity = maxCapacity;
+        this.items = new Object[initialCapacity];
+    }
+
+    /**
+     * Takes an object from the pool.
+     *
+     * @return the taken object, or null if the pool is empty.
+     */
+    @SuppressWarnings({"unchecked"})
+    public E take() {
+        if (--takesUntilTrim == 0) {
+            trim();
+        }
+
+        if (size == 0) {
+            misses++;
+            lowWaterMark = 0;
+            return null;
+        }
+
+        hits++;
+        size--;
+        final E item = (E) items[size];
+        items[size] = null;
+        if (size < lowWaterMark) {
+            lowWaterMark = size;
+        }
+        return item;
+    }
+
+    /**
+     * Puts an object in the pool. If the pool is full and there was no demand for a larger pool, the object is
+     * dropped.
+     *
+     * @param item the object to put in the pool.
+     * @return true if the object was pooled, false if it was dropped.
+     */
+    public boolean put(E item) {
+        if (size == items.length && !grow()) {
+            drops++;
+            return false;
+        }
+
+        items[size] = item;
+        size++;
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+        return true;
+    }
+
+    private boolean grow() {
+        if (misses == missesAtLastResize || items.length >= maxCapacity) {
+            return false;
+        }
+
+        resize(Math.min(maxCapacity, Math.max(1, items.length * 2)));
+        return true;
+    }
+
+    private void resize(int capacity) {
+        final Object[] newItems = new Object[capacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        items = newItems;
+        missesAtLastResize = misses;
+    }
+
+    /**
+     * Releases the objects that have not been taken since the previous trim, and shrinks the pool to the capacity
+     * that was needed since the previous trim.
+     */
+    public void trim() {
+        takesUntilTrim = TRIM_INTERVAL;
+
+        //the objects below the low water mark have not been taken, and they would not have been missed.
+        final int needed = highWaterMark - lowWaterMark;
+        final int newSize = size - lowWaterMark;
+        for (int k = newSize; k < size; k++) {
+            items[k] = null;
+        }
+        size = newSize;
+        lowWaterMark = newSize;
+        highWaterMark = newSize;
+
+        int capacity = Math.max(1, initialCapacity);
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        capacity = Math.min(capacity, maxCapacity);
+
+        if (capacity < items.length) {
+            resize(Math.max(capacity, initialCapacity));
+        }
+    }
+
+    /**
+     * Releases all pooled objects and shrinks the pool to its initial capacity. The statistics are not reset.
+     */
+    public void clear() {
+        items = new Object[initialCapacity];
+        size = 0;
+        lowWaterMark = 0;
+        highWaterMark = 0;
+        takesUntilTrim = TRIM_INTERVAL;
+        missesAtLastResize = misses;
+    }
+
+    /**
+     * Returns the number of objects in the pool.
+     *
+     * @return the number of objects in the pool.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the pooled object at the given index without taking it, so the pooled objects can be inspected. Can be
+     * called by another thread than the owner of the pool, but then the result can be out of date.
+     *
+     * @param index the index of the object.
+     * @return the object at the given index, or null if there is none.
+     */
+    @SuppressWarnings({"unchecked"})
+    public E get(int index) {
+        final Object[] items = this.items;
+        return index >= 0 && index < items.length ? (E) items[index] : null;
+    }
+
+    /**
+     * Returns the current capacity of the pool.
+     *
+     * @return the current capacity.
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Returns the statistics of this pool. Can be called by another thread than the owner of the pool, but then the
+     * statistics can be a bit out of date.
+     *
+     * @return the statistics.
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(name, hits, misses, drops, size, items.length);
+    }
+}
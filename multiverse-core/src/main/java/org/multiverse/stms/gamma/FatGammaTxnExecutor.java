@@ -198,13 +198,33 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
         Error cause = null;
 
         try{
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         E result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -214,7 +234,19 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -223,6 +255,10 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -237,11 +273,23 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -432,13 +480,33 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
         Error cause = null;
 
         try{
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         int result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -448,7 +516,19 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -457,6 +537,10 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -471,11 +555,23 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -666,13 +762,33 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
         Error cause = null;
 
         try{
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         long result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -682,7 +798,19 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -691,6 +819,10 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -705,11 +837,23 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -900,13 +1044,33 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
         Error cause = null;
 
         try{
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         double result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -916,7 +1080,19 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -925,6 +1101,10 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -939,11 +1119,23 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -1134,13 +1326,33 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
         Error cause = null;
 
         try{
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         boolean result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -1150,7 +1362,19 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -1159,6 +1383,10 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -1173,11 +1401,23 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -1375,13 +1615,33 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
         Error cause = null;
 
         try{
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return;
                     } catch (RetryError e) {
@@ -1391,7 +1651,19 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -1400,6 +1672,10 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -1414,11 +1690,23 @@ public final class FatGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
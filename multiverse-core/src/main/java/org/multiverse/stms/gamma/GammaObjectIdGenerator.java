@@ -0,0 +1,63 @@
+package org.multiverse.stms.gamma;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the identities of the {@link org.multiverse.stms.gamma.transactionalobjects.GammaObject} instances, used
+ * for indexing them in transactions.
+ * <p/>
+ * Every thread claims a block of sequence numbers from a shared counter, so an id normally is created without any
+ * contention or atomic instruction. The sequence number is scrambled with a multiplication by the 32 bit golden ratio
+ * (Fibonacci hashing). Because the multiplier is odd, this is a bijection: the first 2^32 objects all get a different
+ * id and the ids of objects created after each other differ in the lowest bits, so they spread well over a hash table
+ * that uses a power of 2 size. In contrast with the System.identityHashCode, creating an id doesn't touch the object
+ * header.
+ *
+ * @author Peter Veentjer.
+ */
+public final class GammaObjectIdGenerator {
+
+    /**
+     * The number of sequence numbers a thread claims at once.
+     */
+    public static final int BLOCK_SIZE = 1024;
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private static final AtomicLong nextBlock = new AtomicLong();
+
+    private final static ThreadLocal<IdBlock> threadlocal = new ThreadLocal<IdBlock>() {
+        protected IdBlock initialValue() {
+            return new IdBlock();
+        }
+    };
+
+    /**
+     * Creates a new id for a GammaObject.
+     *
+     * @return the created id.
+     */
+    public static int newId() {
+        final IdBlock block = threadlocal.get();
+        if (block.next == block.end) {
+            block.next = nextBlock.getAndAdd(BLOCK_SIZE);
+            block.end = block.next + BLOCK_SIZE;
+        }
+
+        final long sequence = block.next;
+        block.next = sequence + 1;
+        return scramble(sequence);
+    }
+
+    static int scramble(long sequence) {
+        return (int) sequence * GOLDEN_RATIO;
+    }
+
+    static final class IdBlock {
+        long next;
+        long end;
+    }
+
+    private GammaObjectIdGenerator() {
+    }
+}
@@ -2,28 +2,32 @@ package org.multiverse.stms.gamma;
 
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
 import org.multiverse.stms.gamma.transactionalobjects.CallableNode;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A pool for tranlocals. The pool is not threadsafe and should be connected to a thread (can
  * be stored in a threadlocal). Eventually the performance of the stm will be limited to the rate
  * of cleanup, and using a pool seriously improves scalability.
  * <p/>
- * Improvement: atm there is only one single type of tranlocal. If there are more types of tranlocals,
- * each class needs to have an index. This index can be used to determine the type of ref. If the pool
- * contains an array of arrays, where the first array is index based on the type of the ref, finding the
- * second array (that contains pooled tranlocals) can be found easily.
+ * There are 2 types of tranlocals: the {@link LongTranlocal} for the primitive refs and the {@link RefTranlocal}
+ * for the GammaTxnRef. Each type has its own pool, and the type of the ref determines which pool is used.
  * <p/>
- * ObjectPool is not thread safe and should not be shared between threads.
+ * The pools size themselves based on the observed demand (see {@link AdaptivePool}), so a thread that executes
+ * large transactions gets large pools, and the pools shrink again when the demand drops. The arrays are pooled
+ * per length, and the pool for them only grows for the lengths that are used. The hits, misses and drops of all
+ * pools are available through {@link #getStatistics(List)}.
  * <p/>
- * This class is generated.
+ * ObjectPool is not thread safe and should not be shared between threads.
  *
  * @author Peter Veentjer
  */
 @SuppressWarnings({"ClassWithTooManyFields"})
-public final class GammaObjectPool {
+public final class GammaObjectPool implements GammaConstants {
 
     private final static boolean ENABLED = Boolean.parseBoolean(
             System.getProperty("org.multiverse.stm,gamma.GammaObjectPool.enabled", "true"));
@@ -46,6 +50,13 @@ public final class GammaObjectPool {
     private final static boolean CALLABLENODE_POOLING_ENABLED = Boolean.parseBoolean(
             System.getProperty("org.multiverse.stm.gamma.GammaObjectPool.callableNodePooling", String.valueOf(ENABLED)));
 
+    private final static int MAX_CAPACITY = Integer.parseInt(
+            System.getProperty("org.multiverse.stm.gamma.GammaObjectPool.maxCapacity", "4096"));
+
+    private final static int INITIAL_CAPACITY = Math.min(16, MAX_CAPACITY);
+
+    private final static int MAX_ARRAY_LENGTH = 8192;
+
     private final boolean tranlocalPoolingEnabled;
     private final boolean tranlocalArrayPoolingEnabled;
     private final boolean listenersPoolingEnabled;
@@ -53,17 +64,16 @@ public final class GammaObjectPool {
     private final boolean arrayListPoolingEnabled;
     private final boolean callableNodePoolingEnabled;
 
-    private final Tranlocal[] tranlocals = new Tranlocal[100];
-    private int lastUsedGammaTxnRef = -1;
-
-    private final Listeners[] listenersPool = new Listeners[100];
-    private int listenersPoolIndex = -1;
-
-    private final ArrayList[] arrayListPool = new ArrayList[10];
-    private int arrayListPoolIndex = -1;
-
-    private final CallableNode[] callableNodePool = new CallableNode[100];
-    private int callableNodePoolIndex = -1;
+    private final AdaptivePool<LongTranlocal> longTranlocalPool
+            = new AdaptivePool<LongTranlocal>("longTranlocal", INITIAL_CAPACITY, MAX_CAPACITY);
+    private final AdaptivePool<RefTranlocal> refTranlocalPool
+            = new AdaptivePool<RefTranlocal>("refTranlocal", INITIAL_CAPACITY, MAX_CAPACITY);
+    private final AdaptivePool<Listeners> listenersPool
+            = new AdaptivePool<Listeners>("listeners", INITIAL_CAPACITY, MAX_CAPACITY);
+    private final AdaptivePool<ArrayList> arrayListPool
+            = new AdaptivePool<ArrayList>("arrayList", 10, 64);
+    private final AdaptivePool<CallableNode> callableNodePool
+            = new AdaptivePool<CallableNode>("callableNode", INITIAL_CAPACITY, MAX_CAPACITY);
 
     public GammaObjectPool() {
         arrayListPoolingEnabled = ARRAYLIST_POOLING_ENABLED;
@@ -78,7 +88,7 @@ public final class GammaObjectPool {
      * Takes a Tranlocal from the pool for the specified GammaTxnRef.
      *
      * @param owner the GammaTxnRef to get the Tranlocal for.
-     * @return the pooled tranlocal, or null if none is found.
+     * @return the pooled tranlocal, or a new one if none is found.
      * @throws NullPointerException if owner is null.
      */
     public Tranlocal take(final BaseGammaTxnRef owner) {
@@ -86,19 +96,27 @@ public final class GammaObjectPool {
             throw new NullPointerException();
         }
 
-        if (lastUsedGammaTxnRef == -1) {
-            Tranlocal tranlocal = new Tranlocal();
-            tranlocal.owner = owner;
-            return tranlocal;
-        }
-
-        Tranlocal tranlocal = tranlocals[lastUsedGammaTxnRef];
+        final Tranlocal tranlocal = take(owner.type);
         tranlocal.owner = owner;
-        tranlocals[lastUsedGammaTxnRef] = null;
-        lastUsedGammaTxnRef--;
         return tranlocal;
     }
 
+    /**
+     * Takes a Tranlocal without an owner from the pool that is able to store the value of the given type of ref.
+     *
+     * @param type the type of the ref (one of the TYPE_ constants in {@link GammaConstants}).
+     * @return the pooled tranlocal, or a new one if none is found.
+     */
+    public Tranlocal take(final int type) {
+        if (type == TYPE_REF) {
+            final RefTranlocal tranlocal = refTranlocalPool.take();
+            return tranlocal == null ? new RefTranlocal() : tranlocal;
+        }
+
+        final LongTranlocal tranlocal = longTranlocalPool.take();
+        return tranlocal == null ? new LongTranlocal() : tranlocal;
+    }
+
     /**
      * Puts an old Tranlocal in this pool. If the tranlocal is allowed to be null,
      * the call is ignored. The same goes for when the tranlocal is permanent, since you
@@ -111,15 +129,21 @@ public final class GammaObjectPool {
             return;
         }
 
-        if (lastUsedGammaTxnRef == tranlocals.length - 1) {
-            return;
+        if (tranlocal instanceof RefTranlocal) {
+            refTranlocalPool.put((RefTranlocal) tranlocal);
+        } else {
+            longTranlocalPool.put((LongTranlocal) tranlocal);
         }
-
-        lastUsedGammaTxnRef++;
-        tranlocals[lastUsedGammaTxnRef] = tranlocal;
     }
 
-    private Tranlocal[][] tranlocalArrayPool = new Tranlocal[8193][];
+    // ====================== tranlocal array ===================================
+
+    //indexed by the length of the array, and only as long as the longest pooled array.
+    private Tranlocal[][] tranlocalArrayPool = new Tranlocal[0][];
+    private long tranlocalArrayHits;
+    private long tranlocalArrayMisses;
+    private long tranlocalArrayDrops;
+    private long tranlocalArrayTakesAtLastTrim;
 
     /**
      * Puts a GammaTranlocal array in the pool.
@@ -136,13 +160,21 @@ public final class GammaObjectPool {
             return;
         }
 
-        if (array.length - 1 > tranlocalArrayPool.length) {
+        final int index = array.length;
+
+        if (index > MAX_ARRAY_LENGTH) {
+            tranlocalArrayDrops++;
             return;
         }
 
-        int index = array.length;
+        if (index >= tranlocalArrayPool.length) {
+            final Tranlocal[][] newPool = new Tranlocal[Math.min(MAX_ARRAY_LENGTH, Math.max(index, 2 * tranlocalArrayPool.length)) + 1][];
+            System.arraycopy(tranlocalArrayPool, 0, newPool, 0, tranlocalArrayPool.length);
+            tranlocalArrayPool = newPool;
+        }
 
         if (tranlocalArrayPool[index] != null) {
+            tranlocalArrayDrops++;
             return;
         }
 
@@ -170,14 +202,12 @@ public final class GammaObjectPool {
             return new Tranlocal[size];
         }
 
-        if (size >= tranlocalArrayPool.length) {
-            return new Tranlocal[size];
-        }
-
-        if (tranlocalArrayPool[size] == null) {
+        if (size >= tranlocalArrayPool.length || tranlocalArrayPool[size] == null) {
+            tranlocalArrayMisses++;
             return new Tranlocal[size];
         }
 
+        tranlocalArrayHits++;
         Tranlocal[] array = tranlocalArrayPool[size];
         tranlocalArrayPool[size] = null;
         return array;
@@ -189,14 +219,12 @@ public final class GammaObjectPool {
      * @return the CallableNode from the pool, or null if none available.
      */
     public CallableNode takeCallableNode() {
-        if (!callableNodePoolingEnabled || callableNodePoolIndex == -1) {
+        if (!callableNodePoolingEnabled) {
             return new CallableNode();
         }
 
-        CallableNode node = callableNodePool[callableNodePoolIndex];
-        callableNodePool[callableNodePoolIndex] = null;
-        callableNodePoolIndex--;
-        return node;
+        final CallableNode node = callableNodePool.take();
+        return node == null ? new CallableNode() : node;
     }
 
     /**
@@ -210,13 +238,12 @@ public final class GammaObjectPool {
             throw new NullPointerException();
         }
 
-        if (!callableNodePoolingEnabled || callableNodePoolIndex == callableNodePool.length - 1) {
+        if (!callableNodePoolingEnabled) {
             return;
         }
 
         node.prepareForPooling();
-        callableNodePoolIndex++;
-        callableNodePool[callableNodePoolIndex] = node;
+        callableNodePool.put(node);
     }
 
     // ====================== array list ===================================
@@ -227,14 +254,12 @@ public final class GammaObjectPool {
      * @return the ArrayList from the pool, or null of none is found.
      */
     public ArrayList takeArrayList() {
-        if (!arrayListPoolingEnabled || arrayListPoolIndex == -1) {
+        if (!arrayListPoolingEnabled) {
             return new ArrayList(10);
         }
 
-        ArrayList list = arrayListPool[arrayListPoolIndex];
-        arrayListPool[arrayListPoolIndex] = null;
-        arrayListPoolIndex--;
-        return list;
+        final ArrayList list = arrayListPool.take();
+        return list == null ? new ArrayList(10) : list;
     }
 
     /**
@@ -249,13 +274,12 @@ public final class GammaObjectPool {
             throw new NullPointerException();
         }
 
-        if (!arrayListPoolingEnabled || arrayListPoolIndex == arrayListPool.length - 1) {
+        if (!arrayListPoolingEnabled) {
             return;
         }
 
         list.clear();
-        arrayListPoolIndex++;
-        arrayListPool[arrayListPoolIndex] = list;
+        arrayListPool.put(list);
     }
 
 
@@ -267,14 +291,12 @@ public final class GammaObjectPool {
      * @return the Listeners object taken from the pool. or null if none is taken.
      */
     public Listeners takeListeners() {
-        if (!listenersPoolingEnabled || listenersPoolIndex == -1) {
+        if (!listenersPoolingEnabled) {
             return new Listeners();
         }
 
-        Listeners listeners = listenersPool[listenersPoolIndex];
-        listenersPool[listenersPoolIndex] = null;
-        listenersPoolIndex--;
-        return listeners;
+        final Listeners listeners = listenersPool.take();
+        return listeners == null ? new Listeners() : listeners;
     }
 
     /**
@@ -289,18 +311,21 @@ public final class GammaObjectPool {
             throw new NullPointerException();
         }
 
-        if (!listenersPoolingEnabled || listenersPoolIndex == listenersPool.length - 1) {
+        if (!listenersPoolingEnabled) {
             return;
         }
 
         listeners.prepareForPooling();
-        listenersPoolIndex++;
-        listenersPool[listenersPoolIndex] = listeners;
+        listenersPool.put(listeners);
     }
 
     // ============================= listeners array =============================
 
-    private Listeners[] listenersArray = new Listeners[100000];
+    private Listeners[] listenersArray;
+    private long listenersArrayHits;
+    private long listenersArrayMisses;
+    private long listenersArrayDrops;
+    private long listenersArrayTakesAtLastTrim;
 
     /**
      * Takes a Listeners array from the pool. If an array is returned, it is completely nulled.
@@ -319,16 +344,18 @@ public final class GammaObjectPool {
         }
 
         if (listenersArray == null || listenersArray.length < minimalSize) {
+            listenersArrayMisses++;
             return new Listeners[minimalSize];
         }
 
+        listenersArrayHits++;
         Listeners[] result = listenersArray;
         listenersArray = null;
         return result;
     }
 
     /**
-     * Puts a Listeners array in the pool.
+     * Puts a Listeners array in the pool. Only a single array is pooled; the largest one is kept.
      * <p/>
      * Listeners array should be nulled before being put in the pool. It is not going to be done by this
      * GammaObjectPool but should be done when the listeners on the listeners array are notified.
@@ -345,10 +372,67 @@ public final class GammaObjectPool {
             return;
         }
 
-        if (this.listenersArray != listenersArray) {
+        if (listenersArray.length > MAX_ARRAY_LENGTH
+                || (this.listenersArray != null && this.listenersArray.length >= listenersArray.length)) {
+            listenersArrayDrops++;
             return;
         }
 
         this.listenersArray = listenersArray;
     }
+
+    // ============================= management =============================
+
+    /**
+     * Trims the pools: the objects that have not been used since the previous trim are released. Arrays are only
+     * released if no array of that kind was taken since the previous trim.
+     * <p/>
+     * The pools also trim themselves periodically, so this only needs to be called to release memory
+     * early, e.g. when a thread is going to be idle for a while.
+     */
+    public void trim() {
+        longTranlocalPool.trim();
+        refTranlocalPool.trim();
+        listenersPool.trim();
+        arrayListPool.trim();
+        callableNodePool.trim();
+
+        final long tranlocalArrayTakes = tranlocalArrayHits + tranlocalArrayMisses;
+        if (tranlocalArrayTakes == tranlocalArrayTakesAtLastTrim) {
+            tranlocalArrayPool = new Tranlocal[0][];
+        }
+        tranlocalArrayTakesAtLastTrim = tranlocalArrayTakes;
+
+        final long listenersArrayTakes = listenersArrayHits + listenersArrayMisses;
+        if (listenersArrayTakes == listenersArrayTakesAtLastTrim) {
+            listenersArray = null;
+        }
+        listenersArrayTakesAtLastTrim = listenersArrayTakes;
+    }
+
+    /**
+     * Returns the statistics of all pools in this GammaObjectPool. Can be called by another thread than the owner of
+     * the pool, but then the statistics can be a bit out of date.
+     *
+     * @param result the list the statistics are added to.
+     */
+    public void getStatistics(List<PoolStatistics> result) {
+        result.add(longTranlocalPool.getStatistics());
+        result.add(refTranlocalPool.getStatistics());
+        result.add(listenersPool.getStatistics());
+        result.add(arrayListPool.getStatistics());
+        result.add(callableNodePool.getStatistics());
+
+        int pooledArrays = 0;
+        final Tranlocal[][] tranlocalArrayPool = this.tranlocalArrayPool;
+        for (Tranlocal[] array : tranlocalArrayPool) {
+            if (array != null) {
+                pooledArrays++;
+            }
+        }
+        result.add(new PoolStatistics("tranlocalArray", tranlocalArrayHits, tranlocalArrayMisses,
+                tranlocalArrayDrops, pooledArrays, tranlocalArrayPool.length));
+        result.add(new PoolStatistics("listenersArray", listenersArrayHits, listenersArrayMisses,
+                listenersArrayDrops, listenersArray == null ? 0 : 1, 1));
+    }
 }
@@ -0,0 +1,161 @@
+package org.multiverse.stms.gamma;
+
+import org.multiverse.stms.gamma.transactionalobjects.GammaObject;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.logging.Logger;
+
+/**
+ * A GammaProbe receives callbacks on the important events in the life of a transaction: begin, commit, abort,
+ * read/write conflicts, blocking on a retry and waiting for locks. It can be used to feed an external monitoring tool,
+ * e.g. the Java Flight Recorder events in the multiverse-jfr module.
+ * <p/>
+ * The probe is only called if {@link org.multiverse.MultiverseConstants#PROBING_ENABLED} is set (system property
+ * 'org.multiverse.probing.enabled'). If it isn't, all probe calls are dead code and removed by the JIT. If it is, the
+ * first GammaProbe found with the {@link ServiceLoader} is used, unless one is installed explicitly using
+ * {@link #install(GammaProbe)}.
+ * <p/>
+ * A GammaProbe is called on the hot path of transactions from many threads, so it should be thread-safe and cheap.
+ * All methods have an empty implementation, so only the interesting ones need to be overridden.
+ *
+ * @author Peter Veentjer.
+ */
+public abstract class GammaProbe {
+
+    public static final int ABORT_REASON_CONFLICT = 1;
+    public static final int ABORT_REASON_RETRY = 2;
+    public static final int ABORT_REASON_SPECULATIVE = 3;
+    public static final int ABORT_REASON_FAILURE = 4;
+
+    private static final Logger logger = Logger.getLogger(GammaProbe.class.getName());
+
+    private static final GammaProbe NO_PROBE = new GammaProbe() {
+    };
+
+    private static volatile GammaProbe probe = load();
+
+    private static GammaProbe load() {
+        try {
+            final Iterator<GammaProbe> it = ServiceLoader.load(GammaProbe.class).iterator();
+            if (it.hasNext()) {
+                GammaProbe found = it.next();
+                logger.info("Using GammaProbe " + found.getClass().getName());
+                return found;
+            }
+        } catch (Throwable t) {
+            logger.warning("Failed to load a GammaProbe: " + t);
+        }
+        return NO_PROBE;
+    }
+
+    /**
+     * Returns the installed GammaProbe. The returned value is never null.
+     *
+     * @return the installed GammaProbe.
+     */
+    public static GammaProbe get() {
+        return probe;
+    }
+
+    /**
+     * Installs a GammaProbe. Installing null removes the current probe.
+     *
+     * @param newProbe the GammaProbe to install.
+     */
+    public static void install(GammaProbe newProbe) {
+        probe = newProbe == null ? NO_PROBE : newProbe;
+    }
+
+    /**
+     * Returns a description of the abort reason.
+     *
+     * @param reason one of the ABORT_REASON constants.
+     * @return the description.
+     */
+    public static String toAbortReasonString(int reason) {
+        switch (reason) {
+            case ABORT_REASON_CONFLICT:
+                return "ReadWriteConflict";
+            case ABORT_REASON_RETRY:
+                return "Retry";
+            case ABORT_REASON_SPECULATIVE:
+                return "SpeculativeConfigurationFailure";
+            case ABORT_REASON_FAILURE:
+                return "Failure";
+            default:
+                return "Unknown";
+        }
+    }
+
+    /**
+     * Called when a TxnExecutor starts an attempt.
+     *
+     * @param tx the transaction.
+     */
+    public void txnBegin(GammaTxn tx) {
+    }
+
+    /**
+     * Called when a TxnExecutor committed an attempt.
+     *
+     * @param tx           the committed transaction.
+     * @param readSetSize  the number of refs only read.
+     * @param writeSetSize the number of refs written, constructed or commuted.
+     */
+    public void txnCommit(GammaTxn tx, int readSetSize, int writeSetSize) {
+    }
+
+    /**
+     * Called when an attempt of a TxnExecutor is aborted.
+     *
+     * @param tx     the aborted transaction.
+     * @param reason one of the ABORT_REASON constants.
+     */
+    public void txnAbort(GammaTxn tx, int reason) {
+    }
+
+    /**
+     * Called when a transaction runs into a read/write conflict. The transaction is not aborted yet, so its content can
+     * still be inspected.
+     *
+     * @param tx     the transaction.
+     * @param object the object that caused the conflict (can be null if not known).
+     */
+    public void readWriteConflict(GammaTxn tx, GammaObject object) {
+    }
+
+    /**
+     * Called when a transaction was blocked waiting for an update after a retry.
+     *
+     * @param tx         the transaction.
+     * @param durationNs the time the transaction was blocked.
+     */
+    public void retryWait(GammaTxn tx, long durationNs) {
+    }
+
+    /**
+     * Called when a thread had to spin on a lock of an orec.
+     *
+     * @param object     the object that was locked.
+     * @param lockMode   the desired lock mode.
+     * @param durationNs the time spent spinning.
+     * @param acquired   true if the lock eventually was acquired.
+     */
+    public void lockSpin(GammaObject object, int lockMode, long durationNs, boolean acquired) {
+    }
+
+    /**
+     * Called when a transaction tried to lock a ref and check it for conflicts (so when the lock is acquired at
+     * commit or explicitly using a LockMode).
+     *
+     * @param tx         the transaction.
+     * @param object     the object that was locked.
+     * @param lockMode   the desired lock mode.
+     * @param durationNs the time it took.
+     * @param success    true if the lock was acquired and there was no conflict.
+     */
+    public void lockAcquire(GammaTxn tx, GammaObject object, int lockMode, long durationNs, boolean success) {
+    }
+}
@@ -178,6 +178,15 @@ public final class GammaStm implements Stm {
             return new GammaTxnFactoryBuilderImpl(config.setTraceLevel(traceLevel));
         }
 
+        @Override
+        public final GammaTxnFactoryBuilder setStatisticsEnabled(final boolean statisticsEnabled) {
+            if (statisticsEnabled == config.statisticsEnabled) {
+                return this;
+            }
+
+            return new GammaTxnFactoryBuilderImpl(config.setStatisticsEnabled(statisticsEnabled));
+        }
+
         @Override
         public final GammaTxnFactoryBuilder setTimeoutNs(final long timeoutNs) {
             if (timeoutNs == config.timeoutNs) {
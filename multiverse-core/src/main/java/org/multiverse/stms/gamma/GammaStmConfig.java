@@ -140,6 +140,12 @@ public final class GammaStmConfig {
      */
     public TraceLevel traceLevel = TraceLevel.None;
 
+    /**
+     * If the TxnExecutors should record latency histograms (see {@link GammaTxnExecutorStatistics}). When disabled, the
+     * TxnExecutor doesn't make any System.nanoTime calls.
+     */
+    public boolean statisticsEnabled = false;
+
     /**
      * If control flow errors should be reused. Normally exception reuse would be a very very very bad thing to do. But if they are
      * used to regulate control flow, they can be thrown thousands of times a second and this puts a lot of pressure on the gc. The most
@@ -12,4 +12,12 @@ public interface GammaTxnExecutor extends TxnExecutor {
 
     @Override
     GammaTxnFactory getTxnFactory();
+
+    /**
+     * Returns the latency statistics of this GammaTxnExecutor.
+     *
+     * @return the statistics, or null if statistics are not enabled.
+     * @see org.multiverse.api.TxnFactoryBuilder#setStatisticsEnabled(boolean)
+     */
+    GammaTxnExecutorStatistics getStatistics();
 }
@@ -0,0 +1,276 @@
+package org.multiverse.stms.gamma;
+
+import org.multiverse.utils.LatencyHistogram;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Contains the latency histograms of a single {@link GammaTxnExecutor}. It is only created if
+ * {@link org.multiverse.api.TxnFactoryBuilder#setStatisticsEnabled(boolean)} is set.
+ * <p/>
+ * The following is recorded (all in nanoseconds):
+ * <ol>
+ * <li>total: from entering the execute method until the commit completed, so including all failed attempts,
+ * blocking and backoff.</li>
+ * <li>committed attempt: from the start of the attempt that committed until the commit completed.</li>
+ * <li>commit: the time spent in the commit of the committed attempt.</li>
+ * <li>awaitUpdate: the time a transaction was blocked on a retry.</li>
+ * <li>backoff: the time a transaction was delayed by the BackoffPolicy after a read/write conflict.</li>
+ * </ol>
+ * Every thread records in its own set of histograms, so recording doesn't cause contention. The histograms of all
+ * threads are merged when a snapshot is taken. The histograms of threads that have died are folded into a shared
+ * aggregate and dropped, so thread churn doesn't make the statistics grow.
+ *
+ * @author Peter Veentjer.
+ */
+public final class GammaTxnExecutorStatistics {
+
+    private final String familyName;
+    private final CopyOnWriteArrayList<Recorder> recorders = new CopyOnWriteArrayList<Recorder>();
+    private final ThreadLocal<Recorder> threadLocalRecorder = new ThreadLocal<Recorder>() {
+        @Override
+        protected Recorder initialValue() {
+            Recorder recorder = new Recorder(Thread.currentThread());
+            synchronized (GammaTxnExecutorStatistics.this) {
+                foldDeadRecorders();
+                recorders.add(recorder);
+            }
+            return recorder;
+        }
+    };
+
+    //the merged histograms of the threads that have died. Guarded by 'this'.
+    private LatencyHistogram.Snapshot deadTotal = LatencyHistogram.Snapshot.EMPTY;
+    private LatencyHistogram.Snapshot deadCommittedAttempt = LatencyHistogram.Snapshot.EMPTY;
+    private LatencyHistogram.Snapshot deadCommit = LatencyHistogram.Snapshot.EMPTY;
+    private LatencyHistogram.Snapshot deadAwaitUpdate = LatencyHistogram.Snapshot.EMPTY;
+    private LatencyHistogram.Snapshot deadBackoff = LatencyHistogram.Snapshot.EMPTY;
+
+    public GammaTxnExecutorStatistics(String familyName) {
+        this.familyName = familyName;
+    }
+
+    /**
+     * Returns the family name of the transactions executed by the TxnExecutor these statistics belong to.
+     *
+     * @return the family name.
+     */
+    public String getFamilyName() {
+        return familyName;
+    }
+
+    /**
+     * Records a successful commit.
+     *
+     * @param executeStartNs the time the execute method was entered.
+     * @param attemptStartNs the time the committed attempt started.
+     * @param commitStartNs  the time the commit started.
+     * @param endNs          the time the commit completed.
+     */
+    public void recordCommit(long executeStartNs, long attemptStartNs, long commitStartNs, long endNs) {
+        final Recorder recorder = threadLocalRecorder.get();
+        recorder.total.record(endNs - executeStartNs);
+        recorder.committedAttempt.record(endNs - attemptStartNs);
+        recorder.commit.record(endNs - commitStartNs);
+    }
+
+    /**
+     * Records the time a transaction was blocked waiting for an update after a retry.
+     *
+     * @param durationNs the blocking time.
+     */
+    public void recordAwaitUpdate(long durationNs) {
+        threadLocalRecorder.get().awaitUpdate.record(durationNs);
+    }
+
+    /**
+     * Records the time a transaction was delayed by the BackoffPolicy.
+     *
+     * @param durationNs the backoff time.
+     */
+    public void recordBackoff(long durationNs) {
+        threadLocalRecorder.get().backoff.record(durationNs);
+    }
+
+    /**
+     * Takes a snapshot of the statistics of all threads.
+     *
+     * @return the created Snapshot.
+     */
+    public Snapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Takes a snapshot of the statistics of all threads and resets them.
+     *
+     * @return the created Snapshot.
+     */
+    public Snapshot snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    /**
+     * Resets the statistics of all threads.
+     */
+    public synchronized void reset() {
+        foldDeadRecorders();
+        deadTotal = LatencyHistogram.Snapshot.EMPTY;
+        deadCommittedAttempt = LatencyHistogram.Snapshot.EMPTY;
+        deadCommit = LatencyHistogram.Snapshot.EMPTY;
+        deadAwaitUpdate = LatencyHistogram.Snapshot.EMPTY;
+        deadBackoff = LatencyHistogram.Snapshot.EMPTY;
+
+        for (Recorder recorder : recorders) {
+            recorder.total.reset();
+            recorder.committedAttempt.reset();
+            recorder.commit.reset();
+            recorder.awaitUpdate.reset();
+            recorder.backoff.reset();
+        }
+    }
+
+    /**
+     * Returns the number of threads that currently have their own set of histograms. Threads that have died are not
+     * counted once their histograms have been folded into the aggregate.
+     *
+     * @return the number of recorders.
+     */
+    synchronized int recorderCount() {
+        foldDeadRecorders();
+        return recorders.size();
+    }
+
+    private synchronized Snapshot snapshot(boolean reset) {
+        foldDeadRecorders();
+
+        LatencyHistogram.Snapshot total = deadTotal;
+        LatencyHistogram.Snapshot committedAttempt = deadCommittedAttempt;
+        LatencyHistogram.Snapshot commit = deadCommit;
+        LatencyHistogram.Snapshot awaitUpdate = deadAwaitUpdate;
+        LatencyHistogram.Snapshot backoff = deadBackoff;
+
+        if (reset) {
+            deadTotal = LatencyHistogram.Snapshot.EMPTY;
+            deadCommittedAttempt = LatencyHistogram.Snapshot.EMPTY;
+            deadCommit = LatencyHistogram.Snapshot.EMPTY;
+            deadAwaitUpdate = LatencyHistogram.Snapshot.EMPTY;
+            deadBackoff = LatencyHistogram.Snapshot.EMPTY;
+        }
+
+        for (Recorder recorder : recorders) {
+            total = total.merge(snapshot(recorder.total, reset));
+            committedAttempt = committedAttempt.merge(snapshot(recorder.committedAttempt, reset));
+            commit = commit.merge(snapshot(recorder.commit, reset));
+            awaitUpdate = awaitUpdate.merge(snapshot(recorder.awaitUpdate, reset));
+            backoff = backoff.merge(snapshot(recorder.backoff, reset));
+        }
+
+        return new Snapshot(familyName, total, committedAttempt, commit, awaitUpdate, backoff);
+    }
+
+    /**
+     * Merges the histograms of the threads that have died into the aggregate and removes their recorders. A dead
+     * thread can't record anymore, so nothing is lost. Must be called while holding the lock on 'this'.
+     */
+    private void foldDeadRecorders() {
+        for (Recorder recorder : recorders) {
+            if (recorder.isOwnerAlive()) {
+                continue;
+            }
+
+            deadTotal = deadTotal.merge(recorder.total.snapshot());
+            deadCommittedAttempt = deadCommittedAttempt.merge(recorder.committedAttempt.snapshot());
+            deadCommit = deadCommit.merge(recorder.commit.snapshot());
+            deadAwaitUpdate = deadAwaitUpdate.merge(recorder.awaitUpdate.snapshot());
+            deadBackoff = deadBackoff.merge(recorder.backoff.snapshot());
+            recorders.remove(recorder);
+        }
+    }
+
+    private static LatencyHistogram.Snapshot snapshot(LatencyHistogram histogram, boolean reset) {
+        return reset ? histogram.snapshotAndReset() : histogram.snapshot();
+    }
+
+    private static final class Recorder {
+        //a weak reference so that the statistics don't keep a dead thread reachable.
+        private final WeakReference<Thread> owner;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram committedAttempt = new LatencyHistogram();
+        private final LatencyHistogram commit = new LatencyHistogram();
+        private final LatencyHistogram awaitUpdate = new LatencyHistogram();
+        private final LatencyHistogram backoff = new LatencyHistogram();
+
+        private Recorder(Thread owner) {
+            this.owner = new WeakReference<Thread>(owner);
+        }
+
+        private boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+
+    /**
+     * An immutable snapshot of the GammaTxnExecutorStatistics merged over all threads.
+     */
+    public static final class Snapshot {
+        private final String familyName;
+        private final LatencyHistogram.Snapshot total;
+        private final LatencyHistogram.Snapshot committedAttempt;
+        private final LatencyHistogram.Snapshot commit;
+        private final LatencyHistogram.Snapshot awaitUpdate;
+        private final LatencyHistogram.Snapshot backoff;
+
+        Snapshot(String familyName,
+                 LatencyHistogram.Snapshot total,
+                 LatencyHistogram.Snapshot committedAttempt,
+                 LatencyHistogram.Snapshot commit,
+                 LatencyHistogram.Snapshot awaitUpdate,
+                 LatencyHistogram.Snapshot backoff) {
+            this.familyName = familyName;
+            this.total = total;
+            this.committedAttempt = committedAttempt;
+            this.commit = commit;
+            this.awaitUpdate = awaitUpdate;
+            this.backoff = backoff;
+        }
+
+        public String getFamilyName() {
+            return familyName;
+        }
+
+        public LatencyHistogram.Snapshot getTotal() {
+            return total;
+        }
+
+        public LatencyHistogram.Snapshot getCommittedAttempt() {
+            return committedAttempt;
+        }
+
+        public LatencyHistogram.Snapshot getCommit() {
+            return commit;
+        }
+
+        public LatencyHistogram.Snapshot getAwaitUpdate() {
+            return awaitUpdate;
+        }
+
+        public LatencyHistogram.Snapshot getBackoff() {
+            return backoff;
+        }
+
+        @Override
+        public String toString() {
+            return "GammaTxnExecutorStatistics.Snapshot{" +
+                    "familyName='" + familyName + '\'' +
+                    ", total=" + total +
+                    ", committedAttempt=" + committedAttempt +
+                    ", commit=" + commit +
+                    ", awaitUpdate=" + awaitUpdate +
+                    ", backoff=" + backoff +
+                    '}';
+        }
+    }
+}
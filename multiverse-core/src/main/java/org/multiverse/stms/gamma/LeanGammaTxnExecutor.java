@@ -68,13 +68,33 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
 
             tx = txnFactory.newTransaction(pool);
             transactionContainer.txn=tx;
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         E result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -84,7 +104,19 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -93,6 +125,10 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -107,11 +143,23 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -174,13 +222,33 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
 
             tx = txnFactory.newTransaction(pool);
             transactionContainer.txn=tx;
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         int result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -190,7 +258,19 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -199,6 +279,10 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -213,11 +297,23 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -280,13 +376,33 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
 
             tx = txnFactory.newTransaction(pool);
             transactionContainer.txn=tx;
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         long result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -296,7 +412,19 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -305,6 +433,10 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -319,11 +451,23 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -386,13 +530,33 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
 
             tx = txnFactory.newTransaction(pool);
             transactionContainer.txn=tx;
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         double result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -402,7 +566,19 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -411,6 +587,10 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -425,11 +605,23 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -492,13 +684,33 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
 
             tx = txnFactory.newTransaction(pool);
             transactionContainer.txn=tx;
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         boolean result = callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return result;
                     } catch (RetryError e) {
@@ -508,7 +720,19 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -517,6 +741,10 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -531,11 +759,23 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
@@ -599,13 +839,33 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
 
             tx = txnFactory.newTransaction(pool);
             transactionContainer.txn=tx;
+            final GammaTxnExecutorStatistics statistics = this.statistics;
+            final long executeStartNs = statistics == null ? 0 : System.nanoTime();
+            long attemptStartNs = 0;
             boolean abort = true;
             try {
                 do {
                     try {
                         cause = null;
+                        if (statistics != null) {
+                            attemptStartNs = System.nanoTime();
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnBegin(tx);
+                        }
                         callable.call(tx);
-                        tx.commit();
+                        final int readSetSize = PROBING_ENABLED ? tx.getReadSetSize() : 0;
+                        final int writeSetSize = PROBING_ENABLED ? tx.getWriteSetSize() : 0;
+                        if (statistics == null) {
+                            tx.commit();
+                        } else {
+                            final long commitStartNs = System.nanoTime();
+                            tx.commit();
+                            statistics.recordCommit(executeStartNs, attemptStartNs, commitStartNs, System.nanoTime());
+                        }
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnCommit(tx, readSetSize, writeSetSize);
+                        }
                         abort = false;
                         return;
                     } catch (RetryError e) {
@@ -615,7 +875,19 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                                     txnConfig.familyName));
                             }
                         }
-                        tx.awaitUpdate();
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_RETRY);
+                        }
+                        if (statistics == null) {
+                            tx.awaitUpdate();
+                        } else {
+                            final long awaitStartNs = System.nanoTime();
+                            try {
+                                tx.awaitUpdate();
+                            } finally {
+                                statistics.recordAwaitUpdate(System.nanoTime() - awaitStartNs);
+                            }
+                        }
                     } catch (SpeculativeConfigurationError e) {
                         if(TRACING_ENABLED){
                             if (txnConfig.getTraceLevel().isLoggableFrom(TraceLevel.Coarse)) {
@@ -624,6 +896,10 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_SPECULATIVE);
+                        }
+
                         abort = false;
                         GammaTxn old = tx;
                         tx = txnFactory.upgradeAfterSpeculativeFailure(tx,pool);
@@ -638,11 +914,23 @@ public final class LeanGammaTxnExecutor extends AbstractGammaTxnExecutor{
                             }
                         }
 
-                        backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        if (PROBING_ENABLED) {
+                            GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_CONFLICT);
+                        }
+                        if (statistics == null) {
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                        } else {
+                            final long backoffStartNs = System.nanoTime();
+                            backoffPolicy.delayUninterruptible(tx.getAttempt());
+                            statistics.recordBackoff(System.nanoTime() - backoffStartNs);
+                        }
                     }
                 } while (tx.softReset());
             } finally {
                 if (abort) {
+                    if (PROBING_ENABLED && tx.isAlive()) {
+                        GammaProbe.get().txnAbort(tx, GammaProbe.ABORT_REASON_FAILURE);
+                    }
                     tx.abort();
                 }
 
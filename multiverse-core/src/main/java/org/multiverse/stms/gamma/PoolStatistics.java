@@ -0,0 +1,91 @@
+package org.multiverse.stms.gamma;
+
+import static java.lang.String.format;
+
+/**
+ * A snapshot of the statistics of an {@link AdaptivePool}, or the sum of the statistics of pools with the same name.
+ * <p/>
+ * The hits and misses are the takes that were served by the pool and the takes that found the pool empty (so a new
+ * object needed to be created). The drops are the puts that were ignored because the pool was full.
+ *
+ * @author Peter Veentjer.
+ */
+public final class PoolStatistics {
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long drops;
+    private final long size;
+    private final long capacity;
+
+    public PoolStatistics(String name, long hits, long misses, long drops, long size, long capacity) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.drops = drops;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the sum of these statistics and the given statistics. The name of these statistics is kept.
+     *
+     * @param that the statistics to add.
+     * @return the summed statistics.
+     */
+    public PoolStatistics add(PoolStatistics that) {
+        return new PoolStatistics(name, hits + that.hits, misses + that.misses, drops + that.drops,
+                size + that.size, capacity + that.capacity);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getDrops() {
+        return drops;
+    }
+
+    /**
+     * Returns the number of pooled objects.
+     *
+     * @return the number of pooled objects.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of objects that can be pooled without growing the pool.
+     *
+     * @return the capacity.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the fraction of the takes that was served by the pool.
+     *
+     * @return the hit ratio, or 0 if nothing was taken.
+     */
+    public double getHitRatio() {
+        final long takes = hits + misses;
+        return takes == 0 ? 0 : (double) hits / takes;
+    }
+
+    @Override
+    public String toString() {
+        return format("PoolStatistics{name=%s, hits=%s, misses=%s, drops=%s, size=%s, capacity=%s}",
+                name, hits, misses, drops, size, capacity);
+    }
+}
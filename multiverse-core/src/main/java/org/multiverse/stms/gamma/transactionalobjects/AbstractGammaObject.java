@@ -5,6 +5,8 @@ import org.multiverse.api.LockMode;
 import org.multiverse.api.Txn;
 import org.multiverse.api.exceptions.PanicError;
 import org.multiverse.api.exceptions.TxnMandatoryException;
+import org.multiverse.stms.gamma.GammaObjectIdGenerator;
+import org.multiverse.stms.gamma.GammaProbe;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
@@ -50,16 +52,12 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
     @SuppressWarnings({"VolatileLongOrDoubleField"})
     public volatile long orec;
 
-    //This field has a controlled JMM problem (just like the hashcode of String).
-    protected int identityHashCode;
-
-    //it is important that the maximum threshold is not larger than 1023 (there are 10 bits for the readonly count)
-    private final int readBiasedThreshold;
+    protected final int identityHashCode;
 
     public AbstractGammaObject(GammaStm stm) {
         assert stm != null;
         this.stm = stm;
-        this.readBiasedThreshold = stm.readBiasedThreshold;
+        this.identityHashCode = GammaObjectIdGenerator.newId();
     }
 
     @Override
@@ -91,18 +89,12 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
         }
     }
 
-    //a controlled jmm problem here since identityHashCode is not synchronized/volatile/final.
-    //this is the same as with the hashcode and String.
+    //the identity is created by the GammaObjectIdGenerator when the object is constructed, instead of lazily by the
+    //System.identityHashCode. So no slow path on the first touch, and the identities spread well over the array of the
+    //FatVariableLengthGammaTxn.
     @Override
     public final int identityHashCode() {
-        int tmp = identityHashCode;
-        if (tmp != 0) {
-            return tmp;
-        }
-
-        tmp = System.identityHashCode(this);
-        identityHashCode = tmp;
-        return tmp;
+        return identityHashCode;
     }
 
     public final int atomicGetLockModeAsInt() {
@@ -203,8 +195,10 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
         return hasExclusiveLock(orec);
     }
 
+    //it is important that the maximum threshold is not larger than 1023 (there are 10 bits for the readonly count).
+    //The threshold is read from the stm instead of being copied into every object, to keep the objects small.
     public final int getReadBiasedThreshold() {
-        return readBiasedThreshold;
+        return stm.readBiasedThreshold;
     }
 
     public final long getSurplus() {
@@ -348,12 +342,16 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
     public final int arriveAndLock(int spinCount, final int lockMode) {
         assert lockMode != LOCKMODE_NONE;
 
+        long spinStartNs = 0;
         do {
             final long current = orec;
 
             boolean locked = lockMode == LOCKMODE_READ ? hasWriteOrExclusiveLock(current) : hasAnyLock(current);
 
             if (locked) {
+                if (PROBING_ENABLED && spinStartNs == 0) {
+                    spinStartNs = System.nanoTime();
+                }
                 spinCount--;
                 yieldIfNeeded(spinCount);
                 continue;
@@ -394,10 +392,18 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
                     result += MASK_CONFLICT;
                 }
 
+                if (PROBING_ENABLED && spinStartNs != 0) {
+                    GammaProbe.get().lockSpin(this, lockMode, System.nanoTime() - spinStartNs, true);
+                }
+
                 return result;
             }
         } while (spinCount >= 0);
 
+        if (PROBING_ENABLED && spinStartNs != 0) {
+            GammaProbe.get().lockSpin(this, lockMode, System.nanoTime() - spinStartNs, false);
+        }
+
         return FAILURE;
     }
 
@@ -526,7 +532,7 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
             }
 
             int readonlyCount = getReadonlyCount(current);
-            if (readonlyCount < readBiasedThreshold) {
+            if (readonlyCount < stm.readBiasedThreshold) {
                 readonlyCount++;
             }
 
@@ -536,7 +542,7 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
 
             surplus--;
             final boolean hasExclusiveLock = hasExclusiveLock(current);
-            if (!hasExclusiveLock && surplus == 0 && readonlyCount == readBiasedThreshold) {
+            if (!hasExclusiveLock && surplus == 0 && readonlyCount == stm.readBiasedThreshold) {
                 isReadBiased = true;
                 readonlyCount = 0;
             }
@@ -582,11 +588,11 @@ public abstract class AbstractGammaObject implements GammaObject, TxnLock {
 
             surplus--;
 
-            if (readonlyCount < readBiasedThreshold) {
+            if (readonlyCount < stm.readBiasedThreshold) {
                 readonlyCount++;
             }
 
-            if (surplus == 0 && readonlyCount == readBiasedThreshold) {
+            if (surplus == 0 && readonlyCount == stm.readBiasedThreshold) {
                 isReadBiased = true;
                 readonlyCount = 0;
             }
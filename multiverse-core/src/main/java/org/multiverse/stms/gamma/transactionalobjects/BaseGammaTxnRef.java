@@ -8,6 +8,7 @@ import org.multiverse.api.exceptions.LockedException;
 import org.multiverse.api.exceptions.TxnMandatoryException;
 import org.multiverse.api.functions.*;
 import org.multiverse.stms.gamma.GammaObjectPool;
+import org.multiverse.stms.gamma.GammaProbe;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.GammaStmUtils;
 import org.multiverse.stms.gamma.Listeners;
@@ -26,13 +27,15 @@ import static org.multiverse.stms.gamma.GammaStmUtils.getRequiredThreadLocalGamm
 import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLocalGammaObjectPool;
 import static org.multiverse.utils.Bugshaker.shakeBugs;
 
-@SuppressWarnings({"OverlyComplexClass", "OverlyCoupledClass"})
-public abstract class BaseGammaTxnRef extends AbstractGammaObject {
+/**
+ * The base class of all gamma refs.
+ *
+ * @param <T> the type of {@link Tranlocal} that is used to store the transaction local value.
+ */
+@SuppressWarnings({"OverlyComplexClass", "OverlyCoupledClass", "unchecked"})
+public abstract class BaseGammaTxnRef<T extends Tranlocal> extends AbstractGammaObject {
 
     public final int type;
-    @SuppressWarnings({"VolatileLongOrDoubleField"})
-    public volatile long long_value;
-    public volatile Object ref_value;
 
     protected BaseGammaTxnRef(GammaStm stm, int type) {
         super(stm);
@@ -83,27 +86,31 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         tx.evaluatingCommute = true;
 
         try {
+            if (type == TYPE_REF) {
+                final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+                refTranlocal.ref_value = function.call(refTranlocal.ref_value);
+                return;
+            }
+
+            final LongTranlocal longTranlocal = (LongTranlocal) tranlocal;
             switch (type) {
-                case TYPE_REF:
-                    tranlocal.ref_value = function.call(tranlocal.ref_value);
-                    break;
                 case TYPE_INT:
                     IntFunction intFunction = (IntFunction) function;
-                    tranlocal.long_value = intFunction.call((int) tranlocal.long_value);
+                    longTranlocal.long_value = intFunction.call((int) longTranlocal.long_value);
                     break;
                 case TYPE_LONG:
                     LongFunction longFunction = (LongFunction) function;
-                    tranlocal.long_value = longFunction.call(tranlocal.long_value);
+                    longTranlocal.long_value = longFunction.call(longTranlocal.long_value);
                     break;
                 case TYPE_DOUBLE:
                     DoubleFunction doubleFunction = (DoubleFunction) function;
-                    double doubleResult = doubleFunction.call(GammaStmUtils.longAsDouble(tranlocal.long_value));
-                    tranlocal.long_value = GammaStmUtils.doubleAsLong(doubleResult);
+                    double doubleResult = doubleFunction.call(GammaStmUtils.longAsDouble(longTranlocal.long_value));
+                    longTranlocal.long_value = GammaStmUtils.doubleAsLong(doubleResult);
                     break;
                 case TYPE_BOOLEAN:
                     BooleanFunction booleanFunction = (BooleanFunction) function;
-                    boolean booleanResult = booleanFunction.call(GammaStmUtils.longAsBoolean(tranlocal.long_value));
-                    tranlocal.long_value = GammaStmUtils.booleanAsLong(booleanResult);
+                    boolean booleanResult = booleanFunction.call(GammaStmUtils.longAsBoolean(longTranlocal.long_value));
+                    longTranlocal.long_value = GammaStmUtils.booleanAsLong(booleanResult);
                     break;
                 default:
                     throw new IllegalStateException();
@@ -120,12 +127,13 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
 
         if (type == TYPE_REF) {
-            ref_value = tranlocal.ref_value;
+            final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+            ((GammaTxnRef) this).ref_value = refTranlocal.ref_value;
             //we need to set them to null to prevent memory leaks.
-            tranlocal.ref_value = null;
-            tranlocal.ref_oldValue = null;
+            refTranlocal.ref_value = null;
+            refTranlocal.ref_oldValue = null;
         } else {
-            long_value = tranlocal.long_value;
+            ((LongValueGammaTxnRef) this).long_value = ((LongTranlocal) tranlocal).long_value;
         }
 
         version = tranlocal.version + 1;
@@ -140,7 +148,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         return listenerAfterWrite;
     }
 
-    public final Listeners leanCommit(final Tranlocal tranlocal) {
+    public final Listeners leanCommit(final RefTranlocal tranlocal) {
         assert type == TYPE_REF;
 
         if (tranlocal.mode == TRANLOCAL_READ) {
@@ -149,7 +157,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             return null;
         }
 
-        ref_value = tranlocal.ref_value;
+        ((GammaTxnRef) this).ref_value = tranlocal.ref_value;
         version = tranlocal.version + 1;
 
         Listeners listenerAfterWrite = listeners;
@@ -188,9 +196,14 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
 
         if (!tranlocal.isDirty) {
-            final boolean isDirty = type == TYPE_REF
-                    ? tranlocal.ref_value != tranlocal.ref_oldValue
-                    : tranlocal.long_value != tranlocal.long_oldValue;
+            final boolean isDirty;
+            if (type == TYPE_REF) {
+                final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+                isDirty = refTranlocal.ref_value != refTranlocal.ref_oldValue;
+            } else {
+                final LongTranlocal longTranlocal = (LongTranlocal) tranlocal;
+                isDirty = longTranlocal.long_value != longTranlocal.long_oldValue;
+            }
 
             if (!isDirty) {
                 if (!tranlocal.writeSkewCheck) {
@@ -207,8 +220,9 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
 
     public final void releaseAfterFailure(final Tranlocal tranlocal, final GammaObjectPool pool) {
         if (type == TYPE_REF) {
-            tranlocal.ref_value = null;
-            tranlocal.ref_oldValue = null;
+            final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+            refTranlocal.ref_value = null;
+            refTranlocal.ref_oldValue = null;
         }
 
         if (tranlocal.headCallable != null) {
@@ -241,8 +255,9 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
 
     public final void releaseAfterUpdate(final Tranlocal tranlocal, final GammaObjectPool pool) {
         if (type == TYPE_REF) {
-            tranlocal.ref_value = null;
-            tranlocal.ref_oldValue = null;
+            final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+            refTranlocal.ref_value = null;
+            refTranlocal.ref_oldValue = null;
         }
 
         departAfterUpdateAndUnlock();
@@ -253,8 +268,9 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
 
     public final void releaseAfterReading(final Tranlocal tranlocal, final GammaObjectPool pool) {
         if (type == TYPE_REF) {
-            tranlocal.ref_value = null;
-            tranlocal.ref_oldValue = null;
+            final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+            refTranlocal.ref_value = null;
+            refTranlocal.ref_oldValue = null;
         }
 
         if (tranlocal.hasDepartObligation()) {
@@ -286,13 +302,15 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             tranlocal.owner = this;
             tranlocal.version = version;
             if (type == TYPE_REF) {
-                final Object value = ref_value;
-                tranlocal.ref_value = value;
-                tranlocal.ref_oldValue = value;
+                final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+                final Object value = ((GammaTxnRef) this).ref_value;
+                refTranlocal.ref_value = value;
+                refTranlocal.ref_oldValue = value;
             } else {
-                final long value = long_value;
-                tranlocal.long_value = value;
-                tranlocal.long_oldValue = value;
+                final LongTranlocal longTranlocal = (LongTranlocal) tranlocal;
+                final long value = ((LongValueGammaTxnRef) this).long_value;
+                longTranlocal.long_value = value;
+                longTranlocal.long_oldValue = value;
             }
             tranlocal.lockMode = lockMode;
             tranlocal.hasDepartObligation = (result & MASK_UNREGISTERED) == 0;
@@ -307,13 +325,13 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             if (type == TYPE_REF) {
                 do {
                     readVersion = version;
-                    readRef = ref_value;
+                    readRef = ((GammaTxnRef) this).ref_value;
                     if (SHAKE_BUGS) shakeBugs();
                 } while (readVersion != version);
             } else {
                 do {
                     readVersion = version;
-                    readLong = long_value;
+                    readLong = ((LongValueGammaTxnRef) this).long_value;
                     if (SHAKE_BUGS) shakeBugs();
                 } while (readVersion != version);
             }
@@ -342,11 +360,13 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                 tranlocal.hasDepartObligation = (arriveStatus & MASK_UNREGISTERED) == 0;
 
                 if (type == TYPE_REF) {
-                    tranlocal.ref_value = readRef;
-                    tranlocal.ref_oldValue = readRef;
+                    final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+                    refTranlocal.ref_value = readRef;
+                    refTranlocal.ref_oldValue = readRef;
                 } else {
-                    tranlocal.long_value = readLong;
-                    tranlocal.long_oldValue = readLong;
+                    final LongTranlocal longTranlocal = (LongTranlocal) tranlocal;
+                    longTranlocal.long_value = readLong;
+                    longTranlocal.long_oldValue = readLong;
                 }
 
                 return true;
@@ -359,7 +379,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
     }
 
-    public final Tranlocal openForConstruction(GammaTxn tx) {
+    public final T openForConstruction(GammaTxn tx) {
         if (tx == null) {
             throw new NullPointerException();
         }
@@ -383,15 +403,17 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         tranlocal.setLockMode(LOCKMODE_EXCLUSIVE);
         tranlocal.setDepartObligation(true);
         if (type == TYPE_REF) {
-            tranlocal.ref_value = null;
-            tranlocal.ref_oldValue = null;
+            final RefTranlocal refTranlocal = (RefTranlocal) tranlocal;
+            refTranlocal.ref_value = null;
+            refTranlocal.ref_oldValue = null;
         } else {
-            tranlocal.long_value = 0;
-            tranlocal.long_oldValue = 0;
+            final LongTranlocal longTranlocal = (LongTranlocal) tranlocal;
+            longTranlocal.long_value = 0;
+            longTranlocal.long_oldValue = 0;
         }
     }
 
-    public final Tranlocal openForConstruction(FatMonoGammaTxn tx) {
+    public final T openForConstruction(FatMonoGammaTxn tx) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForConstructionOnBadStatus(this);
         }
@@ -419,20 +441,21 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                 throw tx.abortOpenForConstructionOnBadReference(this);
             }
 
-            return tranlocal;
+            return (T) tranlocal;
         }
 
         if (tranlocal.owner != null) {
             throw tx.abortOnTransactionTooSmall(2);
         }
 
+        final Tranlocal free = tx.selectTranlocal(this);
         tx.hasWrites = true;
-        tranlocal.owner = this;
-        initTranlocalForConstruction(tranlocal);
-        return tranlocal;
+        free.owner = this;
+        initTranlocalForConstruction(free);
+        return (T) free;
     }
 
-    public final Tranlocal openForConstruction(FatVariableLengthGammaTxn tx) {
+    public final T openForConstruction(FatVariableLengthGammaTxn tx) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForConstructionOnBadStatus(this);
         }
@@ -462,7 +485,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                 throw tx.abortOpenForConstructionOnBadReference(this);
             }
 
-            return tranlocal;
+            return (T) tranlocal;
         }
 
         final Tranlocal tranlocal = tx.pool.take(this);
@@ -472,10 +495,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         tx.attach(tranlocal, identityHash);
         tx.size++;
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
-    public final Tranlocal openForConstruction(FatFixedLengthGammaTxn tx) {
+    public final T openForConstruction(FatFixedLengthGammaTxn tx) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForConstructionOnBadStatus(this);
         }
@@ -518,25 +541,26 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             }
 
             tx.shiftInFront(found);
-            return found;
+            return (T) found;
         }
 
         if (newNode == null) {
             throw tx.abortOnTransactionTooSmall(config.maxFixedLengthTransactionSize + 1);
         }
 
+        newNode = tx.ensureSuitableNode(newNode, this);
         newNode.owner = this;
         initTranlocalForConstruction(newNode);
         tx.size++;
         tx.shiftInFront(newNode);
         tx.hasWrites = true;
-        return newNode;
+        return (T) newNode;
     }
     // ============================================================================================
     // =============================== open for read ==============================================
     // ============================================================================================
 
-    public final Tranlocal openForRead(final GammaTxn tx, final int lockMode) {
+    public final T openForRead(final GammaTxn tx, final int lockMode) {
         if (tx == null) {
             throw new NullPointerException();
         }
@@ -556,7 +580,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
     }
 
-    public final Tranlocal openForRead(final LeanMonoGammaTxn tx, int lockMode) {
+    public final T openForRead(final LeanMonoGammaTxn tx, int lockMode) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForReadOnBadStatus(this);
         }
@@ -565,11 +589,11 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOpenForReadOrWriteOnExplicitLockingDetected(this);
         }
 
-        final Tranlocal tranlocal = tx.tranlocal;
+        final RefTranlocal tranlocal = tx.tranlocal;
 
         //noinspection ObjectEquality
         if (tranlocal.owner == this) {
-            return tranlocal;
+            return (T) tranlocal;
         }
 
         if (tranlocal.owner != null) {
@@ -595,7 +619,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             long readVersion;
             do {
                 readVersion = version;
-                readRef = ref_value;
+                readRef = ((GammaTxnRef) this).ref_value;
                 if (SHAKE_BUGS) shakeBugs();
 
             } while (readVersion != version);
@@ -626,10 +650,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             }
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
-    public final Tranlocal openForRead(final LeanFixedLengthGammaTxn tx, int lockMode) {
+    public final T openForRead(final LeanFixedLengthGammaTxn tx, int lockMode) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForReadOnBadStatus(this);
         }
@@ -639,7 +663,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
 
         if (tx.head.owner == this) {
-            return tx.head;
+            return (T) tx.head;
         }
 
         //look inside the transaction if it already is opened for read or otherwise look for an empty spot to
@@ -664,7 +688,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         //we have found it.
         if (found != null) {
             tx.shiftInFront(found);
-            return found;
+            return (T) found;
         }
 
         //we have not found it, but there also is no spot available.
@@ -697,7 +721,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             Object readRef;
             do {
                 readVersion = version;
-                readRef = ref_value;
+                readRef = ((GammaTxnRef) this).ref_value;
                 if (SHAKE_BUGS) shakeBugs();
             } while (readVersion != version);
 
@@ -717,10 +741,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
 
             //check if the version and value we read are still the same, if they are not, we have read illegal memory,
             //so we are going to try again.
-            if (readVersion == version && readRef == ref_value) {
+            if (readVersion == version && readRef == ((GammaTxnRef) this).ref_value) {
                 //at this point we are sure that the read was unlocked.
                 newNode.version = readVersion;
-                newNode.ref_value = readRef;
+                ((RefTranlocal) newNode).ref_value = readRef;
                 break;
             }
         }
@@ -755,7 +779,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
 
         //we are done, the load was correct and the transaction still is read consistent.
-        return newNode;
+        return (T) newNode;
     }
 
     private static void initTranlocalForRead(final GammaTxnConfig config, final Tranlocal tranlocal) {
@@ -765,7 +789,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         tranlocal.version = -1;
     }
 
-    public final Tranlocal openForRead(final FatMonoGammaTxn tx, int lockMode) {
+    public final T openForRead(final FatMonoGammaTxn tx, int lockMode) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForReadOnBadStatus(this);
         }
@@ -792,7 +816,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             int mode = tranlocal.mode;
 
             if (mode == TRANLOCAL_CONSTRUCTING) {
-                return tranlocal;
+                return (T) tranlocal;
             }
 
             if (mode == TRANLOCAL_COMMUTING) {
@@ -800,7 +824,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                     throw tx.abortOnReadWriteConflict(this);
                 }
 
-                return tranlocal;
+                return (T) tranlocal;
             }
 
             if (lockMode > tranlocal.getLockMode()) {
@@ -809,22 +833,23 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                 }
             }
 
-            return tranlocal;
+            return (T) tranlocal;
         }
 
         if (tranlocal.owner != null) {
             throw tx.abortOnTransactionTooSmall(2);
         }
 
-        initTranlocalForRead(config, tranlocal);
-        if (!load(tx, tranlocal, lockMode, config.spinCount, tx.richmansMansConflictScan)) {
+        final Tranlocal free = tx.selectTranlocal(this);
+        initTranlocalForRead(config, free);
+        if (!load(tx, free, lockMode, config.spinCount, tx.richmansMansConflictScan)) {
             throw tx.abortOnReadWriteConflict(this);
         }
 
-        return tranlocal;
+        return (T) free;
     }
 
-    public final Tranlocal openForRead(final FatFixedLengthGammaTxn tx, int desiredLockMode) {
+    public final T openForRead(final FatFixedLengthGammaTxn tx, int desiredLockMode) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForReadOnBadStatus(this);
         }
@@ -863,7 +888,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             final int mode = found.mode;
 
             if (mode == TRANLOCAL_CONSTRUCTING) {
-                return found;
+                return (T) found;
             }
 
             if (mode == TRANLOCAL_COMMUTING) {
@@ -871,7 +896,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                     throw tx.abortOnReadWriteConflict(this);
                 }
 
-                return found;
+                return (T) found;
             }
 
             if (desiredLockMode > found.getLockMode()) {
@@ -881,13 +906,14 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             }
 
             tx.shiftInFront(found);
-            return found;
+            return (T) found;
         }
 
         if (newNode == null) {
             throw tx.abortOnTransactionTooSmall(config.maxFixedLengthTransactionSize + 1);
         }
 
+        newNode = tx.ensureSuitableNode(newNode, this);
         tx.size++;
         initTranlocalForRead(config, newNode);
 
@@ -907,10 +933,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
 
         tx.shiftInFront(newNode);
-        return newNode;
+        return (T) newNode;
     }
 
-    public final Tranlocal openForRead(final FatVariableLengthGammaTxn tx, int desiredLockMode) {
+    public final T openForRead(final FatVariableLengthGammaTxn tx, int desiredLockMode) {
         if (tx.status != TX_ACTIVE) {
             throw tx.abortOpenForReadOnBadStatus(this);
         }
@@ -936,7 +962,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             final int mode = tranlocal.mode;
 
             if (mode == TRANLOCAL_CONSTRUCTING) {
-                return tranlocal;
+                return (T) tranlocal;
             }
 
             if (mode == TRANLOCAL_COMMUTING) {
@@ -944,7 +970,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                     throw tx.abortOnReadWriteConflict(this);
                 }
 
-                return tranlocal;
+                return (T) tranlocal;
             }
 
             if (desiredLockMode > tranlocal.getLockMode()) {
@@ -953,7 +979,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
                 }
             }
 
-            return tranlocal;
+            return (T) tranlocal;
         }
 
         final Tranlocal tranlocal = tx.pool.take(this);
@@ -976,14 +1002,14 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOnReadWriteConflict(this);
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
     // ============================================================================================
     // =============================== open for write =============================================
     // ============================================================================================
 
-    public final Tranlocal openForWrite(final GammaTxn tx, final int lockMode) {
+    public final T openForWrite(final GammaTxn tx, final int lockMode) {
         if (tx == null) {
             throw new NullPointerException();
         }
@@ -1003,7 +1029,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         }
     }
 
-    public final Tranlocal openForWrite(final LeanMonoGammaTxn tx, int lockMode) {
+    public final T openForWrite(final LeanMonoGammaTxn tx, int lockMode) {
         final Tranlocal tranlocal = openForRead(tx, lockMode);
 
         if (!tx.hasWrites) {
@@ -1014,10 +1040,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             tranlocal.mode = TRANLOCAL_WRITE;
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
-    public final Tranlocal openForWrite(final LeanFixedLengthGammaTxn tx, int lockMode) {
+    public final T openForWrite(final LeanFixedLengthGammaTxn tx, int lockMode) {
         final Tranlocal tranlocal = openForRead(tx, lockMode);
 
         if (!tx.hasWrites) {
@@ -1028,10 +1054,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             tranlocal.mode = TRANLOCAL_WRITE;
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
-    public final Tranlocal openForWrite(final FatMonoGammaTxn tx, final int desiredLockMode) {
+    public final T openForWrite(final FatMonoGammaTxn tx, final int desiredLockMode) {
         GammaTxnConfig config = tx.config;
 
         Tranlocal tranlocal = openForRead(tx, max(desiredLockMode, config.writeLockModeAsInt));
@@ -1050,10 +1076,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             tranlocal.setDirty(!config.dirtyCheck);
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
-    public final Tranlocal openForWrite(final FatFixedLengthGammaTxn tx, final int lockMode) {
+    public final T openForWrite(final FatFixedLengthGammaTxn tx, final int lockMode) {
         GammaTxnConfig config = tx.config;
 
         Tranlocal tranlocal = openForRead(tx, max(lockMode, config.writeLockModeAsInt));
@@ -1072,10 +1098,10 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             tranlocal.setDirty(!config.dirtyCheck);
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
-    public final Tranlocal openForWrite(final FatVariableLengthGammaTxn tx, final int lockMode) {
+    public final T openForWrite(final FatVariableLengthGammaTxn tx, final int lockMode) {
         GammaTxnConfig config = tx.config;
 
         Tranlocal tranlocal = openForRead(tx, max(lockMode, config.writeLockModeAsInt));
@@ -1094,7 +1120,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             tranlocal.setDirty(!config.dirtyCheck);
         }
 
-        return tranlocal;
+        return (T) tranlocal;
     }
 
     // ============================================================================================
@@ -1124,6 +1150,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
         tranlocal.mode = TRANLOCAL_COMMUTING;
         tranlocal.isDirty = !config.dirtyCheck;
         tranlocal.writeSkewCheck = false;
+        tranlocal.headCallable = null;
     }
 
     public final void openForCommute(final FatMonoGammaTxn tx, final Function function) {
@@ -1188,13 +1215,14 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOnTransactionTooSmall(2);
         }
 
+        final Tranlocal free = tx.selectTranlocal(this);
         tx.hasWrites = true;
-        initTranlocalForCommute(config, tranlocal);
-        tranlocal.addCommutingFunction(tx.pool, function);
+        initTranlocalForCommute(config, free);
+        free.addCommutingFunction(tx.pool, function);
 
         int writeLockMode = config.writeLockModeAsInt;
         if (writeLockMode > LOCKMODE_NONE) {
-            flattenCommute(tx, tranlocal, writeLockMode);
+            flattenCommute(tx, free, writeLockMode);
         }
     }
 
@@ -1275,6 +1303,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOnTransactionTooSmall(config.maxFixedLengthTransactionSize + 1);
         }
 
+        newNode = tx.ensureSuitableNode(newNode, this);
         tx.size++;
         tx.shiftInFront(newNode);
         tx.hasWrites = true;
@@ -1400,7 +1429,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOpenForReadOnNullLockMode(this);
         }
 
-        return openForRead(tx, lockMode.asInt()).long_value;
+        return ((LongTranlocal) openForRead(tx, lockMode.asInt())).long_value;
     }
 
     protected final Object getObject(final GammaTxn tx, final LockMode lockMode) {
@@ -1418,7 +1447,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOpenForReadOnNullLockMode(this);
         }
 
-        return openForRead(tx, lockMode.asInt()).ref_value;
+        return ((RefTranlocal) openForRead(tx, lockMode.asInt())).ref_value;
     }
 
     protected final long setLong(final GammaTxn tx, final LockMode lockMode, final long newValue, final boolean returnOld) {
@@ -1436,7 +1465,7 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOpenForReadOnNullLockMode(this);
         }
 
-        final Tranlocal tranlocal = openForWrite(tx, lockMode.asInt());
+        final LongTranlocal tranlocal = (LongTranlocal) openForWrite(tx, lockMode.asInt());
         final long oldValue = tranlocal.long_value;
         tranlocal.long_value = newValue;
         return returnOld ? oldValue : newValue;
@@ -1457,173 +1486,12 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             throw tx.abortOpenForReadOnNullLockMode(this);
         }
 
-        final Tranlocal tranlocal = openForWrite(tx, lockMode.asInt());
+        final RefTranlocal tranlocal = (RefTranlocal) openForWrite(tx, lockMode.asInt());
         final Object oldValue = tranlocal.ref_value;
         tranlocal.ref_value = newValue;
         return returnOld ? oldValue : newValue;
     }
 
-    public final long atomicGetLong() {
-        assert type != TYPE_REF;
-
-        int attempt = 1;
-        do {
-            if (!hasExclusiveLock()) {
-                long read = long_value;
-
-                if (!hasExclusiveLock()) {
-                    return read;
-                }
-            }
-            stm.defaultBackoffPolicy.delayUninterruptible(attempt);
-            attempt++;
-        } while (attempt <= stm.spinCount);
-
-        throw new LockedException();
-    }
-
-    public final Object atomicObjectGet() {
-        assert type == TYPE_REF;
-
-        int attempt = 1;
-        do {
-            if (!hasExclusiveLock()) {
-                Object read = ref_value;
-                if (!hasExclusiveLock()) {
-                    return read;
-                }
-            }
-            stm.defaultBackoffPolicy.delayUninterruptible(attempt);
-            attempt++;
-        } while (attempt <= stm.spinCount);
-
-        throw new LockedException();
-    }
-
-    public final long atomicSetLong(final long newValue, boolean returnOld) {
-        assert type != TYPE_REF;
-
-        final int arriveStatus = arriveAndExclusiveLockOrBackoff();
-
-        if (arriveStatus == FAILURE) {
-            throw new LockedException();
-        }
-
-        final long oldValue = long_value;
-
-        if (oldValue == newValue) {
-            if ((arriveStatus & MASK_UNREGISTERED) != 0) {
-                unlockByUnregistered();
-            } else {
-                departAfterReadingAndUnlock();
-            }
-
-            return newValue;
-        }
-
-        if ((arriveStatus & MASK_CONFLICT) != 0) {
-            stm.globalConflictCounter.signalConflict();
-        }
-
-        long_value = newValue;
-        //noinspection NonAtomicOperationOnVolatileField
-        version++;
-
-        final Listeners listeners = ___removeListenersAfterWrite();
-
-        departAfterUpdateAndUnlock();
-
-        if (listeners != null) {
-            final GammaObjectPool pool = getThreadLocalGammaObjectPool();
-            listeners.openAll(pool);
-        }
-
-        return returnOld ? oldValue : newValue;
-    }
-
-    public final Object atomicSetObject(final Object newValue, boolean returnOld) {
-        assert type == TYPE_REF;
-
-        final int arriveStatus = arriveAndExclusiveLockOrBackoff();
-
-        if (arriveStatus == FAILURE) {
-            throw new LockedException();
-        }
-
-        final Object oldValue = ref_value;
-
-        if (oldValue == newValue) {
-            if ((arriveStatus & MASK_UNREGISTERED) != 0) {
-                unlockByUnregistered();
-            } else {
-                departAfterReadingAndUnlock();
-            }
-
-            return newValue;
-        }
-
-        if ((arriveStatus & MASK_CONFLICT) != 0) {
-            stm.globalConflictCounter.signalConflict();
-        }
-
-        ref_value = newValue;
-        //noinspection NonAtomicOperationOnVolatileField
-        version++;
-
-        final Listeners listeners = ___removeListenersAfterWrite();
-
-        departAfterUpdateAndUnlock();
-
-        if (listeners != null) {
-            final GammaObjectPool pool = getThreadLocalGammaObjectPool();
-            listeners.openAll(pool);
-        }
-
-        return returnOld ? oldValue : newValue;
-    }
-
-    public final boolean atomicCompareAndSetLong(final long expectedValue, final long newValue) {
-        final int arriveStatus = arriveAndExclusiveLockOrBackoff();
-
-        if (arriveStatus == FAILURE) {
-            throw new LockedException();
-        }
-
-        final long currentValue = long_value;
-
-        if (currentValue != expectedValue) {
-            departAfterFailureAndUnlock();
-            return false;
-        }
-
-        if (expectedValue == newValue) {
-            if ((arriveStatus & MASK_UNREGISTERED) != 0) {
-                unlockByUnregistered();
-            } else {
-                departAfterReadingAndUnlock();
-            }
-
-            return true;
-        }
-
-        if ((arriveStatus & MASK_CONFLICT) != 0) {
-            stm.globalConflictCounter.signalConflict();
-        }
-
-        long_value = newValue;
-        //noinspection NonAtomicOperationOnVolatileField
-        version++;
-        final Listeners listeners = ___removeListenersAfterWrite();
-
-        departAfterUpdateAndUnlock();
-
-        if (listeners != null) {
-            listeners.openAll(getThreadLocalGammaObjectPool());
-        }
-
-        return true;
-    }
-
     @Override
     public final void acquire(final LockMode desiredLockMode) {
         final GammaTxn tx = (GammaTxn) getThreadLocalTxn();
@@ -1673,6 +1541,22 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             final int spinCount,
             final int desiredLockMode) {
 
+        if (!PROBING_ENABLED || tranlocal.getLockMode() >= desiredLockMode) {
+            return doTryLockAndCheckConflict(tx, tranlocal, spinCount, desiredLockMode);
+        }
+
+        final long startNs = System.nanoTime();
+        final boolean success = doTryLockAndCheckConflict(tx, tranlocal, spinCount, desiredLockMode);
+        GammaProbe.get().lockAcquire(tx, this, desiredLockMode, System.nanoTime() - startNs, success);
+        return success;
+    }
+
+    private boolean doTryLockAndCheckConflict(
+            final GammaTxn tx,
+            final Tranlocal tranlocal,
+            final int spinCount,
+            final int desiredLockMode) {
+
         final int currentLockMode = tranlocal.getLockMode();
 
         //if the currentLockMode mode is higher or equal than the desired lockmode, we are done.
@@ -1844,6 +1728,11 @@ public abstract class BaseGammaTxnRef extends AbstractGammaObject {
             return false;
         }
 
+        //a commuting tranlocal has not read anything, so it can't have a read conflict.
+        if (tranlocal.isCommuting()) {
+            return false;
+        }
+
         if (hasExclusiveLock()) {
             return true;
         }
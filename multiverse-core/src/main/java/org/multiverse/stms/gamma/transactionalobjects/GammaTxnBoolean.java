@@ -19,7 +19,7 @@ import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLoca
  *
  * @author Peter Veentjer.
  */
-public class GammaTxnBoolean extends BaseGammaTxnRef implements TxnBoolean {
+public class GammaTxnBoolean extends LongValueGammaTxnRef implements TxnBoolean {
 
     public GammaTxnBoolean(boolean value){
         this((GammaStm) getGlobalStmInstance(),value);
@@ -33,7 +33,7 @@ public class GammaTxnBoolean extends BaseGammaTxnRef implements TxnBoolean {
         super(tx.getConfig().stm, TYPE_BOOLEAN);
 
         arriveAndLock(1, LOCKMODE_EXCLUSIVE);
-        Tranlocal tranlocal = openForConstruction(tx);
+        LongTranlocal tranlocal = openForConstruction(tx);
         tranlocal.long_value = booleanAsLong(value);
     }
 
@@ -130,7 +130,7 @@ public class GammaTxnBoolean extends BaseGammaTxnRef implements TxnBoolean {
     }
 
     public final boolean getAndSet(final GammaTxn tx, final boolean value) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         boolean oldValue = longAsBoolean(tranlocal.long_value);
         tranlocal.long_value = booleanAsLong(value);
         return oldValue;
@@ -208,7 +208,7 @@ public class GammaTxnBoolean extends BaseGammaTxnRef implements TxnBoolean {
             throw new NullPointerException("Function can't be null");
         }
 
-        final Tranlocal write = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal write = openForWrite(tx, LOCKMODE_NONE);
 
         boolean abort = true;
 
@@ -319,7 +319,7 @@ public class GammaTxnBoolean extends BaseGammaTxnRef implements TxnBoolean {
     }
 
     public final void await(final GammaTxn tx, final BooleanPredicate predicate) {
-        final Tranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
         boolean abort = true;
         try {
             if (!predicate.evaluate(longAsBoolean(tranlocal.long_value))) {
@@ -15,7 +15,7 @@ import static org.multiverse.stms.gamma.GammaStmUtils.*;
 import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLocalGammaObjectPool;
 
 @SuppressWarnings({"OverlyComplexClass"})
-public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
+public class GammaTxnDouble extends LongValueGammaTxnRef implements TxnDouble {
 
     public GammaTxnDouble(double value) {
         this((GammaStm) getGlobalStmInstance(), value);
@@ -30,7 +30,7 @@ public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
         super(tx.getConfig().stm, TYPE_DOUBLE);
 
         arriveAndLock(1, LOCKMODE_EXCLUSIVE);
-        Tranlocal tranlocal = openForConstruction(tx);
+        LongTranlocal tranlocal = openForConstruction(tx);
         tranlocal.long_value = doubleAsLong(value);
     }
 
@@ -113,7 +113,7 @@ public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
     }
 
     public final double getAndSet(final GammaTxn tx, final double value) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         double oldValue = longAsDouble(tranlocal.long_value);
         tranlocal.long_value = doubleAsLong(value);
         return oldValue;
@@ -268,7 +268,7 @@ public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
             throw new NullPointerException("Function can't be null");
         }
 
-        final Tranlocal write = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal write = openForWrite(tx, LOCKMODE_NONE);
 
         boolean abort = true;
 
@@ -301,7 +301,7 @@ public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
     }
 
     public final double getAndIncrement(final GammaTxn tx, final double amount) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         double oldValue = longAsDouble(tranlocal.long_value);
         tranlocal.long_value = doubleAsLong(oldValue + amount);
         return oldValue;
@@ -367,7 +367,7 @@ public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
     }
 
     public final double incrementAndGet(final GammaTxn tx, final double amount) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         double result = longAsDouble(tranlocal.long_value) + amount;
         tranlocal.long_value = doubleAsLong(result);
         return result;
@@ -400,7 +400,7 @@ public class GammaTxnDouble extends BaseGammaTxnRef implements TxnDouble {
     }
 
     public final void await(final GammaTxn tx, final DoublePredicate predicate) {
-        final Tranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
         boolean abort = true;
         try {
             if (!predicate.evaluate(longAsDouble(tranlocal.long_value))) {
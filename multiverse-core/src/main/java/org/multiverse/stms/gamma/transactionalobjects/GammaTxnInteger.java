@@ -19,7 +19,7 @@ import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLoca
  * @author Peter Veentjer.
  */
 @SuppressWarnings({"OverlyComplexClass"})
-public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
+public class GammaTxnInteger extends LongValueGammaTxnRef implements TxnInteger {
 
     public GammaTxnInteger(int value) {
         this((GammaStm) getGlobalStmInstance(), value);
@@ -33,7 +33,7 @@ public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
         super(tx.getConfig().stm, TYPE_INT);
 
         arriveAndLock(1, LOCKMODE_EXCLUSIVE);
-        Tranlocal tranlocal = openForConstruction(tx);
+        LongTranlocal tranlocal = openForConstruction(tx);
         tranlocal.long_value = value;
     }
 
@@ -87,7 +87,7 @@ public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
     }
 
     public final int set(final GammaTxn tx, final int value) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value = value;
         return value;
     }
@@ -117,7 +117,7 @@ public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
     }
 
     public final int getAndSet(final GammaTxn tx, final int value) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         int oldValue = (int) tranlocal.long_value;
         tranlocal.long_value = value;
         return oldValue;
@@ -271,7 +271,7 @@ public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
             throw new NullPointerException("Function can't be null");
         }
 
-        final Tranlocal write = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal write = openForWrite(tx, LOCKMODE_NONE);
 
         boolean abort = true;
 
@@ -370,7 +370,7 @@ public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
     }
 
     private int increment(final GammaTxn tx, final int amount, final boolean returnOld) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         int oldValue = (int) tranlocal.long_value;
         tranlocal.long_value += amount;
         return returnOld ? oldValue : (int) tranlocal.long_value;
@@ -447,7 +447,7 @@ public class GammaTxnInteger extends BaseGammaTxnRef implements TxnInteger {
     }
 
     public final void await(final GammaTxn tx, final IntPredicate predicate) {
-        final Tranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
         boolean abort = true;
         try {
             if (!predicate.evaluate((int) tranlocal.long_value)) {
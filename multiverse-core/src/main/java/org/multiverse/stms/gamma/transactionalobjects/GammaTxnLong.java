@@ -22,7 +22,7 @@ import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLoca
  * @author Peter Veentjer.
  */
 @SuppressWarnings({"OverlyComplexClass"})
-public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
+public class GammaTxnLong extends LongValueGammaTxnRef implements TxnLong {
 
     public GammaTxnLong(long value) {
         this((GammaStm) getGlobalStmInstance(), value);
@@ -47,7 +47,7 @@ public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
         super(tx.getConfig().stm, TYPE_LONG);
 
         arriveAndLock(1, LOCKMODE_EXCLUSIVE);
-        Tranlocal tranlocal = openForConstruction(tx);
+        LongTranlocal tranlocal = openForConstruction(tx);
         tranlocal.long_value = value;
     }
 
@@ -118,7 +118,7 @@ public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
     }
 
     public final long getAndSet(final GammaTxn tx, final long value) {
-        final Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         final long oldValue = tranlocal.long_value;
         tranlocal.long_value = value;
         return oldValue;
@@ -272,7 +272,7 @@ public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
             throw new NullPointerException("Function can't be null");
         }
 
-        final Tranlocal write = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal write = openForWrite(tx, LOCKMODE_NONE);
 
         boolean abort = true;
 
@@ -310,7 +310,7 @@ public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
     }
 
     public final long getAndIncrement(final GammaTxn tx, final long amount) {
-        final Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         final long oldValue = tranlocal.long_value;
         tranlocal.long_value += amount;
         return oldValue;
@@ -367,7 +367,7 @@ public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
     }
 
     public final long incrementAndGet(final GammaTxn tx, final long amount) {
-        final Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value += amount;
         return tranlocal.long_value;
     }
@@ -443,7 +443,7 @@ public class GammaTxnLong extends BaseGammaTxnRef implements TxnLong {
     }
 
     public final void await(final GammaTxn tx, final LongPredicate predicate) {
-        final Tranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
+        final LongTranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
         boolean abort = true;
         try {
             if (!predicate.evaluate(tranlocal.long_value)) {
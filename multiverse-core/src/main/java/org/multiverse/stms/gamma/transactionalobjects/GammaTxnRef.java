@@ -6,6 +6,7 @@ import org.multiverse.api.exceptions.LockedException;
 import org.multiverse.api.functions.Function;
 import org.multiverse.api.predicates.Predicate;
 import org.multiverse.api.references.TxnRef;
+import org.multiverse.stms.gamma.GammaObjectPool;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
@@ -23,7 +24,9 @@ import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLoca
  * @author Peter Veentjer.
  */
 @SuppressWarnings({"OverlyComplexClass"})
-public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
+public class GammaTxnRef<E> extends BaseGammaTxnRef<RefTranlocal<E>> implements TxnRef<E> {
+
+    public volatile Object ref_value;
 
     public GammaTxnRef(E value) {
         this((GammaStm) getGlobalStmInstance(), value);
@@ -37,7 +40,7 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
         super(tx.getConfig().stm, TYPE_REF);
 
         arriveAndLock(1, LOCKMODE_EXCLUSIVE);
-        Tranlocal tranlocal = openForConstruction(tx);
+        RefTranlocal<E> tranlocal = openForConstruction(tx);
         tranlocal.ref_value = value;
     }
 
@@ -64,7 +67,7 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
     }
 
     public final E get(final GammaTxn tx) {
-        return (E) openForRead(tx, LOCKMODE_NONE).ref_value;
+        return openForRead(tx, LOCKMODE_NONE).ref_value;
     }
 
     @Override
@@ -92,7 +95,7 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
     }
 
     public final E set(final GammaTxn tx, final E value) {
-        final Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        final RefTranlocal<E> tranlocal = openForWrite(tx, LOCKMODE_NONE);
         tranlocal.ref_value = value;
         return value;
     }
@@ -122,8 +125,8 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
     }
 
     public final E getAndSet(final GammaTxn tx, final E value) {
-        Tranlocal tranlocal = openForWrite(tx, LOCKMODE_NONE);
-        E oldValue = (E) tranlocal.ref_value;
+        RefTranlocal<E> tranlocal = openForWrite(tx, LOCKMODE_NONE);
+        E oldValue = tranlocal.ref_value;
         tranlocal.ref_value = value;
         return oldValue;
     }
@@ -277,15 +280,15 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
             throw new NullPointerException("Function can't be null");
         }
 
-        final Tranlocal write = openForWrite(tx, LOCKMODE_NONE);
+        final RefTranlocal<E> write = openForWrite(tx, LOCKMODE_NONE);
 
         boolean abort = true;
 
         try {
-            E oldValue = (E) write.ref_value;
+            E oldValue = write.ref_value;
             write.ref_value = function.call(oldValue);
             abort = false;
-            return returnOld ? oldValue : (E) write.ref_value;
+            return returnOld ? oldValue : write.ref_value;
         } finally {
             if (abort) {
                 tx.abort();
@@ -367,13 +370,13 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
     }
 
     public final E awaitNotNullAndGet(final GammaTxn tx) {
-        final Tranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
+        final RefTranlocal<E> tranlocal = openForRead(tx, LOCKMODE_NONE);
 
         if (tranlocal.ref_value == null) {
             tx.retry();
         }
 
-        return (E) tranlocal.ref_value;
+        return tranlocal.ref_value;
     }
 
     @Override
@@ -418,10 +421,10 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
     }
 
     public final void await(final GammaTxn tx, final Predicate<E> predicate) {
-        final Tranlocal tranlocal = openForRead(tx, LOCKMODE_NONE);
+        final RefTranlocal<E> tranlocal = openForRead(tx, LOCKMODE_NONE);
         boolean abort = true;
         try {
-            if (!predicate.evaluate((E) tranlocal.ref_value)) {
+            if (!predicate.evaluate(tranlocal.ref_value)) {
                 tx.retry();
             }
             abort = false;
@@ -458,4 +461,59 @@ public class GammaTxnRef<E> extends BaseGammaTxnRef implements TxnRef<E> {
         final E value = atomicGet();
         return value == null ? "null" : value.toString();
     }
+
+    public final Object atomicObjectGet() {
+        int attempt = 1;
+        do {
+            if (!hasExclusiveLock()) {
+                Object read = ref_value;
+                if (!hasExclusiveLock()) {
+                    return read;
+                }
+            }
+            stm.defaultBackoffPolicy.delayUninterruptible(attempt);
+            attempt++;
+        } while (attempt <= stm.spinCount);
+
+        throw new LockedException();
+    }
+
+    public final Object atomicSetObject(final Object newValue, boolean returnOld) {
+        final int arriveStatus = arriveAndExclusiveLockOrBackoff();
+
+        if (arriveStatus == FAILURE) {
+            throw new LockedException();
+        }
+
+        final Object oldValue = ref_value;
+
+        if (oldValue == newValue) {
+            if ((arriveStatus & MASK_UNREGISTERED) != 0) {
+                unlockByUnregistered();
+            } else {
+                departAfterReadingAndUnlock();
+            }
+
+            return newValue;
+        }
+
+        if ((arriveStatus & MASK_CONFLICT) != 0) {
+            stm.globalConflictCounter.signalConflict();
+        }
+
+        ref_value = newValue;
+        //noinspection NonAtomicOperationOnVolatileField
+        version++;
+
+        final Listeners listeners = ___removeListenersAfterWrite();
+
+        departAfterUpdateAndUnlock();
+
+        if (listeners != null) {
+            final GammaObjectPool pool = getThreadLocalGammaObjectPool();
+            listeners.openAll(pool);
+        }
+
+        return returnOld ? oldValue : newValue;
+    }
 }
@@ -0,0 +1,18 @@
+package org.multiverse.stms.gamma.transactionalobjects;
+
+/**
+ * The {@link Tranlocal} for the primitive refs: {@link GammaTxnLong}, {@link GammaTxnInteger}, {@link GammaTxnDouble}
+ * and {@link GammaTxnBoolean}. The value is stored as long, just like the ref stores it.
+ *
+ * @author Peter Veentjer.
+ */
+public final class LongTranlocal extends Tranlocal {
+
+    public long long_value;
+    public long long_oldValue;
+
+    @Override
+    public boolean isSuitableFor(int type) {
+        return type != TYPE_REF;
+    }
+}
@@ -0,0 +1,123 @@
+package org.multiverse.stms.gamma.transactionalobjects;
+
+import org.multiverse.api.exceptions.LockedException;
+import org.multiverse.stms.gamma.GammaObjectPool;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.Listeners;
+
+import static org.multiverse.stms.gamma.ThreadLocalGammaObjectPool.getThreadLocalGammaObjectPool;
+
+/**
+ * The base class of the gamma refs that store their value as a long: the {@link GammaTxnLong}, {@link GammaTxnInteger},
+ * {@link GammaTxnDouble} and {@link GammaTxnBoolean}. The value lives here and not in the {@link BaseGammaTxnRef}, so
+ * these refs don't carry an unused object field and the {@link GammaTxnRef} doesn't carry an unused long field.
+ *
+ * @author Peter Veentjer.
+ */
+public abstract class LongValueGammaTxnRef extends BaseGammaTxnRef<LongTranlocal> {
+
+    @SuppressWarnings({"VolatileLongOrDoubleField"})
+    public volatile long long_value;
+
+    protected LongValueGammaTxnRef(GammaStm stm, int type) {
+        super(stm, type);
+    }
+
+    public final long atomicGetLong() {
+        int attempt = 1;
+        do {
+            if (!hasExclusiveLock()) {
+                long read = long_value;
+
+                if (!hasExclusiveLock()) {
+                    return read;
+                }
+            }
+            stm.defaultBackoffPolicy.delayUninterruptible(attempt);
+            attempt++;
+        } while (attempt <= stm.spinCount);
+
+        throw new LockedException();
+    }
+
+    public final long atomicSetLong(final long newValue, boolean returnOld) {
+        final int arriveStatus = arriveAndExclusiveLockOrBackoff();
+
+        if (arriveStatus == FAILURE) {
+            throw new LockedException();
+        }
+
+        final long oldValue = long_value;
+
+        if (oldValue == newValue) {
+            if ((arriveStatus & MASK_UNREGISTERED) != 0) {
+                unlockByUnregistered();
+            } else {
+                departAfterReadingAndUnlock();
+            }
+
+            return newValue;
+        }
+
+        if ((arriveStatus & MASK_CONFLICT) != 0) {
+            stm.globalConflictCounter.signalConflict();
+        }
+
+        long_value = newValue;
+        //noinspection NonAtomicOperationOnVolatileField
+        version++;
+
+        final Listeners listeners = ___removeListenersAfterWrite();
+
+        departAfterUpdateAndUnlock();
+
+        if (listeners != null) {
+            final GammaObjectPool pool = getThreadLocalGammaObjectPool();
+            listeners.openAll(pool);
+        }
+
+        return returnOld ? oldValue : newValue;
+    }
+
+    public final boolean atomicCompareAndSetLong(final long expectedValue, final long newValue) {
+        final int arriveStatus = arriveAndExclusiveLockOrBackoff();
+
+        if (arriveStatus == FAILURE) {
+            throw new LockedException();
+        }
+
+        final long currentValue = long_value;
+
+        if (currentValue != expectedValue) {
+            departAfterFailureAndUnlock();
+            return false;
+        }
+
+        if (expectedValue == newValue) {
+            if ((arriveStatus & MASK_UNREGISTERED) != 0) {
+                unlockByUnregistered();
+            } else {
+                departAfterReadingAndUnlock();
+            }
+
+            return true;
+        }
+
+        if ((arriveStatus & MASK_CONFLICT) != 0) {
+            stm.globalConflictCounter.signalConflict();
+        }
+
+        long_value = newValue;
+        //noinspection NonAtomicOperationOnVolatileField
+        version++;
+        final Listeners listeners = ___removeListenersAfterWrite();
+
+        departAfterUpdateAndUnlock();
+
+        if (listeners != null) {
+            listeners.openAll(getThreadLocalGammaObjectPool());
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package org.multiverse.stms.gamma.transactionalobjects;
+
+/**
+ * The {@link Tranlocal} for the {@link GammaTxnRef}.
+ *
+ * @param <E> the type of the value.
+ * @author Peter Veentjer.
+ */
+public final class RefTranlocal<E> extends Tranlocal {
+
+    public E ref_value;
+    public E ref_oldValue;
+
+    @Override
+    public boolean isSuitableFor(int type) {
+        return type == TYPE_REF;
+    }
+}
@@ -4,10 +4,17 @@ import org.multiverse.api.functions.Function;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaObjectPool;
 
+/**
+ * The transaction local state of a {@link BaseGammaTxnRef}. It only contains the fields that are needed for every
+ * type of ref; the value itself is stored in a type specialized subclass: the {@link LongTranlocal} for the primitive
+ * refs and the {@link RefTranlocal} for the {@link GammaTxnRef}. So a read doesn't carry the value fields of the
+ * other type.
+ *
+ * @author Peter Veentjer.
+ */
 @SuppressWarnings({"ClassWithTooManyFields"})
-public final class Tranlocal<E> implements GammaConstants {
+public abstract class Tranlocal implements GammaConstants {
 
-    public E ref_value;
     public long version;
     public int lockMode;
     public BaseGammaTxnRef owner;
@@ -16,13 +23,16 @@ public final class Tranlocal<E> implements GammaConstants {
     public boolean isDirty;
     public Tranlocal next;
     public Tranlocal previous;
-    public CallableNode headCallable;
     public boolean writeSkewCheck;
+    public CallableNode headCallable;
 
-    public long long_oldValue;
-    public E ref_oldValue;
-    public long long_value;
-
+    /**
+     * Checks if this Tranlocal is able to store the value of the given type of ref.
+     *
+     * @param type the type of the ref (one of the TYPE_ constants in {@link GammaConstants}).
+     * @return true if it can store the value, false otherwise.
+     */
+    public abstract boolean isSuitableFor(int type);
 
     public boolean isDirty() {
         return isDirty;
@@ -10,6 +10,7 @@ import org.multiverse.api.lifecycle.TxnEvent;
 import org.multiverse.api.lifecycle.TxnListener;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaObjectPool;
+import org.multiverse.stms.gamma.GammaProbe;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
 import org.multiverse.stms.gamma.transactionalobjects.GammaObject;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
@@ -109,6 +110,10 @@ public abstract class GammaTxn implements GammaConstants, Txn {
     }
 
     public final ReadWriteConflict abortOnReadWriteConflict(GammaObject object) {
+        if (PROBING_ENABLED) {
+            GammaProbe.get().readWriteConflict(this, object);
+        }
+
         abortIfAlive();
 
         if (attempt == config.maxRetries || !config.controlFlowErrorsReused) {
@@ -569,7 +574,7 @@ public abstract class GammaTxn implements GammaConstants, Txn {
 
     public abstract void abort();
 
-    public abstract Tranlocal locate(BaseGammaTxnRef o);
+    public abstract <T extends Tranlocal> T locate(BaseGammaTxnRef<T> o);
 
     @Override
     public final GammaTxnConfig getConfig() {
@@ -686,13 +691,41 @@ public abstract class GammaTxn implements GammaConstants, Txn {
      * @param ref the AbstractGammaTxnRef
      * @return the found Tranlocal or null if not found.
      */
-    public abstract Tranlocal getRefTranlocal(BaseGammaTxnRef ref);
+    public abstract <T extends Tranlocal> T getRefTranlocal(BaseGammaTxnRef<T> ref);
+
+    /**
+     * Returns the number of refs that are only read by this transaction.
+     *
+     * @return the size of the read set.
+     */
+    public abstract int getReadSetSize();
+
+    /**
+     * Returns the number of refs that are written, constructed or commuted by this transaction.
+     *
+     * @return the size of the write set.
+     */
+    public abstract int getWriteSetSize();
 
     public final boolean isAlive() {
         return status == TX_ACTIVE || status == TX_PREPARED;
     }
 
     public final void awaitUpdate() {
+        if (!PROBING_ENABLED) {
+            doAwaitUpdate();
+            return;
+        }
+
+        final long startNs = System.nanoTime();
+        try {
+            doAwaitUpdate();
+        } finally {
+            GammaProbe.get().retryWait(this, System.nanoTime() - startNs);
+        }
+    }
+
+    private void doAwaitUpdate() {
         final long lockEra = retryListener.getEra();
 
         if (config.timeoutNs == Long.MAX_VALUE) {
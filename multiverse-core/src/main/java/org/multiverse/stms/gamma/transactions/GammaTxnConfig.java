@@ -67,6 +67,7 @@ public final class GammaTxnConfig implements TxnConfig, GammaConstants {
     public int maximumPoorMansConflictScanLength;
     public ArrayList<TxnListener> permanentListeners;
     public boolean unrepeatableReadAllowed;
+    public boolean statisticsEnabled;
 
     public GammaTxnConfig(GammaStm stm) {
         this(stm, new GammaStmConfig());
@@ -102,6 +103,7 @@ public final class GammaTxnConfig implements TxnConfig, GammaConstants {
         this.isAnonymous = true;
         this.maximumPoorMansConflictScanLength = config.maximumPoorMansConflictScanLength;
         this.isFat = config.isFat;
+        this.statisticsEnabled = config.statisticsEnabled;
         if (config.permanentListeners.isEmpty()) {
             this.permanentListeners = null;
         } else {
@@ -144,6 +146,7 @@ public final class GammaTxnConfig implements TxnConfig, GammaConstants {
         this.isFat = config.isFat;
         this.maximumPoorMansConflictScanLength = config.maximumPoorMansConflictScanLength;
         this.permanentListeners = config.permanentListeners;
+        this.statisticsEnabled = config.statisticsEnabled;
     }
 
     public GammaTxnConfig(GammaStm stm, int maxFixedLengthTransactionSize) {
@@ -234,6 +237,11 @@ public final class GammaTxnConfig implements TxnConfig, GammaConstants {
         return trackReads;
     }
 
+    @Override
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
     @Override
     public boolean isBlockingAllowed() {
         return blockingAllowed;
@@ -475,6 +483,12 @@ public final class GammaTxnConfig implements TxnConfig, GammaConstants {
         return config;
     }
 
+    public GammaTxnConfig setStatisticsEnabled(boolean statisticsEnabled) {
+        GammaTxnConfig config = new GammaTxnConfig(this);
+        config.statisticsEnabled = statisticsEnabled;
+        return config;
+    }
+
     public GammaTxnConfig setSpeculative(boolean speculativeConfigEnabled) {
         GammaTxnConfig config = new GammaTxnConfig(this);
         config.speculative = speculativeConfigEnabled;
@@ -647,6 +661,7 @@ public final class GammaTxnConfig implements TxnConfig, GammaConstants {
                 ", isFat=" + isFat +
                 ", maximumPoorMansConflictScanLength=" + maximumPoorMansConflictScanLength +
                 ", permanentListeners=" + permanentListeners +
+                ", statisticsEnabled=" + statisticsEnabled +
                 '}';
     }
 
@@ -41,6 +41,9 @@ public interface GammaTxnFactoryBuilder extends TxnFactoryBuilder {
     @Override
     GammaTxnFactoryBuilder setTimeoutNs(long timeoutNs);
 
+    @Override
+    GammaTxnFactoryBuilder setStatisticsEnabled(boolean statisticsEnabled);
+
     @Override
     GammaTxnFactoryBuilder setInterruptible(boolean interruptible);
 
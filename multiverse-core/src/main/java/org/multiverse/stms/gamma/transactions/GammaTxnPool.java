@@ -1,14 +1,36 @@
 package org.multiverse.stms.gamma.transactions;
 
+import org.multiverse.stms.gamma.AdaptivePool;
 import org.multiverse.stms.gamma.GammaConstants;
+import org.multiverse.stms.gamma.PoolStatistics;
 import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxn;
 import org.multiverse.stms.gamma.transactions.fat.FatMonoGammaTxn;
 import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
 import org.multiverse.stms.gamma.transactions.lean.LeanFixedLengthGammaTxn;
 import org.multiverse.stms.gamma.transactions.lean.LeanMonoGammaTxn;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
 /**
  * A pool for pooling GammaTxns.
+ * <p/>
+ * There is a pool per type of transaction, and the pools size themselves based on the observed demand (see
+ * {@link AdaptivePool}). Every pooled transaction has its own {@link org.multiverse.stms.gamma.GammaObjectPool}.
+ * <p/>
+ * A GammaTxnPool is not thread safe, but the pooled transactions of a thread that has become idle can be released by
+ * another thread using {@link #trimIdlePools()}. That thread doesn't touch the pooled transactions, it only detaches
+ * them from the GammaTxnPool, so it can't interfere with the owner of the pool. If the owner is using the pool at the
+ * same moment, at worst a transaction is not pooled.
  *
  * @author Peter Veentjer.
  */
@@ -18,21 +40,33 @@ public final class GammaTxnPool implements GammaConstants {
     private final static boolean ENABLED = Boolean.parseBoolean(
             System.getProperty("org.multiverse.stm.gamma.transactions.GammaTxnPool.enabled", "true"));
 
+    private final static int MAX_CAPACITY = Integer.parseInt(
+            System.getProperty("org.multiverse.stm.gamma.transactions.GammaTxnPool.maxCapacity", "16"));
+
+    private final static int INITIAL_CAPACITY = Math.min(2, MAX_CAPACITY);
+
+    private final static Set<Reference<GammaTxnPool>> registry
+            = Collections.newSetFromMap(new ConcurrentHashMap<Reference<GammaTxnPool>, Boolean>());
+    private final static ReferenceQueue<GammaTxnPool> expiredPools = new ReferenceQueue<GammaTxnPool>();
+    private final static AtomicLongFieldUpdater<GammaTxnPool> ACTIVITY
+            = AtomicLongFieldUpdater.newUpdater(GammaTxnPool.class, "activity");
+
     private final boolean enabled;
 
-    private final FatMonoGammaTxn[] poolFatMono = new FatMonoGammaTxn[10];
-    private int poolFatMonoIndex = -1;
-    private final FatFixedLengthGammaTxn[] poolFatFixedLength = new FatFixedLengthGammaTxn[10];
-    private int poolFatFixedLengthIndex = -1;
-    private final LeanMonoGammaTxn[] poolLeanMono = new LeanMonoGammaTxn[10];
-    private int poolLeanMonoIndex = -1;
-    private final LeanFixedLengthGammaTxn[] poolLeanFixedLength = new LeanFixedLengthGammaTxn[10];
-    private int poolLeanFixedLengthIndex = -1;
-    private final FatVariableLengthGammaTxn[] poolFatVariableLength = new FatVariableLengthGammaTxn[10];
-    private int poolFatVariableLengthIndex = -1;
+    //null if the pools have been trimmed by another thread, they are recreated on the next put.
+    private volatile Pools pools;
+
+    //only written by the owner, and read by the thread that trims the idle pools. It is written with a lazySet, so
+    //it is published to the trimming thread without the cost of a volatile write for every put.
+    private volatile long activity;
+
+    //only accessed by the thread that trims the idle pools while holding the lock on the registry.
+    private long activityAtLastTrim = -1;
 
     public GammaTxnPool() {
         enabled = ENABLED;
+        pools = new Pools();
+        register(this);
     }
 
     /**
@@ -41,14 +75,12 @@ public final class GammaTxnPool implements GammaConstants {
      * @return the taken FatMonoGammaTxn or null of none available.
      */
     public FatMonoGammaTxn takeFatMono() {
-        if (!enabled || poolFatMonoIndex == -1) {
+        final Pools pools = this.pools;
+        if (!enabled || pools == null) {
             return null;
         }
 
-        FatMonoGammaTxn tx = poolFatMono[poolFatMonoIndex];
-        poolFatMono[poolFatMonoIndex] = null;
-        poolFatMonoIndex--;
-        return tx;
+        return pools.fatMono.take();
     }
 
 
@@ -58,14 +90,12 @@ public final class GammaTxnPool implements GammaConstants {
      * @return the taken FatArrayGammaTxn or null of none available.
      */
     public FatFixedLengthGammaTxn takeFatFixedLength() {
-        if (!enabled || poolFatFixedLengthIndex == -1) {
+        final Pools pools = this.pools;
+        if (!enabled || pools == null) {
             return null;
         }
 
-        FatFixedLengthGammaTxn tx = poolFatFixedLength[poolFatFixedLengthIndex];
-        poolFatFixedLength[poolFatFixedLengthIndex] = null;
-        poolFatFixedLengthIndex--;
-        return tx;
+        return pools.fatFixedLength.take();
     }
 
     /**
@@ -74,14 +104,12 @@ public final class GammaTxnPool implements GammaConstants {
      * @return the taken FatMonoGammaTxn or null of none available.
      */
     public LeanMonoGammaTxn takeLeanMono() {
-        if (!enabled || poolLeanMonoIndex == -1) {
+        final Pools pools = this.pools;
+        if (!enabled || pools == null) {
             return null;
         }
 
-        LeanMonoGammaTxn tx = poolLeanMono[poolLeanMonoIndex];
-        poolLeanMono[poolLeanMonoIndex] = null;
-        poolLeanMonoIndex--;
-        return tx;
+        return pools.leanMono.take();
     }
 
 
@@ -91,14 +119,12 @@ public final class GammaTxnPool implements GammaConstants {
      * @return the taken FatArrayGammaTxn or null of none available.
      */
     public LeanFixedLengthGammaTxn takeLeanFixedLength() {
-        if (!enabled || poolLeanFixedLengthIndex == -1) {
+        final Pools pools = this.pools;
+        if (!enabled || pools == null) {
             return null;
         }
 
-        LeanFixedLengthGammaTxn tx = poolLeanFixedLength[poolLeanFixedLengthIndex];
-        poolLeanFixedLength[poolLeanFixedLengthIndex] = null;
-        poolLeanFixedLengthIndex--;
-        return tx;
+        return pools.leanFixedLength.take();
     }
 
 
@@ -108,14 +134,12 @@ public final class GammaTxnPool implements GammaConstants {
      * @return the taken FatArrayTreeGammaTxn or null of none available.
      */
     public FatVariableLengthGammaTxn takeMap() {
-        if (!enabled || poolFatVariableLengthIndex == -1) {
+        final Pools pools = this.pools;
+        if (!enabled || pools == null) {
             return null;
         }
 
-        FatVariableLengthGammaTxn tx = poolFatVariableLength[poolFatVariableLengthIndex];
-        poolFatVariableLength[poolFatVariableLengthIndex] = null;
-        poolFatVariableLengthIndex--;
-        return tx;
+        return pools.fatVariableLength.take();
     }
 
     /**
@@ -129,59 +153,183 @@ public final class GammaTxnPool implements GammaConstants {
             return;
         }
 
+        ACTIVITY.lazySet(this, activity + 1);
+
+        Pools pools = this.pools;
+        if (pools == null) {
+            pools = new Pools();
+            this.pools = pools;
+        }
+
         final int type = tx.transactionType;
 
         if (type == TRANSACTIONTYPE_FAT_MONO) {
-            if (poolFatMonoIndex == poolFatMono.length - 1) {
-                return;
-            }
-
-            poolFatMonoIndex++;
-            poolFatMono[poolFatMonoIndex] = (FatMonoGammaTxn) tx;
+            pools.fatMono.put((FatMonoGammaTxn) tx);
             return;
         }
 
         if (type == TRANSACTIONTYPE_FAT_FIXED_LENGTH) {
-            if (poolFatFixedLengthIndex == poolFatFixedLength.length - 1) {
-                return;
-            }
-
-            poolFatFixedLengthIndex++;
-            poolFatFixedLength[poolFatFixedLengthIndex] = (FatFixedLengthGammaTxn) tx;
+            pools.fatFixedLength.put((FatFixedLengthGammaTxn) tx);
             return;
         }
 
         if (type == TRANSACTIONTYPE_LEAN_MONO) {
-            if (poolLeanMonoIndex == poolLeanMono.length - 1) {
-                return;
-            }
-
-            poolLeanMonoIndex++;
-            poolLeanMono[poolLeanMonoIndex] = (LeanMonoGammaTxn) tx;
+            pools.leanMono.put((LeanMonoGammaTxn) tx);
             return;
         }
 
         if (type == TRANSACTIONTYPE_LEAN_FIXED_LENGTH) {
-            if (poolLeanFixedLengthIndex == poolLeanFixedLength.length - 1) {
-                return;
+            pools.leanFixedLength.put((LeanFixedLengthGammaTxn) tx);
+            return;
+        }
+
+        if (type == TRANSACTIONTYPE_FAT_VARIABLE_LENGTH) {
+            pools.fatVariableLength.put((FatVariableLengthGammaTxn) tx);
+            return;
+        }
+
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Trims this pool and the object pools of the pooled transactions: the objects that have not been used since
+     * the previous trim are released. Should only be called by the owner of the pool.
+     */
+    public void trim() {
+        final Pools pools = this.pools;
+        if (pools == null) {
+            return;
+        }
+
+        for (AdaptivePool<? extends GammaTxn> pool : pools.all()) {
+            pool.trim();
+            for (int k = 0; k < pool.size(); k++) {
+                pool.get(k).pool.trim();
             }
+        }
+    }
 
-            poolLeanFixedLengthIndex++;
-            poolLeanFixedLength[poolLeanFixedLengthIndex] = (LeanFixedLengthGammaTxn) tx;
+    /**
+     * Adds the statistics of this pool to the result: one for every type of transaction, and the sum of the
+     * statistics of the object pools of the pooled transactions. Can be called by another thread than the owner of the
+     * pool, but then the statistics can be a bit out of date.
+     *
+     * @param result the map (from pool name to statistics) the statistics are added to.
+     */
+    public void getStatistics(Map<String, PoolStatistics> result) {
+        final Pools pools = this.pools;
+        if (pools == null) {
             return;
         }
 
+        final List<PoolStatistics> objectPoolStatistics = new ArrayList<PoolStatistics>();
+        for (AdaptivePool<? extends GammaTxn> pool : pools.all()) {
+            add(result, pool.getStatistics());
 
-        if (type == TRANSACTIONTYPE_FAT_VARIABLE_LENGTH) {
-            if (poolFatVariableLengthIndex == poolFatVariableLength.length - 1) {
+            for (int k = 0; k < pool.size(); k++) {
+                final GammaTxn tx = pool.get(k);
+                if (tx != null) {
+                    tx.pool.getStatistics(objectPoolStatistics);
+                }
+            }
+        }
+
+        for (PoolStatistics statistics : objectPoolStatistics) {
+            add(result, statistics);
+        }
+    }
+
+    private static void add(Map<String, PoolStatistics> result, PoolStatistics statistics) {
+        final PoolStatistics found = result.get(statistics.getName());
+        result.put(statistics.getName(), found == null ? statistics : found.add(statistics));
+    }
+
+    /**
+     * Returns the summed statistics of all GammaTxnPools (and the object pools of their pooled transactions), by pool
+     * name. The statistics of pools that have been trimmed by {@link #trimIdlePools()} are lost.
+     *
+     * @return the statistics by pool name.
+     */
+    public static Map<String, PoolStatistics> getStatisticsOfAllPools() {
+        final Map<String, PoolStatistics> result = new LinkedHashMap<String, PoolStatistics>();
+        for (Reference<GammaTxnPool> reference : registry) {
+            final GammaTxnPool pool = reference.get();
+            if (pool != null) {
+                pool.getStatistics(result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Releases the pooled transactions of all GammaTxnPools that have not been used since the previous call. So when
+     * this method is called periodically, the pools of threads that have been idle for a whole period are released.
+     * If such a thread becomes active again, it will create new transactions and the pools will grow again.
+     *
+     * @return the number of pools that have been trimmed.
+     */
+    public static int trimIdlePools() {
+        expungeExpiredPools();
+
+        int trimmed = 0;
+        synchronized (registry) {
+            for (Reference<GammaTxnPool> reference : registry) {
+                final GammaTxnPool pool = reference.get();
+                if (pool == null) {
+                    continue;
+                }
+
+                final long activity = pool.activity;
+                if (activity == pool.activityAtLastTrim) {
+                    if (pool.pools != null) {
+                        pool.pools = null;
+                        trimmed++;
+                    }
+                } else {
+                    pool.activityAtLastTrim = activity;
+                }
+            }
+        }
+        return trimmed;
+    }
+
+    private static void register(GammaTxnPool pool) {
+        expungeExpiredPools();
+        registry.add(new WeakReference<GammaTxnPool>(pool, expiredPools));
+    }
+
+    private static void expungeExpiredPools() {
+        for (; ; ) {
+            final Reference<? extends GammaTxnPool> expired = expiredPools.poll();
+            if (expired == null) {
                 return;
             }
 
-            poolFatVariableLengthIndex++;
-            poolFatVariableLength[poolFatVariableLengthIndex] = (FatVariableLengthGammaTxn) tx;
-            return;
+            registry.remove(expired);
         }
+    }
 
-        throw new IllegalArgumentException();
+    static final class Pools {
+        final AdaptivePool<FatMonoGammaTxn> fatMono
+                = new AdaptivePool<FatMonoGammaTxn>("fatMonoTxn", INITIAL_CAPACITY, MAX_CAPACITY);
+        final AdaptivePool<FatFixedLengthGammaTxn> fatFixedLength
+                = new AdaptivePool<FatFixedLengthGammaTxn>("fatFixedLengthTxn", INITIAL_CAPACITY, MAX_CAPACITY);
+        final AdaptivePool<LeanMonoGammaTxn> leanMono
+                = new AdaptivePool<LeanMonoGammaTxn>("leanMonoTxn", INITIAL_CAPACITY, MAX_CAPACITY);
+        final AdaptivePool<LeanFixedLengthGammaTxn> leanFixedLength
+                = new AdaptivePool<LeanFixedLengthGammaTxn>("leanFixedLengthTxn", INITIAL_CAPACITY, MAX_CAPACITY);
+        final AdaptivePool<FatVariableLengthGammaTxn> fatVariableLength
+                = new AdaptivePool<FatVariableLengthGammaTxn>("fatVariableLengthTxn", INITIAL_CAPACITY, MAX_CAPACITY);
+
+        @SuppressWarnings({"unchecked"})
+        List<AdaptivePool<? extends GammaTxn>> all() {
+            List<AdaptivePool<? extends GammaTxn>> result = new ArrayList<AdaptivePool<? extends GammaTxn>>(5);
+            result.add(fatMono);
+            result.add(fatFixedLength);
+            result.add(leanMono);
+            result.add(leanFixedLength);
+            result.add(fatVariableLength);
+            return result;
+        }
     }
 }
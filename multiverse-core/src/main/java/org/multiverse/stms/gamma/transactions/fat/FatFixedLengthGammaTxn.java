@@ -5,6 +5,7 @@ import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
 import org.multiverse.stms.gamma.transactionalobjects.GammaObject;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -36,7 +37,7 @@ public final class FatFixedLengthGammaTxn extends GammaTxn {
 
         Tranlocal h = null;
         for (int k = 0; k < config.maxFixedLengthTransactionSize; k++) {
-            Tranlocal newNode = new Tranlocal();
+            Tranlocal newNode = new RefTranlocal();
             if (h != null) {
                 h.previous = newNode;
                 newNode.next = h;
@@ -200,12 +201,35 @@ public final class FatFixedLengthGammaTxn extends GammaTxn {
     }
 
     @Override
-    public final Tranlocal getRefTranlocal(final BaseGammaTxnRef ref) {
+    public final int getReadSetSize() {
+        return countChain(true);
+    }
+
+    @Override
+    public final int getWriteSetSize() {
+        return countChain(false);
+    }
+
+    private int countChain(boolean reads) {
+        int result = 0;
+        Tranlocal node = head;
+        while (node != null && node.owner != null) {
+            if (node.isRead() == reads) {
+                result++;
+            }
+            node = node.next;
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public final <T extends Tranlocal> T getRefTranlocal(final BaseGammaTxnRef<T> ref) {
         Tranlocal node = head;
         while (node != null) {
             //noinspection ObjectEquality
             if (node.owner == ref) {
-                return node;
+                return (T) node;
             }
 
             if (node.owner == null) {
@@ -262,6 +286,7 @@ public final class FatFixedLengthGammaTxn extends GammaTxn {
         } while (tranlocal != null && tranlocal.owner != null);
 
         status = TX_ABORTED;
+        notifyListeners(TxnEvent.PostRetry);
 
         if (!atLeastOneRegistration) {
             throw abortRetryOnNoRetryPossible();
@@ -272,7 +297,7 @@ public final class FatFixedLengthGammaTxn extends GammaTxn {
 
 
     @Override
-    public final Tranlocal locate(BaseGammaTxnRef o) {
+    public final <T extends Tranlocal> T locate(BaseGammaTxnRef<T> o) {
         if (status != TX_ACTIVE) {
             throw abortLocateOnBadStatus(o);
         }
@@ -327,6 +352,40 @@ public final class FatFixedLengthGammaTxn extends GammaTxn {
         return true;
     }
 
+    /**
+     * Makes sure that a free node is able to store the value of the given ref. If it isn't, the node is replaced in
+     * the chain by one that is, so the nodes don't need to carry the value fields of every type of ref.
+     *
+     * @param node the free node.
+     * @param ref  the ref that is going to be stored in the node.
+     * @return the node to use.
+     */
+    public final Tranlocal ensureSuitableNode(final Tranlocal node, final BaseGammaTxnRef ref) {
+        if (node.isSuitableFor(ref.type)) {
+            return node;
+        }
+
+        final Tranlocal replacement = pool.take(ref.type);
+        final Tranlocal previous = node.previous;
+        final Tranlocal next = node.next;
+        replacement.previous = previous;
+        replacement.next = next;
+        if (previous == null) {
+            head = replacement;
+        } else {
+            previous.next = replacement;
+        }
+
+        if (next != null) {
+            next.previous = replacement;
+        }
+
+        node.previous = null;
+        node.next = null;
+        pool.put(node);
+        return replacement;
+    }
+
     public final void shiftInFront(Tranlocal newHead) {
         //noinspection ObjectEquality
         if (newHead == head) {
@@ -4,13 +4,17 @@ import org.multiverse.api.lifecycle.TxnEvent;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 
 public final class FatMonoGammaTxn extends GammaTxn {
 
-    public final Tranlocal tranlocal = new Tranlocal();
+    private final LongTranlocal longTranlocal = new LongTranlocal();
+    private final RefTranlocal refTranlocal = new RefTranlocal();
+    public Tranlocal tranlocal = refTranlocal;
 
     public FatMonoGammaTxn(GammaStm stm) {
         this(new GammaTxnConfig(stm));
@@ -21,8 +25,20 @@ public final class FatMonoGammaTxn extends GammaTxn {
         richmansMansConflictScan = false;
     }
 
+    /**
+     * Selects the tranlocal that is able to store the value of the given ref. Should only be called if the tranlocal
+     * is not in use.
+     *
+     * @param ref the ref that is going to be opened.
+     * @return the selected tranlocal.
+     */
+    public final Tranlocal selectTranlocal(final BaseGammaTxnRef ref) {
+        tranlocal = ref.type == TYPE_REF ? refTranlocal : longTranlocal;
+        return tranlocal;
+    }
+
     @Override
-    public final Tranlocal locate(BaseGammaTxnRef o) {
+    public final <T extends Tranlocal> T locate(BaseGammaTxnRef<T> o) {
         if (status != TX_ACTIVE) {
             throw abortLocateOnBadStatus(o);
         }
@@ -128,9 +144,20 @@ public final class FatMonoGammaTxn extends GammaTxn {
     }
 
     @Override
-    public final Tranlocal getRefTranlocal(BaseGammaTxnRef ref) {
+    public final int getReadSetSize() {
+        return tranlocal.owner != null && tranlocal.isRead() ? 1 : 0;
+    }
+
+    @Override
+    public final int getWriteSetSize() {
+        return tranlocal.owner != null && !tranlocal.isRead() ? 1 : 0;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public final <T extends Tranlocal> T getRefTranlocal(BaseGammaTxnRef<T> ref) {
         //noinspection ObjectEquality
-        return tranlocal.owner == ref ? tranlocal : null;
+        return tranlocal.owner == ref ? (T) tranlocal : null;
     }
 
     @Override
@@ -172,6 +199,7 @@ public final class FatMonoGammaTxn extends GammaTxn {
         owner.releaseAfterFailure(tranlocal, pool);
 
         status = TX_ABORTED;
+        notifyListeners(TxnEvent.PostRetry);
 
         if (!atLeastOneRegistration) {
             throw abortRetryOnNoRetryPossible();
@@ -197,7 +197,7 @@ public final class FatVariableLengthGammaTxn extends GammaTxn {
     }
 
     @Override
-    public final Tranlocal locate(BaseGammaTxnRef o) {
+    public final <T extends Tranlocal> T locate(BaseGammaTxnRef<T> o) {
         if (status != TX_ACTIVE) {
             throw abortLocateOnBadStatus(o);
         }
@@ -210,9 +210,35 @@ public final class FatVariableLengthGammaTxn extends GammaTxn {
     }
 
     @Override
-    public final Tranlocal getRefTranlocal(BaseGammaTxnRef ref) {
+    public final int getReadSetSize() {
+        return countArray(true);
+    }
+
+    @Override
+    public final int getWriteSetSize() {
+        return countArray(false);
+    }
+
+    private int countArray(boolean reads) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int result = 0;
+        for (int k = 0; k < array.length; k++) {
+            final Tranlocal tranlocal = array[k];
+            if (tranlocal != null && tranlocal.owner != null && tranlocal.isRead() == reads) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public final <T extends Tranlocal> T getRefTranlocal(BaseGammaTxnRef<T> ref) {
         int indexOf = indexOf(ref, ref.identityHashCode());
-        return indexOf == -1 ? null : array[indexOf];
+        return indexOf == -1 ? null : (T) array[indexOf];
     }
 
     @Override
@@ -266,6 +292,7 @@ public final class FatVariableLengthGammaTxn extends GammaTxn {
         }
 
         status = TX_ABORTED;
+        notifyListeners(TxnEvent.PostRetry);
 
         if (!atLeastOneRegistration) {
             throw abortRetryOnNoRetryPossible();
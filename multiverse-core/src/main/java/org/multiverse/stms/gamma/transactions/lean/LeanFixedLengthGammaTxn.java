@@ -3,6 +3,7 @@ package org.multiverse.stms.gamma.transactions.lean;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.GammaObject;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
@@ -33,7 +34,7 @@ public final class LeanFixedLengthGammaTxn extends GammaTxn {
 
         Tranlocal h = null;
         for (int k = 0; k < config.maxFixedLengthTransactionSize; k++) {
-            Tranlocal newNode = new Tranlocal();
+            RefTranlocal newNode = new RefTranlocal();
             if (h != null) {
                 h.previous = newNode;
                 newNode.next = h;
@@ -83,7 +84,7 @@ public final class LeanFixedLengthGammaTxn extends GammaTxn {
                 }
                 if (SHAKE_BUGS) shakeBugs();
 
-                final Listeners listeners = owner.leanCommit(node);
+                final Listeners listeners = owner.leanCommit((RefTranlocal) node);
                 if (listeners != null) {
                     listenersArray[listenersIndex] = listeners;
                     listenersIndex++;
@@ -201,8 +202,9 @@ public final class LeanFixedLengthGammaTxn extends GammaTxn {
             }
 
             node.owner = null;
-            node.ref_oldValue = null;
-            node.ref_value = null;
+            final RefTranlocal refNode = (RefTranlocal) node;
+            refNode.ref_oldValue = null;
+            refNode.ref_value = null;
             node = node.next;
         } while (node != null);
     }
@@ -219,19 +221,43 @@ public final class LeanFixedLengthGammaTxn extends GammaTxn {
             if (SHAKE_BUGS) shakeBugs();
 
             node.owner = null;
-            node.ref_oldValue = null;
-            node.ref_value = null;
+            final RefTranlocal refNode = (RefTranlocal) node;
+            refNode.ref_oldValue = null;
+            refNode.ref_value = null;
             node = node.next;
         } while (node != null);
     }
 
     @Override
-    public final Tranlocal getRefTranlocal(final BaseGammaTxnRef ref) {
+    public final int getReadSetSize() {
+        return countChain(true);
+    }
+
+    @Override
+    public final int getWriteSetSize() {
+        return countChain(false);
+    }
+
+    private int countChain(boolean reads) {
+        int result = 0;
+        Tranlocal node = head;
+        while (node != null && node.owner != null) {
+            if (node.isRead() == reads) {
+                result++;
+            }
+            node = node.next;
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public final <T extends Tranlocal> T getRefTranlocal(final BaseGammaTxnRef<T> ref) {
         Tranlocal node = head;
         do {
             //noinspection ObjectEquality
             if (node.owner == ref) {
-                return node;
+                return (T) node;
             }
 
             if (node.owner == null) {
@@ -298,7 +324,7 @@ public final class LeanFixedLengthGammaTxn extends GammaTxn {
 
 
     @Override
-    public final Tranlocal locate(BaseGammaTxnRef o) {
+    public final <T extends Tranlocal> T locate(BaseGammaTxnRef<T> o) {
         if (status != TX_ACTIVE) {
             throw abortLocateOnBadStatus(o);
         }
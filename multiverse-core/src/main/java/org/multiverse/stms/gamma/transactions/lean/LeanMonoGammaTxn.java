@@ -3,6 +3,8 @@ package org.multiverse.stms.gamma.transactions.lean;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -16,7 +18,7 @@ import static org.multiverse.utils.Bugshaker.shakeBugs;
  */
 public final class LeanMonoGammaTxn extends GammaTxn {
 
-    public final Tranlocal tranlocal = new Tranlocal();
+    public final RefTranlocal tranlocal = new RefTranlocal();
 
     public LeanMonoGammaTxn(GammaStm stm) {
         this(new GammaTxnConfig(stm));
@@ -27,7 +29,7 @@ public final class LeanMonoGammaTxn extends GammaTxn {
     }
 
     @Override
-    public final Tranlocal locate(BaseGammaTxnRef o) {
+    public final <T extends Tranlocal> T locate(BaseGammaTxnRef<T> o) {
         if (status != TX_ACTIVE) {
             throw abortLocateOnBadStatus(o);
         }
@@ -96,7 +98,7 @@ public final class LeanMonoGammaTxn extends GammaTxn {
         }
 
         if(SHAKE_BUGS) shakeBugs();
-        owner.ref_value = tranlocal.ref_value;
+        ((GammaTxnRef) owner).ref_value = tranlocal.ref_value;
         owner.version = version + 1;
 
         Listeners listeners = owner.listeners;
@@ -157,9 +159,20 @@ public final class LeanMonoGammaTxn extends GammaTxn {
     }
 
     @Override
-    public final Tranlocal getRefTranlocal(BaseGammaTxnRef ref) {
+    public final int getReadSetSize() {
+        return tranlocal.owner != null && tranlocal.isRead() ? 1 : 0;
+    }
+
+    @Override
+    public final int getWriteSetSize() {
+        return tranlocal.owner != null && !tranlocal.isRead() ? 1 : 0;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public final <T extends Tranlocal> T getRefTranlocal(BaseGammaTxnRef<T> ref) {
         //noinspection ObjectEquality
-        return tranlocal.owner == ref ? tranlocal : null;
+        return tranlocal.owner == ref ? (T) tranlocal : null;
     }
 
     @Override
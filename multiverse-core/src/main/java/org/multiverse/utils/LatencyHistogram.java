@@ -0,0 +1,282 @@
+package org.multiverse.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free log-linear (HDR style) histogram for recording latencies in nanoseconds.
+ * <p/>
+ * Values below 16 get their own bucket, every power of 2 above that is split into 16 linear sub buckets. So the
+ * relative error of a recorded value is at most 1/16 (6.25%) and the histogram has a fixed size no matter how many
+ * values are recorded. Values larger than {@link #MAX_VALUE} (roughly 4.9 hours) are clamped and negative values are
+ * recorded as 0.
+ * <p/>
+ * Recording is wait free; it does a single atomic increment on the bucket and one on the sum. It is intended to be used
+ * by a single thread, but it is safe to call {@link #record(long)} concurrently. If a histogram is read/reset
+ * while values are recorded, the snapshot could be off by the values in flight, but no value is lost.
+ *
+ * @author Peter Veentjer.
+ */
+public final class LatencyHistogram {
+
+    public static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    public static final int MAX_VALUE_BITS = 44;
+    public static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    public static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+    //the last slot contains the sum of all recorded values.
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT + 1);
+
+    /**
+     * Records a value.
+     *
+     * @param value the value (normally a duration in nanoseconds) to record.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+
+        buckets.getAndIncrement(indexOf(value));
+        buckets.getAndAdd(BUCKET_COUNT, value);
+    }
+
+    /**
+     * Takes a snapshot of the current content of this LatencyHistogram.
+     *
+     * @return the created Snapshot.
+     */
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int k = 0; k < BUCKET_COUNT; k++) {
+            counts[k] = buckets.get(k);
+        }
+        return new Snapshot(counts, buckets.get(BUCKET_COUNT));
+    }
+
+    /**
+     * Takes a snapshot of the current content of this LatencyHistogram and resets it. Every recorded value will end up
+     * in exactly one snapshot.
+     *
+     * @return the created Snapshot.
+     */
+    public Snapshot snapshotAndReset() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int k = 0; k < BUCKET_COUNT; k++) {
+            counts[k] = buckets.getAndSet(k, 0);
+        }
+        return new Snapshot(counts, buckets.getAndSet(BUCKET_COUNT, 0));
+    }
+
+    /**
+     * Resets this LatencyHistogram.
+     */
+    public void reset() {
+        for (int k = 0; k <= BUCKET_COUNT; k++) {
+            buckets.set(k, 0);
+        }
+    }
+
+    /**
+     * Returns the index of the bucket the value belongs to.
+     *
+     * @param value the value; should be between 0 and MAX_VALUE.
+     * @return the index of the bucket.
+     */
+    public static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int msb = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = msb - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the smallest value that is recorded in the bucket with the given index.
+     *
+     * @param index the index of the bucket.
+     * @return the lowest value of the bucket.
+     */
+    public static long lowestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long subBucket = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+        return subBucket << shift;
+    }
+
+    /**
+     * Returns the largest value that is recorded in the bucket with the given index.
+     *
+     * @param index the index of the bucket.
+     * @return the highest value of the bucket.
+     */
+    public static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        return lowestValueOf(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * An immutable copy of the content of a LatencyHistogram. Snapshots can be merged, which is used to combine the
+     * histograms of different threads.
+     */
+    public static final class Snapshot {
+
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0);
+
+        private final long[] counts;
+        private final long sum;
+        private final long count;
+
+        private Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            this.sum = sum;
+            long c = 0;
+            for (long bucketCount : counts) {
+                c += bucketCount;
+            }
+            this.count = c;
+        }
+
+        /**
+         * Merges this Snapshot with another one.
+         *
+         * @param that the Snapshot to merge with.
+         * @return the merged Snapshot.
+         * @throws NullPointerException if that is null.
+         */
+        public Snapshot merge(Snapshot that) {
+            if (that == null) {
+                throw new NullPointerException();
+            }
+
+            final long[] merged = new long[BUCKET_COUNT];
+            for (int k = 0; k < BUCKET_COUNT; k++) {
+                merged[k] = counts[k] + that.counts[k];
+            }
+            return new Snapshot(merged, sum + that.sum);
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the number of recorded values.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the sum of all recorded values.
+         *
+         * @return the sum of all recorded values.
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * Returns the number of values recorded in the bucket with the given index.
+         *
+         * @param index the index of the bucket.
+         * @return the number of values in the bucket.
+         */
+        public long getCountAtIndex(int index) {
+            return counts[index];
+        }
+
+        /**
+         * Returns the mean of the recorded values, or 0 if nothing was recorded.
+         *
+         * @return the mean.
+         */
+        public double getMean() {
+            return count == 0 ? 0 : ((double) sum) / count;
+        }
+
+        /**
+         * Returns the (approximate) smallest recorded value, or 0 if nothing was recorded.
+         *
+         * @return the minimum.
+         */
+        public long getMin() {
+            for (int k = 0; k < BUCKET_COUNT; k++) {
+                if (counts[k] > 0) {
+                    return lowestValueOf(k);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the (approximate) largest recorded value, or 0 if nothing was recorded.
+         *
+         * @return the maximum.
+         */
+        public long getMax() {
+            for (int k = BUCKET_COUNT - 1; k >= 0; k--) {
+                if (counts[k] > 0) {
+                    return highestValueOf(k);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the (approximate) value at the given percentile. The returned value is the highest value of the bucket
+         * containing the percentile, so it never underestimates.
+         *
+         * @param percentile the percentile between 0 and 100.
+         * @return the value at the given percentile, or 0 if nothing was recorded.
+         * @throws IllegalArgumentException if percentile is smaller than 0 or larger than 100.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile should be between 0 and 100, found " + percentile);
+            }
+
+            if (count == 0) {
+                return 0;
+            }
+
+            long threshold = (long) Math.ceil((percentile / 100) * count);
+            if (threshold == 0) {
+                threshold = 1;
+            }
+
+            long seen = 0;
+            for (int k = 0; k < BUCKET_COUNT; k++) {
+                seen += counts[k];
+                if (seen >= threshold) {
+                    return highestValueOf(k);
+                }
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "count=" + count +
+                    ", mean=" + getMean() +
+                    ", min=" + getMin() +
+                    ", p50=" + getValueAtPercentile(50) +
+                    ", p90=" + getValueAtPercentile(90) +
+                    ", p99=" + getValueAtPercentile(99) +
+                    ", p99.9=" + getValueAtPercentile(99.9) +
+                    ", max=" + getMax() +
+                    '}';
+        }
+    }
+}
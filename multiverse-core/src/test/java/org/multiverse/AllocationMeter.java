@@ -0,0 +1,72 @@
+package org.multiverse;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the number of bytes allocated by the current thread using the
+ * {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}. Not every JVM supports this; use
+ * {@link #isSupported()} to check it.
+ *
+ * @author Peter Veentjer.
+ */
+public final class AllocationMeter {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    public static boolean isSupported() {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * @return the number of allocated bytes.
+     */
+    public static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Measures the average number of bytes allocated by a single execution of the runnable. The runnable first is
+     * executed warmupIterations times so that all lazily created structures (pools, speculative configuration etc)
+     * are in place and the JIT had a chance to compile it.
+     *
+     * @param runnable         the Runnable to measure.
+     * @param warmupIterations the number of executions before measuring.
+     * @param iterations       the number of executions to measure.
+     * @return the average number of bytes allocated per execution.
+     */
+    public static double bytesPerOperation(Runnable runnable, int warmupIterations, int iterations) {
+        for (int k = 0; k < warmupIterations; k++) {
+            runnable.run();
+        }
+
+        //the measurement itself could allocate, so it is measured as well and subtracted.
+        final long overheadStart = allocatedBytes();
+        final long overhead = allocatedBytes() - overheadStart;
+
+        final long start = allocatedBytes();
+        for (int k = 0; k < iterations; k++) {
+            runnable.run();
+        }
+        final long allocated = allocatedBytes() - start - overhead;
+        return Math.max(0, allocated) / (double) iterations;
+    }
+
+    private AllocationMeter() {
+    }
+}
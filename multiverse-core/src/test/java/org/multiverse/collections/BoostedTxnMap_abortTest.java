@@ -0,0 +1,100 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.api.exceptions.RetryError;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class BoostedTxnMap_abortTest {
+
+    private GammaStm stm;
+    private BoostedTxnMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new BoostedTxnMap<String, String>(stm);
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("a", "1");
+                map.put("b", "2");
+            }
+        });
+    }
+
+    @Test
+    public void whenAborted_thenUpdatesUndone() {
+        GammaTxn tx = newTxn();
+        map.put(tx, "a", "3");
+        map.put(tx, "a", "4");
+        map.remove(tx, "b");
+        map.put(tx, "c", "5");
+        assertEquals(2, map.size(tx));
+        tx.abort();
+
+        assertContent();
+    }
+
+    @Test
+    public void whenRetried_thenUpdatesUndone() {
+        TxnInteger ref = stm.getDefaultRefFactory().newTxnInteger(0);
+
+        GammaTxn tx = newTxn();
+        ref.get(tx);
+        map.put(tx, "a", "3");
+        map.remove(tx, "b");
+        try {
+            tx.retry();
+            fail();
+        } catch (RetryError expected) {
+        }
+
+        assertContent();
+    }
+
+    @Test
+    public void whenCommitFails_thenUpdatesUndone() {
+        TxnInteger ref = stm.getDefaultRefFactory().newTxnInteger(0);
+
+        GammaTxn tx = newTxn();
+        ref.set(tx, 1);
+        map.put(tx, "a", "3");
+
+        ref.atomicSet(2);
+        try {
+            tx.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertContent();
+    }
+
+    private void assertContent() {
+        GammaTxn tx = newTxn();
+        assertEquals("1", map.get(tx, "a"));
+        assertEquals("2", map.get(tx, "b"));
+        assertNull(map.get(tx, "c"));
+        assertEquals(2, map.size(tx));
+        tx.commit();
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
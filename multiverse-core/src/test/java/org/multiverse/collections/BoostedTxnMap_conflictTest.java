@@ -0,0 +1,82 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.api.TxnStatus;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class BoostedTxnMap_conflictTest {
+
+    private GammaStm stm;
+    private BoostedTxnMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new BoostedTxnMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenDifferentKeysUpdated_thenNoConflict() {
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, "a", "1");
+        map.put(tx2, "b", "2");
+        tx1.commit();
+        tx2.commit();
+
+        GammaTxn tx = newTxn();
+        assertEquals("1", map.get(tx, "a"));
+        assertEquals("2", map.get(tx, "b"));
+        assertEquals(2, map.size(tx));
+        tx.commit();
+    }
+
+    @Test
+    public void whenKeyLockedByOtherTxn_thenConflictAndAborted() {
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, "a", "1");
+        map.put(tx2, "b", "2");
+
+        try {
+            map.get(tx2, "a");
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertEquals(TxnStatus.Aborted, tx2.getStatus());
+        tx1.commit();
+
+        //the lock on b has been released and the put undone.
+        GammaTxn tx = newTxn();
+        assertNull(map.put(tx, "b", "3"));
+        assertEquals("1", map.get(tx, "a"));
+        tx.commit();
+    }
+
+    @Test
+    public void whenLockOwnerCommits_thenKeyAvailable() {
+        GammaTxn tx1 = newTxn();
+        map.put(tx1, "a", "1");
+        tx1.commit();
+
+        GammaTxn tx2 = newTxn();
+        assertEquals("1", map.put(tx2, "a", "2"));
+        tx2.commit();
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
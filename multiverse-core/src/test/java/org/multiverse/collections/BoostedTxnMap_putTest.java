@@ -0,0 +1,103 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class BoostedTxnMap_putTest {
+
+    private GammaStm stm;
+    private BoostedTxnMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new BoostedTxnMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenNullKeyOrValue_thenNullPointerException() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.put(null, "a");
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                try {
+                    map.put("a", null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals(0, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenPutGetAndRemove() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.put("a", "1"));
+                assertNull(map.put("b", "2"));
+                assertEquals("1", map.put("a", "3"));
+                assertEquals(2, map.size());
+                assertEquals("3", map.get("a"));
+                assertTrue(map.containsKey("b"));
+                assertFalse(map.containsKey("c"));
+
+                assertEquals("2", map.remove("b"));
+                assertNull(map.remove("b"));
+                assertEquals(1, map.size());
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals("3", map.get("a"));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenIteratedAndCleared() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                Map<String, String> expected = new HashMap<String, String>();
+                for (int k = 0; k < 100; k++) {
+                    map.put("" + k, "v" + k);
+                    expected.put("" + k, "v" + k);
+                }
+
+                Map<String, String> found = new HashMap<String, String>();
+                for (Map.Entry<String, String> entry : map.entrySet()) {
+                    found.put(entry.getKey(), entry.getValue());
+                }
+                assertEquals(expected, found);
+                assertTrue(map.containsValue("v50"));
+
+                map.clear();
+                assertEquals(0, map.size());
+                assertTrue(map.isEmpty());
+            }
+        });
+    }
+}
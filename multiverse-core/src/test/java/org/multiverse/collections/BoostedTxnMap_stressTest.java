@@ -0,0 +1,98 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Every thread moves amounts between a small set of shared keys, so transactions regularly conflict on the locks and
+ * need to be undone. At the end the total amount still should be the same.
+ */
+public class BoostedTxnMap_stressTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int KEY_COUNT = 10;
+    private static final int INITIAL_AMOUNT = 1000;
+    private static final int TRANSFERS_PER_THREAD = 20000;
+
+    private GammaStm stm;
+    private BoostedTxnMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new BoostedTxnMap<Integer, Integer>(stm);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < KEY_COUNT; k++) {
+                    map.put(k, INITIAL_AMOUNT);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void test() {
+        TransferThread[] threads = new TransferThread[THREAD_COUNT];
+        for (int k = 0; k < threads.length; k++) {
+            threads[k] = new TransferThread(k);
+        }
+
+        startAll(threads);
+        assertEventuallyNotAlive(threads);
+        assertNothingThrown(threads);
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(KEY_COUNT, map.size());
+                int total = 0;
+                for (Integer value : map.values()) {
+                    total += value;
+                }
+                assertEquals(KEY_COUNT * INITIAL_AMOUNT, total);
+            }
+        });
+    }
+
+    class TransferThread extends TestThread {
+
+        TransferThread(int id) {
+            super("TransferThread-" + id);
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            TxnExecutor executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(100000)
+                    .newTxnExecutor();
+            final Random random = new Random();
+            for (int k = 0; k < TRANSFERS_PER_THREAD; k++) {
+                final Integer from = random.nextInt(KEY_COUNT);
+                final Integer to = random.nextInt(KEY_COUNT);
+                final int amount = random.nextInt(10);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        map.put(tx, from, map.get(tx, from) - amount);
+                        map.put(tx, to, map.get(tx, to) + amount);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnTable;
+import org.multiverse.api.collections.TxnTableColumn;
+import org.multiverse.api.collections.TxnTableIndex;
+import org.multiverse.collections.DefaultTxnTable_putTest.Person;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class DefaultTxnTable_indexTest {
+
+    private Stm stm;
+    private TxnTable<Integer, Person> table;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        table = new TxnTableBuilder<Integer, Person>(stm, Person.ID)
+                .addHashIndex("city", Person.CITY)
+                .addOrderedIndex("age", Person.AGE)
+                .addOrderedIndex("ageDescending", Person.AGE, Collections.<Integer>reverseOrder())
+                .newTable();
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(1, "Utrecht", 20));
+                table.put(tx, new Person(2, "Utrecht", 30));
+                table.put(tx, new Person(3, "Amsterdam", 30));
+                table.put(tx, new Person(4, "Amsterdam", 40));
+                table.put(tx, new Person(5, null, null));
+            }
+        });
+    }
+
+    @Test
+    public void isOrdered() {
+        assertFalse(table.getIndex("city").isOrdered());
+        assertTrue(table.getIndex("age").isOrdered());
+    }
+
+    @Test
+    public void whenFind() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnTableIndex<Person, String> city = table.getIndex("city");
+                assertEquals(
+                        set(new Person(1, "Utrecht", 20), new Person(2, "Utrecht", 30)),
+                        new HashSet<Person>(city.find(tx, "Utrecht")));
+                assertTrue(city.find(tx, "Rotterdam").isEmpty());
+
+                TxnTableIndex<Person, Integer> age = table.getIndex("age");
+                assertEquals(
+                        set(new Person(2, "Utrecht", 30), new Person(3, "Amsterdam", 30)),
+                        new HashSet<Person>(age.find(tx, 30)));
+            }
+        });
+    }
+
+    @Test
+    public void whenFindRange() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnTableIndex<Person, Integer> age = table.getIndex("age");
+                List<Person> result = age.findRange(tx, 25, 40);
+
+                assertEquals(2, result.size());
+                assertEquals(set(new Person(2, "Utrecht", 30), new Person(3, "Amsterdam", 30)),
+                        new HashSet<Person>(result));
+                assertEquals(4, age.findRange(tx, 0, 100).size());
+                assertTrue(age.findRange(tx, 41, 100).isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenFindRangeWithComparator() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnTableIndex<Person, Integer> age = table.getIndex("ageDescending");
+                List<Person> result = age.findRange(tx, 40, 20);
+
+                assertEquals(Arrays.asList(new Person(4, "Amsterdam", 40)), result.subList(0, 1));
+                assertEquals(3, result.size());
+            }
+        });
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenFindRangeOnHashIndex_thenUnsupportedOperationException() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnTableIndex<Person, String> city = table.getIndex("city");
+                city.findRange(tx, "A", "Z");
+            }
+        });
+    }
+
+    @Test
+    public void whenIndexedValueChanges_thenRowMovesToNewValue() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(1, "Amsterdam", 20));
+
+                TxnTableIndex<Person, String> city = table.getIndex("city");
+                assertEquals(Arrays.asList(new Person(2, "Utrecht", 30)), city.find(tx, "Utrecht"));
+                assertEquals(3, city.find(tx, "Amsterdam").size());
+                assertEquals(Arrays.asList(new Person(1, "Amsterdam", 20)),
+                        table.<Integer>getIndex("age").find(tx, 20));
+            }
+        });
+    }
+
+    @Test
+    public void whenValueBecomesNull_thenRowRemovedFromIndex() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(4, null, 40));
+
+                TxnTableIndex<Person, String> city = table.getIndex("city");
+                assertEquals(Arrays.asList(new Person(3, "Amsterdam", 30)), city.find(tx, "Amsterdam"));
+                assertEquals(Arrays.asList(new Person(4, null, 40)),
+                        table.<Integer>getIndex("age").find(tx, 40));
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoved_thenNotFoundAnymore() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.remove(tx, 3);
+
+                assertTrue(table.<Integer>getIndex("age").find(tx, 30).size() == 1);
+                assertEquals(Arrays.asList(new Person(4, "Amsterdam", 40)),
+                        table.<String>getIndex("city").find(tx, "Amsterdam"));
+            }
+        });
+    }
+
+    @Test
+    public void whenManyRowsWithSameValue() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 100; k < 2100; k++) {
+                    table.put(tx, new Person(k, "Rotterdam", k % 2 == 0 ? 50 : 60));
+                }
+                for (int k = 100; k < 2100; k += 2) {
+                    table.remove(tx, k);
+                }
+
+                TxnTableIndex<Person, String> city = table.getIndex("city");
+                List<Person> found = city.find(tx, "Rotterdam");
+                assertEquals(1000, found.size());
+                for (Person person : found) {
+                    assertEquals(1, person.id % 2);
+                }
+
+                assertTrue(table.<Integer>getIndex("age").find(tx, 50).isEmpty());
+                assertEquals(1000, table.<Integer>getIndex("age").find(tx, 60).size());
+                assertEquals(1000, table.<Integer>getIndex("age").findRange(tx, 45, 65).size());
+            }
+        });
+    }
+
+    @Test
+    public void whenValuesWithSameHash_thenKeptApart() {
+        //"Aa" and "BB" have the same hashCode.
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(10, "Aa", 20));
+                table.put(tx, new Person(11, "BB", 20));
+                table.put(tx, new Person(12, "Aa", 20));
+
+                TxnTableIndex<Person, String> city = table.getIndex("city");
+                assertEquals(set(new Person(10, "Aa", 20), new Person(12, "Aa", 20)),
+                        new HashSet<Person>(city.find(tx, "Aa")));
+                assertEquals(Arrays.asList(new Person(11, "BB", 20)), city.find(tx, "BB"));
+
+                table.remove(tx, 10);
+                assertEquals(Arrays.asList(new Person(12, "Aa", 20)), city.find(tx, "Aa"));
+                assertEquals(Arrays.asList(new Person(11, "BB", 20)), city.find(tx, "BB"));
+            }
+        });
+    }
+
+    @Test
+    public void whenPrimaryKeysWithSameHash_thenKeptApart() {
+        //the hashCode of a Long is its low int xor its high int, so these keys all have hash 0.
+        final long[] keys = {0L, 0x100000001L, 0x200000002L};
+        final TxnTable<Long, long[]> table = new TxnTableBuilder<Long, long[]>(stm, LONG_ID)
+                .addHashIndex("value", LONG_VALUE)
+                .addOrderedIndex("orderedValue", LONG_VALUE)
+                .newTable();
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long key : keys) {
+                    table.put(tx, new long[]{key, 7});
+                }
+                table.put(tx, new long[]{1, 8});
+
+                assertEquals(3, table.<Long>getIndex("value").find(tx, 7L).size());
+                assertEquals(3, table.<Long>getIndex("orderedValue").find(tx, 7L).size());
+
+                table.remove(tx, keys[1]);
+                List<long[]> found = table.<Long>getIndex("orderedValue").find(tx, 7L);
+                assertEquals(2, found.size());
+                assertEquals(new HashSet<Long>(Arrays.asList(keys[0], keys[2])),
+                        new HashSet<Long>(Arrays.asList(found.get(0)[0], found.get(1)[0])));
+                assertEquals(2, table.<Long>getIndex("value").find(tx, 7L).size());
+                assertEquals(1, table.<Long>getIndex("value").find(tx, 8L).size());
+            }
+        });
+    }
+
+    private static final TxnTableColumn<long[], Long> LONG_ID = new TxnTableColumn<long[], Long>() {
+        @Override
+        public Long valueOf(long[] row) {
+            return row[0];
+        }
+    };
+
+    private static final TxnTableColumn<long[], Long> LONG_VALUE = new TxnTableColumn<long[], Long>() {
+        @Override
+        public Long valueOf(long[] row) {
+            return row[1];
+        }
+    };
+
+    private static HashSet<Person> set(Person... persons) {
+        return new HashSet<Person>(Arrays.asList(persons));
+    }
+}
@@ -0,0 +1,208 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnTable;
+import org.multiverse.api.collections.TxnTableColumn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class DefaultTxnTable_putTest {
+
+    private Stm stm;
+    private TxnTable<Integer, Person> table;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        table = new TxnTableBuilder<Integer, Person>(stm, Person.ID)
+                .addHashIndex("city", Person.CITY)
+                .addOrderedIndex("age", Person.AGE)
+                .newTable();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullPrimaryKey_thenNullPointerException() {
+        new TxnTableBuilder<Integer, Person>(stm, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenDuplicateIndexName_thenIllegalArgumentException() {
+        new TxnTableBuilder<Integer, Person>(stm, Person.ID)
+                .addHashIndex("city", Person.CITY)
+                .addOrderedIndex("city", Person.AGE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenUnknownIndex_thenIllegalArgumentException() {
+        table.getIndex("name");
+    }
+
+    @Test
+    public void whenNewRow() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                Person old = table.put(tx, new Person(1, "Utrecht", 30));
+
+                assertNull(old);
+                assertEquals(1, table.size(tx));
+                assertTrue(table.containsKey(tx, 1));
+                assertEquals(new Person(1, "Utrecht", 30), table.get(tx, 1));
+            }
+        });
+    }
+
+    @Test
+    public void whenReplacingRow_thenOldRowReturned() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(1, "Utrecht", 30));
+                Person old = table.put(tx, new Person(1, "Amsterdam", 31));
+
+                assertEquals(new Person(1, "Utrecht", 30), old);
+                assertEquals(1, table.size(tx));
+                assertEquals(new Person(1, "Amsterdam", 31), table.get(tx, 1));
+            }
+        });
+    }
+
+    @Test
+    public void whenRemove() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(1, "Utrecht", 30));
+
+                assertEquals(new Person(1, "Utrecht", 30), table.remove(tx, 1));
+                assertNull(table.remove(tx, 1));
+                assertEquals(0, table.size(tx));
+                assertTrue(table.getIndex("city").find(tx, "Utrecht").isEmpty());
+                assertTrue(table.getIndex("age").find(tx, 30).isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenTransactionAborted_thenRowsAndIndexesUnchanged() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                table.put(tx, new Person(1, "Utrecht", 30));
+            }
+        });
+
+        try {
+            atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    table.put(tx, new Person(1, "Amsterdam", 40));
+                    table.put(tx, new Person(2, "Amsterdam", 50));
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(1, table.size(tx));
+                assertEquals(Arrays.asList(new Person(1, "Utrecht", 30)), table.getIndex("city").find(tx, "Utrecht"));
+                assertTrue(table.getIndex("city").find(tx, "Amsterdam").isEmpty());
+                assertTrue(table.getIndex("age").find(tx, 40).isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenBulkLoad() {
+        List<Person> persons = new ArrayList<Person>();
+        for (int k = 0; k < 1000; k++) {
+            persons.add(new Person(k, "city" + (k % 10), k % 100));
+        }
+
+        table.bulkLoad(persons, 64);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(1000, table.size(tx));
+                assertEquals(100, table.getIndex("city").find(tx, "city3").size());
+                assertEquals(10, table.getIndex("age").find(tx, 42).size());
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenBulkLoadWithZeroBatchSize_thenIllegalArgumentException() {
+        table.bulkLoad(new ArrayList<Person>(), 0);
+    }
+
+    static final class Person {
+        static final TxnTableColumn<Person, Integer> ID = new TxnTableColumn<Person, Integer>() {
+            @Override
+            public Integer valueOf(Person row) {
+                return row.id;
+            }
+        };
+
+        static final TxnTableColumn<Person, String> CITY = new TxnTableColumn<Person, String>() {
+            @Override
+            public String valueOf(Person row) {
+                return row.city;
+            }
+        };
+
+        static final TxnTableColumn<Person, Integer> AGE = new TxnTableColumn<Person, Integer>() {
+            @Override
+            public Integer valueOf(Person row) {
+                return row.age;
+            }
+        };
+
+        final int id;
+        final String city;
+        final Integer age;
+
+        Person(int id, String city, Integer age) {
+            this.id = id;
+            this.city = city;
+            this.age = age;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Person)) {
+                return false;
+            }
+            Person that = (Person) o;
+            return id == that.id
+                    && (city == null ? that.city == null : city.equals(that.city))
+                    && (age == null ? that.age == null : age.equals(that.age));
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Person{id=" + id + ", city=" + city + ", age=" + age + "}";
+        }
+    }
+}
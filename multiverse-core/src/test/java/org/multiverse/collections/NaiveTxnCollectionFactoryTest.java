@@ -0,0 +1,55 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+
+import static org.junit.Assert.assertTrue;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+import static org.multiverse.collections.NaiveTxnCollectionFactory.MAX_ARRAY_CAPACITY;
+
+public class NaiveTxnCollectionFactoryTest {
+
+    private NaiveTxnCollectionFactory factory;
+
+    @Before
+    public void setUp() {
+        Stm stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        factory = new NaiveTxnCollectionFactory(stm);
+    }
+
+    @Test
+    public void newQueue_whenSmallCapacity_thenArrayDeque() {
+        assertTrue(factory.newQueue(MAX_ARRAY_CAPACITY) instanceof TxnArrayDeque);
+    }
+
+    @Test
+    public void newQueue_whenLargeCapacity_thenLinked() {
+        assertTrue(factory.newQueue(MAX_ARRAY_CAPACITY + 1) instanceof TxnLinkedQueue);
+        assertTrue(factory.newQueue(10000000) instanceof TxnLinkedQueue);
+        assertTrue(factory.newQueue(Integer.MAX_VALUE) instanceof TxnLinkedQueue);
+    }
+
+    @Test
+    public void newDeque_whenSmallCapacity_thenArrayDeque() {
+        assertTrue(factory.newDeque(MAX_ARRAY_CAPACITY) instanceof TxnArrayDeque);
+    }
+
+    @Test
+    public void newDeque_whenLargeCapacity_thenLinked() {
+        assertTrue(factory.newDeque(MAX_ARRAY_CAPACITY + 1) instanceof NaiveTxnLinkedList);
+        assertTrue(factory.newDeque(10000000) instanceof NaiveTxnLinkedList);
+    }
+
+    @Test
+    public void newRingBuffer_whenLargeCapacity_thenStillArrayDeque() {
+        assertTrue(factory.newRingBuffer(MAX_ARRAY_CAPACITY * 4) instanceof TxnArrayDeque);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void newRingBuffer_whenZeroCapacity_thenIllegalArgumentException() {
+        factory.newRingBuffer(0);
+    }
+}
@@ -74,6 +74,40 @@ public class NaiveTxnHashMap_putTest {
         });
     }
 
+    @Test
+    public void whenResizeAborted_thenMapNotCorrupted() {
+        final int itemCount = 23;
+        for (int k = 0; k < itemCount; k++) {
+            final int key = k;
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    map.put("" + key, "" + key);
+                }
+            });
+        }
+
+        //the put triggers a resize, but the transaction is aborted.
+        Txn tx = stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+        map.put(tx, "" + itemCount, "" + itemCount);
+        tx.abort();
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(itemCount, map.size());
+                for (int k = 0; k < itemCount; k++) {
+                    assertEquals("" + k, map.get("" + k));
+                }
+                assertNull(map.put("" + itemCount, "" + itemCount));
+                assertEquals(itemCount + 1, map.size());
+            }
+        });
+    }
+
     @Test
     public void whenManyItems() {
         final int itemCount = 100 * 1000;
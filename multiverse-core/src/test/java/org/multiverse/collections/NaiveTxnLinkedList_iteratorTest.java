@@ -1,12 +1,85 @@
 package org.multiverse.collections;
 
-import org.junit.Ignore;
+import org.junit.Before;
 import org.junit.Test;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.ScanMode;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
 
 public class NaiveTxnLinkedList_iteratorTest {
+
+    private GammaStm stm;
+    private NaiveTxnLinkedList<String> list;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        list = new NaiveTxnLinkedList<String>(stm);
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                list.add("a");
+                list.add("b");
+                list.add("c");
+            }
+        });
+    }
+
+    @Test
+    public void whenTracked() {
+        FatVariableLengthGammaTxn tx = newTxn();
+        assertEquals(Arrays.asList("a", "b", "c"), toList(tx, list.iterator(tx, ScanMode.Tracked)));
+        assertTrue(tx.size() > 3);
+        tx.commit();
+    }
+
     @Test
-    @Ignore
-    public void test(){
+    public void whenUntracked_thenReadsNotTracked() {
+        FatVariableLengthGammaTxn tx = newTxn();
+        assertEquals(Arrays.asList("a", "b", "c"), toList(tx, list.iterator(tx, ScanMode.Untracked)));
+        assertEquals(0, tx.size());
+        tx.commit();
+    }
+
+    @Test
+    public void whenEmpty() {
+        NaiveTxnLinkedList<String> empty = new NaiveTxnLinkedList<String>(stm);
+        FatVariableLengthGammaTxn tx = newTxn();
+        assertFalse(empty.iterator(tx, ScanMode.Untracked).hasNext(tx));
+        assertFalse(empty.iterator(tx).hasNext(tx));
+        tx.commit();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenRemove_thenUnsupportedOperationException() {
+        FatVariableLengthGammaTxn tx = newTxn();
+        TxnIterator<String> it = list.iterator(tx);
+        it.next(tx);
+        it.remove(tx);
+    }
+
+    private static List<String> toList(Txn tx, TxnIterator<String> it) {
+        List<String> result = new ArrayList<String>();
+        while (it.hasNext(tx)) {
+            result.add(it.next(tx));
+        }
+        return result;
+    }
 
+    private FatVariableLengthGammaTxn newTxn() {
+        return new FatVariableLengthGammaTxn(stm);
     }
 }
@@ -0,0 +1,72 @@
+package org.multiverse.collections;
+
+import org.junit.Test;
+import org.multiverse.api.collections.TxnQueue;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+
+/**
+ * The deque has a capacity of 3, so the head and tail wrap around the ring after a few items.
+ */
+public class TxnArrayDeque_conflictTest extends TxnQueueConflict_AbstractTest {
+
+    private TxnArrayDeque<String> deque;
+
+    @Override
+    protected TxnQueue<String> newQueue() {
+        deque = new TxnArrayDeque<String>(stm, 3);
+        return deque;
+    }
+
+    @Test
+    public void whenProducerAndConsumerAfterWrapAround_thenNoConflict() {
+        offer("1");
+        offer("2");
+        offer("3");
+        poll("1");
+        poll("2");
+
+        //the tail has wrapped around to slot 0 while the head is at slot 2.
+        GammaTxn producerTx = newTxn();
+        GammaTxn consumerTx = newTxn();
+        assertTrue(deque.offer(producerTx, "4"));
+        assertEquals("3", deque.poll(consumerTx));
+        producerTx.commit();
+        consumerTx.commit();
+
+        assertQueue("[4]", 1);
+    }
+
+    @Test
+    public void whenOfferFirstAndOfferLast_thenNoConflict() {
+        offer("2");
+
+        GammaTxn firstTx = newTxn();
+        GammaTxn lastTx = newTxn();
+        assertTrue(deque.offerFirst(firstTx, "1"));
+        assertTrue(deque.offerLast(lastTx, "3"));
+        firstTx.commit();
+        lastTx.commit();
+
+        assertQueue("[1, 2, 3]", 3);
+    }
+
+    @Test
+    public void whenFull_thenFailedOfferDoesNotConflictWithConsumer() {
+        offer("1");
+        offer("2");
+        offer("3");
+
+        //when the ring is full, the tail slot is the head slot. The failing offer only reads that slot, so it is
+        //ordered before the poll and both commit.
+        GammaTxn producerTx = newTxn();
+        GammaTxn consumerTx = newTxn();
+        assertFalse(deque.offer(producerTx, "4"));
+        assertEquals("1", deque.poll(consumerTx));
+        consumerTx.commit();
+        producerTx.commit();
+
+        assertQueue("[2, 3]", 2);
+    }
+}
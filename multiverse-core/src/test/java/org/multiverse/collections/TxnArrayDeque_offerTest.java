@@ -0,0 +1,132 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnArrayDeque_offerTest {
+
+    private Stm stm;
+    private TxnArrayDeque<String> deque;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        deque = new TxnArrayDeque<String>(stm, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenZeroCapacity_thenIllegalArgumentException() {
+        new TxnArrayDeque<String>(stm, 0);
+    }
+
+    @Test
+    public void whenNullItem_thenNullPointerException() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    deque.offer(null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                try {
+                    deque.offerFirst(null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertTrue(deque.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenOfferLast() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertTrue(deque.offerLast("1"));
+                assertTrue(deque.offer("2"));
+                assertEquals("[1, 2]", deque.toString());
+                assertEquals(2, deque.size());
+                assertEquals("1", deque.peekFirst());
+                assertEquals("2", deque.peekLast());
+            }
+        });
+    }
+
+    @Test
+    public void whenOfferFirst() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertTrue(deque.offerFirst("1"));
+                assertTrue(deque.offerFirst("2"));
+                deque.push("3");
+                assertEquals("[3, 2, 1]", deque.toString());
+                assertEquals(3, deque.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenFull() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                deque.offer("1");
+                deque.offer("2");
+                deque.offerFirst("0");
+
+                assertEquals(3, deque.size());
+                assertFalse(deque.offerLast("3"));
+                assertFalse(deque.offerFirst("3"));
+                assertEquals("[0, 1, 2]", deque.toString());
+
+                try {
+                    deque.add("3");
+                    fail();
+                } catch (IllegalStateException expected) {
+                }
+
+                try {
+                    deque.addFirst("3");
+                    fail();
+                } catch (IllegalStateException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenWrappedAround() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    assertTrue(deque.offer("a" + k));
+                    assertTrue(deque.offer("b" + k));
+                    assertEquals("a" + k, deque.poll());
+                    assertEquals("b" + k, deque.poll());
+                    assertTrue(deque.isEmpty());
+                }
+
+                deque.offer("1");
+                deque.offer("2");
+                deque.offer("3");
+                assertEquals("[1, 2, 3]", deque.toString());
+                assertFalse(deque.offer("4"));
+            }
+        });
+    }
+}
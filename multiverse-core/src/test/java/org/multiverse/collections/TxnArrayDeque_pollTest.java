@@ -0,0 +1,132 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnArrayDeque_pollTest {
+
+    private Stm stm;
+    private TxnArrayDeque<String> deque;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        deque = new TxnArrayDeque<String>(stm, 4);
+    }
+
+    @Test
+    public void whenEmpty() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(deque.poll());
+                assertNull(deque.pollLast());
+                assertNull(deque.peekFirst());
+                assertNull(deque.peekLast());
+                assertEquals(0, deque.size());
+
+                try {
+                    deque.removeFirst();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+
+                try {
+                    deque.getLast();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenPollFirst_thenFifo() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                deque.offer("1");
+                deque.offer("2");
+                deque.offer("3");
+
+                assertEquals("1", deque.poll());
+                assertEquals("2", deque.element());
+                assertEquals("2", deque.pop());
+                assertEquals("[3]", deque.toString());
+                assertEquals(1, deque.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenPollLast_thenLifo() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                deque.offer("1");
+                deque.offer("2");
+                deque.offer("3");
+
+                assertEquals("3", deque.pollLast());
+                assertEquals("2", deque.getLast());
+                assertEquals("2", deque.removeLast());
+                assertEquals("[1]", deque.toString());
+                assertEquals("1", deque.pollLast());
+                assertTrue(deque.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenFull_thenPollFreesSlot() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 4; k++) {
+                    deque.offer("" + k);
+                }
+                assertEquals(4, deque.size());
+
+                assertEquals("0", deque.poll());
+                assertTrue(deque.offer("4"));
+                assertEquals("[1, 2, 3, 4]", deque.toString());
+                assertEquals("4", deque.pollLast());
+                assertTrue(deque.offerFirst("0"));
+                assertEquals("[0, 1, 2, 3]", deque.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenClear() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                deque.offer("1");
+                deque.offer("2");
+                deque.poll();
+                deque.offer("3");
+                deque.offer("4");
+                deque.offer("5");
+
+                deque.clear();
+                assertEquals(0, deque.size());
+                assertEquals("[]", deque.toString());
+
+                deque.offer("6");
+                assertEquals("[6]", deque.toString());
+            }
+        });
+    }
+}
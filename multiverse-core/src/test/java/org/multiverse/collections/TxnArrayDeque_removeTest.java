@@ -0,0 +1,134 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnArrayDeque_removeTest {
+
+    private Stm stm;
+    private TxnArrayDeque<String> deque;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        deque = new TxnArrayDeque<String>(stm, 5);
+    }
+
+    @Test
+    public void whenRemoveFirstOccurrence() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                offer("a", "b", "a", "c");
+
+                assertFalse(deque.remove((Object) null));
+                assertFalse(deque.remove("d"));
+                assertTrue(deque.removeFirstOccurrence("a"));
+                assertEquals("[b, a, c]", deque.toString());
+                assertEquals(3, deque.size());
+                assertTrue(deque.offer("d"));
+                assertEquals("[b, a, c, d]", deque.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoveLastOccurrence() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                offer("a", "b", "a", "c");
+
+                assertTrue(deque.removeLastOccurrence("a"));
+                assertEquals("[a, b, c]", deque.toString());
+                assertTrue(deque.contains("a"));
+                assertTrue(deque.removeLastOccurrence("a"));
+                assertFalse(deque.contains("a"));
+                assertEquals("[b, c]", deque.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoveWrappedAround() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                offer("x", "x", "x");
+                deque.poll();
+                deque.poll();
+                deque.poll();
+                offer("a", "b", "c", "d", "e");
+
+                assertTrue(deque.remove("b"));
+                assertEquals("[a, c, d, e]", deque.toString());
+                assertTrue(deque.remove("e"));
+                assertEquals("[a, c, d]", deque.toString());
+                assertEquals("d", deque.peekLast());
+                assertEquals(3, deque.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenIteratorRemove() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                offer("1", "2", "3", "4");
+
+                TxnIterator<String> it = deque.iterator(tx);
+                StringBuilder sb = new StringBuilder();
+                while (it.hasNext(tx)) {
+                    String item = it.next(tx);
+                    sb.append(item);
+                    if (Integer.parseInt(item) % 2 == 0) {
+                        it.remove(tx);
+                    }
+                }
+
+                assertEquals("1234", sb.toString());
+                assertEquals("[1, 3]", deque.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenDescendingIteratorRemove() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                offer("1", "2", "3", "4");
+
+                TxnIterator<String> it = deque.descendingIterator(tx);
+                StringBuilder sb = new StringBuilder();
+                while (it.hasNext(tx)) {
+                    String item = it.next(tx);
+                    sb.append(item);
+                    if (Integer.parseInt(item) % 2 == 1) {
+                        it.remove(tx);
+                    }
+                }
+
+                assertEquals("4321", sb.toString());
+                assertEquals("[2, 4]", deque.toString());
+            }
+        });
+    }
+
+    private void offer(String... items) {
+        for (String item : items) {
+            assertTrue(deque.offer(item));
+        }
+    }
+}
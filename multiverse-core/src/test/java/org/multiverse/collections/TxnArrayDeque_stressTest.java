@@ -0,0 +1,30 @@
+package org.multiverse.collections;
+
+import org.junit.Test;
+import org.multiverse.api.collections.TxnQueue;
+
+public class TxnArrayDeque_stressTest extends TxnQueueProducerConsumer_AbstractTest {
+
+    private int capacity;
+
+    @Test
+    public void test() {
+        capacity = 100;
+        run(2, 2, 5000);
+    }
+
+    /**
+     * With a ring of 3 slots the head and tail wrap around on almost every put and take, and the deque is full or
+     * empty most of the time, so the producers and consumers regularly touch the same slot.
+     */
+    @Test
+    public void whenSmallCapacity_thenRingWrapsAround() {
+        capacity = 3;
+        run(2, 2, 5000);
+    }
+
+    @Override
+    protected TxnQueue<Long> newQueue() {
+        return new TxnArrayDeque<Long>(stm, capacity);
+    }
+}
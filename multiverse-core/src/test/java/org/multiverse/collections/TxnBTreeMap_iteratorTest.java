@@ -0,0 +1,103 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnNavigableMap;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnBTreeMap_iteratorTest {
+
+    private GammaStm stm;
+    private TxnBTreeMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnBTreeMap<Integer, String>(stm, null, TxnBTreeMap.MIN_NODE_CAPACITY);
+    }
+
+    @Test
+    public void whenIterated_thenKeysInOrder() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 99; k >= 0; k--) {
+                    map.put(k, "" + k);
+                }
+
+                List<Integer> keys = keys(tx, map);
+                assertEquals(100, keys.size());
+                for (int k = 0; k < 100; k++) {
+                    assertEquals(Integer.valueOf(k), keys.get(k));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovedUsingIterator() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 20; k++) {
+                    map.put(k, "" + k);
+                }
+
+                for (TxnIterator<Map.Entry<Integer, String>> it = map.entrySet(tx).iterator(tx); it.hasNext(tx); ) {
+                    if (it.next(tx).getKey() % 2 == 0) {
+                        it.remove(tx);
+                    }
+                }
+
+                assertEquals(asList(1, 3, 5, 7, 9, 11, 13, 15, 17, 19), keys(tx, map));
+                assertEquals(10, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenSubMap() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 50; k++) {
+                    map.put(k * 2, "" + k);
+                }
+
+                assertEquals(asList(10, 12, 14, 16, 18), keys(tx, map.subMap(9, 20)));
+                assertEquals(asList(10, 12, 14, 16, 18, 20), keys(tx, map.subMap(10, true, 20, true)));
+                assertEquals(asList(0, 2, 4), keys(tx, map.headMap(6)));
+                assertEquals(asList(94, 96, 98), keys(tx, map.tailMap(93)));
+                assertEquals(5, map.subMap(9, 20).size(tx));
+                assertEquals(Integer.valueOf(18), map.subMap(9, 20).lastKey(tx));
+                assertEquals(Integer.valueOf(10), map.subMap(9, 20).floorKey(tx, 11));
+
+                map.subMap(9, 20).clear(tx);
+                assertEquals(45, map.size());
+                assertEquals(Integer.valueOf(20), map.higherKey(8));
+            }
+        });
+    }
+
+    private static List<Integer> keys(Txn tx, TxnNavigableMap<Integer, String> map) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (TxnIterator<Integer> it = map.keySet(tx).iterator(tx); it.hasNext(tx); ) {
+            result.add(it.next(tx));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnBTreeMap_navigationTest {
+
+    private GammaStm stm;
+    private TxnBTreeMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnBTreeMap<Integer, String>(stm, null, TxnBTreeMap.MIN_NODE_CAPACITY);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.lowerKey(1));
+                assertNull(map.floorKey(1));
+                assertNull(map.ceilingKey(1));
+                assertNull(map.higherKey(1));
+                assertNull(map.firstEntry());
+                assertNull(map.lastEntry());
+                assertNull(map.pollFirstEntry());
+
+                try {
+                    map.firstKey();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenLeavesBecomeEmpty_thenSkipped() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+                for (int k = 10; k < 90; k++) {
+                    map.remove(k);
+                }
+
+                assertEquals(Integer.valueOf(9), map.lowerKey(50));
+                assertEquals(Integer.valueOf(9), map.floorKey(89));
+                assertEquals(Integer.valueOf(90), map.ceilingKey(10));
+                assertEquals(Integer.valueOf(90), map.higherKey(9));
+                assertEquals(20, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenPoll() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put(k, "" + k);
+                }
+
+                assertEquals(Integer.valueOf(0), map.pollFirstEntry().getKey());
+                assertEquals(Integer.valueOf(9), map.pollLastEntry().getKey());
+                assertEquals(8, map.size());
+                assertEquals(Integer.valueOf(1), map.firstKey());
+                assertEquals(Integer.valueOf(8), map.lastKey());
+            }
+        });
+    }
+
+    @Test
+    public void whenRandomOperations_thenSameAsTreeMap() {
+        final TreeMap<Integer, String> expected = new TreeMap<Integer, String>();
+        final Random random = new Random(1);
+
+        for (int round = 0; round < 20; round++) {
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    for (int k = 0; k < 200; k++) {
+                        Integer key = random.nextInt(500);
+                        if (random.nextInt(3) == 0) {
+                            assertEquals(expected.remove(key), map.remove(key));
+                        } else {
+                            assertEquals(expected.put(key, "" + k), map.put(key, "" + k));
+                        }
+                    }
+                }
+            });
+
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    assertEquals(expected.size(), map.size());
+                    for (int key = -1; key <= 501; key++) {
+                        assertEquals(expected.get(key), map.get(key));
+                        assertEquals(expected.lowerKey(key), map.lowerKey(key));
+                        assertEquals(expected.floorKey(key), map.floorKey(key));
+                        assertEquals(expected.ceilingKey(key), map.ceilingKey(key));
+                        assertEquals(expected.higherKey(key), map.higherKey(key));
+                    }
+                }
+            });
+        }
+    }
+}
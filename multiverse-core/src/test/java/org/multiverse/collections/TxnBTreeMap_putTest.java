@@ -0,0 +1,161 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnBTreeMap_putTest {
+
+    private GammaStm stm;
+    private TxnBTreeMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnBTreeMap<Integer, String>(stm, null, TxnBTreeMap.MIN_NODE_CAPACITY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenNodeCapacityTooSmall_thenIllegalArgumentException() {
+        new TxnBTreeMap<Integer, String>(stm, null, TxnBTreeMap.MIN_NODE_CAPACITY - 1);
+    }
+
+    @Test
+    public void whenNullKey_thenNullPointerException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.put(null, "a");
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals(0, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenReplaced_thenOldValueReturned() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.put(1, "a"));
+                assertEquals("a", map.put(1, "b"));
+
+                assertEquals(1, map.size());
+                assertEquals("b", map.get(1));
+            }
+        });
+    }
+
+    @Test
+    public void whenManyInserts_thenNodesSplit() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                //inserted in an order that splits leaves at the start, in the middle and at the end.
+                for (int k = 0; k < 1000; k++) {
+                    int key = (k * 7919) % 1000;
+                    assertNull(map.put(key, "" + key));
+                }
+
+                assertEquals(1000, map.size());
+                for (int k = 0; k < 1000; k++) {
+                    assertEquals("" + k, map.get(k));
+                }
+                assertNull(map.get(1000));
+                assertEquals(Integer.valueOf(0), map.firstKey());
+                assertEquals(Integer.valueOf(999), map.lastKey());
+            }
+        });
+    }
+
+    @Test
+    public void whenSplitCommitted_thenVisibleToOtherTransactions() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+            }
+        });
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(100, map.size());
+                for (int k = 0; k < 100; k++) {
+                    assertEquals("" + k, map.get(k));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenTransactionAborted_thenSplitRolledBack() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put(k * 10, "" + k);
+                }
+            }
+        });
+
+        try {
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    for (int k = 0; k < 100; k++) {
+                        map.put(k, "new");
+                    }
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(10, map.size());
+                for (int k = 0; k < 10; k++) {
+                    assertEquals("" + k, map.get(k * 10));
+                }
+                assertNull(map.get(1));
+            }
+        });
+    }
+
+    @Test
+    public void whenClear() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+
+                map.clear();
+
+                assertEquals(0, map.size());
+                assertTrue(map.isEmpty());
+                assertNull(map.get(5));
+                map.put(5, "5");
+                assertEquals(1, map.size());
+            }
+        });
+    }
+}
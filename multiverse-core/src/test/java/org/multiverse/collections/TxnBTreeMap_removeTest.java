@@ -0,0 +1,218 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnBTreeMap_removeTest {
+
+    private GammaStm stm;
+    private TxnBTreeMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnBTreeMap<Integer, Integer>(stm, null, TxnBTreeMap.MIN_NODE_CAPACITY);
+    }
+
+    @Test
+    public void whenNotFound() {
+        putAll(0, 10);
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.remove(tx, 20));
+                assertEquals(10, map.size(tx));
+            }
+        });
+    }
+
+    @Test
+    public void whenSlidingWindow_thenEmptyLeavesRemoved() {
+        final int windowSize = 10;
+        for (int k = 0; k < 10000; k++) {
+            final int key = k;
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    map.put(tx, key, key);
+                    if (key >= windowSize) {
+                        assertEquals(Integer.valueOf(key - windowSize), map.pollFirstEntry(tx).getKey());
+                    }
+                }
+            });
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(windowSize, map.size(tx));
+                assertEquals(Integer.valueOf(10000 - windowSize), map.firstKey(tx));
+                //only leaves with entries remain.
+                assertTrue("leafCount " + map.leafCount(tx), map.leafCount(tx) <= windowSize);
+                assertContent(tx, rangeMap(10000 - windowSize, 10000));
+            }
+        });
+    }
+
+    @Test
+    public void whenAllRemoved_thenSingleEmptyLeafLeft() {
+        putAll(0, 200);
+
+        final List<Integer> keys = new ArrayList<Integer>();
+        for (int k = 0; k < 200; k++) {
+            keys.add(k);
+        }
+        Collections.shuffle(keys, new Random(1));
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (Integer key : keys) {
+                    assertEquals(key, map.remove(tx, key));
+                }
+
+                assertTrue(map.isEmpty(tx));
+                assertEquals(0, map.size(tx));
+                assertNull(map.firstEntry(tx));
+                assertNull(map.lastEntry(tx));
+                assertEquals(1, map.leafCount(tx));
+            }
+        });
+
+        putAll(0, 50);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertContent(tx, rangeMap(0, 50));
+            }
+        });
+    }
+
+    @Test
+    public void whenRandomPutsAndRemoves_thenSameAsTreeMap() {
+        final TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        final Random random = new Random(1);
+
+        for (int k = 0; k < 5000; k++) {
+            final Integer key = random.nextInt(300);
+            final boolean remove = random.nextInt(2) == 0;
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    if (remove) {
+                        assertEquals(expected.remove(key), map.remove(tx, key));
+                    } else {
+                        assertEquals(expected.put(key, key), map.put(tx, key, key));
+                    }
+                }
+            });
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertContent(tx, expected);
+                assertTrue(map.leafCount(tx) <= Math.max(1, expected.size()));
+                for (int key = -1; key <= 301; key++) {
+                    assertEquals(expected.floorKey(key), map.floorKey(tx, key));
+                    assertEquals(expected.lowerKey(key), map.lowerKey(tx, key));
+                    assertEquals(expected.ceilingKey(key), map.ceilingKey(tx, key));
+                    assertEquals(expected.higherKey(key), map.higherKey(tx, key));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovedUsingIterator_thenAllLeavesRemoved() {
+        putAll(0, 100);
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                int count = 0;
+                for (TxnIterator<Integer> it = map.keySet(tx).iterator(tx); it.hasNext(tx); ) {
+                    assertEquals(Integer.valueOf(count), it.next(tx));
+                    it.remove(tx);
+                    count++;
+                }
+
+                assertEquals(100, count);
+                assertTrue(map.isEmpty(tx));
+                assertEquals(1, map.leafCount(tx));
+            }
+        });
+    }
+
+    @Test
+    public void whenTransactionAborted_thenLeavesRestored() {
+        putAll(0, 100);
+
+        GammaTxn tx = stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+        for (int k = 0; k < 60; k++) {
+            map.remove(tx, k);
+        }
+        tx.abort();
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertContent(tx, rangeMap(0, 100));
+            }
+        });
+    }
+
+    private void putAll(final int from, final int to) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = from; k < to; k++) {
+                    map.put(tx, k, k);
+                }
+            }
+        });
+    }
+
+    private static TreeMap<Integer, Integer> rangeMap(int from, int to) {
+        TreeMap<Integer, Integer> result = new TreeMap<Integer, Integer>();
+        for (int k = from; k < to; k++) {
+            result.put(k, k);
+        }
+        return result;
+    }
+
+    private void assertContent(Txn tx, TreeMap<Integer, Integer> expected) {
+        assertEquals(expected.size(), map.size(tx));
+        List<Map.Entry<Integer, Integer>> found = new ArrayList<Map.Entry<Integer, Integer>>();
+        for (TxnIterator<Map.Entry<Integer, Integer>> it = map.entrySet(tx).iterator(tx); it.hasNext(tx); ) {
+            found.add(it.next(tx));
+        }
+        assertEquals(new ArrayList<Map.Entry<Integer, Integer>>(expected.entrySet()), found);
+        if (!expected.isEmpty()) {
+            assertEquals(expected.firstKey(), map.firstKey(tx));
+            assertEquals(expected.lastKey(), map.lastKey(tx));
+        }
+    }
+}
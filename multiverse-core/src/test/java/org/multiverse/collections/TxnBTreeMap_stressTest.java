@@ -0,0 +1,20 @@
+package org.multiverse.collections;
+
+import org.junit.Test;
+import org.multiverse.api.collections.TxnMap;
+
+/**
+ * The node capacity is small, so many splits happen concurrently.
+ */
+public class TxnBTreeMap_stressTest extends TxnMapStress_AbstractTest {
+
+    @Test
+    public void test() {
+        run(4, 2000, 20000);
+    }
+
+    @Override
+    protected TxnMap<Integer, Integer> newMap() {
+        return new TxnBTreeMap<Integer, Integer>(stm, null, 16);
+    }
+}
@@ -0,0 +1,170 @@
+package org.multiverse.collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnAggregator;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnBulkReader_aggregateTest {
+
+    private static final TxnAggregator<Map.Entry<Integer, Long>, Long> SUM_VALUES
+            = new TxnAggregator<Map.Entry<Integer, Long>, Long>() {
+        @Override
+        public Long newResult() {
+            return 0L;
+        }
+
+        @Override
+        public Long add(Long result, Map.Entry<Integer, Long> item) {
+            return result + item.getValue();
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return left + right;
+        }
+    };
+
+    private GammaStm stm;
+    private ExecutorService executor;
+    private TxnBulkReader reader;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        executor = Executors.newFixedThreadPool(4);
+        reader = new TxnBulkReader(stm, executor, 4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenZeroParallelism_thenIllegalArgumentException() {
+        new TxnBulkReader(stm, executor, 0);
+    }
+
+    @Test
+    public void whenEmptyMap() {
+        TxnHashMap<Integer, Long> map = new TxnHashMap<Integer, Long>(stm);
+
+        assertEquals(Long.valueOf(0), reader.aggregate(map, SUM_VALUES));
+        assertEquals(Long.valueOf(0), reader.aggregatePerPart(map, SUM_VALUES));
+    }
+
+    @Test
+    public void whenMap() {
+        final TxnHashMap<Integer, Long> map = new TxnHashMap<Integer, Long>(stm);
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10000; k++) {
+                    map.put(k, (long) k);
+                }
+            }
+        });
+
+        long expected = 10000L * 9999 / 2;
+        assertEquals(Long.valueOf(expected), reader.aggregate(map, SUM_VALUES));
+        assertEquals(Long.valueOf(expected), reader.aggregatePerPart(map, SUM_VALUES));
+    }
+
+    @Test
+    public void whenDeque() {
+        final TxnArrayDeque<Long> deque = new TxnArrayDeque<Long>(stm, 100);
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                //moves the head, so the items wrap around the end of the ring.
+                for (long k = 0; k < 50; k++) {
+                    deque.offer(k);
+                    deque.poll();
+                }
+                for (long k = 1; k <= 90; k++) {
+                    deque.offer(k);
+                }
+            }
+        });
+
+        TxnAggregator<Long, Long> sum = new TxnAggregator<Long, Long>() {
+            @Override
+            public Long newResult() {
+                return 0L;
+            }
+
+            @Override
+            public Long add(Long result, Long item) {
+                return result + item;
+            }
+
+            @Override
+            public Long combine(Long left, Long right) {
+                return left + right;
+            }
+        };
+
+        assertEquals(Long.valueOf(90 * 91 / 2), reader.aggregate(deque, sum));
+        assertEquals(Long.valueOf(90 * 91 / 2), reader.aggregatePerPart(deque, sum));
+    }
+
+    @Test
+    public void whenConcurrentTransfers_thenSnapshotConsistent() {
+        final int keyCount = 1000;
+        final TxnHashMap<Integer, Long> map = new TxnHashMap<Integer, Long>(stm);
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < keyCount; k++) {
+                    map.put(k, 100L);
+                }
+            }
+        });
+
+        final TestThread transferThread = new TestThread("TransferThread") {
+            @Override
+            public void doRun() throws Exception {
+                TxnExecutor txnExecutor = stm.newTxnFactoryBuilder()
+                        .setMaxRetries(100000)
+                        .newTxnExecutor();
+                Random random = new Random();
+                for (int k = 0; k < 2000; k++) {
+                    final Integer from = random.nextInt(keyCount);
+                    final Integer to = random.nextInt(keyCount);
+                    txnExecutor.execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) {
+                            map.put(tx, from, map.get(tx, from) - 1);
+                            map.put(tx, to, map.get(tx, to) + 1);
+                        }
+                    });
+                }
+            }
+        };
+
+        startAll(transferThread);
+        while (transferThread.isAlive()) {
+            assertEquals(Long.valueOf(keyCount * 100L), reader.aggregate(map, SUM_VALUES));
+        }
+        joinAll(transferThread);
+        assertEquals(Long.valueOf(keyCount * 100L), reader.aggregate(map, SUM_VALUES));
+    }
+}
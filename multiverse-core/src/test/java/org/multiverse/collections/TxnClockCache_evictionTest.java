@@ -0,0 +1,159 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnClockCache_evictionTest {
+
+    private Stm stm;
+    private TxnClockCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        cache = new TxnClockCache<String, String>(stm, 3, 1);
+    }
+
+    @Test
+    public void whenNoneReferenced_thenOldestEvicted() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+                cache.put("c", "3");
+                cache.put("d", "4");
+
+                assertFalse(cache.containsKey("a"));
+                assertTrue(cache.containsKey("b"));
+                assertTrue(cache.containsKey("c"));
+                assertTrue(cache.containsKey("d"));
+            }
+        });
+    }
+
+    @Test
+    public void whenReferenced_thenSecondChance() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+                cache.put("c", "3");
+                cache.get("a");
+                cache.put("d", "4");
+
+                assertTrue(cache.containsKey("a"));
+                assertFalse(cache.containsKey("b"));
+
+                //the flag of 'a' has been cleared, so it now is the next to go.
+                cache.put("e", "5");
+                assertTrue(cache.containsKey("a"));
+                assertFalse(cache.containsKey("c"));
+                cache.put("f", "6");
+                assertFalse(cache.containsKey("a"));
+            }
+        });
+    }
+
+    @Test
+    public void whenAllReferenced_thenStillEvicted() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+                cache.put("c", "3");
+                cache.get("a");
+                cache.get("b");
+                cache.get("c");
+                cache.put("d", "4");
+
+                assertEquals(3, cache.size());
+                assertTrue(cache.containsKey("d"));
+                assertFalse(cache.containsKey("a"));
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoved_thenSlotReused() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+                cache.put("c", "3");
+                cache.remove("b");
+                cache.put("d", "4");
+
+                assertEquals(3, cache.size());
+                assertTrue(cache.containsKey("a"));
+                assertTrue(cache.containsKey("c"));
+                assertTrue(cache.containsKey("d"));
+
+                //now the cache is full again, so 'a' is evicted.
+                cache.put("e", "5");
+                assertEquals(3, cache.size());
+                assertFalse(cache.containsKey("a"));
+                assertTrue(cache.containsKey("c"));
+                assertTrue(cache.containsKey("d"));
+                assertTrue(cache.containsKey("e"));
+            }
+        });
+    }
+
+    @Test
+    public void whenCleared_thenAllSlotsReused() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+                cache.put("c", "3");
+                cache.put("d", "4");
+                cache.clear();
+                cache.put("e", "5");
+                cache.put("f", "6");
+                cache.put("g", "7");
+
+                assertEquals(3, cache.size());
+                assertTrue(cache.containsKey("e"));
+                assertTrue(cache.containsKey("f"));
+                assertTrue(cache.containsKey("g"));
+            }
+        });
+    }
+
+    @Test
+    public void whenGetsConcurrent_thenNoConflict() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+            }
+        });
+
+        GammaStm gammaStm = (GammaStm) stm;
+        GammaTxn tx1 = gammaStm.newDefaultTxn();
+        GammaTxn tx2 = gammaStm.newDefaultTxn();
+        assertEquals("1", cache.get(tx1, "a"));
+        assertEquals("1", cache.get(tx2, "a"));
+        cache.put(tx1, "c", "3");
+        cache.put(tx2, "b", "4");
+        tx1.commit();
+        tx2.commit();
+    }
+}
@@ -0,0 +1,112 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnClockCache_putTest {
+
+    private Stm stm;
+    private TxnClockCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        cache = new TxnClockCache<String, String>(stm, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenZeroMaximumSize_thenIllegalArgumentException() {
+        new TxnClockCache<String, String>(stm, 0);
+    }
+
+    @Test
+    public void whenNullKeyOrValue_thenNullPointerException() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    cache.put(null, "a");
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                try {
+                    cache.put("a", null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals(0, cache.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenPutAndGet() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(cache.get("a"));
+                assertNull(cache.put("a", "1"));
+                assertNull(cache.put("b", "2"));
+                assertEquals("1", cache.put("a", "3"));
+
+                assertEquals(2, cache.size());
+                assertEquals("3", cache.get("a"));
+                assertEquals("2", cache.get("b"));
+                assertTrue(cache.containsKey("a"));
+                assertFalse(cache.containsKey("c"));
+                assertEquals(10, cache.getMaximumSize());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoveAndClear() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                cache.put("a", "1");
+                cache.put("b", "2");
+
+                assertEquals("1", cache.remove("a"));
+                assertNull(cache.remove("a"));
+                assertEquals(1, cache.size());
+
+                cache.clear();
+                assertEquals(0, cache.size());
+                assertNull(cache.get("b"));
+
+                for (int k = 0; k < 10; k++) {
+                    cache.put("" + k, "" + k);
+                }
+                assertEquals(10, cache.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenManyKeys_thenMaximumSizeNotExceeded() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 1000; k++) {
+                    cache.put("" + k, "" + k);
+                    assertTrue(cache.size() <= 10);
+                }
+
+                assertEquals(10, cache.size());
+                assertEquals("999", cache.get("999"));
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashMap_clearTest {
+
+    private GammaStm stm;
+    private TxnHashMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.clear();
+                assertEquals(0, map.size());
+                assertEquals("{}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenNotEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+                map.put("2", "b");
+                map.put("3", "c");
+
+                map.clear();
+
+                assertEquals(0, map.size());
+                assertNull(map.get("1"));
+                assertNull(map.get("2"));
+                assertNull(map.get("3"));
+            }
+        });
+    }
+
+    @Test
+    public void whenConcurrentPut_thenSizeRemainsConsistentWithContent() {
+        map = new TxnHashMap<String, String>(stm, 1024, 0.75f);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("a", "1");
+            }
+        });
+
+        GammaTxn clearTx = newTxn();
+        GammaTxn putTx = newTxn();
+        map.clear(clearTx);
+        map.put(putTx, "b", "2");
+        putTx.commit();
+        try {
+            clearTx.commit();
+        } catch (ReadWriteConflict expected) {
+            //the clear is allowed to fail because the put changed a bucket it read
+        }
+
+        GammaTxn tx = newTxn();
+        int count = 0;
+        for (TxnIterator<String> it = map.keySet(tx).iterator(tx); it.hasNext(tx); it.next(tx)) {
+            count++;
+        }
+        assertEquals(count, map.size(tx));
+        assertEquals("2", map.get(tx, "b"));
+        tx.abort();
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,142 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashMap_iteratorTest {
+
+    private TxnHashMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        clearThreadLocalTxn();
+        map = new TxnHashMap<String, String>(getGlobalStmInstance());
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnIterator<String> it = map.keySet().iterator();
+                assertFalse(it.hasNext());
+
+                try {
+                    it.next();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenEntrySet() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                Map<String, String> expected = new HashMap<String, String>();
+                for (int k = 0; k < 100; k++) {
+                    map.put("" + k, "v" + k);
+                    expected.put("" + k, "v" + k);
+                }
+
+                Map<String, String> found = new HashMap<String, String>();
+                for (Map.Entry<String, String> entry : map.entrySet()) {
+                    found.put(entry.getKey(), entry.getValue());
+                }
+
+                assertEquals(expected, found);
+                assertEquals(100, map.entrySet().size());
+                assertTrue(map.entrySet().contains(new HashMap.SimpleEntry<String, String>("5", "v5")));
+                assertFalse(map.entrySet().contains(new HashMap.SimpleEntry<String, String>("5", "v6")));
+            }
+        });
+    }
+
+    @Test
+    public void whenValues() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+                map.put("2", "b");
+                map.put("3", "a");
+
+                Set<String> found = new HashSet<String>();
+                int count = 0;
+                for (String value : map.values()) {
+                    found.add(value);
+                    count++;
+                }
+
+                assertEquals(3, count);
+                assertEquals(2, found.size());
+                assertTrue(map.values().contains("b"));
+                assertTrue(map.containsValue("a"));
+                assertFalse(map.containsValue("c"));
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoveUsingIterator() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 20; k++) {
+                    map.put("" + k, "" + k);
+                }
+
+                for (TxnIterator<String> it = map.keySet().iterator(); it.hasNext(); ) {
+                    if (Integer.parseInt(it.next()) % 2 == 0) {
+                        it.remove();
+                    }
+                }
+
+                assertEquals(10, map.size());
+                for (int k = 0; k < 20; k++) {
+                    assertEquals(k % 2 == 1, map.containsKey("" + k));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenKeySetRemove() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+
+                assertFalse(map.keySet().remove("2"));
+                assertTrue(map.keySet().remove("1"));
+                assertTrue(map.isEmpty());
+            }
+        });
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenAddToKeySet_thenUnsupportedOperationException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.keySet().add("1");
+            }
+        });
+    }
+}
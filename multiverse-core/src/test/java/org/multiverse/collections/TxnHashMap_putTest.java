@@ -0,0 +1,142 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashMap_putTest {
+
+    private GammaStm stm;
+    private TxnHashMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                String result = map.put("key", "value");
+
+                assertNull(result);
+                assertEquals(1, map.size());
+                assertEquals("value", map.get("key"));
+                assertEquals("{key=value}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenReplacingExistingKey() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+                map.put("2", "b");
+                map.put("3", "c");
+
+                String result = map.put("2", "B");
+
+                assertEquals("b", result);
+                assertEquals("B", map.get("2"));
+                assertEquals("a", map.get("1"));
+                assertEquals("c", map.get("3"));
+                assertEquals(3, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullValue() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.put("1", null));
+
+                assertTrue(map.containsKey("1"));
+                assertNull(map.get("1"));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullKey_thenNullPointerException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.put(null, "foo");
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals(0, map.size());
+                assertEquals("{}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenDifferentKeysPutConcurrently_thenNoConflict() {
+        //with this many buckets the keys end up in different buckets.
+        map = new TxnHashMap<String, String>(stm, 1024, 0.75f);
+
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, "a", "1");
+        map.put(tx2, "b", "2");
+        tx1.commit();
+        tx2.commit();
+
+        GammaTxn tx = newTxn();
+        assertEquals("1", map.get(tx, "a"));
+        assertEquals("2", map.get(tx, "b"));
+        assertEquals(2, map.size(tx));
+        tx.abort();
+    }
+
+    @Test
+    public void whenManyItems() {
+        final int itemCount = 10000;
+        for (int k = 0; k < itemCount; k++) {
+            final String key = "" + k;
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    map.put(key, key);
+                }
+            });
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(itemCount, map.size());
+                for (int k = 0; k < itemCount; k++) {
+                    assertEquals("" + k, map.get("" + k));
+                }
+            }
+        });
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
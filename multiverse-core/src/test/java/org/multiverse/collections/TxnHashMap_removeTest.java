@@ -0,0 +1,155 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashMap_removeTest {
+
+    private GammaStm stm;
+    private TxnHashMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.remove("1"));
+                assertEquals(0, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullKey() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.remove(null));
+            }
+        });
+    }
+
+    @Test
+    public void whenNotFound() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+
+                assertNull(map.remove("2"));
+                assertEquals(1, map.size());
+                assertEquals("a", map.get("1"));
+            }
+        });
+    }
+
+    @Test
+    public void whenFound() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+                map.put("2", "b");
+                map.put("3", "c");
+
+                assertEquals("b", map.remove("2"));
+
+                assertEquals(2, map.size());
+                assertFalse(map.containsKey("2"));
+                assertEquals("a", map.get("1"));
+                assertEquals("c", map.get("3"));
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovedInMiddleOfChain_thenOtherEntriesInBucketRemain() {
+        //a single bucket forces all entries into the same chain.
+        map = new TxnHashMap<String, String>(stm, 1, 100);
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put("" + k, "" + k);
+                }
+
+                assertEquals("5", map.remove("5"));
+
+                assertEquals(9, map.size());
+                for (int k = 0; k < 10; k++) {
+                    assertEquals(k == 5 ? null : "" + k, map.get("" + k));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenAborted_thenRemoveRolledBack() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+            }
+        });
+
+        GammaTxn tx = newTxn();
+        map.remove(tx, "1");
+        tx.abort();
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals("a", map.get("1"));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovingDifferentKeysConcurrently_thenNoConflict() {
+        map = new TxnHashMap<String, String>(stm, 1024, 0.75f);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("a", "1");
+                map.put("b", "2");
+            }
+        });
+
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.remove(tx1, "a");
+        map.remove(tx2, "b");
+        tx1.commit();
+        tx2.commit();
+
+        GammaTxn tx = newTxn();
+        assertEquals(0, map.size(tx));
+        assertTrue(map.isEmpty(tx));
+        tx.abort();
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,148 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashMap_resizeTest {
+
+    private GammaStm stm;
+    private TxnHashMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashMap<Integer, Integer>(stm, 2, 0.75f);
+    }
+
+    @Test
+    public void whenEveryPutInOwnTransaction_thenAllEntriesRemainVisible() {
+        final int itemCount = 1000;
+        for (int k = 0; k < itemCount; k++) {
+            put(k);
+            //after every put (so also while a resize is in progress) all entries should be found
+            if (k % 97 == 0) {
+                assertContainsRange(0, k + 1);
+            }
+        }
+
+        assertContainsRange(0, itemCount);
+    }
+
+    @Test
+    public void whenRemovingWhileResizing() {
+        final int itemCount = 500;
+        for (int k = 0; k < itemCount; k++) {
+            put(k);
+            if (k % 2 == 1) {
+                remove(k - 1);
+            }
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(itemCount / 2, map.size());
+                for (int k = 0; k < itemCount; k++) {
+                    assertEquals(k % 2 == 1, map.containsKey(k));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenResizeStartedByAbortedTransaction_thenMapNotCorrupted() {
+        for (int k = 0; k < 100; k++) {
+            put(k);
+        }
+
+        //a big transaction that triggers resizes and moves buckets, but is aborted.
+        GammaTxn tx = newTxn();
+        for (int k = 100; k < 1000; k++) {
+            map.put(tx, k, k);
+        }
+        tx.abort();
+
+        assertContainsRange(0, 100);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertFalse(map.containsKey(100));
+                assertEquals(100, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenClearWhileResizing() {
+        for (int k = 0; k < 300; k++) {
+            put(k);
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.clear();
+                assertEquals(0, map.size());
+            }
+        });
+
+        for (int k = 0; k < 300; k++) {
+            put(k);
+        }
+        assertContainsRange(0, 300);
+    }
+
+    private void put(final int value) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(value, value);
+            }
+        });
+    }
+
+    private void remove(final int value) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(new Integer(value), map.remove(value));
+            }
+        });
+    }
+
+    private void assertContainsRange(final int from, final int to) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(to - from, map.size());
+                for (int k = from; k < to; k++) {
+                    assertEquals(new Integer(k), map.get(k));
+                }
+
+                int count = 0;
+                for (Integer key : map.keySet()) {
+                    assertTrue(key >= from && key < to);
+                    count++;
+                }
+                assertEquals(to - from, count);
+            }
+        });
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
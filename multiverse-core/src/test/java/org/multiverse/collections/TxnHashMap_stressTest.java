@@ -0,0 +1,120 @@
+package org.multiverse.collections;
+
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnMap;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.multiverse.TestUtils.*;
+
+/**
+ * The map starts with 2 buckets, so concurrent resizes are triggered.
+ */
+public class TxnHashMap_stressTest extends TxnMapStress_AbstractTest {
+
+    private static final int STABLE_KEY_COUNT = 100;
+
+    private volatile boolean stop;
+
+    @Test
+    public void test() {
+        run(4, 2000, 20000);
+    }
+
+    /**
+     * Writers keep growing the map, so buckets are forwarded to a new table over and over, while readers look up keys
+     * that are never changed. A reader should always find them, whether its bucket is forwarded or not.
+     */
+    @Test
+    public void whenReadingWhileBucketsAreForwarded_thenStableKeysAlwaysFound() {
+        map = newMap();
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < STABLE_KEY_COUNT; k++) {
+                    map.put(tx, k, k);
+                }
+            }
+        });
+
+        TestThread[] writers = new TestThread[2];
+        for (int k = 0; k < writers.length; k++) {
+            writers[k] = new GrowThread(k);
+        }
+        TestThread[] readers = new TestThread[2];
+        for (int k = 0; k < readers.length; k++) {
+            readers[k] = new ReadThread(k);
+        }
+
+        startAll(readers);
+        startAll(writers);
+        assertEventuallyNotAlive(writers);
+        stop = true;
+        assertEventuallyNotAlive(readers);
+        assertNothingThrown(writers);
+        assertNothingThrown(readers);
+    }
+
+    @Override
+    protected TxnMap<Integer, Integer> newMap() {
+        return new TxnHashMap<Integer, Integer>(stm, 2, 0.75f);
+    }
+
+    class GrowThread extends TestThread {
+        private final int id;
+
+        GrowThread(int id) {
+            super("GrowThread-" + id);
+            this.id = id;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            TxnExecutor executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(100000)
+                    .newTxnExecutor();
+            for (int k = 0; k < 10000; k++) {
+                final Integer key = STABLE_KEY_COUNT + k * 2 + id;
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        map.put(tx, key, key);
+                    }
+                });
+            }
+        }
+    }
+
+    class ReadThread extends TestThread {
+
+        ReadThread(int id) {
+            super("ReadThread-" + id);
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            TxnExecutor executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(100000)
+                    .setReadonly(true)
+                    .newTxnExecutor();
+            final Random random = new Random();
+            while (!stop) {
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        for (int k = 0; k < 10; k++) {
+                            Integer key = random.nextInt(STABLE_KEY_COUNT);
+                            assertEquals(key, map.get(tx, key));
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.ScanMode;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashMap_untrackedScanTest {
+
+    private GammaStm stm;
+    private TxnHashMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashMap<Integer, Integer>(stm);
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, k);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenUntracked_thenAllEntriesFoundWithoutTracking() {
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(stm);
+        Map<Integer, Integer> found = toMap(tx, map.entrySet(tx).iterator(tx, ScanMode.Untracked));
+
+        assertEquals(100, found.size());
+        assertEquals(Integer.valueOf(50), found.get(50));
+        assertEquals(0, tx.size());
+        tx.commit();
+    }
+
+    @Test
+    public void whenTracked_thenReadsTracked() {
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(stm);
+        Map<Integer, Integer> found = toMap(tx, map.entrySet(tx).iterator(tx, ScanMode.Tracked));
+
+        assertEquals(100, found.size());
+        assertTrue(tx.size() > 1);
+        tx.commit();
+    }
+
+    @Test
+    public void whenUntracked_thenOwnChangesNotVisible() {
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(stm);
+        map.put(tx, 1000, 1000);
+
+        assertFalse(toMap(tx, map.entrySet(tx).iterator(tx, ScanMode.Untracked)).containsKey(1000));
+        assertTrue(toMap(tx, map.entrySet(tx).iterator(tx, ScanMode.Tracked)).containsKey(1000));
+        tx.abort();
+    }
+
+    @Test
+    public void whenReadonlyWithoutReadTracking_thenUntrackedByDefault() {
+        GammaTxnConfig config = new GammaTxnConfig(stm)
+                .setReadonly(true)
+                .setReadTrackingEnabled(false)
+                .setBlockingAllowed(false);
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(config);
+
+        int count = 0;
+        for (TxnIterator<Integer> it = map.keySet(tx).iterator(tx); it.hasNext(tx); it.next(tx)) {
+            count++;
+        }
+
+        assertEquals(100, count);
+        assertEquals(0, tx.size());
+        tx.commit();
+    }
+
+    private static Map<Integer, Integer> toMap(Txn tx, TxnIterator<Map.Entry<Integer, Integer>> it) {
+        Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+        while (it.hasNext(tx)) {
+            Map.Entry<Integer, Integer> entry = it.next(tx);
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Tests keys with exactly the same hashcode, which end up in the same collision node.
+ */
+public class TxnHashTrieMap_collisionTest {
+
+    private GammaStm stm;
+    private TxnHashTrieMap<Key, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashTrieMap<Key, String>(stm);
+    }
+
+    @Test
+    public void whenPutAndGet() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put(new Key(k, 1), "" + k);
+                }
+                //a key with another hash in the same subtree.
+                map.put(new Key(100, 2), "100");
+
+                assertEquals(11, map.size());
+                for (int k = 0; k < 10; k++) {
+                    assertEquals("" + k, map.get(new Key(k, 1)));
+                }
+                assertEquals("100", map.get(new Key(100, 2)));
+                assertNull(map.get(new Key(11, 1)));
+                assertEquals("5", map.put(new Key(5, 1), "five"));
+                assertEquals("five", map.get(new Key(5, 1)));
+                assertEquals(11, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoved() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 3; k++) {
+                    map.put(new Key(k, 1), "" + k);
+                }
+
+                assertNull(map.remove(new Key(5, 1)));
+                assertEquals("1", map.remove(new Key(1, 1)));
+                assertEquals("0", map.remove(new Key(0, 1)));
+
+                assertEquals(1, map.size());
+                assertEquals("2", map.get(new Key(2, 1)));
+                assertEquals("{2=2}", map.toString());
+
+                assertEquals("2", map.remove(new Key(2, 1)));
+                assertTrue(map.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenIterated() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                Set<Key> expected = new HashSet<Key>();
+                for (int k = 0; k < 20; k++) {
+                    Key key = new Key(k, k % 3);
+                    expected.add(key);
+                    map.put(key, "" + k);
+                }
+
+                assertEquals(expected, new HashSet<Key>(map.keySet()));
+            }
+        });
+    }
+
+    static class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "" + id;
+        }
+    }
+}
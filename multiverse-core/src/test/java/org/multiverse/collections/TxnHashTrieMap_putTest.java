@@ -0,0 +1,146 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashTrieMap_putTest {
+
+    private GammaStm stm;
+    private TxnHashTrieMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashTrieMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                String result = map.put("key", "value");
+
+                assertNull(result);
+                assertEquals(1, map.size());
+                assertEquals("value", map.get("key"));
+                assertEquals("{key=value}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenReplacingExistingKey() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+                map.put("2", "b");
+                map.put("3", "c");
+
+                String result = map.put("2", "B");
+
+                assertEquals("b", result);
+                assertEquals("B", map.get("2"));
+                assertEquals("a", map.get("1"));
+                assertEquals("c", map.get("3"));
+                assertEquals(3, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullValue() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.put("1", null));
+
+                assertTrue(map.containsKey("1"));
+                assertNull(map.get("1"));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullKey_thenNullPointerException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.put(null, "foo");
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals(0, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenKeysInDifferentSubtreesPutConcurrently_thenNoConflict() {
+        String key1 = "a";
+        String key2 = "b";
+        assertNotSame(subtree(key1), subtree(key2));
+
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, key1, "1");
+        map.put(tx2, key2, "2");
+        tx1.commit();
+        tx2.commit();
+
+        GammaTxn tx = newTxn();
+        assertEquals("1", map.get(tx, key1));
+        assertEquals("2", map.get(tx, key2));
+        assertEquals(2, map.size(tx));
+        tx.abort();
+    }
+
+    @Test
+    public void whenManyItems() {
+        final int itemCount = 10000;
+        for (int k = 0; k < itemCount; k++) {
+            final String key = "" + k;
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    map.put(key, key);
+                }
+            });
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(itemCount, map.size());
+                for (int k = 0; k < itemCount; k++) {
+                    assertEquals("" + k, map.get("" + k));
+                }
+            }
+        });
+    }
+
+    private static Integer subtree(Object key) {
+        return TxnHashTrieMap.hash(key) >>> (32 - TxnHashTrieMap.SUBTREE_BITS);
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,96 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashTrieMap_removeTest {
+
+    private GammaStm stm;
+    private TxnHashTrieMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashTrieMap<Integer, String>(stm);
+    }
+
+    @Test
+    public void whenNotFound() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(1, "a");
+
+                assertNull(map.remove(2));
+                assertNull(map.remove(null));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenFound() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put(k, "" + k);
+                }
+
+                assertEquals("5", map.remove(5));
+                assertNull(map.get(5));
+                assertFalse(map.containsKey(5));
+                assertEquals(9, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenAllRemoved() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 5000; k++) {
+                    map.put(k, "" + k);
+                }
+                for (int k = 0; k < 5000; k++) {
+                    assertEquals("" + k, map.remove(k));
+                    assertEquals(4999 - k, map.size());
+                }
+
+                assertTrue(map.isEmpty());
+                assertEquals("{}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenClear() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+
+                map.clear();
+
+                assertEquals(0, map.size());
+                assertNull(map.get(10));
+                assertEquals("{}", map.toString());
+
+                map.put(5, "5");
+                assertEquals("{5=5}", map.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnHashTrieMap_snapshotTest {
+
+    private GammaStm stm;
+    private TxnHashTrieMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnHashTrieMap<Integer, Integer>(stm);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 1000; k++) {
+                    map.put(k, k);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenEmpty() {
+        map = new TxnHashTrieMap<Integer, Integer>(stm);
+
+        Map<Integer, Integer> snapshot = StmUtils.atomic(new TxnCallable<Map<Integer, Integer>>() {
+            @Override
+            public Map<Integer, Integer> call(Txn tx) throws Exception {
+                return map.snapshot();
+            }
+        });
+
+        assertTrue(snapshot.isEmpty());
+        assertEquals(new HashMap<Integer, Integer>(), snapshot);
+    }
+
+    @Test
+    public void whenMapChangedAfterwards_thenSnapshotUnchanged() {
+        Map<Integer, Integer> snapshot = StmUtils.atomic(new TxnCallable<Map<Integer, Integer>>() {
+            @Override
+            public Map<Integer, Integer> call(Txn tx) throws Exception {
+                return map.snapshot();
+            }
+        });
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.remove(1);
+                map.put(2, -2);
+                map.put(5000, 5000);
+            }
+        });
+
+        assertEquals(1000, snapshot.size());
+        assertEquals(Integer.valueOf(1), snapshot.get(1));
+        assertEquals(Integer.valueOf(2), snapshot.get(2));
+        assertFalse(snapshot.containsKey(5000));
+
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int k = 0; k < 1000; k++) {
+            expected.put(k, k);
+        }
+        assertEquals(expected, snapshot);
+    }
+
+    @Test
+    public void whenSnapshotModified_thenUnsupportedOperationException() {
+        Map<Integer, Integer> snapshot = StmUtils.atomic(new TxnCallable<Map<Integer, Integer>>() {
+            @Override
+            public Map<Integer, Integer> call(Txn tx) throws Exception {
+                return map.snapshot();
+            }
+        });
+
+        try {
+            snapshot.put(1, 1);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void whenIteratedAndOtherTxnUpdates_thenNoConflict() {
+        GammaTxn iterateTx = newTxn(true);
+        TxnIterator<Map.Entry<Integer, Integer>> it = map.entrySet(iterateTx).iterator(iterateTx);
+
+        GammaTxn updateTx = newTxn(false);
+        map.put(updateTx, 10, -10);
+        updateTx.commit();
+
+        //the iterator works on the snapshot taken when it was created.
+        int count = 0;
+        while (it.hasNext(iterateTx)) {
+            Map.Entry<Integer, Integer> entry = it.next(iterateTx);
+            assertEquals(entry.getKey(), entry.getValue());
+            count++;
+        }
+        assertEquals(1000, count);
+        iterateTx.commit();
+    }
+
+    private GammaTxn newTxn(boolean readonly) {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .setReadonly(readonly)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,81 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnIntHashSet_addTest {
+
+    private Stm stm;
+    private TxnIntHashSet set;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        set = new TxnIntHashSet(stm);
+    }
+
+    @Test
+    public void whenAddAndRemove() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertTrue(set.add(1));
+                assertFalse(set.add(1));
+                assertTrue(set.add(0));
+                assertTrue(set.add(Integer.MIN_VALUE));
+                assertTrue(set.add(-1));
+
+                assertEquals(4, set.size());
+                assertTrue(set.contains(0));
+                assertTrue(set.contains(Integer.MIN_VALUE));
+                assertFalse(set.contains(2));
+
+                assertTrue(set.remove(0));
+                assertFalse(set.remove(0));
+                assertFalse(set.contains(0));
+                assertEquals(3, set.size());
+
+                int[] values = set.toArray();
+                Arrays.sort(values);
+                assertArrayEquals(new int[]{Integer.MIN_VALUE, -1, 1}, values);
+            }
+        });
+    }
+
+    @Test
+    public void whenManyValues() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 5000; k++) {
+                    set.add(k * 7);
+                }
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(5000, set.size());
+                for (int k = 0; k < 35000; k++) {
+                    assertEquals(k % 7 == 0, set.contains(k));
+                }
+
+                set.clear();
+                assertTrue(set.isEmpty());
+                assertEquals("[]", set.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLinkedBlockingQueue_putTest {
+
+    private GammaStm stm;
+    private TxnLinkedBlockingQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        clearCurrentThreadInterruptedStatus();
+        queue = new TxnLinkedBlockingQueue<String>(stm, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenZeroCapacity_thenIllegalArgumentException() {
+        new TxnLinkedBlockingQueue<String>(stm, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullItem_thenNullPointerException() throws InterruptedException {
+        queue.put(null);
+    }
+
+    @Test
+    public void whenFull_thenOfferFails() {
+        assertTrue(queue.offer("1"));
+        assertFalse(queue.offer("2"));
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    public void whenFull_thenPutBlocksUntilItemTaken() throws InterruptedException {
+        queue.put("1");
+
+        PutThread putter = new PutThread("putter", "2");
+        putter.start();
+
+        sleepMs(200);
+        assertAlive(putter);
+
+        assertEquals("1", queue.poll());
+
+        assertEventuallyNotAlive(putter);
+        assertNothingThrown(putter);
+        //the consumer moved the item of the waiting producer into the queue.
+        assertEquals(1, queue.size());
+        assertEquals("2", queue.poll());
+    }
+
+    @Test
+    public void whenMultiplePuttersWaiting_thenAdmittedInFifoOrder() throws InterruptedException {
+        queue.put("first");
+
+        List<PutThread> putters = new ArrayList<PutThread>();
+        for (int k = 0; k < 3; k++) {
+            PutThread putter = new PutThread("putter-" + k, "" + k);
+            putter.start();
+            putters.add(putter);
+            sleepMs(100);
+        }
+
+        assertEquals("first", queue.take());
+        for (int k = 0; k < putters.size(); k++) {
+            assertEventuallyNotAlive(putters.get(k));
+            assertNothingThrown(putters.get(k));
+            for (int i = k + 1; i < putters.size(); i++) {
+                assertAlive(putters.get(i));
+            }
+
+            assertEquals("" + k, queue.take());
+        }
+    }
+
+    @Test
+    public void whenTimedOfferTimesOut_thenFalse() throws InterruptedException {
+        queue.put("1");
+
+        assertFalse(queue.offer("2", 100, TimeUnit.MILLISECONDS));
+
+        //the cancelled producer is skipped, so its item never is added.
+        assertEquals("1", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void whenDrainTo_thenWaitingPutterAdmitted() throws InterruptedException {
+        queue.put("1");
+        PutThread putter = new PutThread("putter", "2");
+        putter.start();
+        sleepMs(200);
+
+        List<String> drained = new ArrayList<String>();
+        assertEquals(2, queue.drainTo(drained));
+
+        assertEventuallyNotAlive(putter);
+        assertNothingThrown(putter);
+        assertEquals("[1, 2]", drained.toString());
+    }
+
+    class PutThread extends TestThread {
+        final String item;
+
+        PutThread(String name, String item) {
+            super(name);
+            this.item = item;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            queue.put(item);
+        }
+    }
+}
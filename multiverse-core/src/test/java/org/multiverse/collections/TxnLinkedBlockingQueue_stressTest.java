@@ -0,0 +1,92 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Producers put items in a small queue and consumers take them, partly using timed polls that time out. Every item
+ * should be taken exactly once, so no item is lost in a cancelled waiter or handed to 2 consumers.
+ */
+public class TxnLinkedBlockingQueue_stressTest {
+
+    private static final int PRODUCER_COUNT = 3;
+    private static final int CONSUMER_COUNT = 3;
+    private static final int ITEMS_PER_PRODUCER = 5000;
+
+    private GammaStm stm;
+    private TxnLinkedBlockingQueue<Long> queue;
+    private final AtomicLong takenCount = new AtomicLong();
+    private final AtomicLong takenSum = new AtomicLong();
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        queue = new TxnLinkedBlockingQueue<Long>(stm, 4);
+    }
+
+    @Test
+    public void test() {
+        TestThread[] threads = new TestThread[PRODUCER_COUNT + CONSUMER_COUNT];
+        for (int k = 0; k < PRODUCER_COUNT; k++) {
+            threads[k] = new ProducerThread(k);
+        }
+        for (int k = 0; k < CONSUMER_COUNT; k++) {
+            threads[PRODUCER_COUNT + k] = new ConsumerThread(k);
+        }
+
+        startAll(threads);
+        assertEventuallyNotAlive(threads);
+        assertNothingThrown(threads);
+
+        long itemCount = PRODUCER_COUNT * ITEMS_PER_PRODUCER;
+        assertEquals(itemCount, takenCount.get());
+        assertEquals(itemCount * (itemCount - 1) / 2, takenSum.get());
+        assertEquals(0, queue.size());
+    }
+
+    class ProducerThread extends TestThread {
+        private final int id;
+
+        ProducerThread(int id) {
+            super("ProducerThread-" + id);
+            this.id = id;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            for (long k = 0; k < ITEMS_PER_PRODUCER; k++) {
+                queue.put(id * ITEMS_PER_PRODUCER + k);
+            }
+        }
+    }
+
+    class ConsumerThread extends TestThread {
+
+        ConsumerThread(int id) {
+            super("ConsumerThread-" + id);
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            long itemCount = PRODUCER_COUNT * ITEMS_PER_PRODUCER;
+            while (takenCount.get() < itemCount) {
+                Long item = randomOneOf(2) ? queue.poll(1, TimeUnit.MILLISECONDS) : queue.poll(100, TimeUnit.MILLISECONDS);
+                if (item != null) {
+                    takenSum.addAndGet(item);
+                    takenCount.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.exceptions.TxnNotAllowedException;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLinkedBlockingQueue_takeTest {
+
+    private GammaStm stm;
+    private TxnLinkedBlockingQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        clearCurrentThreadInterruptedStatus();
+        queue = new TxnLinkedBlockingQueue<String>(stm);
+    }
+
+    @Test
+    public void whenItemAvailable_thenReturnedImmediately() throws InterruptedException {
+        queue.offer("1");
+        queue.offer("2");
+
+        assertEquals("1", queue.take());
+        assertEquals("2", queue.take());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void whenEmpty_thenBlocksUntilItemOffered() {
+        TakeThread taker = new TakeThread("taker");
+        taker.start();
+
+        sleepMs(200);
+        assertAlive(taker);
+
+        assertTrue(queue.offer("1"));
+
+        assertEventuallyNotAlive(taker);
+        assertNothingThrown(taker);
+        assertEquals("1", taker.item);
+        //the item was handed to the taker, so it never entered the queue.
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void whenMultipleTakersWaiting_thenServedInFifoOrderOneItemAtATime() {
+        List<TakeThread> takers = new ArrayList<TakeThread>();
+        for (int k = 0; k < 3; k++) {
+            TakeThread taker = new TakeThread("taker-" + k);
+            taker.start();
+            takers.add(taker);
+            sleepMs(100);
+        }
+
+        for (int k = 0; k < takers.size(); k++) {
+            queue.offer("" + k);
+
+            TakeThread taker = takers.get(k);
+            assertEventuallyNotAlive(taker);
+            assertNothingThrown(taker);
+            assertEquals("" + k, taker.item);
+
+            //only a single taker is served per item.
+            for (int i = k + 1; i < takers.size(); i++) {
+                assertAlive(takers.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void whenTimedPollTimesOut_thenNullAndWaiterCancelled() throws InterruptedException {
+        long startNs = System.nanoTime();
+        assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - startNs >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        //the cancelled waiter is skipped, so the item ends up in the queue.
+        queue.offer("1");
+        assertEquals(1, queue.size());
+        assertEquals("1", queue.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void whenTimedPollServedInTime() {
+        TestThread poller = new TestThread("poller") {
+            @Override
+            public void doRun() throws Exception {
+                assertEquals("1", queue.poll(10, TimeUnit.SECONDS));
+            }
+        };
+        poller.start();
+
+        sleepMs(100);
+        queue.offer("1");
+
+        assertEventuallyNotAlive(poller);
+        assertNothingThrown(poller);
+    }
+
+    @Test
+    public void whenInterrupted_thenInterruptedExceptionAndWaiterCancelled() {
+        TestThread taker = new TestThread("taker") {
+            @Override
+            public void doRun() throws Exception {
+                try {
+                    queue.take();
+                    fail();
+                } catch (InterruptedException expected) {
+                }
+            }
+        };
+        taker.start();
+
+        sleepMs(200);
+        taker.interrupt();
+
+        assertEventuallyNotAlive(taker);
+        assertNothingThrown(taker);
+
+        queue.offer("1");
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void whenTransactionActive_thenTxnNotAllowedException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    queue.take();
+                    fail();
+                } catch (TxnNotAllowedException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenOfferedInTransactionThatAborts_thenTakerNotServed() {
+        TakeThread taker = new TakeThread("taker");
+        taker.start();
+        sleepMs(200);
+
+        try {
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    queue.offer(tx, "1");
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        sleepMs(200);
+        assertAlive(taker);
+
+        queue.offer("2");
+        assertEventuallyNotAlive(taker);
+        assertNothingThrown(taker);
+        assertEquals("2", taker.item);
+    }
+
+    class TakeThread extends TestThread {
+        volatile String item;
+
+        TakeThread(String name) {
+            super(name);
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            item = queue.take();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.multiverse.collections;
+
+import org.multiverse.api.collections.TxnQueue;
+
+public class TxnLinkedQueue_conflictTest extends TxnQueueConflict_AbstractTest {
+
+    @Override
+    protected TxnQueue<String> newQueue() {
+        return new TxnLinkedQueue<String>(stm, 100);
+    }
+}
@@ -0,0 +1,144 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLinkedQueue_offerTest {
+
+    private Stm stm;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+    }
+
+    @Test
+    public void whenNullItem_thenNullPointerException() {
+        final TxnLinkedQueue<String> queue = new TxnLinkedQueue<String>(stm);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    queue.offer(null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals("[]", queue.toString());
+                assertEquals(0, queue.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenEmpty() {
+        final TxnLinkedQueue<String> queue = new TxnLinkedQueue<String>(stm);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                boolean result = queue.offer("1");
+
+                assertTrue(result);
+                assertEquals("[1]", queue.toString());
+                assertEquals(1, queue.size());
+                assertFalse(queue.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenNotEmpty() {
+        final TxnLinkedQueue<String> queue = new TxnLinkedQueue<String>(stm);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                boolean result = queue.offer("2");
+
+                assertTrue(result);
+                assertEquals("[1, 2]", queue.toString());
+                assertEquals(2, queue.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenFull() {
+        final TxnLinkedQueue<String> queue = new TxnLinkedQueue<String>(stm, 2);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                queue.offer("2");
+
+                boolean result = queue.offer("3");
+
+                assertFalse(result);
+                assertEquals("[1, 2]", queue.toString());
+                assertEquals(2, queue.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenFullAndItemTakenInOtherTransaction_thenSpaceAvailable() {
+        final TxnLinkedQueue<String> queue = new TxnLinkedQueue<String>(stm, 2);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                queue.offer("2");
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals("1", queue.poll());
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertTrue(queue.offer("3"));
+                assertFalse(queue.offer("4"));
+                assertEquals("[2, 3]", queue.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenAddAndFull_thenIllegalStateException() {
+        final TxnLinkedQueue<String> queue = new TxnLinkedQueue<String>(stm, 1);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.add("1");
+
+                try {
+                    queue.add("2");
+                    fail();
+                } catch (IllegalStateException expected) {
+                }
+
+                assertEquals("[1]", queue.toString());
+            }
+        });
+    }
+}
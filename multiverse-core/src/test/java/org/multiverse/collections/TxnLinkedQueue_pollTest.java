@@ -0,0 +1,88 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLinkedQueue_pollTest {
+
+    private Stm stm;
+    private TxnLinkedQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        queue = new TxnLinkedQueue<String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(queue.poll());
+                assertNull(queue.peek());
+                assertTrue(queue.isEmpty());
+
+                try {
+                    queue.remove();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+
+                try {
+                    queue.element();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenMultipleItems_thenFifo() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                queue.offer("2");
+                queue.offer("3");
+
+                assertEquals("1", queue.peek());
+                assertEquals("1", queue.poll());
+                assertEquals("2", queue.element());
+                assertEquals("2", queue.remove());
+                assertEquals("[3]", queue.toString());
+                assertEquals(1, queue.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenLastItemTaken_thenQueueCanBeReused() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                assertEquals("1", queue.poll());
+                assertTrue(queue.isEmpty());
+                assertEquals(0, queue.size());
+
+                queue.offer("2");
+                queue.offer("3");
+                assertEquals("[2, 3]", queue.toString());
+                assertEquals("2", queue.poll());
+            }
+        });
+    }
+}
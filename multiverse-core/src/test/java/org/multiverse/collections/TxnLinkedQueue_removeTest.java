@@ -0,0 +1,120 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLinkedQueue_removeTest {
+
+    private Stm stm;
+    private TxnLinkedQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        queue = new TxnLinkedQueue<String>(stm);
+    }
+
+    @Test
+    public void whenNotFound() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+
+                assertFalse(queue.remove("2"));
+                assertFalse(queue.remove((Object) null));
+                assertEquals("[1]", queue.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenMiddleRemoved() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                queue.offer("2");
+                queue.offer("3");
+
+                assertTrue(queue.remove("2"));
+
+                assertEquals("[1, 3]", queue.toString());
+                assertEquals(2, queue.size());
+                assertFalse(queue.contains("2"));
+                assertTrue(queue.contains("3"));
+            }
+        });
+    }
+
+    @Test
+    public void whenLastRemoved_thenOfferStillAppends() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                queue.offer("2");
+
+                assertTrue(queue.remove("2"));
+                queue.offer("3");
+
+                assertEquals("[1, 3]", queue.toString());
+                assertEquals(2, queue.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovedWithIterator() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 1; k <= 6; k++) {
+                    queue.offer("" + k);
+                }
+
+                for (TxnIterator<String> it = queue.iterator(); it.hasNext(); ) {
+                    if (Integer.parseInt(it.next()) % 2 == 0) {
+                        it.remove();
+                    }
+                }
+
+                assertEquals("[1, 3, 5]", queue.toString());
+                assertEquals(3, queue.size());
+                queue.offer("7");
+                assertEquals("[1, 3, 5, 7]", queue.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenClear() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("1");
+                queue.offer("2");
+
+                queue.clear();
+
+                assertEquals("[]", queue.toString());
+                assertEquals(0, queue.size());
+                assertTrue(queue.isEmpty());
+
+                queue.offer("3");
+                assertEquals("[3]", queue.toString());
+                assertEquals(1, queue.size());
+            }
+        });
+    }
+}
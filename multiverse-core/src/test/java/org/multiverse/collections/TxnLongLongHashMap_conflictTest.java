@@ -0,0 +1,136 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLongLongHashMap_conflictTest {
+
+    private GammaStm stm;
+    private TxnLongLongHashMap map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnLongLongHashMap(stm, 100, 0);
+    }
+
+    @Test
+    public void whenDifferentKeysUpdated_thenNoConflict() {
+        put(1, 10);
+        put(2, 20);
+
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, 1, 11);
+        map.put(tx2, 2, 21);
+        tx1.commit();
+        tx2.commit();
+
+        assertMap(1, 11);
+        assertMap(2, 21);
+    }
+
+    @Test
+    public void whenSameKeyUpdated_thenConflict() {
+        put(1, 10);
+
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, 1, 11);
+        map.put(tx2, 1, 12);
+        tx1.commit();
+
+        try {
+            tx2.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertMap(1, 11);
+    }
+
+    @Test
+    public void whenUpdateAndRemoveOfSameKey_thenConflict() {
+        put(1, 10);
+
+        GammaTxn updateTx = newTxn();
+        GammaTxn removeTx = newTxn();
+        map.put(updateTx, 1, 11);
+        assertEquals(10, map.remove(removeTx, 1));
+        removeTx.commit();
+
+        try {
+            updateTx.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertFalse(containsKey(1));
+    }
+
+    @Test
+    public void whenConcurrentResize_thenUpdateInOldTableNotLost() {
+        put(1, 10);
+
+        GammaTxn updateTx = newTxn();
+        map.put(updateTx, 1, 11);
+
+        //adds enough keys to trigger a resize.
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long k = 1000; k < 2000; k++) {
+                    map.put(k, k);
+                }
+            }
+        });
+
+        try {
+            updateTx.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertMap(1, 10);
+    }
+
+    private void put(final long key, final long value) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(key, value);
+            }
+        });
+    }
+
+    private boolean containsKey(long key) {
+        GammaTxn tx = newTxn();
+        boolean result = map.containsKey(tx, key);
+        tx.abort();
+        return result;
+    }
+
+    private void assertMap(long key, long expected) {
+        GammaTxn tx = newTxn();
+        assertEquals(expected, map.get(tx, key));
+        tx.abort();
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
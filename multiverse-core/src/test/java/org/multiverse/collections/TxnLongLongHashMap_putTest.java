@@ -0,0 +1,147 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLongLongHashMap_putTest {
+
+    private Stm stm;
+    private TxnLongLongHashMap map;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnLongLongHashMap(stm);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenNegativeInitialCapacity_thenIllegalArgumentException() {
+        new TxnLongLongHashMap(stm, -1, 0);
+    }
+
+    @Test
+    public void whenEmpty() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(0, map.size());
+                assertTrue(map.isEmpty());
+                assertFalse(map.containsKey(1));
+                assertEquals(0, map.get(1));
+                assertEquals("{}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenNoEntryValue() {
+        final TxnLongLongHashMap map = new TxnLongLongHashMap(stm, 10, -1);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(-1, map.getNoEntryValue());
+                assertEquals(-1, map.get(1));
+                assertEquals(-1, map.put(1, 10));
+                assertEquals(10, map.put(1, 20));
+                assertEquals(20, map.remove(1));
+                assertEquals(-1, map.remove(1));
+            }
+        });
+    }
+
+    @Test
+    public void whenPutNewKeys() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(0, map.put(1, 10));
+                assertEquals(0, map.put(2, 20));
+
+                assertEquals(2, map.size());
+                assertEquals(10, map.get(1));
+                assertEquals(20, map.get(2));
+                assertTrue(map.containsKey(1));
+                assertFalse(map.containsKey(3));
+            }
+        });
+    }
+
+    @Test
+    public void whenPutExistingKey_thenReplaced() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(1, 10);
+                assertEquals(10, map.put(1, 11));
+
+                assertEquals(1, map.size());
+                assertEquals(11, map.get(1));
+                assertEquals("{1=11}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenSpecialKeys() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(0, 1);
+                map.put(Long.MIN_VALUE, 2);
+                map.put(Long.MAX_VALUE, 3);
+
+                assertEquals(3, map.size());
+                assertEquals(1, map.get(0));
+                assertEquals(2, map.get(Long.MIN_VALUE));
+                assertEquals(3, map.get(Long.MAX_VALUE));
+
+                assertEquals(1, map.remove(0));
+                assertFalse(map.containsKey(0));
+                assertTrue(map.containsKey(Long.MIN_VALUE));
+                assertEquals(2, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenManyKeys_thenResized() {
+        final int count = 10000;
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long k = -10; k < count; k++) {
+                    map.put(k * 31, k);
+                }
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(count + 10, map.size());
+                for (long k = -10; k < count; k++) {
+                    assertEquals(k, map.get(k * 31));
+                }
+
+                long[] keys = map.keys();
+                Arrays.sort(keys);
+                assertEquals(count + 10, keys.length);
+                assertEquals(-10 * 31, keys[0]);
+                assertEquals((count - 1) * 31, keys[keys.length - 1]);
+            }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLongLongHashMap_removeTest {
+
+    private Stm stm;
+    private TxnLongLongHashMap map;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnLongLongHashMap(stm);
+    }
+
+    @Test
+    public void whenNotFound() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(1, 10);
+                assertEquals(0, map.remove(2));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoved_thenOtherKeysStillFound() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long k = 1; k <= 8; k++) {
+                    map.put(k, k * 10);
+                }
+
+                assertEquals(30, map.remove(3));
+                assertEquals(50, map.remove(5));
+
+                assertEquals(6, map.size());
+                assertFalse(map.containsKey(3));
+                assertFalse(map.containsKey(5));
+                for (long k : new long[]{1, 2, 4, 6, 7, 8}) {
+                    assertEquals(k * 10, map.get(k));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovedAndAddedAgain() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(1, 10);
+                map.remove(1);
+                assertEquals(0, map.put(1, 11));
+                assertEquals(11, map.get(1));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenManyRemoves_thenRemovedSlotsReused() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long k = 0; k < 10000; k++) {
+                    map.put(k, k);
+                    map.remove(k);
+                }
+
+                assertEquals(0, map.size());
+                assertEquals("{}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenClear() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long k = 0; k < 100; k++) {
+                    map.put(k, k);
+                }
+
+                map.clear();
+                assertEquals(0, map.size());
+                assertFalse(map.containsKey(1));
+
+                map.put(1, 1);
+                assertEquals(1, map.size());
+            }
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import static org.junit.Assert.assertEquals;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Every thread increments the value of random keys (so the map is resized concurrently and keys are added and
+ * removed). The sum of all values should equal the number of increments.
+ */
+public class TxnLongLongHashMap_stressTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int INCREMENTS_PER_THREAD = 5000;
+    private static final int KEY_SPACE = 1000;
+
+    private GammaStm stm;
+    private TxnLongLongHashMap map;
+    private TxnExecutor executor;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnLongLongHashMap(stm);
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(100000)
+                .newTxnExecutor();
+    }
+
+    @Test
+    public void test() {
+        IncrementThread[] threads = new IncrementThread[THREAD_COUNT];
+        for (int k = 0; k < threads.length; k++) {
+            threads[k] = new IncrementThread(k);
+        }
+
+        startAll(threads);
+        assertEventuallyNotAlive(threads);
+        assertNothingThrown(threads);
+
+        final long[] sum = new long[1];
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                sum[0] = 0;
+                for (long key : map.keys(tx)) {
+                    sum[0] += map.get(tx, key);
+                }
+            }
+        });
+
+        long expected = 0;
+        for (IncrementThread thread : threads) {
+            expected += thread.increments;
+        }
+        assertEquals(expected, sum[0]);
+    }
+
+    class IncrementThread extends TestThread {
+        private long increments;
+
+        IncrementThread(int id) {
+            super("IncrementThread-" + id);
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            for (int k = 0; k < INCREMENTS_PER_THREAD; k++) {
+                final long key = randomInt(KEY_SPACE);
+                //every now and then a key is moved to another key, so keys also are removed.
+                final boolean move = randomOneOf(10);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        long value = map.get(tx, key);
+                        if (move) {
+                            map.remove(tx, key);
+                            long target = key + KEY_SPACE;
+                            map.put(tx, target, map.get(tx, target) + value + 1);
+                        } else {
+                            map.put(tx, key, value + 1);
+                        }
+                    }
+                });
+                increments++;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnLongObjectHashMap_putTest {
+
+    private Stm stm;
+    private TxnLongObjectHashMap<String> map;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnLongObjectHashMap<String>(stm);
+    }
+
+    @Test
+    public void whenNullValue_thenNullPointerException() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.put(1, null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertTrue(map.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenPutAndRemove() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.put(1, "a"));
+                assertNull(map.put(0, "zero"));
+                assertEquals("a", map.put(1, "b"));
+
+                assertEquals(2, map.size());
+                assertEquals("b", map.get(1));
+                assertEquals("zero", map.get(0));
+                assertNull(map.get(2));
+
+                assertEquals("b", map.remove(1));
+                assertNull(map.remove(1));
+                assertFalse(map.containsKey(1));
+                assertEquals("{0=zero}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenManyKeys_thenResized() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (long k = 0; k < 5000; k++) {
+                    map.put(k, "v" + k);
+                }
+                for (long k = 0; k < 5000; k += 2) {
+                    map.remove(k);
+                }
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(2500, map.size());
+                for (long k = 0; k < 5000; k++) {
+                    assertEquals(k % 2 == 0 ? null : "v" + k, map.get(k));
+                }
+                assertEquals(2500, map.keys().length);
+            }
+        });
+    }
+}
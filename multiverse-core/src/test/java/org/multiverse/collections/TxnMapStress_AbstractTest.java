@@ -0,0 +1,118 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.multiverse.TestThread;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnMap;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Every thread puts and removes its own range of keys and keeps track of what should be in the map. At the end the
+ * content of the map should be exactly the combination of all these; for a sorted map the entries also should be
+ * iterated in ascending order.
+ */
+public abstract class TxnMapStress_AbstractTest {
+
+    protected GammaStm stm;
+    protected TxnMap<Integer, Integer> map;
+    private int keysPerThread;
+    private int operationsPerThread;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+    }
+
+    protected abstract TxnMap<Integer, Integer> newMap();
+
+    public void run(int threadCount, int keysPerThread, int operationsPerThread) {
+        this.keysPerThread = keysPerThread;
+        this.operationsPerThread = operationsPerThread;
+        this.map = newMap();
+
+        StressThread[] threads = new StressThread[threadCount];
+        for (int k = 0; k < threads.length; k++) {
+            threads[k] = new StressThread(k);
+        }
+
+        startAll(threads);
+        assertEventuallyNotAlive(threads);
+        assertNothingThrown(threads);
+
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (StressThread thread : threads) {
+            expected.putAll(thread.content);
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(expected.size(), map.size());
+                Map<Integer, Integer> found = new HashMap<Integer, Integer>();
+                Integer previousKey = null;
+                for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+                    if (map instanceof SortedMap && previousKey != null) {
+                        assertTrue("keys not ascending", previousKey < entry.getKey());
+                    }
+                    previousKey = entry.getKey();
+                    found.put(entry.getKey(), entry.getValue());
+                }
+                assertEquals(expected, found);
+            }
+        });
+    }
+
+    class StressThread extends TestThread {
+        private final int offset;
+        private final Map<Integer, Integer> content = new HashMap<Integer, Integer>();
+
+        StressThread(int id) {
+            super("StressThread-" + id);
+            this.offset = id * keysPerThread;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            TxnExecutor executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(100000)
+                    .newTxnExecutor();
+            Random random = new Random();
+            for (int k = 0; k < operationsPerThread; k++) {
+                final Integer key = offset + random.nextInt(keysPerThread);
+                final Integer value = random.nextInt();
+                if (random.nextInt(3) == 0) {
+                    executor.execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) {
+                            map.remove(tx, key);
+                        }
+                    });
+                    content.remove(key);
+                } else {
+                    executor.execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) {
+                            map.put(tx, key, value);
+                        }
+                    });
+                    content.put(key, value);
+                }
+            }
+        }
+    }
+}
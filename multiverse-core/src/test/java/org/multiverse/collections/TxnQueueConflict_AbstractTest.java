@@ -0,0 +1,131 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnQueue;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Checks that a FIFO queue with separate head and tail lets a producer and a consumer run without conflicting, while
+ * two producers or two consumers still conflict.
+ */
+public abstract class TxnQueueConflict_AbstractTest {
+
+    protected GammaStm stm;
+    protected TxnQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        queue = newQueue();
+    }
+
+    protected abstract TxnQueue<String> newQueue();
+
+    @Test
+    public void whenProducerAndConsumer_thenNoConflict() {
+        offer("1");
+
+        GammaTxn producerTx = newTxn();
+        GammaTxn consumerTx = newTxn();
+        queue.offer(producerTx, "2");
+        assertEquals("1", queue.poll(consumerTx));
+        producerTx.commit();
+        consumerTx.commit();
+
+        assertQueue("[2]", 1);
+    }
+
+    @Test
+    public void whenConsumerTakesLastItemAndProducerAdds_thenNoConflict() {
+        offer("1");
+
+        GammaTxn consumerTx = newTxn();
+        GammaTxn producerTx = newTxn();
+        assertEquals("1", queue.poll(consumerTx));
+        queue.offer(producerTx, "2");
+        consumerTx.commit();
+        producerTx.commit();
+
+        assertQueue("[2]", 1);
+    }
+
+    @Test
+    public void whenTwoProducers_thenConflict() {
+        GammaTxn producerTx1 = newTxn();
+        GammaTxn producerTx2 = newTxn();
+        queue.offer(producerTx1, "1");
+        queue.offer(producerTx2, "2");
+        producerTx1.commit();
+
+        try {
+            producerTx2.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertQueue("[1]", 1);
+    }
+
+    @Test
+    public void whenTwoConsumers_thenConflict() {
+        offer("1");
+        offer("2");
+
+        GammaTxn consumerTx1 = newTxn();
+        GammaTxn consumerTx2 = newTxn();
+        assertEquals("1", queue.poll(consumerTx1));
+        assertEquals("1", queue.poll(consumerTx2));
+        consumerTx1.commit();
+
+        try {
+            consumerTx2.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertQueue("[2]", 1);
+    }
+
+    protected void offer(final String item) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer(tx, item);
+            }
+        });
+    }
+
+    protected void poll(final String expected) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(expected, queue.poll(tx));
+            }
+        });
+    }
+
+    protected void assertQueue(String expected, int expectedSize) {
+        GammaTxn tx = newTxn();
+        assertEquals(expected, queue.toString(tx));
+        assertEquals(expectedSize, queue.size(tx));
+        tx.abort();
+    }
+
+    protected GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,139 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.multiverse.TestThread;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnQueue;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Producers put items in a queue and consumers take them out using the blocking put and take. Item k of producer p is
+ * k * producerCount + p, so the items of a single producer increase. For a FIFO queue and for a priority queue (a take
+ * always returns the least item) every consumer should see the items of a producer in increasing order, and in total
+ * all items should be taken exactly once.
+ */
+public abstract class TxnQueueProducerConsumer_AbstractTest {
+
+    protected GammaStm stm;
+    private TxnQueue<Long> queue;
+    private TxnExecutor executor;
+    private int producerCount;
+    private int consumerCount;
+    private int itemsPerProducer;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(100000)
+                .newTxnExecutor();
+    }
+
+    protected abstract TxnQueue<Long> newQueue();
+
+    public void run(int producerCount, int consumerCount, int itemsPerProducer) {
+        this.producerCount = producerCount;
+        this.consumerCount = consumerCount;
+        this.itemsPerProducer = itemsPerProducer;
+        this.queue = newQueue();
+
+        ProducerThread[] producers = new ProducerThread[producerCount];
+        for (int k = 0; k < producers.length; k++) {
+            producers[k] = new ProducerThread(k);
+        }
+
+        ConsumerThread[] consumers = new ConsumerThread[consumerCount];
+        for (int k = 0; k < consumers.length; k++) {
+            consumers[k] = new ConsumerThread(k);
+        }
+
+        startAll(producers);
+        startAll(consumers);
+        assertEventuallyNotAlive(producers);
+        assertEventuallyNotAlive(consumers);
+        assertNothingThrown(producers);
+        assertNothingThrown(consumers);
+
+        long[] takenPerProducer = new long[producerCount];
+        for (ConsumerThread consumer : consumers) {
+            long[] last = new long[producerCount];
+            for (int k = 0; k < last.length; k++) {
+                last[k] = -1;
+            }
+
+            for (Long item : consumer.taken) {
+                int producer = (int) (item % producerCount);
+                long sequence = item / producerCount;
+                if (sequence <= last[producer]) {
+                    throw new AssertionError("item " + item + " taken out of order by " + consumer.getName());
+                }
+                last[producer] = sequence;
+                takenPerProducer[producer]++;
+            }
+        }
+
+        for (long taken : takenPerProducer) {
+            assertEquals(itemsPerProducer, taken);
+        }
+        assertEquals(Integer.valueOf(0), executor.execute(new TxnCallable<Integer>() {
+            @Override
+            public Integer call(Txn tx) {
+                return queue.size(tx);
+            }
+        }));
+    }
+
+    class ProducerThread extends TestThread {
+        private final int id;
+
+        ProducerThread(int id) {
+            super("ProducerThread-" + id);
+            this.id = id;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            for (int k = 0; k < itemsPerProducer; k++) {
+                final Long item = (long) k * producerCount + id;
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        queue.put(tx, item);
+                    }
+                });
+            }
+        }
+    }
+
+    class ConsumerThread extends TestThread {
+        private final List<Long> taken = new ArrayList<Long>();
+
+        ConsumerThread(int id) {
+            super("ConsumerThread-" + id);
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            for (int k = 0; k < producerCount * itemsPerProducer / consumerCount; k++) {
+                taken.add(executor.execute(new TxnCallable<Long>() {
+                    @Override
+                    public Long call(Txn tx) {
+                        return queue.take(tx);
+                    }
+                }));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListMap_iteratorTest {
+
+    private GammaStm stm;
+    private TxnSkipListMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnSkipListMap<Integer, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnIterator<Integer> it = map.keySet().iterator();
+                assertFalse(it.hasNext());
+
+                try {
+                    it.next();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenIterated_thenAscendingOrder() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 99; k >= 0; k--) {
+                    map.put(k, "" + k);
+                }
+
+                int expected = 0;
+                for (Map.Entry<Integer, String> entry : map.entrySet()) {
+                    assertEquals(Integer.valueOf(expected), entry.getKey());
+                    assertEquals("" + expected, entry.getValue());
+                    expected++;
+                }
+                assertEquals(100, expected);
+            }
+        });
+    }
+
+    @Test
+    public void views() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(2, "b");
+                map.put(1, "a");
+
+                assertEquals("[1, 2]", map.keySet().toString());
+                assertEquals("[a, b]", map.values().toString());
+                assertEquals("[1=a, 2=b]", map.entrySet().toString());
+                assertTrue(map.containsValue("b"));
+                assertFalse(map.containsValue("c"));
+            }
+        });
+    }
+
+    @Test
+    public void remove() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put(k, "" + k);
+                }
+
+                for (TxnIterator<Integer> it = map.keySet().iterator(); it.hasNext(); ) {
+                    if (it.next() % 2 == 0) {
+                        it.remove();
+                    }
+                }
+
+                assertEquals("{1=1, 3=3, 5=5, 7=7, 9=9}", map.toString());
+                assertEquals(5, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNextRemovedFromMap_thenIteratorContinuesAfterIt() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 5; k++) {
+                    map.put(k, "" + k);
+                }
+
+                TxnIterator<Integer> it = map.keySet().iterator();
+                assertEquals(Integer.valueOf(0), it.next());
+                map.remove(1);
+                assertEquals(Integer.valueOf(2), it.next());
+            }
+        });
+    }
+
+    @Test
+    public void subMapIteration() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+
+                int expected = 40;
+                for (Integer key : map.subMap(40, 60).keySet()) {
+                    assertEquals(Integer.valueOf(expected), key);
+                    expected++;
+                }
+                assertEquals(60, expected);
+            }
+        });
+    }
+}
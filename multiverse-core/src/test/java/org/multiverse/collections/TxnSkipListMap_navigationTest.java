@@ -0,0 +1,150 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListMap_navigationTest {
+
+    private GammaStm stm;
+    private TxnSkipListMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnSkipListMap<Integer, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.lowerKey(1));
+                assertNull(map.floorKey(1));
+                assertNull(map.ceilingKey(1));
+                assertNull(map.higherKey(1));
+                assertNull(map.firstEntry());
+                assertNull(map.lastEntry());
+
+                try {
+                    map.firstKey();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+
+                try {
+                    map.lastKey();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenKeyExists() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                fill();
+
+                assertEquals(Integer.valueOf(10), map.lowerKey(20));
+                assertEquals(Integer.valueOf(20), map.floorKey(20));
+                assertEquals(Integer.valueOf(20), map.ceilingKey(20));
+                assertEquals(Integer.valueOf(30), map.higherKey(20));
+            }
+        });
+    }
+
+    @Test
+    public void whenKeyDoesNotExist() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                fill();
+
+                assertEquals(Integer.valueOf(20), map.lowerKey(25));
+                assertEquals(Integer.valueOf(20), map.floorKey(25));
+                assertEquals(Integer.valueOf(30), map.ceilingKey(25));
+                assertEquals(Integer.valueOf(30), map.higherKey(25));
+            }
+        });
+    }
+
+    @Test
+    public void whenKeyOutsideOfRange() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                fill();
+
+                assertNull(map.lowerKey(10));
+                assertNull(map.floorKey(5));
+                assertEquals(Integer.valueOf(10), map.ceilingKey(5));
+                assertEquals(Integer.valueOf(50), map.floorKey(100));
+                assertNull(map.ceilingKey(51));
+                assertNull(map.higherKey(50));
+            }
+        });
+    }
+
+    @Test
+    public void entries() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                fill();
+
+                assertEntry(10, "10", map.firstEntry());
+                assertEntry(50, "50", map.lastEntry());
+                assertEntry(20, "20", map.lowerEntry(30));
+                assertEntry(30, "30", map.floorEntry(35));
+                assertEntry(40, "40", map.ceilingEntry(35));
+                assertEntry(40, "40", map.higherEntry(30));
+                assertEquals(Integer.valueOf(10), map.firstKey());
+                assertEquals(Integer.valueOf(50), map.lastKey());
+            }
+        });
+    }
+
+    @Test
+    public void whenManyItems() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 1000; k++) {
+                    map.put(k * 2, "" + k * 2);
+                }
+
+                for (int k = 1; k < 1998; k += 2) {
+                    assertEquals(Integer.valueOf(k - 1), map.floorKey(k));
+                    assertEquals(Integer.valueOf(k + 1), map.ceilingKey(k));
+                }
+            }
+        });
+    }
+
+    private void fill() {
+        for (int k = 10; k <= 50; k += 10) {
+            map.put(k, "" + k);
+        }
+    }
+
+    private static void assertEntry(Integer expectedKey, String expectedValue, Map.Entry<Integer, String> entry) {
+        assertNotNull(entry);
+        assertEquals(expectedKey, entry.getKey());
+        assertEquals(expectedValue, entry.getValue());
+    }
+}
@@ -0,0 +1,95 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListMap_pollTest {
+
+    private GammaStm stm;
+    private TxnSkipListMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnSkipListMap<Integer, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(map.pollFirstEntry());
+                assertNull(map.pollLastEntry());
+            }
+        });
+    }
+
+    @Test
+    public void pollFirst() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(2, "b");
+                map.put(1, "a");
+                map.put(3, "c");
+
+                Map.Entry<Integer, String> entry = map.pollFirstEntry();
+
+                assertEquals(Integer.valueOf(1), entry.getKey());
+                assertEquals("a", entry.getValue());
+                assertEquals(2, map.size());
+                assertEquals("{2=b, 3=c}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void pollLast() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(2, "b");
+                map.put(1, "a");
+                map.put(3, "c");
+
+                Map.Entry<Integer, String> entry = map.pollLastEntry();
+
+                assertEquals(Integer.valueOf(3), entry.getKey());
+                assertEquals("c", entry.getValue());
+                assertEquals(2, map.size());
+                assertEquals("{1=a, 2=b}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenPolledUntilEmpty_thenAscendingOrder() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 99; k >= 0; k--) {
+                    map.put(k, "" + k);
+                }
+
+                for (int k = 0; k < 100; k++) {
+                    assertEquals(Integer.valueOf(k), map.pollFirstEntry().getKey());
+                }
+
+                assertTrue(map.isEmpty());
+                assertNull(map.pollFirstEntry());
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListMap_putTest {
+
+    private GammaStm stm;
+    private TxnSkipListMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnSkipListMap<String, String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                String result = map.put("key", "value");
+
+                assertNull(result);
+                assertEquals(1, map.size());
+                assertEquals("value", map.get("key"));
+                assertEquals("{key=value}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenReplacingExistingKey() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("1", "a");
+                map.put("2", "b");
+                map.put("3", "c");
+
+                String result = map.put("2", "B");
+
+                assertEquals("b", result);
+                assertEquals("B", map.get("2"));
+                assertEquals(3, map.size());
+                assertEquals("{1=a, 2=B, 3=c}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenInsertedOutOfOrder_thenSorted() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("c", "3");
+                map.put("a", "1");
+                map.put("d", "4");
+                map.put("b", "2");
+
+                assertEquals("{a=1, b=2, c=3, d=4}", map.toString());
+                assertEquals("a", map.firstKey());
+                assertEquals("d", map.lastKey());
+            }
+        });
+    }
+
+    @Test
+    public void whenComparator() {
+        map = new TxnSkipListMap<String, String>(stm, Collections.<String>reverseOrder());
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put("a", "1");
+                map.put("c", "3");
+                map.put("b", "2");
+
+                assertEquals("{c=3, b=2, a=1}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullKey_thenNullPointerException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.put(null, "foo");
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertEquals(0, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenDifferentRegionsUpdatedConcurrently_thenNoConflict() {
+        final TxnSkipListMap<Integer, Integer> map = new TxnSkipListMap<Integer, Integer>(stm);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k += 10) {
+                    map.put(k, k);
+                }
+            }
+        });
+
+        //a replace only writes the value of the node.
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        map.put(tx1, 10, -10);
+        map.put(tx2, 80, -80);
+        tx1.commit();
+        tx2.commit();
+
+        GammaTxn tx = newTxn();
+        assertEquals(Integer.valueOf(-10), map.get(tx, 10));
+        assertEquals(Integer.valueOf(-80), map.get(tx, 80));
+        assertEquals(10, map.size(tx));
+        tx.abort();
+    }
+
+    @Test
+    public void whenManyItems() {
+        final int itemCount = 5000;
+        for (int k = 0; k < itemCount; k++) {
+            final String key = "" + k;
+            StmUtils.atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    map.put(key, key);
+                }
+            });
+        }
+
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals(itemCount, map.size());
+                for (int k = 0; k < itemCount; k++) {
+                    assertEquals("" + k, map.get("" + k));
+                }
+            }
+        });
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,162 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListMap_removeTest {
+
+    private GammaStm stm;
+    private TxnSkipListMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnSkipListMap<Integer, String>(stm);
+    }
+
+    @Test
+    public void whenNotFound() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(1, "a");
+
+                assertNull(map.remove(2));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenFound() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 10; k++) {
+                    map.put(k, "" + k);
+                }
+
+                assertEquals("5", map.remove(5));
+                assertNull(map.get(5));
+                assertFalse(map.containsKey(5));
+                assertEquals(9, map.size());
+                assertEquals("{0=0, 1=1, 2=2, 3=3, 4=4, 6=6, 7=7, 8=8, 9=9}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenAllRemoved() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+                for (int k = 0; k < 100; k++) {
+                    assertEquals("" + k, map.remove(k));
+                }
+
+                assertTrue(map.isEmpty());
+                assertEquals(0, map.size());
+                assertEquals("{}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemovedAndAddedAgain() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(1, "a");
+                map.remove(1);
+                map.put(1, "b");
+
+                assertEquals("b", map.get(1));
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenNullKey_thenNullPointerException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    map.remove(null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenClear() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 0; k < 100; k++) {
+                    map.put(k, "" + k);
+                }
+
+                map.clear();
+
+                assertEquals(0, map.size());
+                assertNull(map.get(10));
+                assertEquals("{}", map.toString());
+
+                map.put(5, "5");
+                assertEquals("{5=5}", map.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoveAndConcurrentInsertBehindRemovedNode_thenConflict() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.put(10, "10");
+                map.put(20, "20");
+            }
+        });
+
+        GammaTxn removeTx = newTxn();
+        GammaTxn insertTx = newTxn();
+        map.remove(removeTx, 10);
+        map.put(insertTx, 15, "15");
+        removeTx.commit();
+
+        try {
+            insertTx.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        GammaTxn tx = newTxn();
+        assertEquals("{20=20}", map.toString(tx));
+        assertEquals(1, map.size(tx));
+        tx.abort();
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
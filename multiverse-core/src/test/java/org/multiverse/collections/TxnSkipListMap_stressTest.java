@@ -0,0 +1,17 @@
+package org.multiverse.collections;
+
+import org.junit.Test;
+import org.multiverse.api.collections.TxnMap;
+
+public class TxnSkipListMap_stressTest extends TxnMapStress_AbstractTest {
+
+    @Test
+    public void test() {
+        run(4, 2000, 20000);
+    }
+
+    @Override
+    protected TxnMap<Integer, Integer> newMap() {
+        return new TxnSkipListMap<Integer, Integer>(stm);
+    }
+}
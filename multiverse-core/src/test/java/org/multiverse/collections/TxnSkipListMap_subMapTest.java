@@ -0,0 +1,168 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnNavigableMap;
+import org.multiverse.stms.gamma.GammaStm;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListMap_subMapTest {
+
+    private GammaStm stm;
+    private TxnSkipListMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        map = new TxnSkipListMap<Integer, String>(stm);
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                for (int k = 1; k <= 9; k++) {
+                    map.put(k, "" + k);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void subMap() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnNavigableMap<Integer, String> sub = map.subMap(3, 6);
+
+                assertEquals("{3=3, 4=4, 5=5}", sub.toString());
+                assertEquals(3, sub.size());
+                assertEquals(Integer.valueOf(3), sub.firstKey());
+                assertEquals(Integer.valueOf(5), sub.lastKey());
+                assertTrue(sub.containsKey(4));
+                assertFalse(sub.containsKey(6));
+                assertNull(sub.get(2));
+            }
+        });
+    }
+
+    @Test
+    public void subMap_whenExclusiveAndInclusiveBounds() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertEquals("{4=4, 5=5, 6=6}", map.subMap(3, false, 6, true).toString());
+                assertEquals("{1=1, 2=2}", map.headMap(3).toString());
+                assertEquals("{1=1, 2=2, 3=3}", map.headMap(3, true).toString());
+                assertEquals("{8=8, 9=9}", map.tailMap(8).toString());
+                assertEquals("{9=9}", map.tailMap(8, false).toString());
+                assertEquals("{}", map.subMap(20, 30).toString());
+            }
+        });
+    }
+
+    @Test
+    public void navigation() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnNavigableMap<Integer, String> sub = map.subMap(3, true, 6, true);
+
+                assertNull(sub.lowerKey(3));
+                assertEquals(Integer.valueOf(3), sub.floorKey(3));
+                assertEquals(Integer.valueOf(6), sub.floorKey(100));
+                assertEquals(Integer.valueOf(3), sub.ceilingKey(1));
+                assertNull(sub.ceilingKey(7));
+                assertNull(sub.higherKey(6));
+                assertEquals(Integer.valueOf(5), sub.higherKey(4));
+            }
+        });
+    }
+
+    @Test
+    public void whenUpdatedThroughView_thenVisibleInMap() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnNavigableMap<Integer, String> sub = map.subMap(3, 6);
+
+                sub.put(4, "four");
+                assertEquals("5", sub.remove(5));
+                assertNull(sub.remove(8));
+                assertEquals("3", sub.pollFirstEntry().getValue());
+
+                assertEquals("{4=four}", sub.toString());
+                assertEquals("{1=1, 2=2, 4=four, 6=6, 7=7, 8=8, 9=9}", map.toString());
+                assertEquals(7, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenPutOutOfRange_thenIllegalArgumentException() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnNavigableMap<Integer, String> sub = map.subMap(3, 6);
+
+                try {
+                    sub.put(6, "6");
+                    fail();
+                } catch (IllegalArgumentException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void clear() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                map.subMap(3, 6).clear();
+
+                assertEquals("{1=1, 2=2, 6=6, 7=7, 8=8, 9=9}", map.toString());
+                assertEquals(6, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void subMapOfSubMap() {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                TxnNavigableMap<Integer, String> sub = map.subMap(2, 8);
+
+                assertEquals("{3=3, 4=4}", sub.subMap(3, 5).toString());
+                assertEquals("{2=2, 3=3}", sub.headMap(4).toString());
+                assertEquals("{6=6, 7=7}", sub.tailMap(6).toString());
+
+                try {
+                    sub.subMap(1, 5);
+                    fail();
+                } catch (IllegalArgumentException expected) {
+                }
+
+                try {
+                    sub.tailMap(9);
+                    fail();
+                } catch (IllegalArgumentException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenInconsistentRange_thenIllegalArgumentException() {
+        try {
+            map.subMap(5, 3);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListPriorityQueue_conflictTest {
+
+    private GammaStm stm;
+    private TxnSkipListPriorityQueue<Integer> queue;
+    private BalancedLevels levels;
+
+    @Before
+    public void setUp() {
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+        levels = new BalancedLevels();
+        queue = new TxnSkipListPriorityQueue<Integer>(stm, null, levels);
+    }
+
+    @Test
+    public void whenOffersFarApart_thenNoConflict() {
+        fillExcept(5, 995);
+
+        levels.fixedLevel = 1;
+        GammaTxn tx1 = newTxn();
+        GammaTxn tx2 = newTxn();
+        queue.offer(tx1, 5);
+        queue.offer(tx2, 995);
+        tx1.commit();
+        tx2.commit();
+
+        assertQueueSize(1000);
+    }
+
+    @Test
+    public void whenOfferGetsTowerAboveAllOthers_thenConflict() {
+        fillExcept(5, 995);
+
+        //the tower of 5 becomes the first node on every level, so it writes the head refs the search of 995 reads.
+        levels.fixedLevel = 20;
+        GammaTxn tx1 = newTxn();
+        queue.offer(tx1, 5);
+        levels.fixedLevel = 1;
+        GammaTxn tx2 = newTxn();
+        queue.offer(tx2, 995);
+        tx1.commit();
+
+        try {
+            tx2.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertQueueSize(999);
+    }
+
+    @Test
+    public void whenOfferAndPollFarApart_thenNoConflict() {
+        fillExcept(5, 995);
+
+        levels.fixedLevel = 1;
+        GammaTxn producerTx = newTxn();
+        GammaTxn consumerTx = newTxn();
+        queue.offer(producerTx, 995);
+        assertEquals(Integer.valueOf(0), queue.poll(consumerTx));
+        producerTx.commit();
+        consumerTx.commit();
+
+        assertQueueSize(998);
+    }
+
+    @Test
+    public void whenTwoConsumers_thenConflict() {
+        offer(1);
+        offer(2);
+
+        GammaTxn consumerTx1 = newTxn();
+        GammaTxn consumerTx2 = newTxn();
+        assertEquals(Integer.valueOf(1), queue.poll(consumerTx1));
+        assertEquals(Integer.valueOf(1), queue.poll(consumerTx2));
+        consumerTx1.commit();
+
+        try {
+            consumerTx2.commit();
+            fail();
+        } catch (ReadWriteConflict expected) {
+        }
+
+        assertQueueSize(1);
+    }
+
+    /**
+     * Offers all items from 0 until 1000, except the given ones. The towers form a balanced skip list (see
+     * {@link BalancedLevels}), so which refs the search of a later offer reads and writes is known up front.
+     */
+    private void fillExcept(int... excluded) {
+        outer:
+        for (int k = 0; k < 1000; k++) {
+            for (int e : excluded) {
+                if (k == e) {
+                    continue outer;
+                }
+            }
+            offer(k);
+        }
+    }
+
+    private void offer(final int item) {
+        StmUtils.atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer(item);
+            }
+        });
+    }
+
+    private void assertQueueSize(int expectedSize) {
+        GammaTxn tx = newTxn();
+        assertEquals(expectedSize, queue.size(tx));
+        tx.abort();
+    }
+
+    /**
+     * Gives the k-th node a tower of 1 + the number of trailing zeros of k, so every second node reaches level 2,
+     * every fourth level 3, etc. If the fixedLevel is set, every node gets that height instead.
+     */
+    static class BalancedLevels implements TxnSkipListMap.LevelGenerator {
+        int count;
+        int fixedLevel;
+
+        @Override
+        public int nextLevel() {
+            if (fixedLevel > 0) {
+                return fixedLevel;
+            }
+
+            count++;
+            return 1 + Integer.numberOfTrailingZeros(count);
+        }
+    }
+
+    private GammaTxn newTxn() {
+        return stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory()
+                .newTxn();
+    }
+}
@@ -0,0 +1,115 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListPriorityQueue_offerTest {
+
+    private Stm stm;
+    private TxnSkipListPriorityQueue<Integer> queue;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        queue = new TxnSkipListPriorityQueue<Integer>(stm);
+    }
+
+    @Test
+    public void whenNullItem_thenNullPointerException() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    queue.offer(null);
+                    fail();
+                } catch (NullPointerException expected) {
+                }
+
+                assertTrue(queue.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenNotComparable_thenClassCastException() {
+        final TxnSkipListPriorityQueue<Object> queue = new TxnSkipListPriorityQueue<Object>(stm);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                try {
+                    queue.offer(new Object());
+                    fail();
+                } catch (ClassCastException expected) {
+                }
+
+                assertTrue(queue.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenOffered_thenOrdered() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertTrue(queue.offer(5));
+                assertTrue(queue.offer(1));
+                queue.add(3);
+                queue.put(4);
+                queue.offer(2);
+
+                assertEquals(5, queue.size());
+                assertEquals("[1, 2, 3, 4, 5]", queue.toString());
+                assertEquals(Integer.valueOf(1), queue.peek());
+                assertEquals(Integer.MAX_VALUE, queue.getCapacity());
+            }
+        });
+    }
+
+    @Test
+    public void whenDuplicates_thenAllKept() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer(2);
+                queue.offer(1);
+                queue.offer(2);
+                queue.offer(1);
+
+                assertEquals(4, queue.size());
+                assertEquals("[1, 1, 2, 2]", queue.toString());
+            }
+        });
+    }
+
+    @Test
+    public void whenComparator() {
+        final TxnSkipListPriorityQueue<Integer> queue
+                = new TxnSkipListPriorityQueue<Integer>(stm, Collections.<Integer>reverseOrder());
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer(1);
+                queue.offer(3);
+                queue.offer(2);
+
+                assertEquals("[3, 2, 1]", queue.toString());
+                assertEquals(Integer.valueOf(3), queue.poll());
+            }
+        });
+        assertNotNull(queue.comparator());
+    }
+}
@@ -0,0 +1,166 @@
+package org.multiverse.collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.StmUtils.atomic;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class TxnSkipListPriorityQueue_pollTest {
+
+    private Stm stm;
+    private TxnSkipListPriorityQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        stm = getGlobalStmInstance();
+        clearThreadLocalTxn();
+        queue = new TxnSkipListPriorityQueue<String>(stm);
+    }
+
+    @Test
+    public void whenEmpty() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                assertNull(queue.poll());
+                assertNull(queue.peek());
+
+                try {
+                    queue.remove();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+
+                try {
+                    queue.element();
+                    fail();
+                } catch (NoSuchElementException expected) {
+                }
+            }
+        });
+    }
+
+    @Test
+    public void whenPolled_thenLeastFirst() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("c");
+                queue.offer("a");
+                queue.offer("b");
+
+                assertEquals("a", queue.poll());
+                assertEquals("b", queue.element());
+                assertEquals("b", queue.remove());
+                assertEquals("c", queue.poll());
+                assertNull(queue.poll());
+                assertTrue(queue.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    public void whenEqualPriority_thenFifo() {
+        final TxnSkipListPriorityQueue<String> queue = new TxnSkipListPriorityQueue<String>(stm, new Comparator<String>() {
+            @Override
+            public int compare(String s1, String s2) {
+                return s1.charAt(0) - s2.charAt(0);
+            }
+        });
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("b1");
+                queue.offer("a1");
+                queue.offer("b2");
+                queue.offer("a2");
+                queue.offer("b3");
+
+                assertEquals("a1", queue.poll());
+                assertEquals("a2", queue.poll());
+                assertEquals("b1", queue.poll());
+                assertEquals("b2", queue.poll());
+                assertEquals("b3", queue.poll());
+            }
+        });
+    }
+
+    @Test
+    public void whenRemoveAndContains() {
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("c");
+                queue.offer("a");
+                queue.offer("b");
+
+                assertTrue(queue.contains("b"));
+                assertFalse(queue.contains("d"));
+                assertFalse(queue.remove("d"));
+                assertTrue(queue.remove("b"));
+                assertFalse(queue.contains("b"));
+                assertEquals("[a, c]", queue.toString());
+
+                TxnIterator<String> it = queue.iterator(tx);
+                assertEquals("a", it.next(tx));
+                it.remove(tx);
+                assertEquals("c", it.next(tx));
+                assertFalse(it.hasNext(tx));
+                assertEquals("[c]", queue.toString());
+
+                queue.clear();
+                assertEquals(0, queue.size());
+            }
+        });
+    }
+
+    @Test
+    public void whenTakeOnEmpty_thenBlocksUntilOffered() {
+        TakeThread t = new TakeThread();
+        t.start();
+
+        sleepMs(200);
+        assertAlive(t);
+
+        atomic(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                queue.offer("a");
+            }
+        });
+
+        joinAll(t);
+        assertEquals("a", t.taken);
+    }
+
+    class TakeThread extends TestThread {
+        private volatile String taken;
+
+        TakeThread() {
+            super("TakeThread");
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            atomic(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    taken = queue.take(tx);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.multiverse.collections;
+
+import org.junit.Test;
+import org.multiverse.api.collections.TxnQueue;
+
+public class TxnSkipListPriorityQueue_stressTest extends TxnQueueProducerConsumer_AbstractTest {
+
+    @Test
+    public void test() {
+        run(2, 2, 5000);
+    }
+
+    @Override
+    protected TxnQueue<Long> newQueue() {
+        return new TxnSkipListPriorityQueue<Long>(stm);
+    }
+}
@@ -0,0 +1,140 @@
+package org.multiverse.commitbarriers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnInteger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.multiverse.TestUtils.joinAll;
+import static org.multiverse.TestUtils.startAll;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class CountDownCommitBarrier_manyPartiesTest {
+
+    private static final int PARTY_COUNT = 256;
+
+    private GammaStm stm;
+    private AtomicInteger onCommitCount;
+    private AtomicInteger onAbortCount;
+
+    @Before
+    public void setUp() {
+        clearThreadLocalTxn();
+        stm = new GammaStm();
+        onCommitCount = new AtomicInteger();
+        onAbortCount = new AtomicInteger();
+    }
+
+    @Test
+    public void whenUnfair() {
+        test(false);
+    }
+
+    @Test
+    public void whenFair() {
+        test(true);
+    }
+
+    public void test(boolean fair) {
+        CountDownCommitBarrier barrier = new CountDownCommitBarrier(PARTY_COUNT, fair);
+        registerTasks(barrier);
+
+        GammaTxnInteger[] refs = new GammaTxnInteger[PARTY_COUNT];
+        JoinThread[] threads = new JoinThread[PARTY_COUNT];
+        for (int k = 0; k < PARTY_COUNT; k++) {
+            refs[k] = new GammaTxnInteger(stm);
+            threads[k] = new JoinThread(k, barrier, refs[k]);
+        }
+
+        startAll(threads);
+        joinAll(threads);
+
+        assertTrue(barrier.isCommitted());
+        assertEquals(0, barrier.getNumberWaiting());
+        assertEquals(1, onCommitCount.get());
+        assertEquals(0, onAbortCount.get());
+        for (GammaTxnInteger ref : refs) {
+            assertEquals(1, ref.atomicGet());
+        }
+    }
+
+    @Test
+    public void whenConcurrentCountDown() {
+        CountDownCommitBarrier barrier = new CountDownCommitBarrier(PARTY_COUNT);
+        registerTasks(barrier);
+
+        CountDownThread[] threads = new CountDownThread[PARTY_COUNT];
+        for (int k = 0; k < PARTY_COUNT; k++) {
+            threads[k] = new CountDownThread(k, barrier);
+        }
+
+        startAll(threads);
+        joinAll(threads);
+
+        assertTrue(barrier.isCommitted());
+        assertEquals(1, onCommitCount.get());
+        assertEquals(0, onAbortCount.get());
+    }
+
+    private void registerTasks(CountDownCommitBarrier barrier) {
+        barrier.registerOnCommitTask(new Runnable() {
+            @Override
+            public void run() {
+                onCommitCount.incrementAndGet();
+            }
+        });
+        barrier.registerOnAbortTask(new Runnable() {
+            @Override
+            public void run() {
+                onAbortCount.incrementAndGet();
+            }
+        });
+    }
+
+    class JoinThread extends TestThread {
+        private final CountDownCommitBarrier barrier;
+        private final GammaTxnInteger ref;
+
+        JoinThread(int id, CountDownCommitBarrier barrier, GammaTxnInteger ref) {
+            super("JoinThread-" + id);
+            this.barrier = barrier;
+            this.ref = ref;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            stm.newTxnFactoryBuilder()
+                    .setSpeculative(false)
+                    .newTxnExecutor()
+                    .execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) throws Exception {
+                            ref.incrementAndGet(tx, 1);
+                            barrier.joinCommit(tx);
+                        }
+                    });
+        }
+    }
+
+    class CountDownThread extends TestThread {
+        private final CountDownCommitBarrier barrier;
+
+        CountDownThread(int id, CountDownCommitBarrier barrier) {
+            super("CountDownThread-" + id);
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void doRun() throws Exception {
+            barrier.countDown();
+            barrier.awaitOpen();
+        }
+    }
+}
@@ -131,6 +131,51 @@ public class VetoCommitBarrier_tryAwaitOpenTest {
 
     }
 
+    @Test
+    public void whenTimedOutManyTimes_thenWaitersRemoved() throws InterruptedException {
+        barrier = new VetoCommitBarrier();
+
+        for (int k = 0; k < 10000; k++) {
+            assertFalse(barrier.tryAwaitOpen(1, TimeUnit.MICROSECONDS));
+            assertTrue(barrier.waiterCount() <= 1);
+        }
+
+        assertEquals(0, barrier.waiterCount());
+        assertTrue(barrier.isClosed());
+    }
+
+    @Test
+    public void whenManyThreadsInterruptedWhileWaiting_thenWaitersRemoved() throws InterruptedException {
+        barrier = new VetoCommitBarrier();
+
+        TestThread[] threads = new TestThread[10];
+        for (int k = 0; k < threads.length; k++) {
+            threads[k] = new TestThread() {
+                @Override
+                public void doRun() throws Exception {
+                    barrier.tryAwaitOpen(1, TimeUnit.DAYS);
+                }
+            };
+            threads[k].setPrintStackTrace(false);
+        }
+
+        startAll(threads);
+        sleepMs(500);
+        assertEquals(threads.length, barrier.waiterCount());
+
+        for (TestThread thread : threads) {
+            thread.interrupt();
+        }
+
+        for (TestThread thread : threads) {
+            thread.join();
+            thread.assertFailedWithException(InterruptedException.class);
+        }
+
+        assertEquals(0, barrier.waiterCount());
+        assertTrue(barrier.isClosed());
+    }
+
     @Test
     public void whenAborted() throws InterruptedException {
         barrier = new VetoCommitBarrier();
@@ -0,0 +1,151 @@
+package org.multiverse.stms.gamma;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptivePoolTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenInitialCapacityLargerThanMax_thenIllegalArgumentException() {
+        new AdaptivePool<String>("test", 10, 5);
+    }
+
+    @Test
+    public void whenEmpty_thenMiss() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 4, 16);
+
+        assertNull(pool.take());
+
+        PoolStatistics statistics = pool.getStatistics();
+        assertEquals("test", statistics.getName());
+        assertEquals(0, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+    }
+
+    @Test
+    public void whenPutAndTake_thenHit() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 4, 16);
+
+        pool.put("a");
+        pool.put("b");
+
+        assertEquals("b", pool.take());
+        assertEquals("a", pool.take());
+        assertEquals(2, pool.getStatistics().getHits());
+        assertEquals(0, pool.getStatistics().getMisses());
+    }
+
+    @Test
+    public void whenFullWithoutMisses_thenDropped() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 16);
+
+        assertTrue(pool.put("a"));
+        assertTrue(pool.put("b"));
+        assertFalse(pool.put("c"));
+
+        assertEquals(2, pool.capacity());
+        assertEquals(1, pool.getStatistics().getDrops());
+    }
+
+    @Test
+    public void whenFullAfterMisses_thenGrows() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 16);
+
+        for (int k = 0; k < 10; k++) {
+            assertNull(pool.take());
+        }
+
+        for (int k = 0; k < 10; k++) {
+            pool.put("item" + k);
+        }
+
+        assertEquals(4, pool.size());
+        assertEquals(4, pool.capacity());
+        assertEquals(6, pool.getStatistics().getDrops());
+    }
+
+    @Test
+    public void whenRepeatedlyTooSmall_thenGrowsUntilLargeEnough() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 64);
+
+        for (int round = 0; round < 10; round++) {
+            burst(pool, 20);
+        }
+
+        assertEquals(20, pool.size());
+        assertEquals(32, pool.capacity());
+    }
+
+    @Test
+    public void whenMaxCapacityReached_thenDropped() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 4);
+
+        for (int round = 0; round < 10; round++) {
+            burst(pool, 10);
+        }
+
+        assertEquals(4, pool.size());
+        assertEquals(4, pool.capacity());
+    }
+
+    @Test
+    public void whenTrimmed_thenUnusedObjectsReleased() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 64);
+
+        for (int round = 0; round < 10; round++) {
+            burst(pool, 32);
+        }
+        pool.trim();
+        assertEquals(32, pool.size());
+
+        //after the burst only a single object is used.
+        for (int k = 0; k < 100; k++) {
+            pool.put(pool.take());
+        }
+        pool.trim();
+
+        assertEquals(1, pool.size());
+        assertEquals(2, pool.capacity());
+    }
+
+    @Test
+    public void whenTrimmedWhileInUse_thenCapacityForPeakKept() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 64);
+
+        for (int round = 0; round < 10; round++) {
+            burst(pool, 20);
+        }
+
+        //half of the objects are in use when the pool is trimmed.
+        for (int k = 0; k < 10; k++) {
+            pool.take();
+        }
+        pool.trim();
+
+        assertEquals(10, pool.size());
+        assertEquals(32, pool.capacity());
+    }
+
+    @Test
+    public void whenCleared() {
+        AdaptivePool<String> pool = new AdaptivePool<String>("test", 2, 64);
+        for (int round = 0; round < 10; round++) {
+            burst(pool, 10);
+        }
+
+        pool.clear();
+
+        assertEquals(0, pool.size());
+        assertEquals(2, pool.capacity());
+    }
+
+    private static void burst(AdaptivePool<String> pool, int count) {
+        for (int k = 0; k < count; k++) {
+            pool.take();
+        }
+        for (int k = 0; k < count; k++) {
+            pool.put("item" + k);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.multiverse.stms.gamma;
+
+import org.junit.Test;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class GammaObjectIdGeneratorTest {
+
+    @Test
+    public void whenManyIdsCreated_thenAllDifferent() {
+        Set<Integer> ids = new HashSet<Integer>();
+        int count = GammaObjectIdGenerator.BLOCK_SIZE * 10;
+        for (int k = 0; k < count; k++) {
+            ids.add(GammaObjectIdGenerator.newId());
+        }
+
+        assertEquals(count, ids.size());
+    }
+
+    @Test
+    public void whenCreatedByDifferentThreads_thenAllDifferent() throws InterruptedException {
+        final Set<Integer> ids = Collections.synchronizedSet(new HashSet<Integer>());
+        final int countPerThread = GammaObjectIdGenerator.BLOCK_SIZE * 3;
+        Thread[] threads = new Thread[4];
+        for (int k = 0; k < threads.length; k++) {
+            threads[k] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < countPerThread; i++) {
+                        ids.add(GammaObjectIdGenerator.newId());
+                    }
+                }
+            };
+            threads[k].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threads.length * countPerThread, ids.size());
+    }
+
+    @Test
+    public void whenConsecutiveSequences_thenLowBitsDifferent() {
+        int tableSize = 1024;
+        boolean[] occupied = new boolean[tableSize];
+        for (int k = 0; k < tableSize; k++) {
+            int index = GammaObjectIdGenerator.scramble(5000 + k) & (tableSize - 1);
+            assertFalse(occupied[index]);
+            occupied[index] = true;
+        }
+    }
+
+    @Test
+    public void whenRefCreated_thenIdentityAssigned() {
+        GammaStm stm = new GammaStm();
+        GammaTxnLong ref1 = new GammaTxnLong(stm);
+        GammaTxnLong ref2 = new GammaTxnLong(stm);
+
+        assertEquals(ref1.identityHashCode(), ref1.identityHashCode());
+        assertTrue(ref1.identityHashCode() != ref2.identityHashCode());
+    }
+}
@@ -0,0 +1,375 @@
+package org.multiverse.stms.gamma;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.AllocationMeter;
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnLongCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.functions.Functions;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
+import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.fat.FatMonoGammaTxn;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.lean.LeanFixedLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.lean.LeanMonoGammaTxn;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+/**
+ * Verifies that transactions don't create garbage once they are in a steady state: the transaction pool is filled, the
+ * speculative configuration has learned the right transaction type and the code is compiled.
+ *
+ * @author Peter Veentjer.
+ */
+public class GammaStm_allocationTest {
+
+    private static final int WARMUP_ITERATIONS = 50 * 1000;
+    private static final int ITERATIONS = 10 * 1000;
+
+    private GammaStm stm;
+
+    @Before
+    public void setUp() {
+        assumeTrue(AllocationMeter.isSupported());
+        stm = (GammaStm) getGlobalStmInstance();
+        clearThreadLocalTxn();
+    }
+
+    // ================ transactions ================
+
+    @Test
+    public void leanMonoTxn() {
+        final GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, "a");
+        final LeanMonoGammaTxn tx = new LeanMonoGammaTxn(new GammaTxnConfig(stm));
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tx.hardReset();
+                ref.set(tx, ref.get(tx) == "a" ? "b" : "a");
+                tx.commit();
+            }
+        });
+    }
+
+    @Test
+    public void leanFixedLengthTxn() {
+        final GammaTxnRef<String> ref1 = new GammaTxnRef<String>(stm, "a");
+        final GammaTxnRef<String> ref2 = new GammaTxnRef<String>(stm, "a");
+        final LeanFixedLengthGammaTxn tx = new LeanFixedLengthGammaTxn(new GammaTxnConfig(stm, 10));
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tx.hardReset();
+                ref1.set(tx, ref2.get(tx) == "a" ? "b" : "a");
+                ref2.set(tx, ref1.get(tx));
+                tx.commit();
+            }
+        });
+    }
+
+    @Test
+    public void fatMonoTxn() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        final FatMonoGammaTxn tx = new FatMonoGammaTxn(new GammaTxnConfig(stm));
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tx.hardReset();
+                ref.increment(tx);
+                tx.commit();
+            }
+        });
+    }
+
+    @Test
+    public void fatFixedLengthTxn() {
+        final GammaTxnLong ref1 = new GammaTxnLong(stm);
+        final GammaTxnLong ref2 = new GammaTxnLong(stm);
+        final FatFixedLengthGammaTxn tx = new FatFixedLengthGammaTxn(new GammaTxnConfig(stm, 10));
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tx.hardReset();
+                ref1.increment(tx);
+                ref2.set(tx, ref1.get(tx));
+                tx.commit();
+            }
+        });
+    }
+
+    @Test
+    public void fatVariableLengthTxn() {
+        final GammaTxnLong[] refs = newLongs(50);
+        final FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(new GammaTxnConfig(stm));
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tx.hardReset();
+                for (GammaTxnLong ref : refs) {
+                    ref.increment(tx);
+                }
+                tx.commit();
+            }
+        });
+    }
+
+    @Test
+    public void fatVariableLengthTxn_whenCommute() {
+        final GammaTxnLong[] refs = newLongs(50);
+        final FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(new GammaTxnConfig(stm));
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tx.hardReset();
+                for (GammaTxnLong ref : refs) {
+                    ref.commute(tx, Functions.incLongFunction());
+                }
+                tx.commit();
+            }
+        });
+    }
+
+    // ================ executors ================
+
+    @Test
+    public void leanExecutor_whenMono() {
+        final GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, "a");
+        assertExecutorNoAllocation(LeanMonoGammaTxn.class, new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref.set(tx, ref.get(tx) == "a" ? "b" : "a");
+            }
+        });
+    }
+
+    @Test
+    public void leanExecutor_whenFixedLength() {
+        final GammaTxnRef<String> ref1 = new GammaTxnRef<String>(stm, "a");
+        final GammaTxnRef<String> ref2 = new GammaTxnRef<String>(stm, "a");
+        assertExecutorNoAllocation(LeanFixedLengthGammaTxn.class, new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref1.set(tx, ref2.get(tx) == "a" ? "b" : "a");
+                ref2.set(tx, ref1.get(tx));
+            }
+        });
+    }
+
+    @Test
+    public void fatExecutor_whenMono() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        assertExecutorNoAllocation(FatMonoGammaTxn.class, new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref.increment(tx);
+            }
+        });
+    }
+
+    @Test
+    public void fatExecutor_whenFixedLength() {
+        final GammaTxnLong ref1 = new GammaTxnLong(stm);
+        final GammaTxnLong ref2 = new GammaTxnLong(stm);
+        assertExecutorNoAllocation(FatFixedLengthGammaTxn.class, new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref1.increment(tx);
+                ref2.commute(tx, Functions.incLongFunction());
+            }
+        });
+    }
+
+    @Test
+    public void fatExecutor_whenVariableLength() {
+        final GammaTxnLong[] refs = newLongs(50);
+        assertExecutorNoAllocation(FatVariableLengthGammaTxn.class, new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                for (GammaTxnLong ref : refs) {
+                    ref.increment(tx);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void executor_whenStatisticsEnabled() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        TxnExecutor executor = stm.newTxnFactoryBuilder()
+                .setStatisticsEnabled(true)
+                .newTxnExecutor();
+        assertExecutorNoAllocation(executor, FatMonoGammaTxn.class, new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref.increment(tx);
+            }
+        });
+    }
+
+    @Test
+    public void executor_whenLongCallable() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        final TxnExecutor executor = stm.newTxnFactoryBuilder().newTxnExecutor();
+        final TxnLongCallable callable = new TxnLongCallable() {
+            @Override
+            public long call(Txn tx) {
+                return ref.incrementAndGet(tx, 1);
+            }
+        };
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(callable);
+            }
+        });
+    }
+
+    // ================ StmUtils ================
+
+    @Test
+    public void stmUtils_atomicTxnVoidCallable() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        final TxnVoidCallable callable = new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref.increment(tx);
+            }
+        };
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                StmUtils.atomic(callable);
+            }
+        });
+    }
+
+    @Test
+    public void stmUtils_atomicRunnable() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        final Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                ref.increment();
+            }
+        };
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                StmUtils.atomic(runnable);
+            }
+        });
+    }
+
+    @Test
+    public void stmUtils_atomicCallable() {
+        final GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, "a");
+        final Callable<String> callable = new Callable<String>() {
+            @Override
+            public String call() {
+                return ref.get();
+            }
+        };
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                StmUtils.atomic(callable);
+            }
+        });
+    }
+
+    // ================ atomic operations ================
+
+    @Test
+    public void atomicOperations_onLong() {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                ref.atomicSet(ref.atomicGet() + 1);
+                ref.atomicIncrementAndGet(1);
+                ref.atomicGetAndIncrement(1);
+                ref.atomicGetAndSet(ref.atomicWeakGet());
+                ref.atomicCompareAndSet(ref.atomicGet(), 10);
+                ref.atomicAlterAndGet(Functions.incLongFunction());
+                ref.atomicGetAndAlter(Functions.decLongFunction());
+            }
+        });
+    }
+
+    @Test
+    public void atomicOperations_onRef() {
+        final GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, "a");
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                ref.atomicSet(ref.atomicGet() == "a" ? "b" : "a");
+                ref.atomicGetAndSet(ref.atomicWeakGet());
+                ref.atomicCompareAndSet(ref.atomicGet(), "a");
+                ref.atomicIsNull();
+            }
+        });
+    }
+
+    // ================ utilities ================
+
+    private GammaTxnLong[] newLongs(int count) {
+        GammaTxnLong[] refs = new GammaTxnLong[count];
+        for (int k = 0; k < count; k++) {
+            refs[k] = new GammaTxnLong(stm);
+        }
+        return refs;
+    }
+
+    private void assertExecutorNoAllocation(Class<? extends GammaTxn> expectedTxnClass, TxnVoidCallable callable) {
+        //the dirty check forces fat transactions, so it is disabled to allow lean transactions.
+        boolean lean = expectedTxnClass == LeanMonoGammaTxn.class || expectedTxnClass == LeanFixedLengthGammaTxn.class;
+        assertExecutorNoAllocation(stm.newTxnFactoryBuilder().setDirtyCheckEnabled(!lean).newTxnExecutor(),
+                expectedTxnClass, callable);
+    }
+
+    private void assertExecutorNoAllocation(final TxnExecutor executor, Class<? extends GammaTxn> expectedTxnClass,
+                                            final TxnVoidCallable callable) {
+        final Class[] foundTxnClass = new Class[1];
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                callable.call(tx);
+                foundTxnClass[0] = tx.getClass();
+            }
+        });
+
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                executor.execute(callable);
+            }
+        });
+
+        //make sure that the speculative configuration really settled on the expected transaction type.
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                foundTxnClass[0] = tx.getClass();
+            }
+        });
+        assertEquals(expectedTxnClass, foundTxnClass[0]);
+    }
+
+    private static void assertNoAllocation(Runnable runnable) {
+        double bytesPerOperation = AllocationMeter.bytesPerOperation(runnable, WARMUP_ITERATIONS, ITERATIONS);
+        assertTrue("expected no allocations, but found " + bytesPerOperation + " bytes per operation",
+                bytesPerOperation < 1);
+    }
+}
@@ -6,7 +6,7 @@ import org.multiverse.TestThread;
 import org.multiverse.api.Txn;
 import org.multiverse.api.callables.TxnVoidCallable;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.assertEquals;
@@ -38,7 +38,7 @@ public class GammaTxnExecutor_blockingTest {
             @Override
             public void call(Txn tx) throws Exception {
                 GammaTxn btx = (GammaTxn) tx;
-                Tranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
+                LongTranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
                 write.long_value = 1;
             }
         });
@@ -60,7 +60,7 @@ public class GammaTxnExecutor_blockingTest {
                 @Override
                 public void call(Txn tx) throws Exception {
                     GammaTxn btx = (GammaTxn) tx;
-                    Tranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
+                    LongTranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
                     if (write.long_value == 0) {
                         retry();
                     }
@@ -8,7 +8,7 @@ import org.multiverse.api.Txn;
 import org.multiverse.api.callables.TxnVoidCallable;
 import org.multiverse.api.exceptions.RetryInterruptedException;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import java.util.concurrent.TimeUnit;
@@ -92,7 +92,7 @@ public class GammaTxnExecutor_interruptibleTest implements GammaConstants {
                 @Override
                 public void call(Txn tx) throws Exception {
                     GammaTxn btx = (GammaTxn) tx;
-                    Tranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
+                    LongTranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
                     if (write.long_value == 0) {
                         retry();
                     }
@@ -0,0 +1,162 @@
+package org.multiverse.stms.gamma;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.TestThread;
+import org.multiverse.api.PropagationLevel;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.multiverse.TestUtils.*;
+import static org.multiverse.api.StmUtils.retry;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class GammaTxnExecutor_statisticsTest {
+
+    private GammaStm stm;
+
+    @Before
+    public void setUp() {
+        stm = new GammaStm();
+        clearThreadLocalTxn();
+    }
+
+    @Test
+    public void whenNotEnabled_thenNoStatistics() {
+        GammaTxnExecutor executor = stm.newTxnFactoryBuilder().newTxnExecutor();
+
+        assertNull(executor.getStatistics());
+    }
+
+    @Test
+    public void whenLean_thenCommitsRecorded() {
+        GammaTxnExecutor executor = newExecutor(PropagationLevel.Requires);
+
+        assertTrue(executor instanceof LeanGammaTxnExecutor);
+        whenCommitsRecorded(executor);
+    }
+
+    @Test
+    public void whenFat_thenCommitsRecorded() {
+        GammaTxnExecutor executor = newExecutor(PropagationLevel.RequiresNew);
+
+        assertTrue(executor instanceof FatGammaTxnExecutor);
+        whenCommitsRecorded(executor);
+    }
+
+    private void whenCommitsRecorded(GammaTxnExecutor executor) {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+
+        for (int k = 0; k < 10; k++) {
+            executor.execute(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) throws Exception {
+                    ref.increment(tx);
+                }
+            });
+        }
+
+        GammaTxnExecutorStatistics.Snapshot snapshot = executor.getStatistics().snapshot();
+        assertEquals("statistics", snapshot.getFamilyName());
+        assertEquals(10, snapshot.getTotal().getCount());
+        assertEquals(10, snapshot.getCommittedAttempt().getCount());
+        assertEquals(10, snapshot.getCommit().getCount());
+        assertEquals(0, snapshot.getAwaitUpdate().getCount());
+        assertTrue(snapshot.getTotal().getSum() >= snapshot.getCommittedAttempt().getSum());
+        assertTrue(snapshot.getCommittedAttempt().getSum() >= snapshot.getCommit().getSum());
+    }
+
+    @Test
+    public void whenRetry_thenAwaitUpdateRecorded() {
+        final GammaTxnExecutor executor = newExecutor(PropagationLevel.Requires);
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+
+        TestThread t = new TestThread() {
+            @Override
+            public void doRun() throws Exception {
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) throws Exception {
+                        if (ref.get(tx) == 0) {
+                            retry();
+                        }
+                    }
+                });
+            }
+        };
+        t.start();
+
+        sleepMs(500);
+        assertAlive(t);
+        ref.atomicSet(1);
+        joinAll(t);
+
+        GammaTxnExecutorStatistics.Snapshot snapshot = executor.getStatistics().snapshot();
+        assertEquals(1, snapshot.getTotal().getCount());
+        assertTrue(snapshot.getAwaitUpdate().getCount() >= 1);
+        assertTrue(snapshot.getTotal().getMax() >= snapshot.getAwaitUpdate().getMax() / 2);
+    }
+
+    @Test
+    public void snapshotAndReset() {
+        GammaTxnExecutor executor = newExecutor(PropagationLevel.Requires);
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) throws Exception {
+                ref.increment(tx);
+            }
+        });
+
+        GammaTxnExecutorStatistics statistics = executor.getStatistics();
+        assertEquals(1, statistics.snapshotAndReset().getTotal().getCount());
+        assertEquals(0, statistics.snapshot().getTotal().getCount());
+    }
+
+    @Test
+    public void whenThreadsDie_thenRecordersFoldedIntoAggregate() {
+        final GammaTxnExecutor executor = newExecutor(PropagationLevel.Requires);
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+
+        for (int round = 0; round < 10; round++) {
+            TestThread[] threads = new TestThread[5];
+            for (int k = 0; k < threads.length; k++) {
+                threads[k] = new TestThread() {
+                    @Override
+                    public void doRun() throws Exception {
+                        executor.execute(new TxnVoidCallable() {
+                            @Override
+                            public void call(Txn tx) throws Exception {
+                                ref.increment(tx);
+                            }
+                        });
+                    }
+                };
+            }
+            startAll(threads);
+            joinAll(threads);
+        }
+
+        GammaTxnExecutorStatistics statistics = executor.getStatistics();
+        assertEquals(0, statistics.recorderCount());
+        assertEquals(50, statistics.snapshot().getTotal().getCount());
+        assertEquals(50, statistics.snapshotAndReset().getCommit().getCount());
+        assertEquals(0, statistics.snapshot().getTotal().getCount());
+    }
+
+    private GammaTxnExecutor newExecutor(PropagationLevel propagationLevel) {
+        GammaTxnExecutor executor = stm.newTxnFactoryBuilder()
+                .setFamilyName("statistics")
+                .setPropagationLevel(propagationLevel)
+                .setStatisticsEnabled(true)
+                .newTxnExecutor();
+        assertNotNull(executor.getStatistics());
+        return executor;
+    }
+}
@@ -8,7 +8,7 @@ import org.multiverse.api.TxnExecutor;
 import org.multiverse.api.callables.TxnVoidCallable;
 import org.multiverse.api.exceptions.RetryTimeoutException;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import java.util.concurrent.TimeUnit;
@@ -111,7 +111,7 @@ public class GammaTxnExecutor_timeoutTest {
                 public void call(Txn tx) throws Exception {
                     GammaTxn btx = (GammaTxn) tx;
 
-                    Tranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
+                    LongTranlocal write = ref.openForWrite(btx, LOCKMODE_NONE);
                     if (write.long_value == 0) {
                         retry();
                     }
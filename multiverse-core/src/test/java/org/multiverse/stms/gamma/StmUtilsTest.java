@@ -4,8 +4,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.multiverse.api.Txn;
 import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.api.exceptions.TxnMandatoryException;
 
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 import static org.multiverse.api.StmUtils.*;
@@ -178,4 +182,41 @@ public class StmUtilsTest {
 
         verify(task).run();
     }
+
+    @Test
+    public void whenAtomicRunnableNestedAndOuterRetried_thenOuterRunnableExecutedAgain() {
+        final Runnable inner = mock(Runnable.class);
+        final int[] outerAttempts = new int[1];
+
+        atomic(new Runnable() {
+            @Override
+            public void run() {
+                outerAttempts[0]++;
+                atomic(inner);
+                if (outerAttempts[0] == 1) {
+                    throw ReadWriteConflict.INSTANCE;
+                }
+            }
+        });
+
+        assertEquals(2, outerAttempts[0]);
+        verify(inner, times(2)).run();
+    }
+
+    @Test
+    public void whenAtomicCallableNested() {
+        String result = atomic(new Callable<String>() {
+            @Override
+            public String call() {
+                return "outer" + atomic(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return "inner";
+                    }
+                });
+            }
+        });
+
+        assertEquals("outerinner", result);
+    }
 }
@@ -8,7 +8,7 @@ import org.multiverse.api.TxnExecutor;
 import org.multiverse.api.callables.TxnVoidCallable;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.assertEquals;
@@ -103,7 +103,7 @@ public abstract class MoneyTransfer_AbstractTest {
 
                     sleepRandomMs(10);
 
-                    Tranlocal toTranlocal = from.openForWrite(btx, LOCKMODE_NONE);
+                    LongTranlocal toTranlocal = from.openForWrite(btx, LOCKMODE_NONE);
                     if (toTranlocal.long_value < 0) {
                         throw new NotEnoughMoneyException();
                     }
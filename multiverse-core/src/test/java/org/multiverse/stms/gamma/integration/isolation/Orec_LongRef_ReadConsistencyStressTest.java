@@ -12,6 +12,7 @@ import org.multiverse.stms.gamma.GammaTxnExecutor;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxn;
@@ -133,7 +134,7 @@ public class Orec_LongRef_ReadConsistencyStressTest implements GammaConstants {
 
             tranlocals = new Tranlocal[refs.length];
             for (int k = 0; k < tranlocals.length; k++) {
-                Tranlocal tranlocal = new Tranlocal();
+                LongTranlocal tranlocal = new LongTranlocal();
                 tranlocal.owner = refs[k];
                 tranlocals[k] = tranlocal;
             }
@@ -342,7 +343,7 @@ public class Orec_LongRef_ReadConsistencyStressTest implements GammaConstants {
                         if (write) {
                             refs[k].openForWrite(tx, LOCKMODE_NONE);
                         } else {
-                            Tranlocal tranlocal = refs[k].openForRead(tx, LOCKMODE_NONE);
+                            LongTranlocal tranlocal = refs[k].openForRead(tx, LOCKMODE_NONE);
                             tranlocal.long_value = tranlocal.version + 1;
                         }
                         if (k == refs.length - 1) {
@@ -408,8 +409,8 @@ public class Orec_LongRef_ReadConsistencyStressTest implements GammaConstants {
                 try {
                     for (int k = 0; k < refs.length; k++) {
                         if (write) {
-                            Tranlocal tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
-                            tranlocal.ref_value = getName();
+                            LongTranlocal tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
+                            tranlocal.long_value++;
                         } else {
                             refs[k].openForRead(tx, LOCKMODE_NONE);
                         }
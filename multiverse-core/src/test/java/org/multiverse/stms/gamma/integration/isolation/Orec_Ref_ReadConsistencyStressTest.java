@@ -11,6 +11,7 @@ import org.multiverse.stms.gamma.*;
 import org.multiverse.stms.gamma.GammaTxnExecutor;
 import org.multiverse.stms.gamma.transactionalobjects.BaseGammaTxnRef;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -26,7 +27,7 @@ import static org.multiverse.TestUtils.*;
 public class Orec_Ref_ReadConsistencyStressTest implements GammaConstants {
 
     private GammaStm stm;
-    private GammaTxnRef[] refs;
+    private GammaTxnRef<Object>[] refs;
     private volatile boolean stop;
     private final AtomicBoolean inconsistencyDetected = new AtomicBoolean();
     private final long durationMs = 360 * 1000;
@@ -43,7 +44,7 @@ public class Orec_Ref_ReadConsistencyStressTest implements GammaConstants {
         writingThreadCount = 2;
         refs = new GammaTxnRef[refCount];
         for (int k = 0; k < refs.length; k++) {
-            refs[k] = new GammaTxnRef(stm, 0);
+            refs[k] = new GammaTxnRef<Object>(stm, 0);
         }
     }
 
@@ -115,18 +116,18 @@ public class Orec_Ref_ReadConsistencyStressTest implements GammaConstants {
 
     class BasicReadThread extends TestThread {
 
-        private Tranlocal[] tranlocals;
+        private RefTranlocal[] tranlocals;
         private long lastConflictCount = stm.getGlobalConflictCounter().count();
         private GammaObjectPool pool = new GammaObjectPool();
-        private Tranlocal firstTranlocal;
+        private RefTranlocal firstTranlocal;
         private GammaTxn dummyTransaction = stm.newDefaultTxn();
 
         public BasicReadThread(int id) {
             super("ReadingThread-" + id);
 
-            tranlocals = new Tranlocal[refs.length];
+            tranlocals = new RefTranlocal[refs.length];
             for (int k = 0; k < tranlocals.length; k++) {
-                Tranlocal tranlocal = new Tranlocal();
+                RefTranlocal tranlocal = new RefTranlocal();
                 tranlocal.owner = refs[k];
                 tranlocals[k] = tranlocal;
             }
@@ -158,7 +159,7 @@ public class Orec_Ref_ReadConsistencyStressTest implements GammaConstants {
                 Object v = null;
                 for (int k = 0; k < refs.length; k++) {
                     GammaTxnRef ref = refs[k];
-                    Tranlocal tranlocal = tranlocals[k];
+                    RefTranlocal tranlocal = tranlocals[k];
                     if (!ref.load(dummyTransaction, tranlocal, LOCKMODE_NONE, 64, true)) {
                         releaseChainAfterFailure();
                         break;
@@ -430,7 +431,7 @@ public class Orec_Ref_ReadConsistencyStressTest implements GammaConstants {
                 try {
                     for (int k = 0; k < refs.length; k++) {
                         if (write) {
-                            Tranlocal tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
+                            RefTranlocal tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
                             tranlocal.ref_value = getName();
                         } else {
                             refs[k].openForRead(tx, LOCKMODE_NONE);
@@ -497,7 +498,7 @@ public class Orec_Ref_ReadConsistencyStressTest implements GammaConstants {
                 try {
                     for (int k = 0; k < refs.length; k++) {
                         if (write) {
-                            Tranlocal tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
+                            RefTranlocal tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
                             tranlocal.ref_value = getName();
                         } else {
                             refs[k].openForRead(tx, LOCKMODE_NONE);
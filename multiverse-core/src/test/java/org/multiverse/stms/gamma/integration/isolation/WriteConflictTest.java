@@ -7,7 +7,7 @@ import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.fail;
@@ -41,7 +41,7 @@ public class WriteConflictTest implements GammaConstants {
                 .setDirtyCheckEnabled(true)
                 .newTransactionFactory()
                 .newTxn();
-        Tranlocal write = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal write = ref.openForWrite(tx, LOCKMODE_NONE);
         write.long_value++;
 
         ref.atomicIncrementAndGet(1);
@@ -89,7 +89,7 @@ public class WriteConflictTest implements GammaConstants {
                 .setDirtyCheckEnabled(false)
                 .newTransactionFactory()
                 .newTxn();
-        Tranlocal write = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal write = ref.openForWrite(tx, LOCKMODE_NONE);
         write.long_value++;
 
         ref.atomicIncrementAndGet(1);
@@ -114,7 +114,7 @@ public class WriteConflictTest implements GammaConstants {
                 .setDirtyCheckEnabled(false)
                 .newTransactionFactory()
                 .newTxn();
-        Tranlocal write = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal write = ref.openForWrite(tx, LOCKMODE_NONE);
         write.long_value++;
 
         ref.atomicIncrementAndGet(1);
@@ -7,7 +7,6 @@ import org.multiverse.api.functions.LongFunction;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaObjectPool;
 import org.multiverse.stms.gamma.GammaStm;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -26,7 +25,7 @@ public class AddCommutingFunctionTest implements GammaConstants {
 
     @Test
     public void whenFirstAddition() {
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         tranlocal.mode = TRANLOCAL_COMMUTING;
         tranlocal.addCommutingFunction(pool, Functions.incLongFunction(1));
 
@@ -38,7 +37,7 @@ public class AddCommutingFunctionTest implements GammaConstants {
 
     @Test
     public void whenMultipleAdditions() {
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         tranlocal.mode = TRANLOCAL_COMMUTING;
 
         LongFunction function1 = mock(LongFunction.class);
@@ -28,7 +28,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnInteger ref = new GammaTxnInteger(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -51,7 +51,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnInteger ref = new GammaTxnInteger(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -73,7 +73,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -100,7 +100,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -120,7 +120,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnBoolean ref = new GammaTxnBoolean(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -144,7 +144,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnBoolean ref = new GammaTxnBoolean(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -167,7 +167,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -194,7 +194,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -214,7 +214,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnDouble ref = new GammaTxnDouble(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -237,7 +237,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnDouble ref = new GammaTxnDouble(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -259,7 +259,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -286,7 +286,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -306,7 +306,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnLong ref = new GammaTxnLong(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -329,7 +329,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnLong ref = new GammaTxnLong(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -351,7 +351,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -378,7 +378,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -399,7 +399,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        RefTranlocal tranlocal = new RefTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -423,7 +423,7 @@ public class CommitTest implements GammaConstants {
         GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, initialValue);
         long initialVersion = ref.version;
 
-        Tranlocal tranlocal = new Tranlocal();
+        RefTranlocal tranlocal = new RefTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -447,7 +447,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        RefTranlocal tranlocal = new RefTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -476,7 +476,7 @@ public class CommitTest implements GammaConstants {
         Listeners listeners = new Listeners();
         ref.listeners = listeners;
 
-        Tranlocal tranlocal = new Tranlocal();
+        RefTranlocal tranlocal = new RefTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, false);
 
@@ -4,12 +4,16 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.multiverse.api.LockMode;
+import org.multiverse.api.functions.Functions;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
+import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
+import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxn;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.multiverse.TestUtils.assertOrecValue;
@@ -98,6 +102,35 @@ public class HasReadConflictTest implements GammaConstants {
         assertRefHasNoLocks(ref);
     }
 
+    @Test
+    public void whenCommuting_thenNoConflict() {
+        GammaTxnLong ref = new GammaTxnLong(stm);
+
+        GammaTxn tx = stm.newDefaultTxn();
+        ref.commute(tx, Functions.incLongFunction());
+        Tranlocal tranlocal = tx.locate(ref);
+
+        boolean hasConflict = ref.hasReadConflict(tranlocal);
+
+        assertFalse(hasConflict);
+        assertSurplus(ref, 0);
+        assertRefHasNoLocks(ref);
+    }
+
+    @Test
+    public void whenCommutingAndOtherRefReadAfterwards_thenNoConflict() {
+        GammaTxnLong commutingRef = new GammaTxnLong(stm);
+        GammaTxnLong readRef = new GammaTxnLong(stm);
+
+        //the read of the second ref triggers a conflict scan that includes the commuting tranlocal.
+        GammaTxn tx = new FatFixedLengthGammaTxn(new GammaTxnConfig(stm, 10));
+        commutingRef.commute(tx, Functions.incLongFunction());
+        readRef.get(tx);
+        tx.commit();
+
+        assertEquals(1, commutingRef.atomicGet());
+    }
+
     @Test
     public void whenFresh() {
         GammaTxn tx = stm.newDefaultTxn();
@@ -7,7 +7,8 @@ import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.*;
@@ -41,7 +42,7 @@ public class LoadTest implements GammaConstants {
         GammaTxn tx = stm.newDefaultTxn();
         long initialVersion = ref.getVersion();
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
 
         boolean result = ref.load(tx,tranlocal, lockMode.asInt(), 1, arriveNeeded);
 
@@ -80,7 +81,7 @@ public class LoadTest implements GammaConstants {
         long initialVersion = ref.getVersion();
 
         GammaTxn tx = stm.newDefaultTxn();
-        Tranlocal tranlocal = new Tranlocal();
+        RefTranlocal tranlocal = new RefTranlocal();
 
         boolean result = ref.load(tx,tranlocal, lockMode.asInt(), 1, arriveNeeded);
 
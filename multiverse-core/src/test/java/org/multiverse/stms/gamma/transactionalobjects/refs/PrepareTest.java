@@ -7,6 +7,7 @@ import org.multiverse.api.LockMode;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
@@ -110,7 +111,7 @@ public class PrepareTest implements GammaConstants {
                 .newTransactionFactory()
                 .newTxn();
 
-        Tranlocal tranlocal = ref.openForWrite(tx, lockMode.asInt());
+        LongTranlocal tranlocal = ref.openForWrite(tx, lockMode.asInt());
         tranlocal.long_value++;
 
         boolean success = ref.prepare(tx, tranlocal);
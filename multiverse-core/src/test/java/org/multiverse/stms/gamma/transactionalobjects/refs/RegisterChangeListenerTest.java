@@ -11,6 +11,7 @@ import org.multiverse.stms.gamma.GammaObjectPool;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.Listeners;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
@@ -59,7 +60,7 @@ public class RegisterChangeListenerTest implements GammaConstants {
         Tranlocal read = ref.openForRead(tx, LOCKMODE_NONE);
 
         GammaTxn otherTx = stm.newDefaultTxn();
-        Tranlocal write = ref.openForWrite(otherTx, LOCKMODE_NONE);
+        LongTranlocal write = ref.openForWrite(otherTx, LOCKMODE_NONE);
         write.long_value++;
         otherTx.commit();
 
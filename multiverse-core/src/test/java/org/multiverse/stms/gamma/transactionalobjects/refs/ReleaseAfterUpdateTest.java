@@ -6,6 +6,7 @@ import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
@@ -29,7 +30,7 @@ public class ReleaseAfterUpdateTest implements GammaConstants {
         GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, initialValue);
 
         GammaTxn tx = newArrivingTransaction(stm);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_EXCLUSIVE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_EXCLUSIVE);
         tranlocal.isDirty = true;
 
         ref.releaseAfterUpdate(tranlocal, tx.pool);
@@ -64,7 +65,7 @@ public class ReleaseAfterUpdateTest implements GammaConstants {
         GammaTxnRef<String> ref = makeReadBiased(new GammaTxnRef<String>(stm, initialValue));
 
         GammaTxn tx = newArrivingTransaction(stm);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_EXCLUSIVE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_EXCLUSIVE);
         tranlocal.isDirty = true;
 
         ref.releaseAfterUpdate(tranlocal, tx.pool);
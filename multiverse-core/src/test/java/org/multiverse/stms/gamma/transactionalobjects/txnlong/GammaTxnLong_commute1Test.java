@@ -15,6 +15,7 @@ import org.multiverse.api.functions.Functions;
 import org.multiverse.api.functions.LongFunction;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnFactory;
@@ -63,7 +64,7 @@ public class GammaTxnLong_commute1Test {
         LongFunction function = Functions.incLongFunction(1);
         ref.commute(function);
 
-        Tranlocal commuting = tx.getRefTranlocal(ref);
+        LongTranlocal commuting = tx.getRefTranlocal(ref);
         assertNotNull(commuting);
         assertTrue(commuting.isCommuting());
         assertFalse(commuting.isRead());
@@ -90,7 +91,7 @@ public class GammaTxnLong_commute1Test {
         LongFunction function = Functions.identityLongFunction();
         ref.commute(function);
 
-        Tranlocal commuting = tx.getRefTranlocal(ref);
+        LongTranlocal commuting = tx.getRefTranlocal(ref);
         assertNotNull(commuting);
         assertTrue(commuting.isCommuting());
         assertFalse(commuting.isRead());
@@ -239,7 +240,7 @@ public class GammaTxnLong_commute1Test {
         LongFunction function = Functions.incLongFunction(1);
         ref.commute(function);
 
-        Tranlocal tranlocal = tx.getRefTranlocal(ref);
+        LongTranlocal tranlocal = tx.getRefTranlocal(ref);
         assertNotNull(tranlocal);
         assertFalse(tranlocal.isCommuting());
         assertEquals(3, tranlocal.long_value);
@@ -268,7 +269,7 @@ public class GammaTxnLong_commute1Test {
         LongFunction function = Functions.incLongFunction(1);
         ref.commute(function);
 
-        Tranlocal tranlocal = tx.getRefTranlocal(ref);
+        LongTranlocal tranlocal = tx.getRefTranlocal(ref);
         assertNotNull(tranlocal);
         assertFalse(tranlocal.isCommuting());
         assertEquals(3, tranlocal.long_value);
@@ -14,7 +14,7 @@ import org.multiverse.api.functions.Functions;
 import org.multiverse.api.functions.LongFunction;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnFactory;
 import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxnFactory;
@@ -162,7 +162,7 @@ public class GammaTxnLong_commute2Test {
         GammaTxn tx = transactionFactory.newTxn();
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        LongTranlocal commute = tx.getRefTranlocal(ref);
         assertTrue(commute.isCommuting());
         assertEquals(0, commute.long_value);
         tx.commit();
@@ -180,7 +180,7 @@ public class GammaTxnLong_commute2Test {
         GammaTxn tx = transactionFactory.newTxn();
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        LongTranlocal commute = tx.getRefTranlocal(ref);
         assertTrue(commute.isCommuting());
         assertEquals(0, commute.long_value);
         tx.commit();
@@ -213,7 +213,7 @@ public class GammaTxnLong_commute2Test {
         ref.get(tx);
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        LongTranlocal commute = tx.getRefTranlocal(ref);
         assertFalse(commute.isCommuting());
         assertEquals(11, commute.long_value);
         tx.commit();
@@ -229,7 +229,7 @@ public class GammaTxnLong_commute2Test {
         ref.openForConstruction(tx);
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        LongTranlocal commute = tx.getRefTranlocal(ref);
         assertFalse(commute.isCommuting());
         assertEquals(1, commute.long_value);
         tx.commit();
@@ -246,7 +246,7 @@ public class GammaTxnLong_commute2Test {
         ref.set(tx, 11);
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        LongTranlocal commute = tx.getRefTranlocal(ref);
         assertFalse(commute.isCommuting());
         assertEquals(12, commute.long_value);
         tx.commit();
@@ -266,7 +266,7 @@ public class GammaTxnLong_commute2Test {
         ref.commute(tx, function1);
         ref.commute(tx, function2);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        LongTranlocal commute = tx.getRefTranlocal(ref);
         assertTrue(commute.isCommuting());
         assertEquals(0, commute.long_value);
         tx.commit();
@@ -6,7 +6,7 @@ import org.multiverse.TestThread;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -60,7 +60,7 @@ public class GammaTxnLong_consistentLoadStressTest implements GammaConstants {
 
         @Override
         public void doRun() throws Exception {
-            Tranlocal tranlocal = new Tranlocal();
+            LongTranlocal tranlocal = new LongTranlocal();
             int k = 0;
             while (!stop) {
                 boolean success = ref.load(tx, tranlocal, LOCKMODE_NONE, 100, true);
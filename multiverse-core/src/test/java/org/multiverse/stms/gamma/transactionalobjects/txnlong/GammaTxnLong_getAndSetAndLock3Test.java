@@ -5,7 +5,7 @@ import org.junit.Test;
 import org.multiverse.api.LockMode;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.assertEquals;
@@ -38,7 +38,7 @@ public class GammaTxnLong_getAndSetAndLock3Test {
         long newValue = 20;
         long result = ref.getAndSetAndLock(tx, newValue, lockMode);
 
-        Tranlocal tranlocal = tx.locate(ref);
+        LongTranlocal tranlocal = tx.locate(ref);
 
         assertEquals(initialValue, result);
         assertEquals(newValue,tranlocal.long_value);
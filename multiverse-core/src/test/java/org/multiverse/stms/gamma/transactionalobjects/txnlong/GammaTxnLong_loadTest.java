@@ -9,7 +9,7 @@ import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.GammaTestUtils;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import java.util.Collection;
@@ -65,7 +65,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         ref.getLock().acquire(otherTx, LockMode.None);
 
         GammaTxn tx = stm.newDefaultTxn();
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_NONE, 1, arriveNeeded);
 
         assertTrue(result);
@@ -91,7 +91,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.None);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_READ, 1, arriveNeeded);
 
@@ -119,7 +119,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.None);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_WRITE, 1, arriveNeeded);
 
@@ -146,7 +146,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.None);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, arriveNeeded);
 
@@ -173,7 +173,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Read);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_NONE, 1, arriveNeeded);
 
@@ -201,7 +201,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Read);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_READ, 1, arriveNeeded);
 
@@ -229,7 +229,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Read);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_WRITE, 1, arriveNeeded);
 
@@ -253,7 +253,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Read);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, arriveNeeded);
 
@@ -277,7 +277,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Write);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_NONE, 1, arriveNeeded);
 
@@ -303,7 +303,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Write);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_READ, 1, arriveNeeded);
 
@@ -325,7 +325,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Write);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_WRITE, 1, arriveNeeded);
 
@@ -347,7 +347,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Write);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, arriveNeeded);
 
@@ -369,7 +369,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Exclusive);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx, tranlocal, LOCKMODE_NONE, 1, arriveNeeded);
 
@@ -391,7 +391,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Exclusive);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_READ, 1, arriveNeeded);
 
@@ -413,7 +413,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Exclusive);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_WRITE, 1, arriveNeeded);
 
@@ -435,7 +435,7 @@ public class GammaTxnLong_loadTest implements GammaConstants {
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, LockMode.Exclusive);
 
-        Tranlocal tranlocal = new Tranlocal();
+        LongTranlocal tranlocal = new LongTranlocal();
         GammaTxn tx = stm.newDefaultTxn();
         boolean result = ref.load(tx,tranlocal, LOCKMODE_EXCLUSIVE, 1, arriveNeeded);
 
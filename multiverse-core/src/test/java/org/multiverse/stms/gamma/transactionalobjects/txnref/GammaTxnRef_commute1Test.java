@@ -15,6 +15,7 @@ import org.multiverse.api.functions.Functions;
 import org.multiverse.api.functions.LongFunction;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnFactory;
@@ -64,13 +65,13 @@ public class GammaTxnRef_commute1Test {
         LongFunction function = Functions.incLongFunction(1);
         ref.commute(function);
 
-        Tranlocal commuting = tx.getRefTranlocal(ref);
+        RefTranlocal<Long> commuting = tx.getRefTranlocal(ref);
         assertNotNull(commuting);
         assertTrue(commuting.isCommuting());
         assertFalse(commuting.isRead());
         assertSurplus(ref, 0);
         assertRefHasNoLocks(ref);
-        assertEquals(0, commuting.long_value);
+        assertNull(commuting.ref_value);
         assertIsActive(tx);
         assertSame(tx, getThreadLocalTxn());
         tx.commit();
@@ -93,7 +94,7 @@ public class GammaTxnRef_commute1Test {
         Function<Long> function = Functions.identityFunction();
         ref.commute(function);
 
-        Tranlocal commuting = tx.getRefTranlocal(ref);
+        RefTranlocal commuting = tx.getRefTranlocal(ref);
         assertNotNull(commuting);
         assertTrue(commuting.isCommuting());
         assertFalse(commuting.isRead());
@@ -251,7 +252,7 @@ public class GammaTxnRef_commute1Test {
         LongFunction function = Functions.incLongFunction(1);
         ref.commute(function);
 
-        Tranlocal tranlocal = tx.getRefTranlocal(ref);
+        RefTranlocal tranlocal = tx.getRefTranlocal(ref);
         assertNotNull(tranlocal);
         assertFalse(tranlocal.isCommuting());
         assertEquals(new Long(3), tranlocal.ref_value);
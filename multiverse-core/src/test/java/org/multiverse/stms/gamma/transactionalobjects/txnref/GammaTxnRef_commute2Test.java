@@ -14,7 +14,7 @@ import org.multiverse.api.functions.Functions;
 import org.multiverse.api.functions.LongFunction;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnFactory;
 import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxnFactory;
@@ -121,9 +121,9 @@ public class GammaTxnRef_commute2Test {
         GammaTxn tx = transactionFactory.newTxn();
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        RefTranlocal<Long> commute = tx.getRefTranlocal(ref);
         assertTrue(commute.isCommuting());
-        assertEquals(0, commute.long_value);
+        assertNull(commute.ref_value);
         tx.commit();
 
         assertVersionAndValue(ref, initialVersion + 1, initialValue + 1);
@@ -139,9 +139,9 @@ public class GammaTxnRef_commute2Test {
         GammaTxn tx = transactionFactory.newTxn();
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        RefTranlocal<Long> commute = tx.getRefTranlocal(ref);
         assertTrue(commute.isCommuting());
-        assertEquals(0, commute.long_value);
+        assertNull(commute.ref_value);
         tx.commit();
 
         assertVersionAndValue(ref, initialVersion, initialValue);
@@ -172,7 +172,7 @@ public class GammaTxnRef_commute2Test {
         ref.get(tx);
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        RefTranlocal commute = tx.getRefTranlocal(ref);
         assertFalse(commute.isCommuting());
         assertEquals(new Long(11), commute.ref_value);
         tx.commit();
@@ -188,7 +188,7 @@ public class GammaTxnRef_commute2Test {
         ref.openForConstruction(tx);
         ref.commute(tx, Functions.incLongFunction());
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        RefTranlocal commute = tx.getRefTranlocal(ref);
         assertFalse(commute.isCommuting());
         assertEquals(new Long(11), commute.ref_value);
         tx.commit();
@@ -206,7 +206,7 @@ public class GammaTxnRef_commute2Test {
         ref.set(tx, new Long(11));
         ref.commute(tx, function);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        RefTranlocal commute = tx.getRefTranlocal(ref);
         assertFalse(commute.isCommuting());
         assertEquals(new Long(12), commute.ref_value);
         tx.commit();
@@ -226,9 +226,9 @@ public class GammaTxnRef_commute2Test {
         ref.commute(tx, function1);
         ref.commute(tx, function2);
 
-        Tranlocal commute = tx.getRefTranlocal(ref);
+        RefTranlocal<Long> commute = tx.getRefTranlocal(ref);
         assertTrue(commute.isCommuting());
-        assertEquals(0, commute.long_value);
+        assertNull(commute.ref_value);
         tx.commit();
 
         assertVersionAndValue(ref, initialVersion + 1, initialValue + 2);
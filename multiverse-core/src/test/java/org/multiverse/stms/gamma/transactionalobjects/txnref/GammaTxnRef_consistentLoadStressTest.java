@@ -6,7 +6,7 @@ import org.multiverse.TestThread;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import java.util.concurrent.atomic.AtomicLong;
@@ -60,7 +60,7 @@ public class GammaTxnRef_consistentLoadStressTest implements GammaConstants {
         public void doRun() throws Exception {
             int k = 0;
             GammaTxn tx = stm.newDefaultTxn();
-            Tranlocal tranlocal = new Tranlocal();
+            RefTranlocal tranlocal = new RefTranlocal();
             while (!stop) {
                 boolean success = ref.load(tx, tranlocal, LOCKMODE_NONE, 100, true);
                 if (success) {
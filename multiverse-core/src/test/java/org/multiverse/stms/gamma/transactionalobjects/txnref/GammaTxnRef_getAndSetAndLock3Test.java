@@ -5,7 +5,7 @@ import org.junit.Test;
 import org.multiverse.api.LockMode;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.assertSame;
@@ -38,7 +38,7 @@ public class GammaTxnRef_getAndSetAndLock3Test {
         String newValue = "newValue";
         String result = ref.getAndSetAndLock(tx, newValue, lockMode);
 
-        Tranlocal tranlocal = tx.locate(ref);
+        RefTranlocal tranlocal = tx.locate(ref);
 
         assertSame(initialValue, result);
         assertSame(newValue, tranlocal.ref_value);
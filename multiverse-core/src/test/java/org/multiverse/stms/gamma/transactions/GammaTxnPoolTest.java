@@ -0,0 +1,76 @@
+package org.multiverse.stms.gamma.transactions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.PoolStatistics;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class GammaTxnPoolTest {
+
+    private GammaStm stm;
+    private GammaTxnPool pool;
+
+    @Before
+    public void setUp() {
+        stm = new GammaStm();
+        pool = new GammaTxnPool();
+    }
+
+    @Test
+    public void whenPutAndTake() {
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(stm);
+
+        assertNull(pool.takeMap());
+        pool.put(tx);
+
+        assertSame(tx, pool.takeMap());
+    }
+
+    @Test
+    public void statistics() {
+        pool.takeMap();
+        pool.put(new FatVariableLengthGammaTxn(stm));
+        pool.takeMap();
+
+        Map<String, PoolStatistics> result = new LinkedHashMap<String, PoolStatistics>();
+        pool.getStatistics(result);
+
+        PoolStatistics statistics = result.get("fatVariableLengthTxn");
+        assertNotNull(statistics);
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+    }
+
+    @Test
+    public void whenIdle_thenTrimmed() {
+        pool.put(new FatVariableLengthGammaTxn(stm));
+
+        GammaTxnPool.trimIdlePools();
+        GammaTxnPool.trimIdlePools();
+
+        assertNull(pool.takeMap());
+
+        //the pool is recreated when it is used again.
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(stm);
+        pool.put(tx);
+        assertSame(tx, pool.takeMap());
+    }
+
+    @Test
+    public void whenActive_thenNotTrimmed() {
+        FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(stm);
+        pool.put(tx);
+
+        GammaTxnPool.trimIdlePools();
+        pool.put(pool.takeMap());
+        GammaTxnPool.trimIdlePools();
+
+        assertSame(tx, pool.takeMap());
+    }
+}
@@ -0,0 +1,81 @@
+package org.multiverse.stms.gamma.transactions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.stms.gamma.GammaConstants;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.fat.FatMonoGammaTxn;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.lean.LeanFixedLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.lean.LeanMonoGammaTxn;
+
+import static org.junit.Assert.assertEquals;
+
+public class GammaTxn_readWriteSetSizeTest implements GammaConstants {
+
+    private GammaStm stm;
+
+    @Before
+    public void setUp() {
+        stm = new GammaStm();
+    }
+
+    @Test
+    public void whenEmpty() {
+        assertSizes(new LeanMonoGammaTxn(stm), 0, 0);
+        assertSizes(new FatMonoGammaTxn(stm), 0, 0);
+        assertSizes(new LeanFixedLengthGammaTxn(stm), 0, 0);
+        assertSizes(new FatFixedLengthGammaTxn(stm), 0, 0);
+        assertSizes(new FatVariableLengthGammaTxn(stm), 0, 0);
+    }
+
+    @Test
+    public void whenMono() {
+        GammaTxn tx = new FatMonoGammaTxn(stm);
+        new GammaTxnRef<String>(stm).openForRead(tx, LOCKMODE_NONE);
+        assertSizes(tx, 1, 0);
+
+        tx = new LeanMonoGammaTxn(stm);
+        new GammaTxnRef<String>(stm).openForWrite(tx, LOCKMODE_NONE);
+        assertSizes(tx, 0, 1);
+    }
+
+    @Test
+    public void whenFatFixedLength() {
+        assertReadsAndWrites(new FatFixedLengthGammaTxn(stm));
+    }
+
+    @Test
+    public void whenLeanFixedLength() {
+        assertReadsAndWrites(new LeanFixedLengthGammaTxn(stm));
+    }
+
+    @Test
+    public void whenFatVariableLength() {
+        assertReadsAndWrites(new FatVariableLengthGammaTxn(stm));
+    }
+
+    @Test
+    public void whenAborted_thenEmpty() {
+        GammaTxn tx = new FatVariableLengthGammaTxn(stm);
+        new GammaTxnRef<String>(stm).openForWrite(tx, LOCKMODE_NONE);
+        tx.abort();
+
+        assertSizes(tx, 0, 0);
+    }
+
+    private void assertReadsAndWrites(GammaTxn tx) {
+        new GammaTxnRef<String>(stm).openForRead(tx, LOCKMODE_NONE);
+        new GammaTxnRef<String>(stm).openForRead(tx, LOCKMODE_NONE);
+        new GammaTxnRef<String>(stm).openForWrite(tx, LOCKMODE_NONE);
+
+        assertSizes(tx, 2, 1);
+    }
+
+    private static void assertSizes(GammaTxn tx, int expectedReads, int expectedWrites) {
+        assertEquals(expectedReads, tx.getReadSetSize());
+        assertEquals(expectedWrites, tx.getWriteSetSize());
+    }
+}
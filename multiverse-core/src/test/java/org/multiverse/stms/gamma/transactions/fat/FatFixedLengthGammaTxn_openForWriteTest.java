@@ -3,7 +3,7 @@ package org.multiverse.stms.gamma.transactions.fat;
 import org.junit.Test;
 import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 
@@ -59,7 +59,7 @@ public class FatFixedLengthGammaTxn_openForWriteTest extends FatGammaTxn_openFor
         long initialVersion = ref.getVersion();
 
         FatFixedLengthGammaTxn tx = new FatFixedLengthGammaTxn(config);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertTrue(tranlocal.hasDepartObligation);
@@ -97,7 +97,7 @@ public class FatFixedLengthGammaTxn_openForWriteTest extends FatGammaTxn_openFor
         causeLotsOfConflicts(stm);
         long newConflictCount = stm.getGlobalConflictCounter().count();
 
-        Tranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal2);
         assertTrue(tranlocal2.hasDepartObligation);
@@ -486,7 +486,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         //a conflicting write.
@@ -520,7 +520,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
         tx.commit();
 
@@ -607,7 +607,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
         tx.prepare();
 
@@ -709,7 +709,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         GammaTxnConfig config = new GammaTxnConfig(stm);
         config.dirtyCheck = false;
         T tx = newTransaction(config);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         if (prepareFirst) {
@@ -775,7 +775,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         GammaTxnConfig config = new GammaTxnConfig(stm);
         config.dirtyCheck = true;
         T tx = newTransaction(config);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
         if (prepareFirst) {
             tx.prepare();
@@ -804,7 +804,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         T otherTx = newTransaction();
@@ -833,7 +833,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         T otherTx = newTransaction();
@@ -861,7 +861,7 @@ public abstract class FatGammaTxn_commitTest<T extends GammaTxn> implements Gamm
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         T otherTx = newTransaction();
@@ -12,6 +12,7 @@ import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.GammaTestUtils;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -85,7 +86,7 @@ public abstract class FatGammaTxn_commuteTest<T extends GammaTxn> {
         long initialVersion = ref.version;
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal = ref.openForRead(tx, lockMode.asInt());
+        LongTranlocal tranlocal = ref.openForRead(tx, lockMode.asInt());
         LongFunction incFunction = Functions.incLongFunction();
         ref.commute(tx, incFunction);
 
@@ -135,7 +136,7 @@ public abstract class FatGammaTxn_commuteTest<T extends GammaTxn> {
         long initialVersion = ref.version;
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, lockMode.asInt());
+        LongTranlocal tranlocal = ref.openForWrite(tx, lockMode.asInt());
         LongFunction incFunction = Functions.incLongFunction();
         ref.commute(tx, incFunction);
 
@@ -254,7 +255,7 @@ public abstract class FatGammaTxn_commuteTest<T extends GammaTxn> {
 
         long initialValue = 10;
         GammaTxnLong ref = new GammaTxnLong(tx, initialValue);
-        Tranlocal tranlocal = tx.locate(ref);
+        LongTranlocal tranlocal = tx.locate(ref);
         LongFunction incFunction = Functions.incLongFunction();
         ref.commute(tx, incFunction);
 
@@ -10,6 +10,7 @@ import org.multiverse.api.functions.Functions;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -149,7 +150,7 @@ public abstract class FatGammaTxn_openForReadTest<T extends GammaTxn> implements
 
         T tx = newTransaction();
         ref.commute(tx, Functions.incLongFunction());
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -222,7 +223,7 @@ public abstract class FatGammaTxn_openForReadTest<T extends GammaTxn> implements
         GammaTxnConfig config = new GammaTxnConfig(stm);
         config.readonly = true;
         GammaTxn tx = newTransaction(config);
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -240,7 +241,7 @@ public abstract class FatGammaTxn_openForReadTest<T extends GammaTxn> implements
         long initialVersion = ref.getVersion();
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -281,7 +282,7 @@ public abstract class FatGammaTxn_openForReadTest<T extends GammaTxn> implements
 
         GammaTxn tx = newTransaction();
         Tranlocal first = ref.openForWrite(tx, firstReadLockMode.asInt());
-        Tranlocal second = ref.openForRead(tx, secondReadLockMode.asInt());
+        LongTranlocal second = ref.openForRead(tx, secondReadLockMode.asInt());
 
         assertSame(first, second);
         assertNotNull(second);
@@ -324,7 +325,7 @@ public abstract class FatGammaTxn_openForReadTest<T extends GammaTxn> implements
 
         GammaTxn tx = newTransaction();
         Tranlocal first = ref.openForWrite(tx, writeLockMode.asInt());
-        Tranlocal second = ref.openForRead(tx, readLockMode.asInt());
+        LongTranlocal second = ref.openForRead(tx, readLockMode.asInt());
 
         assertSame(first, second);
         assertSame(ref, second.owner);
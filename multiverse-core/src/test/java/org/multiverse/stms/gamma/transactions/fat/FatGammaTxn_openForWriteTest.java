@@ -10,6 +10,7 @@ import org.multiverse.api.functions.Functions;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -95,7 +96,7 @@ public abstract class FatGammaTxn_openForWriteTest<T extends GammaTxn> implement
 
         T tx = newTransaction();
         ref.commute(tx, Functions.incLongFunction());
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -243,7 +244,7 @@ public abstract class FatGammaTxn_openForWriteTest<T extends GammaTxn> implement
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -284,7 +285,7 @@ public abstract class FatGammaTxn_openForWriteTest<T extends GammaTxn> implement
 
         GammaTxn tx = newTransaction();
         Tranlocal first = ref.openForRead(tx, readLockMode.asInt());
-        Tranlocal second = ref.openForWrite(tx, writeLockMode.asInt());
+        LongTranlocal second = ref.openForWrite(tx, writeLockMode.asInt());
 
         assertSame(first, second);
         assertNotNull(second);
@@ -327,7 +328,7 @@ public abstract class FatGammaTxn_openForWriteTest<T extends GammaTxn> implement
 
         GammaTxn tx = newTransaction();
         Tranlocal first = ref.openForWrite(tx, firstWriteLockMode.asInt());
-        Tranlocal second = ref.openForWrite(tx, secondWriteLockMode.asInt());
+        LongTranlocal second = ref.openForWrite(tx, secondWriteLockMode.asInt());
 
         assertSame(first, second);
         assertSame(ref, second.owner);
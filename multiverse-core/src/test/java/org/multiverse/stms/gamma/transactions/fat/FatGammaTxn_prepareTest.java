@@ -15,6 +15,7 @@ import org.multiverse.api.lifecycle.TxnListener;
 import org.multiverse.stms.gamma.GammaConstants;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -153,7 +154,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
         LongFunction function = Functions.incLongFunction();
         GammaTxn tx = newTransaction();
         ref.commute(tx, function);
-        Tranlocal tranlocal = tx.locate(ref);
+        LongTranlocal tranlocal = tx.locate(ref);
 
         tx.prepare();
 
@@ -181,7 +182,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
         ref.commute(tx, function1);
         ref.commute(tx, function2);
         ref.commute(tx, function3);
-        Tranlocal tranlocal = tx.locate(ref);
+        LongTranlocal tranlocal = tx.locate(ref);
 
         tx.prepare();
 
@@ -331,7 +332,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
                 .setDirtyCheckEnabled(false);
 
         GammaTxn tx = newTransaction(config);
-        Tranlocal tranlocal = ref.openForWrite(tx, writeLockMode.asInt());
+        LongTranlocal tranlocal = ref.openForWrite(tx, writeLockMode.asInt());
         tranlocal.long_value++;
         tx.prepare();
 
@@ -394,7 +395,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
                 .setDirtyCheckEnabled(true);
 
         GammaTxn tx = newTransaction(config);
-        Tranlocal tranlocal = ref.openForWrite(tx, writeLockMode.asInt());
+        LongTranlocal tranlocal = ref.openForWrite(tx, writeLockMode.asInt());
         tranlocal.long_value++;
         tx.prepare();
 
@@ -418,7 +419,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         T otherTx = newTransaction();
@@ -446,7 +447,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         T otherTx = newTransaction();
@@ -473,7 +474,7 @@ public abstract class FatGammaTxn_prepareTest<T extends GammaTxn> implements Gam
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.long_value++;
 
         T otherTx = newTransaction();
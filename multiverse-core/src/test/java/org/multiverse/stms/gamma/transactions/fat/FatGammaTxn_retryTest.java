@@ -8,6 +8,8 @@ import org.multiverse.api.exceptions.*;
 import org.multiverse.api.exceptions.DeadTxnException;
 import org.multiverse.api.exceptions.PreparedTxnException;
 import org.multiverse.api.functions.Function;
+import org.multiverse.api.lifecycle.TxnEvent;
+import org.multiverse.api.lifecycle.TxnListener;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
@@ -15,6 +17,8 @@ import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.multiverse.TestUtils.assertIsAborted;
 import static org.multiverse.TestUtils.assertIsCommitted;
@@ -94,6 +98,66 @@ public abstract class FatGammaTxn_retryTest<T extends GammaTxn> {
         assertIsAborted(tx);
     }
 
+    @Test
+    public void listener_whenRetried_thenNotifiedWithPostRetry() {
+        GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, "foo");
+        TxnListener listener = mock(TxnListener.class);
+
+        T tx = newTransaction();
+        ref.get(tx);
+        tx.register(listener);
+
+        try {
+            tx.retry();
+            fail();
+        } catch (RetryError expected) {
+        }
+
+        assertIsAborted(tx);
+        verify(listener).notify(tx, TxnEvent.PostRetry);
+        verify(listener, never()).notify(tx, TxnEvent.PostAbort);
+    }
+
+    @Test
+    public void listener_whenPermanentListenerAndRetried_thenNotifiedWithPostRetry() {
+        GammaTxnRef<String> ref = new GammaTxnRef<String>(stm, "foo");
+        TxnListener listener = mock(TxnListener.class);
+        GammaTxnConfig config = new GammaTxnConfig(stm)
+                .addPermanentListener(listener);
+
+        T tx = newTransaction(config);
+        ref.get(tx);
+
+        try {
+            tx.retry();
+            fail();
+        } catch (RetryError expected) {
+        }
+
+        assertIsAborted(tx);
+        verify(listener).notify(tx, TxnEvent.PostRetry);
+        verify(listener, never()).notify(tx, TxnEvent.PostAbort);
+    }
+
+    @Test
+    public void listener_whenUnusedAndRetried_thenNotifiedWithPostAbort() {
+        TxnListener listener = mock(TxnListener.class);
+
+        T tx = newTransaction();
+        tx.register(listener);
+
+        try {
+            tx.retry();
+            fail();
+        } catch (RetryNotPossibleException expected) {
+        }
+
+        assertIsAborted(tx);
+        //nothing has been read, so the transaction is aborted as a failure instead of as a retry.
+        verify(listener).notify(tx, TxnEvent.PostAbort);
+        verify(listener, never()).notify(tx, TxnEvent.PostRetry);
+    }
+
     @Test
     public void whenNoRetryAllowed() {
         GammaTxnConfig config = new GammaTxnConfig(stm);
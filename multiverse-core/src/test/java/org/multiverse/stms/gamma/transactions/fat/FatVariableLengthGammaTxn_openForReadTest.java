@@ -3,7 +3,7 @@ package org.multiverse.stms.gamma.transactions.fat;
 import org.junit.Test;
 import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 
 import static org.junit.Assert.*;
@@ -58,7 +58,7 @@ public class FatVariableLengthGammaTxn_openForReadTest extends FatGammaTxn_openF
         long initialVersion = ref.getVersion();
 
         FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(config);
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertTrue(tranlocal.hasDepartObligation);
@@ -96,7 +96,7 @@ public class FatVariableLengthGammaTxn_openForReadTest extends FatGammaTxn_openF
         causeLotsOfConflicts(stm);
         long newConflictCount = stm.getGlobalConflictCounter().count();
 
-        Tranlocal tranlocal2 = ref2.openForRead(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal2 = ref2.openForRead(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal2);
         assertTrue(tranlocal2.hasDepartObligation);
@@ -3,7 +3,7 @@ package org.multiverse.stms.gamma.transactions.fat;
 import org.junit.Test;
 import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 
 import static org.junit.Assert.*;
@@ -60,7 +60,7 @@ public class FatVariableLengthGammaTxn_openForWriteTest extends FatGammaTxn_open
         long initialVersion = ref.getVersion();
 
         FatVariableLengthGammaTxn tx = new FatVariableLengthGammaTxn(config);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertTrue(tranlocal.hasDepartObligation);
@@ -98,7 +98,7 @@ public class FatVariableLengthGammaTxn_openForWriteTest extends FatGammaTxn_open
         causeLotsOfConflicts(stm);
         long newConflictCount = stm.getGlobalConflictCounter().count();
 
-        Tranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
+        LongTranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal2);
         assertTrue(tranlocal2.hasDepartObligation);
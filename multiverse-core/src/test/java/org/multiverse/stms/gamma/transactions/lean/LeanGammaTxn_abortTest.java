@@ -5,7 +5,7 @@ import org.junit.Test;
 import org.multiverse.api.exceptions.DeadTxnException;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 
 import static org.junit.Assert.assertNull;
@@ -40,7 +40,7 @@ public abstract class LeanGammaTxn_abortTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
         tx.abort();
 
         assertIsAborted(tx);
@@ -62,7 +62,7 @@ public abstract class LeanGammaTxn_abortTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tx.abort();
 
         assertIsAborted(tx);
@@ -7,7 +7,7 @@ import org.multiverse.api.exceptions.DeadTxnException;
 import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
-import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
 import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
@@ -87,9 +87,9 @@ public abstract class LeanGammaTxn_commitTest<T extends GammaTxn> {
         long initialVersion2 = ref2.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal1 = ref1.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal1 = ref1.openForWrite(tx, LOCKMODE_NONE);
         tranlocal1.ref_value = updateValue1;
-        Tranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
         tranlocal2.ref_value = updateValue2;
         tx.commit();
 
@@ -128,8 +128,8 @@ public abstract class LeanGammaTxn_commitTest<T extends GammaTxn> {
         long initialVersion2 = ref2.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal1 = ref1.openForWrite(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal1 = ref1.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
         tx.commit();
 
         assertIsCommitted(tx);
@@ -162,7 +162,7 @@ public abstract class LeanGammaTxn_commitTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.ref_value = initialValue;
         tx.commit();
 
@@ -191,7 +191,7 @@ public abstract class LeanGammaTxn_commitTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
         tranlocal.ref_value = newValue;
         tx.commit();
 
@@ -225,7 +225,7 @@ public abstract class LeanGammaTxn_commitTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         GammaTxn otherTx = stm.newDefaultTxn();
         ref.getLock().acquire(otherTx, lockMode);
@@ -257,7 +257,7 @@ public abstract class LeanGammaTxn_commitTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
         tx.commit();
 
         assertIsCommitted(tx);
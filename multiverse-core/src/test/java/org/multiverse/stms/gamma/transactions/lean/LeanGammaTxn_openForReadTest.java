@@ -41,8 +41,8 @@ public abstract class LeanGammaTxn_openForReadTest<T extends GammaTxn> implement
         GammaTxnRef<String> ref2 = new GammaTxnRef<String>(stm, initialValue2);
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal1 = ref1.openForRead(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal2 = ref2.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal1 = ref1.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal2 = ref2.openForRead(tx, LOCKMODE_NONE);
 
         assertIsActive(tx);
 
@@ -204,7 +204,7 @@ public abstract class LeanGammaTxn_openForReadTest<T extends GammaTxn> implement
         ref.getLock().acquire(otherTx, lockMode);
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertIsActive(tx);
         assertNotNull(tranlocal);
@@ -230,7 +230,7 @@ public abstract class LeanGammaTxn_openForReadTest<T extends GammaTxn> implement
         long initialVersion = ref.getVersion();
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -252,7 +252,7 @@ public abstract class LeanGammaTxn_openForReadTest<T extends GammaTxn> implement
 
         GammaTxn tx = newTransaction();
         Tranlocal first = ref.openForRead(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertSame(first, tranlocal);
         assertNotNull(tranlocal);
@@ -345,7 +345,7 @@ public abstract class LeanGammaTxn_openForReadTest<T extends GammaTxn> implement
 
         GammaTxn tx = newTransaction();
         Tranlocal first = ref.openForWrite(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForRead(tx, LOCKMODE_NONE);
 
         assertSame(first, tranlocal);
         assertNotNull(tranlocal);
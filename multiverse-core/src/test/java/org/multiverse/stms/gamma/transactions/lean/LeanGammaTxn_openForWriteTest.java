@@ -91,8 +91,8 @@ public abstract class LeanGammaTxn_openForWriteTest<T extends GammaTxn> implemen
         GammaTxnRef<String> ref2 = new GammaTxnRef<String>(stm, initialValue2);
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal1 = ref1.openForWrite(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal1 = ref1.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal2 = ref2.openForWrite(tx, LOCKMODE_NONE);
 
         assertIsActive(tx);
 
@@ -271,7 +271,7 @@ public abstract class LeanGammaTxn_openForWriteTest<T extends GammaTxn> implemen
         ref.getLock().acquire(otherTx, lockMode);
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertIsActive(tx);
         assertNotNull(tranlocal);
@@ -320,7 +320,7 @@ public abstract class LeanGammaTxn_openForWriteTest<T extends GammaTxn> implemen
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(ref, tranlocal.owner);
@@ -342,7 +342,7 @@ public abstract class LeanGammaTxn_openForWriteTest<T extends GammaTxn> implemen
 
         T tx = newTransaction();
         Tranlocal read = ref.openForRead(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(read, tranlocal);
@@ -365,7 +365,7 @@ public abstract class LeanGammaTxn_openForWriteTest<T extends GammaTxn> implemen
 
         T tx = newTransaction();
         Tranlocal first = ref.openForWrite(tx, LOCKMODE_NONE);
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        RefTranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
 
         assertNotNull(tranlocal);
         assertSame(first, tranlocal);
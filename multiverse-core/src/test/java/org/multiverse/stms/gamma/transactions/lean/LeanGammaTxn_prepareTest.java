@@ -7,6 +7,7 @@ import org.multiverse.api.exceptions.DeadTxnException;
 import org.multiverse.api.exceptions.ReadWriteConflict;
 import org.multiverse.stms.gamma.GammaStm;
 import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
 import org.multiverse.stms.gamma.transactionalobjects.Tranlocal;
 import org.multiverse.stms.gamma.transactions.GammaTxn;
 import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
@@ -106,8 +107,8 @@ public abstract class LeanGammaTxn_prepareTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         GammaTxn tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
-        tranlocal.long_value++;
+        RefTranlocal<Long> tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        tranlocal.ref_value = initialValue + 1;
         tx.prepare();
 
         assertIsPrepared(tx);
@@ -130,8 +131,8 @@ public abstract class LeanGammaTxn_prepareTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
-        tranlocal.long_value++;
+        RefTranlocal<Long> tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        tranlocal.ref_value = initialValue + 1;
 
         FatMonoGammaTxn otherTx = new FatMonoGammaTxn(stm);
         ref.openForRead(otherTx, LOCKMODE_READ);
@@ -158,8 +159,8 @@ public abstract class LeanGammaTxn_prepareTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
-        tranlocal.long_value++;
+        RefTranlocal<Long> tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        tranlocal.ref_value = initialValue + 1;
 
         FatMonoGammaTxn otherTx = new FatMonoGammaTxn(stm);
         ref.openForRead(otherTx, LOCKMODE_WRITE);
@@ -185,8 +186,8 @@ public abstract class LeanGammaTxn_prepareTest<T extends GammaTxn> {
         long initialVersion = ref.getVersion();
 
         T tx = newTransaction();
-        Tranlocal tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
-        tranlocal.long_value++;
+        RefTranlocal<Long> tranlocal = ref.openForWrite(tx, LOCKMODE_NONE);
+        tranlocal.ref_value = initialValue + 1;
 
         FatMonoGammaTxn otherTx = new FatMonoGammaTxn(stm);
         ref.openForRead(otherTx, LOCKMODE_EXCLUSIVE);
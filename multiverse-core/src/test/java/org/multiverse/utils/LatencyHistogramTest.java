@@ -0,0 +1,119 @@
+package org.multiverse.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void indexOf_whenSmallValue_thenLinear() {
+        for (int k = 0; k < 2 * LatencyHistogram.SUB_BUCKET_COUNT; k++) {
+            assertEquals(k, LatencyHistogram.indexOf(k));
+        }
+    }
+
+    @Test
+    public void indexOf_isMonotonicAndBoundsContainValue() {
+        int previous = 0;
+        for (long value = 0; value < 1000000; value += 7) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= previous);
+            assertTrue(LatencyHistogram.lowestValueOf(index) <= value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            previous = index;
+        }
+    }
+
+    @Test
+    public void indexOf_maxValue() {
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE));
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void whenEmpty() {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0, snapshot.getMean(), 0);
+    }
+
+    @Test
+    public void whenOutOfRange_thenClamped() {
+        histogram.record(-10);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(LatencyHistogram.MAX_VALUE, snapshot.getMax());
+    }
+
+    @Test
+    public void percentiles() {
+        for (int k = 1; k <= 1000; k++) {
+            histogram.record(k * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertWithinRelativeError(500000, snapshot.getValueAtPercentile(50));
+        assertWithinRelativeError(990000, snapshot.getValueAtPercentile(99));
+        assertWithinRelativeError(1000000, snapshot.getMax());
+        assertEquals(500500, snapshot.getMean(), 0.1);
+    }
+
+    @Test
+    public void whenPercentileOutOfRange() {
+        try {
+            histogram.snapshot().getValueAtPercentile(101);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void snapshotAndReset() {
+        histogram.record(10);
+        histogram.record(20);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(30, snapshot.getSum());
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getSum());
+    }
+
+    @Test
+    public void merge() {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(10);
+        other.record(1000);
+
+        LatencyHistogram.Snapshot merged = histogram.snapshot().merge(other.snapshot());
+
+        assertEquals(3, merged.getCount());
+        assertEquals(1020, merged.getSum());
+        assertEquals(2, merged.getCountAtIndex(LatencyHistogram.indexOf(10)));
+    }
+
+    private static void assertWithinRelativeError(long expected, long found) {
+        double error = Math.abs(expected - found) / (double) expected;
+        assertTrue("expected " + expected + " found " + found, error <= 1.0 / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
@@ -0,0 +1,194 @@
+package org.multiverse.jfr;
+
+import org.multiverse.api.LockMode;
+import org.multiverse.stms.gamma.GammaProbe;
+import org.multiverse.stms.gamma.transactionalobjects.GammaObject;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+/**
+ * A {@link GammaProbe} that translates the probe callbacks to Java Flight Recorder events. It is registered as a
+ * service, so it is picked up automatically when this module is on the classpath and probing is enabled using the
+ * 'org.multiverse.probing.enabled' system property.
+ * <p/>
+ * When no recording is active (or the event is disabled in the recording settings) the only cost is checking if the
+ * event is enabled.
+ *
+ * @author Peter Veentjer.
+ */
+public final class JfrGammaProbe extends GammaProbe {
+
+    private static final LockMode[] LOCK_MODES = LockMode.values();
+
+    //a transaction event is started on begin and committed on commit/abort. Transactions can be nested (e.g. with
+    //the RequiresNew propagation level), so every thread keeps a small stack of the running transaction events.
+    private final ThreadLocal<EventStack> eventStacks = new ThreadLocal<EventStack>() {
+        @Override
+        protected EventStack initialValue() {
+            return new EventStack();
+        }
+    };
+
+    /**
+     * Installs a JfrGammaProbe. Normally this isn't needed because the probe is loaded as a service.
+     */
+    public static void install() {
+        GammaProbe.install(new JfrGammaProbe());
+    }
+
+    @Override
+    public void txnBegin(GammaTxn tx) {
+        final TransactionEvent event = new TransactionEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+
+        event.begin();
+        eventStacks.get().push(tx, event);
+    }
+
+    @Override
+    public void txnCommit(GammaTxn tx, int readSetSize, int writeSetSize) {
+        final TransactionEvent event = eventStacks.get().pop(tx);
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            fill(event, tx);
+            event.committed = true;
+            event.readSetSize = readSetSize;
+            event.writeSetSize = writeSetSize;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void txnAbort(GammaTxn tx, int reason) {
+        final TransactionEvent event = eventStacks.get().pop(tx);
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            fill(event, tx);
+            event.committed = false;
+            event.abortReason = toAbortReasonString(reason);
+            event.commit();
+        }
+    }
+
+    private static void fill(TransactionEvent event, GammaTxn tx) {
+        event.familyName = tx.config.familyName;
+        event.transactionType = tx.getClass().getSimpleName();
+        event.attempt = tx.attempt;
+    }
+
+    @Override
+    public void readWriteConflict(GammaTxn tx, GammaObject object) {
+        final ReadWriteConflictEvent event = new ReadWriteConflictEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.familyName = tx.config.familyName;
+        event.attempt = tx.attempt;
+        event.conflictingClass = object == null ? null : object.getClass();
+        if (tx.isAlive()) {
+            event.readSetSize = tx.getReadSetSize();
+            event.writeSetSize = tx.getWriteSetSize();
+        }
+        event.commit();
+    }
+
+    @Override
+    public void retryWait(GammaTxn tx, long durationNs) {
+        final RetryWaitEvent event = new RetryWaitEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.familyName = tx.config.familyName;
+        event.attempt = tx.attempt;
+        event.waitTime = durationNs;
+        event.commit();
+    }
+
+    @Override
+    public void lockSpin(GammaObject object, int lockMode, long durationNs, boolean acquired) {
+        final LockSpinEvent event = new LockSpinEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.objectClass = object.getClass();
+        event.lockMode = LOCK_MODES[lockMode].name();
+        event.spinTime = durationNs;
+        event.acquired = acquired;
+        event.commit();
+    }
+
+    @Override
+    public void lockAcquire(GammaTxn tx, GammaObject object, int lockMode, long durationNs, boolean success) {
+        final LockAcquireEvent event = new LockAcquireEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.familyName = tx.config.familyName;
+        event.objectClass = object.getClass();
+        event.lockMode = LOCK_MODES[lockMode].name();
+        event.lockTime = durationNs;
+        event.success = success;
+        event.commit();
+    }
+
+    static final class EventStack {
+        private GammaTxn[] txs = new GammaTxn[4];
+        private TransactionEvent[] events = new TransactionEvent[4];
+        private int size;
+
+        void push(GammaTxn tx, TransactionEvent event) {
+            //the previous attempt of the same transaction didn't complete its event.
+            if (size > 0 && txs[size - 1] == tx) {
+                events[size - 1] = event;
+                return;
+            }
+
+            if (size == txs.length) {
+                GammaTxn[] newTxs = new GammaTxn[size * 2];
+                System.arraycopy(txs, 0, newTxs, 0, size);
+                txs = newTxs;
+
+                TransactionEvent[] newEvents = new TransactionEvent[size * 2];
+                System.arraycopy(events, 0, newEvents, 0, size);
+                events = newEvents;
+            }
+
+            txs[size] = tx;
+            events[size] = event;
+            size++;
+        }
+
+        /**
+         * Pops the event of the given transaction. Events of transactions above it on the stack are dropped; they
+         * were never completed.
+         */
+        TransactionEvent pop(GammaTxn tx) {
+            for (int k = size - 1; k >= 0; k--) {
+                if (txs[k] == tx) {
+                    final TransactionEvent event = events[k];
+                    for (int l = k; l < size; l++) {
+                        txs[l] = null;
+                        events[l] = null;
+                    }
+                    size = k;
+                    return event;
+                }
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.multiverse.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A transaction that locked a ref and checked it for conflicts (tryLockAndCheckConflict). This happens for every write
+ * on commit, so the event is disabled by default.
+ *
+ * @author Peter Veentjer.
+ */
+@Name("multiverse.LockAcquire")
+@Label("Lock Acquire")
+@Category({"Multiverse", "Locks"})
+@Description("A transaction that locked a transactional object and checked it for conflicts")
+@Enabled(false)
+@StackTrace(false)
+public class LockAcquireEvent extends Event {
+
+    @Label("Family Name")
+    public String familyName;
+
+    @Label("Object Class")
+    public Class<?> objectClass;
+
+    @Label("Lock Mode")
+    public String lockMode;
+
+    @Label("Lock Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockTime;
+
+    @Label("Success")
+    public boolean success;
+}
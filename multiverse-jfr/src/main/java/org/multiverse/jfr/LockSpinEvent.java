@@ -0,0 +1,33 @@
+package org.multiverse.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A thread that had to spin on the lock of an orec in arriveAndLock.
+ *
+ * @author Peter Veentjer.
+ */
+@Name("multiverse.LockSpin")
+@Label("Lock Spin")
+@Category({"Multiverse", "Locks"})
+@Description("A thread that had to spin on the lock of a transactional object")
+public class LockSpinEvent extends Event {
+
+    @Label("Object Class")
+    public Class<?> objectClass;
+
+    @Label("Lock Mode")
+    public String lockMode;
+
+    @Label("Spin Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long spinTime;
+
+    @Label("Acquired")
+    public boolean acquired;
+}
@@ -0,0 +1,34 @@
+package org.multiverse.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A transaction that ran into a read/write conflict.
+ *
+ * @author Peter Veentjer.
+ */
+@Name("multiverse.ReadWriteConflict")
+@Label("Read/Write Conflict")
+@Category({"Multiverse", "Transactions"})
+@Description("A transaction that ran into a read/write conflict")
+public class ReadWriteConflictEvent extends Event {
+
+    @Label("Family Name")
+    public String familyName;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Conflicting Class")
+    public Class<?> conflictingClass;
+
+    @Label("Read Set Size")
+    public int readSetSize;
+
+    @Label("Write Set Size")
+    public int writeSetSize;
+}
@@ -0,0 +1,30 @@
+package org.multiverse.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A transaction that was blocked in awaitUpdate after a retry.
+ *
+ * @author Peter Veentjer.
+ */
+@Name("multiverse.RetryWait")
+@Label("Retry Wait")
+@Category({"Multiverse", "Transactions"})
+@Description("A transaction that was blocked waiting for an update after a retry")
+public class RetryWaitEvent extends Event {
+
+    @Label("Family Name")
+    public String familyName;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long waitTime;
+}
@@ -0,0 +1,45 @@
+package org.multiverse.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single attempt of a transaction executed by a TxnExecutor. The event starts when the attempt begins and ends when
+ * it commits or aborts.
+ *
+ * @author Peter Veentjer.
+ */
+@Name("multiverse.Transaction")
+@Label("Transaction")
+@Category({"Multiverse", "Transactions"})
+@Description("A single attempt of a transaction executed by a TxnExecutor")
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    @Label("Family Name")
+    public String familyName;
+
+    @Label("Transaction Type")
+    public String transactionType;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Committed")
+    public boolean committed;
+
+    @Label("Abort Reason")
+    public String abortReason;
+
+    @Label("Read Set Size")
+    @Description("The number of refs only read; only known for committed attempts")
+    public int readSetSize;
+
+    @Label("Write Set Size")
+    @Description("The number of refs written, constructed or commuted; only known for committed attempts")
+    public int writeSetSize;
+}
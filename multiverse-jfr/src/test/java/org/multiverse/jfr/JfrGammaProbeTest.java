@@ -0,0 +1,166 @@
+package org.multiverse.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.multiverse.api.Txn;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaProbe;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.GammaTxnExecutor;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import java.io.File;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.multiverse.MultiverseConstants.PROBING_ENABLED;
+import static org.multiverse.api.StmUtils.retry;
+import static org.multiverse.api.TxnThreadLocal.clearThreadLocalTxn;
+
+public class JfrGammaProbeTest {
+
+    private GammaStm stm;
+    private Recording recording;
+
+    @Before
+    public void setUp() {
+        assertTrue("org.multiverse.probing.enabled should be set", PROBING_ENABLED);
+        assertTrue(GammaProbe.get() instanceof JfrGammaProbe);
+
+        stm = new GammaStm();
+        clearThreadLocalTxn();
+        recording = new Recording();
+        recording.enable(TransactionEvent.class);
+        recording.enable(ReadWriteConflictEvent.class);
+        recording.enable(RetryWaitEvent.class);
+        recording.start();
+    }
+
+    @After
+    public void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    public void whenCommit() throws Exception {
+        final GammaTxnLong ref1 = new GammaTxnLong(stm);
+        final GammaTxnLong ref2 = new GammaTxnLong(stm);
+
+        GammaTxnExecutor executor = stm.newTxnFactoryBuilder()
+                .setFamilyName("jfrCommit")
+                .setSpeculative(false)
+                .newTxnExecutor();
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref1.get(tx);
+                ref2.increment(tx);
+            }
+        });
+
+        List<RecordedEvent> events = stopAndRead("multiverse.Transaction");
+        RecordedEvent event = find(events, "jfrCommit");
+        assertTrue(event.getBoolean("committed"));
+        assertEquals(1, event.getInt("attempt"));
+        assertEquals(1, event.getInt("readSetSize"));
+        assertEquals(1, event.getInt("writeSetSize"));
+    }
+
+    @Test
+    public void whenAbortedByFailure() throws Exception {
+        GammaTxnExecutor executor = stm.newTxnFactoryBuilder()
+                .setFamilyName("jfrAbort")
+                .newTxnExecutor();
+        try {
+            executor.execute(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    throw new IllegalStateException();
+                }
+            });
+        } catch (IllegalStateException expected) {
+        }
+
+        RecordedEvent event = find(stopAndRead("multiverse.Transaction"), "jfrAbort");
+        assertFalse(event.getBoolean("committed"));
+        assertEquals(GammaProbe.toAbortReasonString(GammaProbe.ABORT_REASON_FAILURE), event.getString("abortReason"));
+    }
+
+    @Test
+    public void whenReadWriteConflict() throws Exception {
+        GammaTxnLong ref = new GammaTxnLong(stm);
+        GammaTxn tx = stm.newTxnFactoryBuilder()
+                .setFamilyName("jfrConflict")
+                .newTransactionFactory()
+                .newTxn();
+        ref.get(tx);
+        tx.abortOnReadWriteConflict(ref);
+
+        RecordedEvent event = find(stopAndRead("multiverse.ReadWriteConflict"), "jfrConflict");
+        assertEquals(GammaTxnLong.class.getName(), event.getClass("conflictingClass").getName());
+        assertEquals(1, event.getInt("readSetSize"));
+    }
+
+    @Test
+    public void whenRetry() throws Exception {
+        final GammaTxnLong ref = new GammaTxnLong(stm);
+        final GammaTxnExecutor executor = stm.newTxnFactoryBuilder()
+                .setFamilyName("jfrRetry")
+                .newTxnExecutor();
+
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        if (ref.get(tx) == 0) {
+                            retry();
+                        }
+                    }
+                });
+            }
+        };
+        t.start();
+        Thread.sleep(200);
+        ref.atomicSet(1);
+        t.join();
+
+        RecordedEvent event = find(stopAndRead("multiverse.RetryWait"), "jfrRetry");
+        assertTrue(event.getLong("waitTime") > 0);
+    }
+
+    private List<RecordedEvent> stopAndRead(String eventName) throws Exception {
+        recording.stop();
+        File file = File.createTempFile("multiverse", ".jfr");
+        try {
+            recording.dump(file.toPath());
+            List<RecordedEvent> result = new LinkedList<RecordedEvent>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+                if (event.getEventType().getName().equals(eventName)) {
+                    result.add(event);
+                }
+            }
+            return result;
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String familyName) {
+        for (RecordedEvent event : events) {
+            if (familyName.equals(event.getString("familyName"))) {
+                return event;
+            }
+        }
+        throw new AssertionError("No event found for family " + familyName + " in " + events);
+    }
+}
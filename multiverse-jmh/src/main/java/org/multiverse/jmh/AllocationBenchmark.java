@@ -0,0 +1,126 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.StmUtils;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.multiverse.api.GlobalStmInstance.getGlobalStmInstance;
+
+/**
+ * Measures the garbage created by the steady state transaction paths: every transaction type used directly, the
+ * TxnExecutor, the StmUtils.atomic methods and the atomic operations on refs. Run it with the gc profiler:
+ * <pre>
+ * java -jar multiverse-jmh/target/benchmarks.jar AllocationBenchmark -prof gc
+ * </pre>
+ * and look at the 'gc.alloc.rate.norm' (bytes per operation); it should be 0 for all benchmarks. The
+ * GammaStm_allocationTest in multiverse-core verifies the same using the ThreadMXBean and fails the build if one of
+ * these paths starts to allocate.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class AllocationBenchmark {
+
+    @State(Scope.Thread)
+    public static class TxnState {
+        @Param({"LeanMono", "LeanFixedLength", "FatMono", "FatFixedLength", "FatVariableLength"})
+        public TxnType txnType;
+
+        GammaTxn tx;
+        GammaTxnRef<Object>[] refs;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            tx = txnType.newTxn(stm, 1);
+            refs = TxnBenchmarkSupport.newRefs(stm, 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ApiState {
+        GammaTxnLong ref;
+        TxnExecutor executor;
+        TxnVoidCallable incrementCallable;
+        Runnable incrementRunnable;
+
+        @Setup
+        public void setUp() {
+            //StmUtils uses the global stm.
+            GammaStm stm = (GammaStm) getGlobalStmInstance();
+            ref = new GammaTxnLong(stm);
+            executor = stm.newTxnFactoryBuilder().newTxnExecutor();
+            incrementCallable = new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    ref.increment(tx);
+                }
+            };
+            incrementRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    ref.increment();
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void txnRead(TxnState state) {
+        TxnBenchmarkSupport.read(state.tx, state.refs);
+    }
+
+    @Benchmark
+    public void txnWrite(TxnState state) {
+        TxnBenchmarkSupport.write(state.tx, state.refs);
+    }
+
+    @Benchmark
+    public void executor(ApiState state) {
+        state.executor.execute(state.incrementCallable);
+    }
+
+    @Benchmark
+    public void stmUtilsAtomicCallable(ApiState state) {
+        StmUtils.atomic(state.incrementCallable);
+    }
+
+    @Benchmark
+    public void stmUtilsAtomicRunnable(ApiState state) {
+        StmUtils.atomic(state.incrementRunnable);
+    }
+
+    @Benchmark
+    public long atomicIncrementAndGet(ApiState state) {
+        return state.ref.atomicIncrementAndGet(1);
+    }
+
+    @Benchmark
+    public long atomicGet(ApiState state) {
+        return state.ref.atomicGet();
+    }
+}
@@ -0,0 +1,143 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.exceptions.LockedException;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks the atomic operations of the GammaTxnLong (so without a transaction) and compares them with the
+ * AtomicLong. Seeded from the AtomicGetDriver, AtomicSetDriver, AtomicIncrementDriver and AtomicLongIncrementDriver.
+ * <p/>
+ * If contended, all threads share the same ref, else every thread has its own ref. An atomic operation on a ref
+ * that is locked by another atomic operation fails with a LockedException; it is retried.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtomicBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"false", "true"})
+        public boolean contended;
+
+        GammaStm stm;
+        GammaTxnLong ref;
+        AtomicLong atomicLong;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            ref = new GammaTxnLong(stm);
+            atomicLong = new AtomicLong();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        GammaTxnLong ref;
+        AtomicLong atomicLong;
+        long value;
+
+        @Setup
+        public void setUp(SharedState shared) {
+            ref = shared.contended ? shared.ref : new GammaTxnLong(shared.stm);
+            atomicLong = shared.contended ? shared.atomicLong : new AtomicLong();
+        }
+    }
+
+    @Benchmark
+    public long atomicGet(ThreadState state) {
+        for (; ; ) {
+            try {
+                return state.ref.atomicGet();
+            } catch (LockedException expected) {
+                //the ref was locked by another atomic operation, just try again
+            }
+        }
+    }
+
+    @Benchmark
+    public long atomicWeakGet(ThreadState state) {
+        return state.ref.atomicWeakGet();
+    }
+
+    @Benchmark
+    public void atomicSet(ThreadState state) {
+        for (; ; ) {
+            try {
+                state.ref.atomicSet(state.value++);
+                return;
+            } catch (LockedException expected) {
+                //the ref was locked by another atomic operation, just try again
+            }
+        }
+    }
+
+    @Benchmark
+    public long atomicGetAndSet(ThreadState state) {
+        for (; ; ) {
+            try {
+                return state.ref.atomicGetAndSet(state.value++);
+            } catch (LockedException expected) {
+                //the ref was locked by another atomic operation, just try again
+            }
+        }
+    }
+
+    @Benchmark
+    public long atomicIncrementAndGet(ThreadState state) {
+        for (; ; ) {
+            try {
+                return state.ref.atomicIncrementAndGet(1);
+            } catch (LockedException expected) {
+                //the ref was locked by another atomic operation, just try again
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean atomicCompareAndSet(ThreadState state) {
+        for (; ; ) {
+            try {
+                long current = state.ref.atomicGet();
+                return state.ref.atomicCompareAndSet(current, current + 1);
+            } catch (LockedException expected) {
+                //the ref was locked by another atomic operation, just try again
+            }
+        }
+    }
+
+    @Benchmark
+    public long atomicLongGet(ThreadState state) {
+        return state.atomicLong.get();
+    }
+
+    @Benchmark
+    public void atomicLongSet(ThreadState state) {
+        state.atomicLong.set(state.value++);
+    }
+
+    @Benchmark
+    public long atomicLongIncrementAndGet(ThreadState state) {
+        return state.atomicLong.incrementAndGet();
+    }
+}
@@ -0,0 +1,80 @@
+package org.multiverse.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks for a range of thread counts and writes the results of every thread count as json to
+ * 'target/jmh-result-t&lt;threadCount&gt;.json'.
+ * <p/>
+ * The thread counts can be set using the 'multiverse.jmh.threads' system property as a comma separated list, e.g.
+ * '1,2,4,8'. The default is 1 and all powers of 2 up to the number of available processors. All other arguments are
+ * passed to JMH, so e.g. a regular expression can be used to select the benchmarks to run.
+ * <p/>
+ * The benchmarks in the baseline package compare the transactional structures with their java.util.concurrent
+ * counterparts and also run in the SampleTime mode, so the json contains the latency percentiles as well. Run only
+ * them by passing 'baseline' as argument.
+ * <p/>
+ * The STAMP workloads in the stamp package start their own threads (configured using their 'threads' parameter), so
+ * they are excluded; run them directly with JMH.
+ *
+ * @author Peter Veentjer.
+ */
+public final class BenchmarkRunner {
+
+    private static final String STAMP_BENCHMARKS = "org\\.multiverse\\.jmh\\.stamp\\..*";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        File resultDir = new File(System.getProperty("multiverse.jmh.resultDir", "target"));
+        if (!resultDir.isDirectory() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("Failed to create directory " + resultDir);
+        }
+
+        for (int threadCount : getThreadCounts()) {
+            File resultFile = new File(resultDir, "jmh-result-t" + threadCount + ".json");
+            System.out.printf("Multiverse > Running benchmarks with %s threads, results in %s\n",
+                    threadCount, resultFile);
+
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .exclude(STAMP_BENCHMARKS)
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultFile.getPath());
+
+            new Runner(options.build()).run();
+        }
+    }
+
+    static List<Integer> getThreadCounts() {
+        List<Integer> result = new ArrayList<Integer>();
+
+        String threads = System.getProperty("multiverse.jmh.threads");
+        if (threads != null) {
+            for (String item : threads.split(",")) {
+                result.add(Integer.parseInt(item.trim()));
+            }
+            return result;
+        }
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threadCount = 1; threadCount <= processors; threadCount *= 2) {
+            result.add(threadCount);
+        }
+        return result;
+    }
+
+    private BenchmarkRunner() {
+    }
+}
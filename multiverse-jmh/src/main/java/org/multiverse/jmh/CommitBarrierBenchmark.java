@@ -0,0 +1,106 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnFactory;
+import org.multiverse.commitbarriers.CountDownCommitBarrier;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the join to release latency of a CountDownCommitBarrier with a lot of parties: every operation all parties
+ * (each on its own thread) prepare a transaction and join the barrier, and the operation completes when the last
+ * party has been released and has committed.
+ * <p/>
+ * The countDownLatch benchmark does the same with a CountDownLatch instead of the CountDownCommitBarrier (and without
+ * the transactions). It is the cost of handing out the work to the threads and waiting for them, so the difference
+ * between the 2 is the cost of the barrier.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommitBarrierBenchmark {
+
+    @Param({"16", "256"})
+    public int parties;
+
+    private ExecutorService executor;
+    private TxnFactory txnFactory;
+    private GammaTxnLong[] refs;
+
+    @Setup
+    public void setUp() {
+        GammaStm stm = new GammaStm();
+        executor = Executors.newFixedThreadPool(parties);
+        txnFactory = stm.newTxnFactoryBuilder()
+                .setSpeculative(false)
+                .newTransactionFactory();
+        refs = TxnBenchmarkSupport.newLongs(stm, parties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void commitBarrier() throws InterruptedException {
+        final CountDownCommitBarrier barrier = new CountDownCommitBarrier(parties);
+        final CountDownLatch released = new CountDownLatch(parties);
+        for (int k = 0; k < parties; k++) {
+            final GammaTxnLong ref = refs[k];
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Txn tx = txnFactory.newTxn();
+                    ref.increment(tx);
+                    barrier.joinCommitUninterruptibly(tx);
+                    released.countDown();
+                }
+            });
+        }
+        released.await();
+    }
+
+    @Benchmark
+    public void countDownLatch() throws InterruptedException {
+        final CountDownLatch barrier = new CountDownLatch(parties);
+        final CountDownLatch released = new CountDownLatch(parties);
+        for (int k = 0; k < parties; k++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    barrier.countDown();
+                    try {
+                        barrier.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    released.countDown();
+                }
+            });
+        }
+        released.await();
+    }
+}
@@ -0,0 +1,74 @@
+package org.multiverse.jmh;
+
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes a single ref with every transaction type. Seeded from the MonoReadDriver, MonoUpdateDriver,
+ * LeanMonoGammaBenchmark and the UncontendedMonoUpdateDriver.
+ * <p/>
+ * If contended, all threads share the same ref, else every thread has its own ref.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GammaTxnBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"LeanMono", "LeanFixedLength", "FatMono", "FatFixedLength", "FatVariableLength"})
+        public TxnType txnType;
+
+        @Param({"false", "true"})
+        public boolean contended;
+
+        GammaStm stm;
+        GammaTxnRef<Object>[] refs;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            refs = TxnBenchmarkSupport.newRefs(stm, 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        GammaTxn tx;
+        GammaTxnRef<Object>[] refs;
+
+        @Setup
+        public void setUp(SharedState shared) {
+            tx = shared.txnType.newTxn(shared.stm, 1);
+            refs = shared.contended ? shared.refs : TxnBenchmarkSupport.newRefs(shared.stm, 1);
+        }
+    }
+
+    @Benchmark
+    public void read(ThreadState state) {
+        TxnBenchmarkSupport.read(state.tx, state.refs);
+    }
+
+    @Benchmark
+    public void write(ThreadState state) {
+        TxnBenchmarkSupport.write(state.tx, state.refs);
+    }
+}
@@ -0,0 +1,67 @@
+package org.multiverse.jmh;
+
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commutes an increment on a GammaTxnLong. Lean transactions don't support commuting, so only the fat transactions
+ * are benchmarked. Seeded from the ContendedCounterDriver.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GammaTxnCommuteBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"FatMono", "FatFixedLength", "FatVariableLength"})
+        public TxnType txnType;
+
+        @Param({"false", "true"})
+        public boolean contended;
+
+        GammaStm stm;
+        GammaTxnLong[] refs;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            refs = TxnBenchmarkSupport.newLongs(stm, 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        GammaTxn tx;
+        GammaTxnLong[] refs;
+
+        @Setup
+        public void setUp(SharedState shared) {
+            tx = shared.txnType.newTxn(shared.stm, 1);
+            refs = shared.contended ? shared.refs : TxnBenchmarkSupport.newLongs(shared.stm, 1);
+        }
+    }
+
+    @Benchmark
+    public void commute(ThreadState state) {
+        TxnBenchmarkSupport.commute(state.tx, state.refs);
+    }
+}
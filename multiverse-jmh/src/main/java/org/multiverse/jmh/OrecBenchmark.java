@@ -0,0 +1,91 @@
+package org.multiverse.jmh;
+
+import org.multiverse.stms.gamma.GammaConstants;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the orec primitives that the transactions are build on. Seeded from the drivers in the
+ * org.multiverse.stms.gamma.benchmarks.orec package.
+ * <p/>
+ * Every thread has its own orec, so this measures the uncontended cost of the primitives. The orec under contention is
+ * covered by the transaction benchmarks.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrecBenchmark implements GammaConstants {
+
+    @State(Scope.Thread)
+    public static class OrecState {
+        GammaTxnLong orec;
+
+        @Setup
+        public void setUp() {
+            orec = new GammaTxnLong(new GammaStm());
+        }
+    }
+
+    /**
+     * A read that doesn't make the orec read biased; once it becomes read biased, it is reset by an update.
+     */
+    @Benchmark
+    public void normalRead(OrecState state) {
+        final GammaTxnLong orec = state.orec;
+        int arriveStatus = orec.arrive(0);
+        if ((arriveStatus & MASK_UNREGISTERED) == 0) {
+            orec.departAfterReading();
+        } else {
+            orec.arriveAndLock(0, LOCKMODE_EXCLUSIVE);
+            orec.departAfterUpdateAndUnlock();
+        }
+    }
+
+    @Benchmark
+    public void readBiasedRead(OrecState state) {
+        final GammaTxnLong orec = state.orec;
+        int arriveStatus = orec.arrive(0);
+        if ((arriveStatus & MASK_UNREGISTERED) == 0) {
+            orec.departAfterReading();
+        }
+    }
+
+    @Benchmark
+    public void normalUpdate(OrecState state) {
+        final GammaTxnLong orec = state.orec;
+        orec.arrive(1);
+        orec.lockAfterArrive(1, LOCKMODE_EXCLUSIVE);
+        orec.departAfterUpdateAndUnlock();
+    }
+
+    @Benchmark
+    public void commitLockUpdate(OrecState state) {
+        final GammaTxnLong orec = state.orec;
+        orec.arriveAndLock(0, LOCKMODE_EXCLUSIVE);
+        orec.departAfterUpdateAndUnlock();
+    }
+
+    @Benchmark
+    public void writeLockUpdate(OrecState state) {
+        final GammaTxnLong orec = state.orec;
+        orec.arriveAndLock(0, LOCKMODE_WRITE);
+        orec.upgradeWriteLock();
+        orec.departAfterUpdateAndUnlock();
+    }
+}
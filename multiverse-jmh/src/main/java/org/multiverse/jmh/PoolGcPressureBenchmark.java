@@ -0,0 +1,144 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaConstants;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.PoolStatistics;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
+import org.multiverse.stms.gamma.transactions.GammaTxnPool;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the garbage created by large (1k ref) update transactions, and so how well the GammaObjectPool and the
+ * GammaTxnPool size themselves:
+ * <ol>
+ * <li>pooledTxn: a single FatVariableLengthGammaTxn that is reused, so all tranlocals and the tranlocal array come
+ * from the object pool of the transaction.</li>
+ * <li>freshTxn: a new FatVariableLengthGammaTxn for every transaction, so nothing is pooled. This is the garbage the
+ * pools prevent.</li>
+ * <li>executor: the transactions are executed by a TxnExecutor, so the transactions come from the GammaTxnPool of the
+ * thread.</li>
+ * </ol>
+ * Run it with the gc profiler:
+ * <pre>
+ * java -jar multiverse-jmh/target/benchmarks.jar PoolGcPressureBenchmark -prof gc
+ * </pre>
+ * and look at the 'gc.alloc.rate.norm' (bytes per operation) and the gc count. The statistics of the pools (hits,
+ * misses, drops and capacity) are printed at the end of every trial.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class PoolGcPressureBenchmark implements GammaConstants {
+
+    @State(Scope.Thread)
+    public static class TxnState {
+        @Param({"1000"})
+        public int refCount;
+
+        GammaStm stm;
+        GammaTxnConfig config;
+        FatVariableLengthGammaTxn tx;
+        GammaTxnRef<Object>[] refs;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            config = new GammaTxnConfig(stm)
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .setMaximumPoorMansConflictScanLength(0);
+            tx = new FatVariableLengthGammaTxn(config);
+            refs = TxnBenchmarkSupport.newRefs(stm, refCount);
+        }
+
+        @TearDown(Level.Trial)
+        public void printStatistics() {
+            System.out.println();
+            System.out.println("GammaObjectPool statistics of the pooled transaction:");
+            List<PoolStatistics> statistics = new ArrayList<PoolStatistics>();
+            tx.pool.getStatistics(statistics);
+            for (PoolStatistics s : statistics) {
+                System.out.println("    " + s);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutorState {
+        @Param({"1000"})
+        public int refCount;
+
+        TxnExecutor executor;
+        TxnVoidCallable callable;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            final GammaTxnRef<Object>[] refs = TxnBenchmarkSupport.newRefs(stm, refCount);
+            executor = stm.newTxnFactoryBuilder()
+                    .setSpeculative(false)
+                    .newTxnExecutor();
+            callable = new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    for (int k = 0; k < refs.length; k++) {
+                        GammaTxnRef<Object> ref = refs[k];
+                        ref.set(tx, ref.get(tx) == TxnBenchmarkSupport.VALUE_A
+                                ? TxnBenchmarkSupport.VALUE_B
+                                : TxnBenchmarkSupport.VALUE_A);
+                    }
+                }
+            };
+        }
+
+        @TearDown(Level.Trial)
+        public void printStatistics() {
+            System.out.println();
+            System.out.println("GammaTxnPool statistics:");
+            for (PoolStatistics s : GammaTxnPool.getStatisticsOfAllPools().values()) {
+                System.out.println("    " + s);
+            }
+        }
+    }
+
+    @Benchmark
+    public void pooledTxn(TxnState state) {
+        TxnBenchmarkSupport.write(state.tx, state.refs);
+    }
+
+    @Benchmark
+    public void freshTxn(TxnState state) {
+        TxnBenchmarkSupport.write(new FatVariableLengthGammaTxn(state.config), state.refs);
+    }
+
+    @Benchmark
+    public void executor(ExecutorState state) {
+        state.executor.execute(state.callable);
+    }
+}
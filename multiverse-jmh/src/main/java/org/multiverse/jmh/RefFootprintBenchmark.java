@@ -0,0 +1,88 @@
+package org.multiverse.jmh;
+
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnBoolean;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnDouble;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnInteger;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.LongTranlocal;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the memory footprint of the gamma refs and of the tranlocals they are read into. Every benchmark creates a
+ * single object, so when it is run with the gc profiler:
+ * <pre>
+ * java -jar multiverse-jmh/target/benchmarks.jar RefFootprintBenchmark -prof gc
+ * </pre>
+ * the 'gc.alloc.rate.norm' (bytes per operation) is the shallow size of the object. With a heap full of refs, this is
+ * what every ref costs.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class RefFootprintBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class StmState {
+        GammaStm stm;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+        }
+    }
+
+    @Benchmark
+    public GammaTxnLong txnLong(StmState state) {
+        return new GammaTxnLong(state.stm);
+    }
+
+    @Benchmark
+    public GammaTxnInteger txnInteger(StmState state) {
+        return new GammaTxnInteger(state.stm);
+    }
+
+    @Benchmark
+    public GammaTxnDouble txnDouble(StmState state) {
+        return new GammaTxnDouble(state.stm);
+    }
+
+    @Benchmark
+    public GammaTxnBoolean txnBoolean(StmState state) {
+        return new GammaTxnBoolean(state.stm);
+    }
+
+    @Benchmark
+    public GammaTxnRef<Object> txnRef(StmState state) {
+        return new GammaTxnRef<Object>(state.stm);
+    }
+
+    @Benchmark
+    public LongTranlocal longTranlocal() {
+        return new LongTranlocal();
+    }
+
+    @Benchmark
+    public RefTranlocal<Object> refTranlocal() {
+        return new RefTranlocal<Object>();
+    }
+}
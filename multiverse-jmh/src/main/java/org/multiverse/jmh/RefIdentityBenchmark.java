@@ -0,0 +1,137 @@
+package org.multiverse.jmh;
+
+import org.multiverse.stms.gamma.GammaConstants;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ids handed out by the GammaObjectIdGenerator with the System.identityHashCode the refs used before:
+ * <ol>
+ * <li>firstTouch: the cost of creating a ref and getting its identity for the first time; with the
+ * System.identityHashCode the hash needs to be created and stored in the object header.</li>
+ * <li>probeCollisions: the number of refs (reported as the 'collisions' counter) that can't be placed in their home
+ * slot when the identities of freshly created refs are put in a table with twice as many slots as refs, using the
+ * same '%' based slot selection as the FatVariableLengthGammaTxn.</li>
+ * <li>variableLengthRead: reading freshly created refs in a FatVariableLengthGammaTxn, which includes the probing.</li>
+ * </ol>
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class RefIdentityBenchmark implements GammaConstants {
+
+    @State(Scope.Thread)
+    public static class IdentityState {
+        @Param({"GammaObjectId", "SystemIdentityHashCode"})
+        public String idSource;
+
+        @Param({"64", "1024"})
+        public int refCount;
+
+        GammaStm stm;
+        boolean system;
+        boolean[] occupied;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            system = "SystemIdentityHashCode".equals(idSource);
+            occupied = new boolean[refCount * 2];
+        }
+
+        int identityOf(GammaTxnLong ref) {
+            return system ? System.identityHashCode(ref) : ref.identityHashCode();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ReadState {
+        @Param({"64", "1024"})
+        public int refCount;
+
+        GammaStm stm;
+        FatVariableLengthGammaTxn tx;
+        GammaTxnLong[] refs;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            GammaTxnConfig config = new GammaTxnConfig(stm)
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .setMaximumPoorMansConflictScanLength(0);
+            tx = new FatVariableLengthGammaTxn(config);
+        }
+
+        @Setup(Level.Invocation)
+        public void newRefs() {
+            //the refs need to be new, so that the first touch is measured.
+            refs = TxnBenchmarkSupport.newLongs(stm, refCount);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Collisions {
+        public long collisions;
+    }
+
+    @Benchmark
+    public int firstTouch(IdentityState state) {
+        return state.identityOf(new GammaTxnLong(state.stm));
+    }
+
+    @Benchmark
+    public void probeCollisions(IdentityState state, Collisions counters) {
+        final boolean[] occupied = state.occupied;
+        for (int k = 0; k < occupied.length; k++) {
+            occupied[k] = false;
+        }
+
+        for (int k = 0; k < state.refCount; k++) {
+            int index = state.identityOf(new GammaTxnLong(state.stm)) % occupied.length;
+            if (index < 0) {
+                index += occupied.length;
+            }
+
+            if (occupied[index]) {
+                counters.collisions++;
+            } else {
+                occupied[index] = true;
+            }
+        }
+    }
+
+    @Benchmark
+    public void variableLengthRead(ReadState state) {
+        final FatVariableLengthGammaTxn tx = state.tx;
+        final GammaTxnLong[] refs = state.refs;
+        for (int k = 0; k < refs.length; k++) {
+            refs[k].openForRead(tx, LOCKMODE_NONE);
+        }
+        tx.commit();
+        tx.hardReset();
+    }
+}
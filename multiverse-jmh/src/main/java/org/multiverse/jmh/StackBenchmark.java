@@ -0,0 +1,112 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.collections.NaiveTxnStack;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compares a transactional stack with a stack protected by an intrinsic lock and by a ReentrantLock. Seeded from the
+ * SimpleStackDriver, IntrinsicLockStackDriver and JucLockStackDriver.
+ * <p/>
+ * Every operation is a push followed by a pop, so the stack never is empty when popped and no thread blocks.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+    private static final String ITEM = "item";
+
+    @State(Scope.Benchmark)
+    public static class TxnStackState {
+        GammaStm stm;
+        NaiveTxnStack<String> stack;
+        TxnExecutor pushExecutor;
+        TxnExecutor popExecutor;
+        TxnVoidCallable pushCallable;
+        TxnCallable<String> popCallable;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            stack = new NaiveTxnStack<String>(stm);
+            pushExecutor = stm.newTxnFactoryBuilder().newTxnExecutor();
+            popExecutor = stm.newTxnFactoryBuilder().newTxnExecutor();
+            pushCallable = new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    stack.push(tx, ITEM);
+                }
+            };
+            popCallable = new TxnCallable<String>() {
+                @Override
+                public String call(Txn tx) {
+                    return stack.pop(tx);
+                }
+            };
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockStackState {
+        final LinkedList<String> stack = new LinkedList<String>();
+        final ReentrantLock lock = new ReentrantLock();
+    }
+
+    @Benchmark
+    public String txnStack(TxnStackState state) {
+        state.pushExecutor.execute(state.pushCallable);
+        return state.popExecutor.execute(state.popCallable);
+    }
+
+    @Benchmark
+    public String intrinsicLockStack(LockStackState state) {
+        final LinkedList<String> stack = state.stack;
+        synchronized (stack) {
+            stack.addFirst(ITEM);
+        }
+        synchronized (stack) {
+            return stack.removeFirst();
+        }
+    }
+
+    @Benchmark
+    public String jucLockStack(LockStackState state) {
+        final LinkedList<String> stack = state.stack;
+        final ReentrantLock lock = state.lock;
+        lock.lock();
+        try {
+            stack.addFirst(ITEM);
+        } finally {
+            lock.unlock();
+        }
+
+        lock.lock();
+        try {
+            return stack.removeFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
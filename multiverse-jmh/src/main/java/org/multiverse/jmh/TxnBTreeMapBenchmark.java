@@ -0,0 +1,165 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnIntCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.api.collections.TxnNavigableMap;
+import org.multiverse.collections.TxnBTreeMap;
+import org.multiverse.collections.TxnSkipListMap;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the TxnBTreeMap with the TxnSkipListMap for point lookups, updates and range scans on a large map.
+ * <p/>
+ * The map is filled with the even keys from 0 until 2*keySpace during the setup, so a put always replaces an
+ * existing value. The range scan sums the values of rangeSize consecutive keys starting at a random key.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnBTreeMapBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"TxnSkipListMap", "TxnBTreeMap"})
+        public String mapType;
+
+        @Param({"1048576"})
+        public int keySpace;
+
+        @Param({"100"})
+        public int rangeSize;
+
+        TxnNavigableMap<Integer, Integer> map;
+        TxnExecutor executor;
+        TxnExecutor readonlyExecutor;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            readonlyExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            if ("TxnSkipListMap".equals(mapType)) {
+                map = new TxnSkipListMap<Integer, Integer>(stm);
+            } else {
+                map = new TxnBTreeMap<Integer, Integer>(stm);
+            }
+
+            for (int k = 0; k < keySpace; k += LOAD_BATCH_SIZE) {
+                final int from = k;
+                final int to = Math.min(keySpace, k + LOAD_BATCH_SIZE);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        for (int i = from; i < to; i++) {
+                            map.put(tx, i * 2, i * 2);
+                        }
+                    }
+                });
+            }
+        }
+
+        Integer randomKey() {
+            return ThreadLocalRandom.current().nextInt(keySpace) * 2;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final GetCallable getCallable = new GetCallable();
+        final PutCallable putCallable = new PutCallable();
+        final RangeScanCallable rangeScanCallable = new RangeScanCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            getCallable.map = shared.map;
+            putCallable.map = shared.map;
+            rangeScanCallable.map = shared.map;
+        }
+    }
+
+    @Benchmark
+    public Integer get(SharedState shared, ThreadState state) {
+        state.getCallable.key = shared.randomKey();
+        return shared.readonlyExecutor.execute(state.getCallable);
+    }
+
+    @Benchmark
+    public void put(SharedState shared, ThreadState state) {
+        state.putCallable.key = shared.randomKey();
+        shared.executor.execute(state.putCallable);
+    }
+
+    @Benchmark
+    public int rangeScan(SharedState shared, ThreadState state) {
+        Integer from = shared.randomKey();
+        state.rangeScanCallable.from = from;
+        state.rangeScanCallable.to = from + 2 * shared.rangeSize;
+        return shared.readonlyExecutor.execute(state.rangeScanCallable);
+    }
+
+    static final class GetCallable implements TxnCallable<Integer> {
+        TxnNavigableMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public Integer call(Txn tx) {
+            return map.get(tx, key);
+        }
+    }
+
+    static final class PutCallable implements TxnVoidCallable {
+        TxnNavigableMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public void call(Txn tx) {
+            map.put(tx, key, key);
+        }
+    }
+
+    static final class RangeScanCallable implements TxnIntCallable {
+        TxnNavigableMap<Integer, Integer> map;
+        Integer from;
+        Integer to;
+
+        @Override
+        public int call(Txn tx) {
+            int sum = 0;
+            TxnIterator<Map.Entry<Integer, Integer>> it = map.subMap(from, to).entrySet(tx).iterator(tx);
+            while (it.hasNext(tx)) {
+                sum += it.next(tx).getValue();
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.exceptions.ReadWriteConflict;
+import org.multiverse.stms.gamma.GammaConstants;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnRef;
+import org.multiverse.stms.gamma.transactionalobjects.RefTranlocal;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+
+import static org.multiverse.api.functions.Functions.incLongFunction;
+
+/**
+ * The transaction logic shared by the transaction benchmarks. The transactions are used directly (so without a
+ * TxnExecutor) just like the old hand written drivers did, so only the cost of the transaction itself is measured.
+ * <p/>
+ * A transaction that runs into a {@link ReadWriteConflict} (only possible when contended) is retried until it commits,
+ * so every benchmark operation is a committed transaction.
+ *
+ * @author Peter Veentjer.
+ */
+final class TxnBenchmarkSupport implements GammaConstants {
+
+    static final Object VALUE_A = "a";
+    static final Object VALUE_B = "b";
+
+    @SuppressWarnings("unchecked")
+    static GammaTxnRef<Object>[] newRefs(GammaStm stm, int refCount) {
+        GammaTxnRef<Object>[] refs = new GammaTxnRef[refCount];
+        for (int k = 0; k < refs.length; k++) {
+            refs[k] = new GammaTxnRef<Object>(stm, VALUE_A);
+        }
+        return refs;
+    }
+
+    static GammaTxnLong[] newLongs(GammaStm stm, int refCount) {
+        GammaTxnLong[] refs = new GammaTxnLong[refCount];
+        for (int k = 0; k < refs.length; k++) {
+            refs[k] = new GammaTxnLong(stm);
+        }
+        return refs;
+    }
+
+    static void read(GammaTxn tx, GammaTxnRef<Object>[] refs) {
+        for (; ; ) {
+            try {
+                for (int k = 0; k < refs.length; k++) {
+                    refs[k].openForRead(tx, LOCKMODE_NONE);
+                }
+                tx.commit();
+                return;
+            } catch (ReadWriteConflict expected) {
+                //ignore, just try again
+            } finally {
+                tx.hardReset();
+            }
+        }
+    }
+
+    static void write(GammaTxn tx, GammaTxnRef<Object>[] refs) {
+        for (; ; ) {
+            try {
+                for (int k = 0; k < refs.length; k++) {
+                    RefTranlocal<Object> tranlocal = refs[k].openForWrite(tx, LOCKMODE_NONE);
+                    //flip the value so the dirty check doesn't turn the write into a read
+                    tranlocal.ref_value = tranlocal.ref_value == VALUE_A ? VALUE_B : VALUE_A;
+                }
+                tx.commit();
+                return;
+            } catch (ReadWriteConflict expected) {
+                //ignore, just try again
+            } finally {
+                tx.hardReset();
+            }
+        }
+    }
+
+    static void commute(GammaTxn tx, GammaTxnLong[] refs) {
+        for (; ; ) {
+            try {
+                for (int k = 0; k < refs.length; k++) {
+                    refs[k].commute(tx, incLongFunction());
+                }
+                tx.commit();
+                return;
+            } catch (ReadWriteConflict expected) {
+                //ignore, just try again
+            } finally {
+                tx.hardReset();
+            }
+        }
+    }
+
+    private TxnBenchmarkSupport() {
+    }
+}
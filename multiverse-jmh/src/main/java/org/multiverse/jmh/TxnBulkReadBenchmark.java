@@ -0,0 +1,153 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnLongCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.ScanMode;
+import org.multiverse.api.collections.TxnAggregator;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.collections.TxnBulkReader;
+import org.multiverse.collections.TxnHashMap;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums the values of a large TxnHashMap: sequentially in a single readonly transaction, and in parallel using the
+ * TxnBulkReader; once based on a consistent snapshot (read locks) and once with an independent transaction per part.
+ * <p/>
+ * The sequential sum tracks every bucket in a single transaction. The untracked sequential sum uses an
+ * {@link ScanMode#Untracked} scan, so the transaction doesn't track anything and every bucket is only consistent on
+ * its own. The parallel variants spread the parts over all available processors.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnBulkReadBenchmark {
+
+    private static final TxnAggregator<Map.Entry<Integer, Long>, Long> SUM
+            = new TxnAggregator<Map.Entry<Integer, Long>, Long>() {
+        @Override
+        public Long newResult() {
+            return 0L;
+        }
+
+        @Override
+        public Long add(Long result, Map.Entry<Integer, Long> item) {
+            return result + item.getValue();
+        }
+
+        @Override
+        public Long combine(Long left, Long right) {
+            return left + right;
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class MapState {
+        @Param({"1000000"})
+        public int size;
+
+        TxnHashMap<Integer, Long> map;
+        TxnExecutor readonlyExecutor;
+        TxnLongCallable sequentialSum;
+        TxnLongCallable untrackedSum;
+        ExecutorService executorService;
+        TxnBulkReader reader;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            map = new TxnHashMap<Integer, Long>(stm);
+            TxnExecutor executor = stm.newTxnFactoryBuilder().newTxnExecutor();
+            //filled in batches, so a single transaction doesn't need to track all entries.
+            for (int batch = 0; batch < size; batch += 10000) {
+                final int from = batch;
+                final int to = Math.min(size, batch + 10000);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        for (int k = from; k < to; k++) {
+                            map.put(tx, k, (long) k);
+                        }
+                    }
+                });
+            }
+
+            readonlyExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .newTxnExecutor();
+            sequentialSum = new TxnLongCallable() {
+                @Override
+                public long call(Txn tx) {
+                    long sum = 0;
+                    for (Map.Entry<Integer, Long> entry : map.entrySet(tx)) {
+                        sum += entry.getValue();
+                    }
+                    return sum;
+                }
+            };
+
+            untrackedSum = new TxnLongCallable() {
+                @Override
+                public long call(Txn tx) {
+                    long sum = 0;
+                    TxnIterator<Map.Entry<Integer, Long>> it = map.entrySet(tx).iterator(tx, ScanMode.Untracked);
+                    while (it.hasNext(tx)) {
+                        sum += it.next(tx).getValue();
+                    }
+                    return sum;
+                }
+            };
+
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            executorService = Executors.newFixedThreadPool(parallelism);
+            reader = new TxnBulkReader(stm, executorService, parallelism);
+        }
+
+        @TearDown
+        public void tearDown() {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public long sequential(MapState state) {
+        return state.readonlyExecutor.execute(state.sequentialSum);
+    }
+
+    @Benchmark
+    public long sequentialUntracked(MapState state) {
+        return state.readonlyExecutor.execute(state.untrackedSum);
+    }
+
+    @Benchmark
+    public long parallelSnapshot(MapState state) {
+        return state.reader.aggregate(state.map, SUM);
+    }
+
+    @Benchmark
+    public long parallelPerPart(MapState state) {
+        return state.reader.aggregatePerPart(state.map, SUM);
+    }
+}
@@ -0,0 +1,152 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnBooleanCallable;
+import org.multiverse.collections.TxnClockCache;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Does a get followed by a put on a miss (a 'get or load') on a cache that is much smaller than the key space. The
+ * keys are skewed, so a small part of the keys is requested most of the time.
+ * <p/>
+ * The TxnClockCache is compared with an exact LRU cache: a synchronized access ordered LinkedHashMap. The hits and
+ * misses are reported as secondary results, so the hit rate of the CLOCK approximation can be compared with the one
+ * of LRU. A get on the TxnClockCache doesn't write transactional state, so concurrent gets don't conflict.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnCacheBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+    private static final int KEYS_PER_THREAD = 1 << 14;
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"TxnClockCache", "LRU"})
+        public String cacheType;
+
+        @Param({"1024"})
+        public int maximumSize;
+
+        TxnClockCache<Integer, Integer> txnCache;
+        Map<Integer, Integer> lruCache;
+        TxnExecutor executor;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            txnCache = new TxnClockCache<Integer, Integer>(stm, maximumSize);
+            final int max = maximumSize;
+            lruCache = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > max;
+                }
+            };
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Integer[] keys = new Integer[KEYS_PER_THREAD];
+        int index;
+        final GetOrLoadCallable callable = new GetOrLoadCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            //cubing a uniform random number gives a skewed distribution; about 20% of the requests are for the
+            //1% of the keys with the lowest value.
+            Random random = new Random();
+            for (int k = 0; k < keys.length; k++) {
+                double r = random.nextDouble();
+                keys[k] = (int) (r * r * r * KEY_COUNT);
+            }
+            callable.cache = shared.txnCache;
+        }
+
+        Integer nextKey() {
+            Integer key = keys[index];
+            index = (index + 1) & (KEYS_PER_THREAD - 1);
+            return key;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    static final class GetOrLoadCallable implements TxnBooleanCallable {
+        TxnClockCache<Integer, Integer> cache;
+        Integer key;
+
+        @Override
+        public boolean call(Txn tx) {
+            if (cache.get(tx, key) != null) {
+                return true;
+            }
+
+            cache.put(tx, key, key);
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean getOrLoad(SharedState shared, ThreadState thread, HitCounters counters) {
+        Integer key = thread.nextKey();
+        boolean hit;
+        if ("LRU".equals(shared.cacheType)) {
+            synchronized (shared.lruCache) {
+                hit = shared.lruCache.get(key) != null;
+                if (!hit) {
+                    shared.lruCache.put(key, key);
+                }
+            }
+        } else {
+            thread.callable.key = key;
+            hit = shared.executor.execute(thread.callable);
+        }
+
+        if (hit) {
+            counters.hits++;
+        } else {
+            counters.misses++;
+        }
+        return hit;
+    }
+}
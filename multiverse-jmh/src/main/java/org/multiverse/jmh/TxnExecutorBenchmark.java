@@ -0,0 +1,169 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnLongCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks complete transactions executed by a TxnExecutor, so including the thread local transaction, the
+ * transaction pooling and the retry logic. Seeded from the ContendedCounterDriver and the AccountDriver.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnExecutorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CounterState {
+        @Param({"false", "true"})
+        public boolean contended;
+
+        GammaStm stm;
+        GammaTxnLong counter;
+        TxnExecutor executor;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            counter = new GammaTxnLong(stm);
+            executor = stm.newTxnFactoryBuilder().newTxnExecutor();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CounterThreadState {
+        IncrementCallable incrementCallable;
+
+        @Setup
+        public void setUp(CounterState shared) {
+            GammaTxnLong counter = shared.contended ? shared.counter : new GammaTxnLong(shared.stm);
+            incrementCallable = new IncrementCallable(counter);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BankState {
+        @Param({"64"})
+        public int accountCount;
+
+        GammaStm stm;
+        GammaTxnLong[] accounts;
+        TxnExecutor transferExecutor;
+        TxnExecutor computeTotalExecutor;
+
+        @Setup
+        public void setUp() {
+            stm = new GammaStm();
+            accounts = new GammaTxnLong[accountCount];
+            for (int k = 0; k < accounts.length; k++) {
+                accounts[k] = new GammaTxnLong(stm, 1000);
+            }
+            transferExecutor = stm.newTxnFactoryBuilder().newTxnExecutor();
+            computeTotalExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .newTxnExecutor();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BankThreadState {
+        TransferCallable transferCallable;
+        ComputeTotalCallable computeTotalCallable;
+
+        @Setup
+        public void setUp(BankState bank) {
+            transferCallable = new TransferCallable(bank.accounts);
+            computeTotalCallable = new ComputeTotalCallable(bank.accounts);
+        }
+    }
+
+    @Benchmark
+    public void increment(CounterState shared, CounterThreadState state) {
+        shared.executor.execute(state.incrementCallable);
+    }
+
+    @Benchmark
+    public void transfer(BankState bank, BankThreadState state) {
+        state.transferCallable.prepare();
+        bank.transferExecutor.execute(state.transferCallable);
+    }
+
+    @Benchmark
+    public long computeTotal(BankState bank, BankThreadState state) {
+        return bank.computeTotalExecutor.execute(state.computeTotalCallable);
+    }
+
+    static final class IncrementCallable implements TxnVoidCallable {
+        private final GammaTxnLong counter;
+
+        IncrementCallable(GammaTxnLong counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void call(Txn tx) {
+            counter.increment(tx);
+        }
+    }
+
+    static final class TransferCallable implements TxnVoidCallable {
+        private final GammaTxnLong[] accounts;
+        private GammaTxnLong from;
+        private GammaTxnLong to;
+
+        TransferCallable(GammaTxnLong[] accounts) {
+            this.accounts = accounts;
+        }
+
+        void prepare() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            from = accounts[random.nextInt(accounts.length)];
+            to = accounts[random.nextInt(accounts.length)];
+        }
+
+        @Override
+        public void call(Txn tx) {
+            //the amount is always given back later on, so the accounts never run out of money.
+            from.increment(tx, -1);
+            to.increment(tx, 1);
+        }
+    }
+
+    static final class ComputeTotalCallable implements TxnLongCallable {
+        private final GammaTxnLong[] accounts;
+
+        ComputeTotalCallable(GammaTxnLong[] accounts) {
+            this.accounts = accounts;
+        }
+
+        @Override
+        public long call(Txn tx) {
+            long sum = 0;
+            for (GammaTxnLong account : accounts) {
+                sum += account.get(tx);
+            }
+            return sum;
+        }
+    }
+}
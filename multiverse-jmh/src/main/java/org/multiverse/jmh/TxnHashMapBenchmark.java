@@ -0,0 +1,170 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnMap;
+import org.multiverse.collections.BoostedTxnMap;
+import org.multiverse.collections.NaiveTxnHashMap;
+import org.multiverse.collections.TxnHashMap;
+import org.multiverse.collections.TxnHashTrieMap;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the scalability of the NaiveTxnHashMap, the TxnHashMap and the TxnHashTrieMap when every thread updates
+ * its own keys. With the TxnHashMap these transactions should not conflict, so the throughput should scale with the
+ * number of threads. With the TxnHashTrieMap only transactions that update keys in the same subtree conflict. The
+ * BoostedTxnMap stores the entries in a ConcurrentHashMap and only locks the key, so it shows the cost of the
+ * transaction itself.
+ * <p/>
+ * The NaiveTxnHashMap doesn't support remove, so the insertAndRemove benchmark only is run for the TxnHashMap.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnHashMapBenchmark {
+
+    private static final int KEYS_PER_THREAD = 1024;
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"Naive", "TxnHashMap", "TxnHashTrieMap", "Boosted"})
+        public String mapType;
+
+        TxnMap<Integer, Integer> map;
+        TxnExecutor executor;
+        final AtomicInteger threadIndex = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            if ("Naive".equals(mapType)) {
+                map = new NaiveTxnHashMap<Integer, Integer>(stm);
+            } else if ("TxnHashTrieMap".equals(mapType)) {
+                map = new TxnHashTrieMap<Integer, Integer>(stm);
+            } else if ("Boosted".equals(mapType)) {
+                map = new BoostedTxnMap<Integer, Integer>(stm);
+            } else {
+                map = new TxnHashMap<Integer, Integer>(stm);
+            }
+            executor = newExecutor(stm);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        Integer[] keys;
+        int index;
+        final PutCallable putCallable = new PutCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            keys = newKeys(shared.threadIndex.getAndIncrement());
+            putCallable.map = shared.map;
+
+            //fill the map with the keys of this thread, so a put replaces a value and doesn't trigger resizing.
+            for (Integer key : keys) {
+                putCallable.key = key;
+                shared.executor.execute(putCallable);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class InsertSharedState {
+        TxnMap<Integer, Integer> map;
+        TxnExecutor executor;
+        final AtomicInteger threadIndex = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            map = new TxnHashMap<Integer, Integer>(stm);
+            executor = newExecutor(stm);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class InsertThreadState {
+        Integer[] keys;
+        int index;
+        final PutCallable putCallable = new PutCallable();
+        final RemoveCallable removeCallable = new RemoveCallable();
+
+        @Setup
+        public void setUp(InsertSharedState shared) {
+            keys = newKeys(shared.threadIndex.getAndIncrement());
+            putCallable.map = shared.map;
+            removeCallable.map = shared.map;
+        }
+    }
+
+    private static TxnExecutor newExecutor(GammaStm stm) {
+        return stm.newTxnFactoryBuilder()
+                .setMaxRetries(Integer.MAX_VALUE)
+                .newTxnExecutor();
+    }
+
+    private static Integer[] newKeys(int threadIndex) {
+        Integer[] keys = new Integer[KEYS_PER_THREAD];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = threadIndex * KEYS_PER_THREAD + k;
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public void put(SharedState shared, ThreadState state) {
+        state.index = (state.index + 1) & (KEYS_PER_THREAD - 1);
+        state.putCallable.key = state.keys[state.index];
+        shared.executor.execute(state.putCallable);
+    }
+
+    @Benchmark
+    public void insertAndRemove(InsertSharedState shared, InsertThreadState state) {
+        state.index = (state.index + 1) & (KEYS_PER_THREAD - 1);
+        final Integer key = state.keys[state.index];
+        state.putCallable.key = key;
+        shared.executor.execute(state.putCallable);
+        state.removeCallable.key = key;
+        shared.executor.execute(state.removeCallable);
+    }
+
+    static final class PutCallable implements TxnVoidCallable {
+        TxnMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public void call(Txn tx) {
+            map.put(tx, key, key);
+        }
+    }
+
+    static final class RemoveCallable implements TxnVoidCallable {
+        TxnMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public void call(Txn tx) {
+            map.remove(tx, key);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnLongCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.collections.TxnHashMap;
+import org.multiverse.collections.TxnLongLongHashMap;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares an id indexed lookup (and update) in the TxnLongLongHashMap with the same lookup in a TxnHashMap with
+ * boxed keys and values. Run with '-prof gc' to see the allocation rate; a lookup in the TxnLongLongHashMap doesn't
+ * allocate anything.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnLongLongMapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"16384"})
+        public int keySpace;
+
+        TxnExecutor executor;
+        TxnExecutor readonlyExecutor;
+        TxnLongLongHashMap primitiveMap;
+        TxnHashMap<Long, Long> boxedMap;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            readonlyExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            primitiveMap = new TxnLongLongHashMap(stm, keySpace, 0);
+            boxedMap = new TxnHashMap<Long, Long>(stm);
+
+            executor.execute(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    for (long k = 0; k < keySpace; k++) {
+                        primitiveMap.put(tx, k, k);
+                        boxedMap.put(tx, k, k);
+                    }
+                }
+            });
+        }
+
+        long randomKey() {
+            return ThreadLocalRandom.current().nextInt(keySpace);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final PrimitiveGetCallable primitiveGet = new PrimitiveGetCallable();
+        final PrimitivePutCallable primitivePut = new PrimitivePutCallable();
+        final BoxedGetCallable boxedGet = new BoxedGetCallable();
+        final BoxedPutCallable boxedPut = new BoxedPutCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            primitiveGet.map = shared.primitiveMap;
+            primitivePut.map = shared.primitiveMap;
+            boxedGet.map = shared.boxedMap;
+            boxedPut.map = shared.boxedMap;
+        }
+    }
+
+    @Benchmark
+    public long primitiveGet(SharedState shared, ThreadState state) {
+        state.primitiveGet.key = shared.randomKey();
+        return shared.readonlyExecutor.execute(state.primitiveGet);
+    }
+
+    @Benchmark
+    public long primitivePut(SharedState shared, ThreadState state) {
+        state.primitivePut.key = shared.randomKey();
+        return shared.executor.execute(state.primitivePut);
+    }
+
+    @Benchmark
+    public long boxedGet(SharedState shared, ThreadState state) {
+        state.boxedGet.key = shared.randomKey();
+        return shared.readonlyExecutor.execute(state.boxedGet);
+    }
+
+    @Benchmark
+    public long boxedPut(SharedState shared, ThreadState state) {
+        state.boxedPut.key = shared.randomKey();
+        return shared.executor.execute(state.boxedPut);
+    }
+
+    static final class PrimitiveGetCallable implements TxnLongCallable {
+        TxnLongLongHashMap map;
+        long key;
+
+        @Override
+        public long call(Txn tx) {
+            return map.get(tx, key);
+        }
+    }
+
+    static final class PrimitivePutCallable implements TxnLongCallable {
+        TxnLongLongHashMap map;
+        long key;
+
+        @Override
+        public long call(Txn tx) {
+            return map.put(tx, key, key);
+        }
+    }
+
+    static final class BoxedGetCallable implements TxnLongCallable {
+        TxnHashMap<Long, Long> map;
+        long key;
+
+        @Override
+        public long call(Txn tx) {
+            return map.get(tx, key);
+        }
+    }
+
+    static final class BoxedPutCallable implements TxnLongCallable {
+        TxnHashMap<Long, Long> map;
+        long key;
+
+        @Override
+        public long call(Txn tx) {
+            return map.put(tx, key, key);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.collections.TxnSkipListPriorityQueue;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the TxnSkipListPriorityQueue with a java.util.PriorityQueue in a TxnRef that is copied on every write. Every
+ * operation offers an item with a random priority and polls the least item in the same transaction, like a scheduler
+ * that replaces the timer that expired by a new one, so the size of the queue remains constant.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnPriorityQueueBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"1024"})
+        public int size;
+
+        TxnExecutor executor;
+        TxnSkipListPriorityQueue<Long> queue;
+        TxnRef<PriorityQueue<Long>> copyOnWriteQueue;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            queue = new TxnSkipListPriorityQueue<Long>(stm);
+            PriorityQueue<Long> initial = new PriorityQueue<Long>();
+            for (int k = 0; k < size; k++) {
+                final Long item = ThreadLocalRandom.current().nextLong();
+                initial.add(item);
+                executor.execute(new TxnCallable<Boolean>() {
+                    @Override
+                    public Boolean call(Txn tx) {
+                        return queue.offer(tx, item);
+                    }
+                });
+            }
+            copyOnWriteQueue = stm.getDefaultRefFactory().newTxnRef(initial);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SkipListCallable skipListCallable = new SkipListCallable();
+        final CopyOnWriteCallable copyOnWriteCallable = new CopyOnWriteCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            skipListCallable.queue = shared.queue;
+            copyOnWriteCallable.ref = shared.copyOnWriteQueue;
+        }
+    }
+
+    @Benchmark
+    public Long skipList(SharedState shared, ThreadState state) {
+        state.skipListCallable.item = ThreadLocalRandom.current().nextLong();
+        return shared.executor.execute(state.skipListCallable);
+    }
+
+    @Benchmark
+    public Long copyOnWrite(SharedState shared, ThreadState state) {
+        state.copyOnWriteCallable.item = ThreadLocalRandom.current().nextLong();
+        return shared.executor.execute(state.copyOnWriteCallable);
+    }
+
+    static final class SkipListCallable implements TxnCallable<Long> {
+        TxnSkipListPriorityQueue<Long> queue;
+        Long item;
+
+        @Override
+        public Long call(Txn tx) {
+            queue.offer(tx, item);
+            return queue.poll(tx);
+        }
+    }
+
+    static final class CopyOnWriteCallable implements TxnCallable<Long> {
+        TxnRef<PriorityQueue<Long>> ref;
+        Long item;
+
+        @Override
+        public Long call(Txn tx) {
+            PriorityQueue<Long> copy = new PriorityQueue<Long>(ref.get(tx));
+            copy.add(item);
+            Long least = copy.poll();
+            ref.set(tx, copy);
+            return least;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnBooleanCallable;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.collections.TxnQueue;
+import org.multiverse.collections.NaiveTxnLinkedList;
+import org.multiverse.collections.TxnArrayDeque;
+import org.multiverse.collections.TxnLinkedQueue;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pipeline where producers offer items to a bounded queue while consumers poll them. With the NaiveTxnLinkedList
+ * every offer and poll update the same size, so producers and consumers conflict. With the TxnLinkedQueue producers
+ * only contend with producers and consumers with consumers. The TxnArrayDeque has the same property, but doesn't
+ * allocate a node per item.
+ * <p/>
+ * The queue is half filled during the setup, so a poll normally doesn't find the queue empty and an offer doesn't
+ * find it full. The offer and poll don't block, so a failed offer or poll also is counted as an operation.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnQueueBenchmark {
+
+    private static final String ITEM = "item";
+
+    @State(Scope.Group)
+    public static class QueueState {
+        @Param({"Naive", "TxnLinkedQueue", "TxnArrayDeque"})
+        public String queueType;
+
+        @Param({"1024"})
+        public int capacity;
+
+        TxnExecutor executor;
+        TxnBooleanCallable offerCallable;
+        TxnCallable<String> pollCallable;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            final TxnQueue<String> queue;
+            if ("Naive".equals(queueType)) {
+                queue = new NaiveTxnLinkedList<String>(stm, capacity);
+            } else if ("TxnLinkedQueue".equals(queueType)) {
+                queue = new TxnLinkedQueue<String>(stm, capacity);
+            } else {
+                queue = new TxnArrayDeque<String>(stm, capacity);
+            }
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            offerCallable = new TxnBooleanCallable() {
+                @Override
+                public boolean call(Txn tx) {
+                    return queue.offer(tx, ITEM);
+                }
+            };
+            pollCallable = new TxnCallable<String>() {
+                @Override
+                public String call(Txn tx) {
+                    return queue.poll(tx);
+                }
+            };
+
+            for (int k = 0; k < capacity / 2; k++) {
+                executor.execute(offerCallable);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(1)
+    public boolean offer(QueueState state) {
+        return state.executor.execute(state.offerCallable);
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(1)
+    public String poll(QueueState state) {
+        return state.executor.execute(state.pollCallable);
+    }
+}
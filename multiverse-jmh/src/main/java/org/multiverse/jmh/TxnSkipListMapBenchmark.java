@@ -0,0 +1,225 @@
+package org.multiverse.jmh;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnIntCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.collections.TxnIterator;
+import org.multiverse.collections.TxnSkipListMap;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compares the TxnSkipListMap with a ConcurrentSkipListMap guarded by a lock; the lock is needed to get the same
+ * guarantee as a transaction, namely that a range scan (or any combination of operations) is atomic.
+ * <p/>
+ * The map is filled with the even keys from 0 until 2*keySpace during the setup, so a put always replaces an
+ * existing value and a floorKey with a random odd key always finds a key that is lower. The range scan sums the
+ * values of rangeSize consecutive keys starting at a random key.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TxnSkipListMapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"16384"})
+        public int keySpace;
+
+        @Param({"16"})
+        public int rangeSize;
+
+        TxnSkipListMap<Integer, Integer> txnMap;
+        TxnExecutor executor;
+        TxnExecutor readonlyExecutor;
+        ConcurrentSkipListMap<Integer, Integer> lockedMap;
+        final ReentrantLock lock = new ReentrantLock();
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            readonlyExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            txnMap = new TxnSkipListMap<Integer, Integer>(stm);
+            lockedMap = new ConcurrentSkipListMap<Integer, Integer>();
+
+            for (int k = 0; k < keySpace; k++) {
+                final Integer key = k * 2;
+                lockedMap.put(key, key);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        txnMap.put(tx, key, key);
+                    }
+                });
+            }
+        }
+
+        Integer randomKey() {
+            return ThreadLocalRandom.current().nextInt(keySpace) * 2;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final GetCallable getCallable = new GetCallable();
+        final PutCallable putCallable = new PutCallable();
+        final FloorKeyCallable floorKeyCallable = new FloorKeyCallable();
+        final RangeScanCallable rangeScanCallable = new RangeScanCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            getCallable.map = shared.txnMap;
+            putCallable.map = shared.txnMap;
+            floorKeyCallable.map = shared.txnMap;
+            rangeScanCallable.map = shared.txnMap;
+        }
+    }
+
+    @Benchmark
+    public Integer txnGet(SharedState shared, ThreadState state) {
+        state.getCallable.key = shared.randomKey();
+        return shared.readonlyExecutor.execute(state.getCallable);
+    }
+
+    @Benchmark
+    public void txnPut(SharedState shared, ThreadState state) {
+        state.putCallable.key = shared.randomKey();
+        shared.executor.execute(state.putCallable);
+    }
+
+    @Benchmark
+    public Integer txnFloorKey(SharedState shared, ThreadState state) {
+        state.floorKeyCallable.key = shared.randomKey() + 1;
+        return shared.readonlyExecutor.execute(state.floorKeyCallable);
+    }
+
+    @Benchmark
+    public int txnRangeScan(SharedState shared, ThreadState state) {
+        Integer from = shared.randomKey();
+        state.rangeScanCallable.from = from;
+        state.rangeScanCallable.to = from + 2 * shared.rangeSize;
+        return shared.readonlyExecutor.execute(state.rangeScanCallable);
+    }
+
+    @Benchmark
+    public Integer lockedGet(SharedState shared) {
+        Integer key = shared.randomKey();
+        shared.lock.lock();
+        try {
+            return shared.lockedMap.get(key);
+        } finally {
+            shared.lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public Integer lockedPut(SharedState shared) {
+        Integer key = shared.randomKey();
+        shared.lock.lock();
+        try {
+            return shared.lockedMap.put(key, key);
+        } finally {
+            shared.lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public Integer lockedFloorKey(SharedState shared) {
+        Integer key = shared.randomKey() + 1;
+        shared.lock.lock();
+        try {
+            return shared.lockedMap.floorKey(key);
+        } finally {
+            shared.lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public int lockedRangeScan(SharedState shared) {
+        Integer from = shared.randomKey();
+        shared.lock.lock();
+        try {
+            int sum = 0;
+            for (Integer value : shared.lockedMap.subMap(from, from + 2 * shared.rangeSize).values()) {
+                sum += value;
+            }
+            return sum;
+        } finally {
+            shared.lock.unlock();
+        }
+    }
+
+    static final class GetCallable implements TxnCallable<Integer> {
+        TxnSkipListMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public Integer call(Txn tx) {
+            return map.get(tx, key);
+        }
+    }
+
+    static final class PutCallable implements TxnVoidCallable {
+        TxnSkipListMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public void call(Txn tx) {
+            map.put(tx, key, key);
+        }
+    }
+
+    static final class FloorKeyCallable implements TxnCallable<Integer> {
+        TxnSkipListMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public Integer call(Txn tx) {
+            return map.floorKey(tx, key);
+        }
+    }
+
+    static final class RangeScanCallable implements TxnIntCallable {
+        TxnSkipListMap<Integer, Integer> map;
+        Integer from;
+        Integer to;
+
+        @Override
+        public int call(Txn tx) {
+            int sum = 0;
+            TxnIterator<Map.Entry<Integer, Integer>> it = map.subMap(from, to).entrySet(tx).iterator(tx);
+            while (it.hasNext(tx)) {
+                sum += it.next(tx).getValue();
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.multiverse.jmh;
+
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactions.GammaTxn;
+import org.multiverse.stms.gamma.transactions.GammaTxnConfig;
+import org.multiverse.stms.gamma.transactions.fat.FatFixedLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.fat.FatMonoGammaTxn;
+import org.multiverse.stms.gamma.transactions.fat.FatVariableLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.lean.LeanFixedLengthGammaTxn;
+import org.multiverse.stms.gamma.transactions.lean.LeanMonoGammaTxn;
+
+/**
+ * The GammaTxn implementations that can be benchmarked.
+ *
+ * @author Peter Veentjer.
+ */
+public enum TxnType {
+
+    LeanMono(true, 1) {
+        @Override
+        GammaTxn newTxn(GammaTxnConfig config) {
+            return new LeanMonoGammaTxn(config);
+        }
+    },
+
+    LeanFixedLength(true, Integer.MAX_VALUE) {
+        @Override
+        GammaTxn newTxn(GammaTxnConfig config) {
+            return new LeanFixedLengthGammaTxn(config);
+        }
+    },
+
+    FatMono(false, 1) {
+        @Override
+        GammaTxn newTxn(GammaTxnConfig config) {
+            return new FatMonoGammaTxn(config);
+        }
+    },
+
+    FatFixedLength(false, Integer.MAX_VALUE) {
+        @Override
+        GammaTxn newTxn(GammaTxnConfig config) {
+            return new FatFixedLengthGammaTxn(config);
+        }
+    },
+
+    FatVariableLength(false, Integer.MAX_VALUE) {
+        @Override
+        GammaTxn newTxn(GammaTxnConfig config) {
+            return new FatVariableLengthGammaTxn(config);
+        }
+    };
+
+    private final boolean lean;
+    private final int maxRefs;
+
+    TxnType(boolean lean, int maxRefs) {
+        this.lean = lean;
+        this.maxRefs = maxRefs;
+    }
+
+    /**
+     * Checks if this is a lean transaction. Lean transactions only support the GammaTxnRef and no commute.
+     *
+     * @return true if lean.
+     */
+    public boolean isLean() {
+        return lean;
+    }
+
+    /**
+     * Returns the maximum number of refs a transaction of this type can deal with.
+     *
+     * @return the maximum number of refs.
+     */
+    public int getMaxRefs() {
+        return maxRefs;
+    }
+
+    /**
+     * Creates a new transaction of this type that can deal with refCount refs.
+     *
+     * @param stm      the GammaStm.
+     * @param refCount the number of refs the transaction is going to access.
+     * @return the created transaction.
+     * @throws IllegalArgumentException if refCount is larger than {@link #getMaxRefs()}.
+     */
+    public GammaTxn newTxn(GammaStm stm, int refCount) {
+        if (refCount > maxRefs) {
+            throw new IllegalArgumentException(name() + " can't deal with " + refCount + " refs");
+        }
+
+        GammaTxnConfig config = new GammaTxnConfig(stm, Math.max(refCount, 1));
+        return newTxn(config);
+    }
+
+    abstract GammaTxn newTxn(GammaTxnConfig config);
+}
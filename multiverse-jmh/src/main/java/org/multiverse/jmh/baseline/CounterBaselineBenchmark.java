@@ -0,0 +1,93 @@
+package org.multiverse.jmh.baseline;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.multiverse.api.functions.Functions.incLongFunction;
+
+/**
+ * Compares incrementing a shared GammaTxnLong (in a transaction, commuting and atomic) with an AtomicLong and a
+ * LongAdder. All threads increment the same counter.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterBaselineBenchmark {
+
+    private GammaTxnLong ref;
+    private TxnExecutor executor;
+    private TxnVoidCallable incrementCallable;
+    private TxnVoidCallable commuteCallable;
+    private AtomicLong atomicLong;
+    private LongAdder longAdder;
+
+    @Setup
+    public void setUp() {
+        GammaStm stm = new GammaStm();
+        ref = new GammaTxnLong(stm);
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(Integer.MAX_VALUE)
+                .newTxnExecutor();
+        incrementCallable = new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref.increment(tx);
+            }
+        };
+        commuteCallable = new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                ref.commute(tx, incLongFunction());
+            }
+        };
+        atomicLong = new AtomicLong();
+        longAdder = new LongAdder();
+    }
+
+    @Benchmark
+    public void txnIncrement() {
+        executor.execute(incrementCallable);
+    }
+
+    @Benchmark
+    public void txnCommute() {
+        executor.execute(commuteCallable);
+    }
+
+    @Benchmark
+    public long txnAtomicIncrement() {
+        return ref.atomicIncrementAndGet(1);
+    }
+
+    @Benchmark
+    public long atomicLong() {
+        return atomicLong.incrementAndGet();
+    }
+
+    @Benchmark
+    public void longAdder() {
+        longAdder.increment();
+    }
+}
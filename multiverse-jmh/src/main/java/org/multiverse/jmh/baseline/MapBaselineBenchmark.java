@@ -0,0 +1,135 @@
+package org.multiverse.jmh.baseline;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.collections.NaiveTxnHashMap;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the get and put of the NaiveTxnHashMap with the ConcurrentHashMap. The keys are picked randomly from a
+ * fixed key space that is filled during the setup, so a put always replaces an existing value.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBaselineBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"1024"})
+        public int keySpace;
+
+        Integer[] keys;
+        NaiveTxnHashMap<Integer, Integer> txnMap;
+        TxnExecutor executor;
+        TxnExecutor readonlyExecutor;
+        ConcurrentHashMap<Integer, Integer> concurrentHashMap;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            readonlyExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            txnMap = new NaiveTxnHashMap<Integer, Integer>(stm);
+            concurrentHashMap = new ConcurrentHashMap<Integer, Integer>();
+
+            keys = new Integer[keySpace];
+            for (int k = 0; k < keySpace; k++) {
+                final Integer key = k;
+                keys[k] = key;
+                concurrentHashMap.put(key, key);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        txnMap.put(tx, key, key);
+                    }
+                });
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final GetCallable getCallable = new GetCallable();
+        final PutCallable putCallable = new PutCallable();
+
+        @Setup
+        public void setUp(SharedState shared) {
+            getCallable.map = shared.txnMap;
+            putCallable.map = shared.txnMap;
+        }
+    }
+
+    private static Integer randomKey(SharedState shared) {
+        return shared.keys[ThreadLocalRandom.current().nextInt(shared.keys.length)];
+    }
+
+    @Benchmark
+    public Integer txnMapGet(SharedState shared, ThreadState state) {
+        state.getCallable.key = randomKey(shared);
+        return shared.readonlyExecutor.execute(state.getCallable);
+    }
+
+    @Benchmark
+    public void txnMapPut(SharedState shared, ThreadState state) {
+        state.putCallable.key = randomKey(shared);
+        shared.executor.execute(state.putCallable);
+    }
+
+    @Benchmark
+    public Integer concurrentHashMapGet(SharedState shared) {
+        return shared.concurrentHashMap.get(randomKey(shared));
+    }
+
+    @Benchmark
+    public Integer concurrentHashMapPut(SharedState shared) {
+        Integer key = randomKey(shared);
+        return shared.concurrentHashMap.put(key, key);
+    }
+
+    static final class GetCallable implements TxnCallable<Integer> {
+        NaiveTxnHashMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public Integer call(Txn tx) {
+            return map.get(tx, key);
+        }
+    }
+
+    static final class PutCallable implements TxnVoidCallable {
+        NaiveTxnHashMap<Integer, Integer> map;
+        Integer key;
+
+        @Override
+        public void call(Txn tx) {
+            map.put(tx, key, key);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.multiverse.jmh.baseline;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.collections.NaiveTxnLinkedList;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the NaiveTxnLinkedList used as a queue with the ConcurrentLinkedQueue. Every operation is an offer
+ * followed by a poll (in separate transactions), so the queue stays small and a poll never finds it empty.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueBaselineBenchmark {
+
+    private static final String ITEM = "item";
+
+    private TxnExecutor executor;
+    private TxnVoidCallable offerCallable;
+    private TxnCallable<String> pollCallable;
+    private ConcurrentLinkedQueue<String> concurrentLinkedQueue;
+
+    @Setup
+    public void setUp() {
+        GammaStm stm = new GammaStm();
+        final NaiveTxnLinkedList<String> txnQueue = new NaiveTxnLinkedList<String>(stm);
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(Integer.MAX_VALUE)
+                .newTxnExecutor();
+        offerCallable = new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                txnQueue.offer(tx, ITEM);
+            }
+        };
+        pollCallable = new TxnCallable<String>() {
+            @Override
+            public String call(Txn tx) {
+                return txnQueue.poll(tx);
+            }
+        };
+        concurrentLinkedQueue = new ConcurrentLinkedQueue<String>();
+    }
+
+    @Benchmark
+    public String txnQueue() {
+        executor.execute(offerCallable);
+        return executor.execute(pollCallable);
+    }
+
+    @Benchmark
+    public String concurrentLinkedQueue() {
+        concurrentLinkedQueue.offer(ITEM);
+        return concurrentLinkedQueue.poll();
+    }
+}
@@ -0,0 +1,102 @@
+package org.multiverse.jmh.baseline;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.collections.NaiveTxnStack;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compares the NaiveTxnStack with a ConcurrentLinkedDeque and with an ArrayDeque protected by a StampedLock. The
+ * intrinsic lock and ReentrantLock versions are part of the {@link org.multiverse.jmh.StackBenchmark}.
+ * <p/>
+ * Every operation is a push followed by a pop (in separate transactions), so the stack never is empty when popped.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StackBaselineBenchmark {
+
+    private static final String ITEM = "item";
+
+    private TxnExecutor executor;
+    private TxnVoidCallable pushCallable;
+    private TxnCallable<String> popCallable;
+    private ConcurrentLinkedDeque<String> concurrentLinkedDeque;
+    private ArrayDeque<String> arrayDeque;
+    private StampedLock stampedLock;
+
+    @Setup
+    public void setUp() {
+        GammaStm stm = new GammaStm();
+        final NaiveTxnStack<String> txnStack = new NaiveTxnStack<String>(stm);
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(Integer.MAX_VALUE)
+                .newTxnExecutor();
+        pushCallable = new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                txnStack.push(tx, ITEM);
+            }
+        };
+        popCallable = new TxnCallable<String>() {
+            @Override
+            public String call(Txn tx) {
+                return txnStack.pop(tx);
+            }
+        };
+        concurrentLinkedDeque = new ConcurrentLinkedDeque<String>();
+        arrayDeque = new ArrayDeque<String>();
+        stampedLock = new StampedLock();
+    }
+
+    @Benchmark
+    public String txnStack() {
+        executor.execute(pushCallable);
+        return executor.execute(popCallable);
+    }
+
+    @Benchmark
+    public String concurrentLinkedDeque() {
+        concurrentLinkedDeque.push(ITEM);
+        return concurrentLinkedDeque.pop();
+    }
+
+    @Benchmark
+    public String stampedLock() {
+        long stamp = stampedLock.writeLock();
+        try {
+            arrayDeque.push(ITEM);
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+
+        stamp = stampedLock.writeLock();
+        try {
+            return arrayDeque.pop();
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+}
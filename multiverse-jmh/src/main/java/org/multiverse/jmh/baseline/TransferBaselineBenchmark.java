@@ -0,0 +1,174 @@
+package org.multiverse.jmh.baseline;
+
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.stms.gamma.GammaStm;
+import org.multiverse.stms.gamma.transactionalobjects.GammaTxnLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compares a transfer between accounts done in a transaction with the same transfer protected by a ReentrantLock or
+ * a StampedLock per account. The locks are acquired in the order of the account index to prevent deadlocks, which
+ * is exactly the kind of bookkeeping the transaction saves the developer from.
+ * <p/>
+ * Every transfer moves money from a number of randomly chosen accounts to one other randomly chosen account.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBaselineBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+        @Param({"64", "1024"})
+        public int accountCount;
+
+        /**
+         * The number of accounts involved in a single transfer.
+         */
+        @Param({"2", "4"})
+        public int accountsPerTransfer;
+
+        TxnExecutor executor;
+        GammaTxnLong[] txnAccounts;
+        long[] lockedAccounts;
+        ReentrantLock[] reentrantLocks;
+        StampedLock[] stampedLocks;
+
+        @Setup
+        public void setUp() {
+            GammaStm stm = new GammaStm();
+            executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(Integer.MAX_VALUE)
+                    .newTxnExecutor();
+            txnAccounts = new GammaTxnLong[accountCount];
+            lockedAccounts = new long[accountCount];
+            reentrantLocks = new ReentrantLock[accountCount];
+            stampedLocks = new StampedLock[accountCount];
+            for (int k = 0; k < accountCount; k++) {
+                txnAccounts[k] = new GammaTxnLong(stm, 1000);
+                lockedAccounts[k] = 1000;
+                reentrantLocks[k] = new ReentrantLock();
+                stampedLocks[k] = new StampedLock();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Transfer {
+        int[] accounts;
+        TxnVoidCallable callable;
+
+        @Setup
+        public void setUp(final Bank bank) {
+            accounts = new int[bank.accountsPerTransfer];
+            callable = new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    //the last account receives the money, so the total stays the same.
+                    final int last = accounts.length - 1;
+                    for (int k = 0; k < last; k++) {
+                        bank.txnAccounts[accounts[k]].increment(tx, -1);
+                    }
+                    bank.txnAccounts[accounts[last]].increment(tx, last);
+                }
+            };
+        }
+
+        /**
+         * Picks distinct random accounts, sorted so that locks can be acquired in a fixed order.
+         */
+        void prepare(int accountCount) {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int k = 0; k < accounts.length; k++) {
+                int account;
+                boolean duplicate;
+                do {
+                    account = random.nextInt(accountCount);
+                    duplicate = false;
+                    for (int l = 0; l < k; l++) {
+                        if (accounts[l] == account) {
+                            duplicate = true;
+                            break;
+                        }
+                    }
+                } while (duplicate);
+
+                //insertion sort
+                int l = k;
+                while (l > 0 && accounts[l - 1] > account) {
+                    accounts[l] = accounts[l - 1];
+                    l--;
+                }
+                accounts[l] = account;
+            }
+        }
+    }
+
+    @Benchmark
+    public void txn(Bank bank, Transfer transfer) {
+        transfer.prepare(bank.accountCount);
+        bank.executor.execute(transfer.callable);
+    }
+
+    @Benchmark
+    public void reentrantLock(Bank bank, Transfer transfer) {
+        transfer.prepare(bank.accountCount);
+        final int[] accounts = transfer.accounts;
+        for (int account : accounts) {
+            bank.reentrantLocks[account].lock();
+        }
+        try {
+            move(bank.lockedAccounts, accounts);
+        } finally {
+            for (int k = accounts.length - 1; k >= 0; k--) {
+                bank.reentrantLocks[accounts[k]].unlock();
+            }
+        }
+    }
+
+    @Benchmark
+    public void stampedLock(Bank bank, Transfer transfer) {
+        transfer.prepare(bank.accountCount);
+        final int[] accounts = transfer.accounts;
+        final long[] stamps = new long[accounts.length];
+        for (int k = 0; k < accounts.length; k++) {
+            stamps[k] = bank.stampedLocks[accounts[k]].writeLock();
+        }
+        try {
+            move(bank.lockedAccounts, accounts);
+        } finally {
+            for (int k = accounts.length - 1; k >= 0; k--) {
+                bank.stampedLocks[accounts[k]].unlockWrite(stamps[k]);
+            }
+        }
+    }
+
+    private static void move(long[] balances, int[] accounts) {
+        final int last = accounts.length - 1;
+        for (int k = 0; k < last; k++) {
+            balances[accounts[k]]--;
+        }
+        balances[accounts[last]] += last;
+    }
+}
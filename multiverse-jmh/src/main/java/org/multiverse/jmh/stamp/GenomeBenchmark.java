@@ -0,0 +1,267 @@
+package org.multiverse.jmh.stamp;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnBooleanCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.api.references.TxnRefFactory;
+import org.multiverse.collections.NaiveTxnHashSet;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.multiverse.jmh.stamp.StampUtils.partitionStart;
+import static org.multiverse.jmh.stamp.StampUtils.runParallel;
+import static org.multiverse.jmh.stamp.StampUtils.verify;
+
+/**
+ * A port of the STAMP genome workload: gene sequencing. It has 2 parallel phases:
+ * <ol>
+ * <li>removing the duplicate segments by adding them in batches to a shared set</li>
+ * <li>matching segments with an overlap: for every overlap length (longest first) the end of a chain is linked to the
+ * start of another chain with a matching prefix. Linking is a short transaction that checks that both ends are still
+ * free and that no cycle is created.</li>
+ * </ol>
+ * Finally the chains are walked to verify that every unique segment is linked exactly once.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenomeBenchmark {
+
+    static final String NUCLEOTIDES = "acgt";
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"4096"})
+    public int geneLength;
+
+    @Param({"16"})
+    public int segmentLength;
+
+    @Param({"16384"})
+    public int segmentCount;
+
+    /**
+     * The number of segments added to the set of unique segments in a single transaction.
+     */
+    @Param({"16"})
+    public int batchSize;
+
+    private String[] segments;
+    private Stm stm;
+    private TxnRefFactory refFactory;
+    private TxnExecutor executor;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        final Random random = new Random(1);
+        final StringBuilder gene = new StringBuilder(geneLength);
+        for (int k = 0; k < geneLength; k++) {
+            gene.append(NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length())));
+        }
+
+        //just like STAMP, there is a segment starting at every position so the gene can be reconstructed.
+        final int starts = geneLength - segmentLength + 1;
+        segments = new String[Math.max(segmentCount, starts)];
+        for (int k = 0; k < segments.length; k++) {
+            final int start = k < starts ? k : random.nextInt(starts);
+            segments[k] = gene.substring(start, start + segmentLength);
+        }
+
+        stm = new GammaStm();
+        refFactory = stm.getDefaultRefFactory();
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(10000)
+                .newTxnExecutor();
+    }
+
+    @Benchmark
+    public int run() {
+        final NaiveTxnHashSet<String> uniqueSegments = new NaiveTxnHashSet<String>(stm);
+        final List<Entry>[] uniqueEntries = newLists(threads);
+
+        //phase 1: remove the duplicate segments.
+        runParallel(threads, new StampUtils.Worker() {
+            @Override
+            public void run(final int threadId) {
+                final int start = partitionStart(threadId, threads, segments.length);
+                final int end = partitionStart(threadId + 1, threads, segments.length);
+                final boolean[] added = new boolean[batchSize];
+                for (int batchStart = start; batchStart < end; batchStart += batchSize) {
+                    final int batchEnd = Math.min(end, batchStart + batchSize);
+                    final int offset = batchStart;
+                    executor.execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) {
+                            for (int k = offset; k < batchEnd; k++) {
+                                added[k - offset] = uniqueSegments.add(tx, segments[k]);
+                            }
+                        }
+                    });
+
+                    for (int k = batchStart; k < batchEnd; k++) {
+                        if (added[k - batchStart]) {
+                            uniqueEntries[threadId].add(new Entry(refFactory, segments[k]));
+                        }
+                    }
+                }
+            }
+        });
+
+        final List<Entry> entries = new ArrayList<Entry>();
+        for (List<Entry> list : uniqueEntries) {
+            entries.addAll(list);
+        }
+
+        //phase 2: link the segments with the longest overlap first.
+        for (int overlap = segmentLength - 1; overlap > 0; overlap--) {
+            final Map<String, List<Entry>> startsByPrefix = new HashMap<String, List<Entry>>();
+            for (Entry entry : entries) {
+                final String prefix = entry.segment.substring(0, overlap);
+                List<Entry> list = startsByPrefix.get(prefix);
+                if (list == null) {
+                    list = new ArrayList<Entry>(2);
+                    startsByPrefix.put(prefix, list);
+                }
+                list.add(entry);
+            }
+
+            final int overlapLength = overlap;
+            runParallel(threads, new StampUtils.Worker() {
+                @Override
+                public void run(int threadId) {
+                    final LinkCallable callable = new LinkCallable();
+                    final int start = partitionStart(threadId, threads, entries.size());
+                    final int end = partitionStart(threadId + 1, threads, entries.size());
+                    for (int k = start; k < end; k++) {
+                        final Entry entry = entries.get(k);
+                        if (entry.next.atomicWeakGet() != null) {
+                            continue;
+                        }
+
+                        final String suffix = entry.segment.substring(segmentLength - overlapLength);
+                        final List<Entry> candidates = startsByPrefix.get(suffix);
+                        if (candidates == null) {
+                            continue;
+                        }
+
+                        callable.entry = entry;
+                        for (Entry candidate : candidates) {
+                            callable.candidate = candidate;
+                            if (executor.execute(callable)) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            });
+        }
+
+        return verifyChains(entries);
+    }
+
+    /**
+     * Walks all chains and checks that every entry is visited exactly once.
+     *
+     * @return the number of chains.
+     */
+    private int verifyChains(List<Entry> entries) {
+        int chains = 0;
+        int visited = 0;
+        for (Entry entry : entries) {
+            if (entry.prev.atomicGet() != null) {
+                continue;
+            }
+
+            chains++;
+            for (Entry e = entry; e != null; e = e.next.atomicGet()) {
+                visited++;
+                verify(visited <= entries.size(), "cycle detected");
+            }
+        }
+
+        verify(visited == entries.size(), "expected " + entries.size() + " linked segments, found " + visited);
+        return chains;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Entry>[] newLists(int count) {
+        final List<Entry>[] lists = new List[count];
+        for (int k = 0; k < count; k++) {
+            lists[k] = new ArrayList<Entry>();
+        }
+        return lists;
+    }
+
+    static final class Entry {
+        final String segment;
+        final TxnRef<Entry> prev;
+        final TxnRef<Entry> next;
+        //only valid for the end of a chain
+        final TxnRef<Entry> chainStart;
+        //only valid for the start of a chain
+        final TxnRef<Entry> chainEnd;
+
+        Entry(TxnRefFactory refFactory, String segment) {
+            this.segment = segment;
+            this.prev = refFactory.newTxnRef(null);
+            this.next = refFactory.newTxnRef(null);
+            this.chainStart = refFactory.newTxnRef(this);
+            this.chainEnd = refFactory.newTxnRef(this);
+        }
+    }
+
+    /**
+     * Links the end of the chain of the entry to the start of the chain of the candidate, if both are still free and
+     * they are not the same chain.
+     */
+    static final class LinkCallable implements TxnBooleanCallable {
+        Entry entry;
+        Entry candidate;
+
+        @Override
+        public boolean call(Txn tx) {
+            if (entry.next.get(tx) != null || candidate.prev.get(tx) != null) {
+                return false;
+            }
+
+            final Entry start = entry.chainStart.get(tx);
+            if (start == candidate) {
+                return false;
+            }
+
+            final Entry end = candidate.chainEnd.get(tx);
+            entry.next.set(tx, candidate);
+            candidate.prev.set(tx, entry);
+            start.chainEnd.set(tx, end);
+            end.chainStart.set(tx, start);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.multiverse.jmh.stamp;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRef;
+import org.multiverse.api.references.TxnRefFactory;
+import org.multiverse.collections.NaiveTxnHashMap;
+import org.multiverse.collections.NaiveTxnLinkedList;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.multiverse.jmh.stamp.StampUtils.runParallel;
+import static org.multiverse.jmh.stamp.StampUtils.verify;
+
+/**
+ * A port of the STAMP intruder workload: network intrusion detection. Packets are taken from a shared queue (short
+ * transaction), reassembled into flows using a shared map (medium transaction) and the completed flows are scanned
+ * for attack signatures outside of a transaction.
+ * <p/>
+ * The NaiveTxnHashMap doesn't support remove yet, so completed flows are replaced by a null value.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntruderBenchmark {
+
+    static final String[] SIGNATURES = {"about", "attack", "exploit", "shellcode"};
+    static final String ALPHABET = "bcdfghjkmnpqrsvwxyz";
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"4096"})
+    public int flows;
+
+    /**
+     * The maximum number of packets a flow is split into.
+     */
+    @Param({"8"})
+    public int maxPacketsPerFlow;
+
+    /**
+     * The maximum length of the data of a flow.
+     */
+    @Param({"128"})
+    public int maxDataLength;
+
+    @Param({"10"})
+    public int attackPercent;
+
+    private NaiveTxnLinkedList<Packet> packetQueue;
+    private NaiveTxnHashMap<Integer, Flow> fragmentedFlows;
+    private int expectedAttacks;
+    private AtomicInteger detectedAttacks;
+    private AtomicInteger completedFlows;
+    private TxnExecutor executor;
+    private TxnRefFactory refFactory;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        final Stm stm = new GammaStm();
+        refFactory = stm.getDefaultRefFactory();
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(10000)
+                .newTxnExecutor();
+        packetQueue = new NaiveTxnLinkedList<Packet>(stm);
+        fragmentedFlows = new NaiveTxnHashMap<Integer, Flow>(stm);
+        detectedAttacks = new AtomicInteger();
+        completedFlows = new AtomicInteger();
+        expectedAttacks = 0;
+
+        final Random random = new Random(1);
+        final List<Packet> packets = new ArrayList<Packet>();
+        for (int flowId = 0; flowId < flows; flowId++) {
+            final String data = newFlowData(random);
+            if (isAttack(data)) {
+                expectedAttacks++;
+            }
+
+            final int packetCount = Math.min(data.length(), random.nextInt(maxPacketsPerFlow) + 1);
+            final int packetLength = (data.length() + packetCount - 1) / packetCount;
+            for (int k = 0; k < packetCount; k++) {
+                final String fragment = data.substring(
+                        Math.min(data.length(), k * packetLength), Math.min(data.length(), (k + 1) * packetLength));
+                packets.add(new Packet(flowId, k, packetCount, fragment));
+            }
+        }
+        Collections.shuffle(packets, random);
+
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                for (Packet packet : packets) {
+                    packetQueue.add(tx, packet);
+                }
+            }
+        });
+    }
+
+    private String newFlowData(Random random) {
+        final int length = random.nextInt(maxDataLength - 16) + 16;
+        final StringBuilder sb = new StringBuilder(length);
+        for (int k = 0; k < length; k++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+
+        if (random.nextInt(100) < attackPercent) {
+            final String signature = SIGNATURES[random.nextInt(SIGNATURES.length)];
+            final int offset = random.nextInt(length - signature.length());
+            sb.replace(offset, offset + signature.length(), signature);
+        }
+        return sb.toString();
+    }
+
+    static boolean isAttack(String data) {
+        for (String signature : SIGNATURES) {
+            if (data.contains(signature)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public void run() {
+        runParallel(threads, new StampUtils.Worker() {
+            @Override
+            public void run(int threadId) {
+                final TxnCallable<Packet> captureCallable = new TxnCallable<Packet>() {
+                    @Override
+                    public Packet call(Txn tx) {
+                        return packetQueue.poll(tx);
+                    }
+                };
+                final DecodeCallable decodeCallable = new DecodeCallable();
+
+                for (; ; ) {
+                    final Packet packet = executor.execute(captureCallable);
+                    if (packet == null) {
+                        return;
+                    }
+
+                    decodeCallable.packet = packet;
+                    final String data = executor.execute(decodeCallable);
+                    if (data != null) {
+                        completedFlows.incrementAndGet();
+                        if (isAttack(data)) {
+                            detectedAttacks.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        });
+
+        verify(completedFlows.get() == flows, "expected " + flows + " flows, completed " + completedFlows.get());
+        verify(detectedAttacks.get() == expectedAttacks,
+                "expected " + expectedAttacks + " attacks, detected " + detectedAttacks.get());
+    }
+
+    static final class Packet {
+        final int flowId;
+        final int fragmentId;
+        final int fragmentCount;
+        final String data;
+
+        Packet(int flowId, int fragmentId, int fragmentCount, String data) {
+            this.flowId = flowId;
+            this.fragmentId = fragmentId;
+            this.fragmentCount = fragmentCount;
+            this.data = data;
+        }
+    }
+
+    static final class Flow {
+        final TxnRef<Packet>[] fragments;
+        final TxnInteger received;
+
+        @SuppressWarnings("unchecked")
+        Flow(TxnRefFactory refFactory, int fragmentCount) {
+            this.fragments = new TxnRef[fragmentCount];
+            for (int k = 0; k < fragmentCount; k++) {
+                fragments[k] = refFactory.newTxnRef(null);
+            }
+            this.received = refFactory.newTxnInteger(0);
+        }
+    }
+
+    /**
+     * Adds the packet to its flow and returns the data of the flow if the flow is complete, else null.
+     */
+    final class DecodeCallable implements TxnCallable<String> {
+        Packet packet;
+
+        @Override
+        public String call(Txn tx) {
+            final Integer flowId = packet.flowId;
+            Flow flow = fragmentedFlows.get(tx, flowId);
+            if (flow == null) {
+                flow = new Flow(refFactory, packet.fragmentCount);
+                fragmentedFlows.put(tx, flowId, flow);
+            }
+
+            flow.fragments[packet.fragmentId].set(tx, packet);
+            if (flow.received.incrementAndGet(tx, 1) < packet.fragmentCount) {
+                return null;
+            }
+
+            fragmentedFlows.put(tx, flowId, null);
+            final StringBuilder sb = new StringBuilder();
+            for (TxnRef<Packet> fragment : flow.fragments) {
+                sb.append(fragment.get(tx).data);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.multiverse.jmh.stamp;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.references.TxnDouble;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRefFactory;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.multiverse.jmh.stamp.StampUtils.partitionStart;
+import static org.multiverse.jmh.stamp.StampUtils.runParallel;
+import static org.multiverse.jmh.stamp.StampUtils.verify;
+
+/**
+ * A port of the STAMP kmeans workload: K-means clustering. Finding the nearest cluster of a point is done outside of
+ * a transaction; adding the point to the new center of the cluster is a short transaction. With few clusters there
+ * is a lot of contention on the new centers.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KMeansBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"16384"})
+    public int points;
+
+    @Param({"16"})
+    public int features;
+
+    @Param({"15", "40"})
+    public int clusters;
+
+    /**
+     * The maximum number of clustering loops; the clustering also stops when less than 0.1% of the points change
+     * cluster.
+     */
+    @Param({"10"})
+    public int maxLoops;
+
+    private double[][] attributes;
+    private double[][] centers;
+    private int[] membership;
+    private TxnInteger[] newCenterLengths;
+    private TxnDouble[][] newCenters;
+    private TxnInteger delta;
+    private TxnExecutor executor;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        final Random random = new Random(1);
+
+        //the points are spread around a number of randomly chosen origins.
+        final double[][] origins = new double[clusters][features];
+        for (double[] origin : origins) {
+            for (int f = 0; f < features; f++) {
+                origin[f] = random.nextDouble() * 100;
+            }
+        }
+
+        attributes = new double[points][features];
+        for (double[] point : attributes) {
+            final double[] origin = origins[random.nextInt(clusters)];
+            for (int f = 0; f < features; f++) {
+                point[f] = origin[f] + random.nextGaussian() * 5;
+            }
+        }
+
+        centers = new double[clusters][];
+        for (int c = 0; c < clusters; c++) {
+            centers[c] = attributes[c].clone();
+        }
+
+        membership = new int[points];
+        Arrays.fill(membership, -1);
+
+        final Stm stm = new GammaStm();
+        final TxnRefFactory refFactory = stm.getDefaultRefFactory();
+        newCenterLengths = new TxnInteger[clusters];
+        newCenters = new TxnDouble[clusters][features];
+        for (int c = 0; c < clusters; c++) {
+            newCenterLengths[c] = refFactory.newTxnInteger(0);
+            for (int f = 0; f < features; f++) {
+                newCenters[c][f] = refFactory.newTxnDouble(0);
+            }
+        }
+        delta = refFactory.newTxnInteger(0);
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(10000)
+                .newTxnExecutor();
+    }
+
+    @Benchmark
+    public int run() {
+        int loop = 0;
+        for (; ; ) {
+            runParallel(threads, new StampUtils.Worker() {
+                @Override
+                public void run(int threadId) {
+                    final AddPointCallable callable = new AddPointCallable();
+                    final int start = partitionStart(threadId, threads, points);
+                    final int end = partitionStart(threadId + 1, threads, points);
+                    int changed = 0;
+                    for (int p = start; p < end; p++) {
+                        final int index = findNearestCenter(attributes[p]);
+                        if (membership[p] != index) {
+                            membership[p] = index;
+                            changed++;
+                        }
+                        callable.point = attributes[p];
+                        callable.cluster = index;
+                        executor.execute(callable);
+                    }
+
+                    //just like STAMP, the delta is collected locally and added once per thread.
+                    final int localDelta = changed;
+                    executor.execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) {
+                            delta.increment(tx, localDelta);
+                        }
+                    });
+                }
+            });
+
+            loop++;
+            if (recalculateCenters() < points / 1000 || loop == maxLoops) {
+                return loop;
+            }
+        }
+    }
+
+    private int findNearestCenter(double[] point) {
+        int index = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (int c = 0; c < centers.length; c++) {
+            double distance = 0;
+            final double[] center = centers[c];
+            for (int f = 0; f < center.length; f++) {
+                final double d = point[f] - center[f];
+                distance += d * d;
+            }
+
+            if (distance < minDistance) {
+                minDistance = distance;
+                index = c;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the centers by the new centers and resets the new centers. This is done by a single thread, just like
+     * in STAMP.
+     *
+     * @return the number of points that changed cluster.
+     */
+    private int recalculateCenters() {
+        final int[] result = new int[1];
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                int total = 0;
+                for (int c = 0; c < clusters; c++) {
+                    final int length = newCenterLengths[c].getAndSet(tx, 0);
+                    total += length;
+                    for (int f = 0; f < features; f++) {
+                        final double sum = newCenters[c][f].getAndSet(tx, 0);
+                        if (length > 0) {
+                            centers[c][f] = sum / length;
+                        }
+                    }
+                }
+                verify(total == points, "expected " + points + " points in the new centers, found " + total);
+                result[0] = delta.getAndSet(tx, 0);
+            }
+        });
+        return result[0];
+    }
+
+    final class AddPointCallable implements TxnVoidCallable {
+        double[] point;
+        int cluster;
+
+        @Override
+        public void call(Txn tx) {
+            newCenterLengths[cluster].increment(tx);
+            final TxnDouble[] center = newCenters[cluster];
+            for (int f = 0; f < center.length; f++) {
+                center[f].incrementAndGet(tx, point[f]);
+            }
+        }
+    }
+}
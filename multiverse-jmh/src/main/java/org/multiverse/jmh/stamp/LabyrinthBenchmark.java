@@ -0,0 +1,316 @@
+package org.multiverse.jmh.stamp;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnBooleanCallable;
+import org.multiverse.api.callables.TxnCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRefFactory;
+import org.multiverse.collections.NaiveTxnLinkedList;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.multiverse.jmh.stamp.StampUtils.runParallel;
+import static org.multiverse.jmh.stamp.StampUtils.verify;
+
+/**
+ * A port of the STAMP labyrinth workload: routing paths in a 3D maze using Lee's algorithm. Every thread takes a
+ * work item from a shared queue, makes a private copy of the grid (without tracking the reads, just like STAMP),
+ * finds the shortest path using a breadth first expansion and then claims the cells of the path in a transaction. If
+ * one of the cells was claimed in the meantime, the route is calculated again.
+ * <p/>
+ * The claiming transactions are long and write many refs, so this workload has a lot of large conflicts.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LabyrinthBenchmark {
+
+    static final int EMPTY = -1;
+    static final int WALL = -2;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"64"})
+    public int width;
+
+    @Param({"64"})
+    public int height;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"128"})
+    public int paths;
+
+    private int cellCount;
+    private TxnInteger[] grid;
+    private NaiveTxnLinkedList<int[]> workQueue;
+    private int[][] routedPaths;
+    private AtomicInteger failedPaths;
+    private TxnExecutor executor;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        final Stm stm = new GammaStm();
+        final TxnRefFactory refFactory = stm.getDefaultRefFactory();
+        executor = stm.newTxnFactoryBuilder()
+                .setMaxRetries(10000)
+                .newTxnExecutor();
+
+        cellCount = width * height * depth;
+        grid = new TxnInteger[cellCount];
+        for (int k = 0; k < cellCount; k++) {
+            grid[k] = refFactory.newTxnInteger(EMPTY);
+        }
+
+        //all sources and destinations are distinct and are walls for all other paths.
+        final Random random = new Random(1);
+        final Set<Integer> used = new HashSet<Integer>();
+        final int[][] workItems = new int[paths][];
+        for (int k = 0; k < paths; k++) {
+            final int src = randomUnusedCell(random, used);
+            final int dst = randomUnusedCell(random, used);
+            workItems[k] = new int[]{k, src, dst};
+        }
+        for (int cell : used) {
+            grid[cell].atomicSet(WALL);
+        }
+
+        routedPaths = new int[paths][];
+        failedPaths = new AtomicInteger();
+        workQueue = new NaiveTxnLinkedList<int[]>(stm);
+        executor.execute(new TxnVoidCallable() {
+            @Override
+            public void call(Txn tx) {
+                for (int[] workItem : workItems) {
+                    workQueue.add(tx, workItem);
+                }
+            }
+        });
+    }
+
+    private int randomUnusedCell(Random random, Set<Integer> used) {
+        for (; ; ) {
+            final int cell = random.nextInt(cellCount);
+            if (used.add(cell)) {
+                return cell;
+            }
+        }
+    }
+
+    @Benchmark
+    public int run() {
+        runParallel(threads, new StampUtils.Worker() {
+            @Override
+            public void run(int threadId) {
+                final Router router = new Router();
+                final TxnCallable<int[]> takeCallable = new TxnCallable<int[]>() {
+                    @Override
+                    public int[] call(Txn tx) {
+                        return workQueue.poll(tx);
+                    }
+                };
+
+                for (; ; ) {
+                    final int[] workItem = executor.execute(takeCallable);
+                    if (workItem == null) {
+                        return;
+                    }
+
+                    final int[] path = router.route(workItem[0], workItem[1], workItem[2]);
+                    if (path == null) {
+                        failedPaths.incrementAndGet();
+                    } else {
+                        routedPaths[workItem[0]] = path;
+                    }
+                }
+            }
+        });
+
+        return verifyPaths();
+    }
+
+    /**
+     * Checks that every routed path is connected and that all its cells are claimed by that path.
+     *
+     * @return the number of routed paths.
+     */
+    private int verifyPaths() {
+        int routed = 0;
+        for (int id = 0; id < paths; id++) {
+            final int[] path = routedPaths[id];
+            if (path == null) {
+                continue;
+            }
+
+            routed++;
+            for (int k = 1; k < path.length - 1; k++) {
+                verify(grid[path[k]].atomicGet() == id, "cell of path " + id + " not claimed by it");
+            }
+            for (int k = 1; k < path.length; k++) {
+                verify(isNeighbour(path[k - 1], path[k]), "path " + id + " is not connected");
+            }
+        }
+
+        verify(routed + failedPaths.get() == paths, "not all paths are processed");
+        return routed;
+    }
+
+    private boolean isNeighbour(int a, int b) {
+        final int dx = Math.abs(a % width - b % width);
+        final int dy = Math.abs((a / width) % height - (b / width) % height);
+        final int dz = Math.abs(a / (width * height) - b / (width * height));
+        return dx + dy + dz == 1;
+    }
+
+    final class Router {
+        private final int[] localGrid = new int[cellCount];
+        private final int[] queue = new int[cellCount];
+        private final int[] neighbours = new int[6];
+        private final ClaimCallable claimCallable = new ClaimCallable();
+
+        /**
+         * Routes a path from src to dst.
+         *
+         * @return the cells of the path (including the src and dst), or null if there is no path.
+         */
+        int[] route(int id, int src, int dst) {
+            for (; ; ) {
+                //the private copy of the grid isn't tracked by the transaction, just like in STAMP.
+                for (int k = 0; k < cellCount; k++) {
+                    localGrid[k] = grid[k].atomicWeakGet() == EMPTY ? 0 : -1;
+                }
+                localGrid[src] = 0;
+                localGrid[dst] = 0;
+
+                if (!expand(src, dst)) {
+                    return null;
+                }
+
+                claimCallable.id = id;
+                claimCallable.path = traceback(src, dst);
+                if (executor.execute(claimCallable)) {
+                    return claimCallable.path;
+                }
+            }
+        }
+
+        /**
+         * Breadth first expansion from src; every reachable empty cell gets its distance + 1 from the src.
+         */
+        private boolean expand(int src, int dst) {
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = src;
+            localGrid[src] = 1;
+            while (head < tail) {
+                final int cell = queue[head++];
+                if (cell == dst) {
+                    return true;
+                }
+
+                final int distance = localGrid[cell];
+                final int count = neighbours(cell);
+                for (int k = 0; k < count; k++) {
+                    final int neighbour = neighbours[k];
+                    if (localGrid[neighbour] == 0) {
+                        localGrid[neighbour] = distance + 1;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private int[] traceback(int src, int dst) {
+            final int[] path = new int[localGrid[dst]];
+            int cell = dst;
+            for (int k = path.length - 1; k > 0; k--) {
+                path[k] = cell;
+                final int count = neighbours(cell);
+                for (int n = 0; n < count; n++) {
+                    if (localGrid[neighbours[n]] == localGrid[cell] - 1) {
+                        cell = neighbours[n];
+                        break;
+                    }
+                }
+            }
+            path[0] = src;
+            return path;
+        }
+
+        private int neighbours(int cell) {
+            final int x = cell % width;
+            final int y = (cell / width) % height;
+            final int z = cell / (width * height);
+            int count = 0;
+            if (x > 0) {
+                neighbours[count++] = cell - 1;
+            }
+            if (x < width - 1) {
+                neighbours[count++] = cell + 1;
+            }
+            if (y > 0) {
+                neighbours[count++] = cell - width;
+            }
+            if (y < height - 1) {
+                neighbours[count++] = cell + width;
+            }
+            if (z > 0) {
+                neighbours[count++] = cell - width * height;
+            }
+            if (z < depth - 1) {
+                neighbours[count++] = cell + width * height;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Claims the cells of a path (excluding the src and dst). Returns false if one of the cells already is claimed.
+     */
+    final class ClaimCallable implements TxnBooleanCallable {
+        int id;
+        int[] path;
+
+        @Override
+        public boolean call(Txn tx) {
+            for (int k = 1; k < path.length - 1; k++) {
+                if (grid[path[k]].get(tx) != EMPTY) {
+                    return false;
+                }
+            }
+
+            for (int k = 1; k < path.length - 1; k++) {
+                grid[path[k]].set(tx, id);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.multiverse.jmh.stamp;
+
+/**
+ * Utility functions for the STAMP workloads.
+ *
+ * @author Peter Veentjer.
+ */
+final class StampUtils {
+
+    /**
+     * The work done by a single thread of a workload.
+     */
+    interface Worker {
+        void run(int threadId) throws Exception;
+    }
+
+    /**
+     * Runs the worker on threadCount threads and waits for all of them to complete.
+     *
+     * @param threadCount the number of threads.
+     * @param worker      the Worker to run.
+     * @throws IllegalStateException if one of the threads failed.
+     */
+    static void runParallel(int threadCount, final Worker worker) {
+        final Thread[] threads = new Thread[threadCount];
+        final Throwable[] failures = new Throwable[threadCount];
+        for (int k = 0; k < threads.length; k++) {
+            final int threadId = k;
+            threads[k] = new Thread("stamp-worker-" + k) {
+                @Override
+                public void run() {
+                    try {
+                        worker.run(threadId);
+                    } catch (Throwable t) {
+                        failures[threadId] = t;
+                    }
+                }
+            };
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        for (Throwable failure : failures) {
+            if (failure != null) {
+                throw new IllegalStateException("A worker failed", failure);
+            }
+        }
+    }
+
+    /**
+     * Returns the first index of the part of a range of size items that belongs to the given thread.
+     *
+     * @param threadId    the id of the thread.
+     * @param threadCount the total number of threads.
+     * @param size        the size of the range.
+     * @return the first index (inclusive).
+     */
+    static int partitionStart(int threadId, int threadCount, int size) {
+        return (int) ((long) size * threadId / threadCount);
+    }
+
+    /**
+     * Verifies the outcome of a workload, so that a broken engine change doesn't show up as a fast benchmark.
+     *
+     * @param condition the condition that should hold.
+     * @param message   the message of the exception if the condition doesn't hold.
+     * @throws IllegalStateException if the condition doesn't hold.
+     */
+    static void verify(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private StampUtils() {
+    }
+}
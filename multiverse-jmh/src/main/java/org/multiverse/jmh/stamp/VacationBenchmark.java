@@ -0,0 +1,364 @@
+package org.multiverse.jmh.stamp;
+
+import org.multiverse.api.Stm;
+import org.multiverse.api.Txn;
+import org.multiverse.api.TxnExecutor;
+import org.multiverse.api.callables.TxnBooleanCallable;
+import org.multiverse.api.callables.TxnVoidCallable;
+import org.multiverse.api.references.TxnInteger;
+import org.multiverse.api.references.TxnRefFactory;
+import org.multiverse.collections.NaiveTxnHashMap;
+import org.multiverse.collections.NaiveTxnLinkedList;
+import org.multiverse.stms.gamma.GammaStm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.multiverse.jmh.stamp.StampUtils.partitionStart;
+import static org.multiverse.jmh.stamp.StampUtils.runParallel;
+import static org.multiverse.jmh.stamp.StampUtils.verify;
+
+/**
+ * A port of the STAMP vacation workload: a travel reservation system with tables of cars, flights and rooms and a
+ * table of customers. The clients make reservations (a long transaction querying many items), delete customers
+ * (releasing all their reservations) and update the tables (adding and removing capacity).
+ * <p/>
+ * The NaiveTxnHashMap doesn't support remove yet, so removed customers are replaced by a null value.
+ *
+ * @author Peter Veentjer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VacationBenchmark {
+
+    static final int CAR = 0;
+    static final int FLIGHT = 1;
+    static final int ROOM = 2;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    /**
+     * The number of rows in every table.
+     */
+    @Param({"16384"})
+    public int relations;
+
+    /**
+     * The number of items queried by a single client transaction.
+     */
+    @Param({"4"})
+    public int queriesPerTxn;
+
+    /**
+     * The percentage of the relations that is queried; a lower value causes more contention.
+     */
+    @Param({"90"})
+    public int queryRangePercent;
+
+    /**
+     * The percentage of the transactions that are reservations; the rest are deletes and table updates.
+     */
+    @Param({"90"})
+    public int userPercent;
+
+    /**
+     * The total number of client transactions.
+     */
+    @Param({"16384"})
+    public int transactions;
+
+    private Manager manager;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        manager = new Manager(new GammaStm(), relations);
+    }
+
+    @Benchmark
+    public void run() {
+        final int queryRange = Math.max(1, relations * queryRangePercent / 100);
+        runParallel(threads, new StampUtils.Worker() {
+            @Override
+            public void run(int threadId) {
+                Client client = new Client(manager, threadId, queryRange);
+                int start = partitionStart(threadId, threads, transactions);
+                int end = partitionStart(threadId + 1, threads, transactions);
+                for (int k = start; k < end; k++) {
+                    client.execute();
+                }
+            }
+        });
+
+        manager.verify();
+    }
+
+    static final class Reservation {
+        final int price;
+        final TxnInteger numUsed;
+        final TxnInteger numFree;
+        final TxnInteger numTotal;
+
+        Reservation(TxnRefFactory refFactory, int numTotal, int price) {
+            this.price = price;
+            this.numUsed = refFactory.newTxnInteger(0);
+            this.numFree = refFactory.newTxnInteger(numTotal);
+            this.numTotal = refFactory.newTxnInteger(numTotal);
+        }
+
+        boolean reserve(Txn tx) {
+            if (numFree.get(tx) == 0) {
+                return false;
+            }
+
+            numFree.decrement(tx);
+            numUsed.increment(tx);
+            return true;
+        }
+
+        void release(Txn tx) {
+            numFree.increment(tx);
+            numUsed.decrement(tx);
+        }
+
+        void addCapacity(Txn tx, int amount) {
+            if (amount < 0 && numFree.get(tx) < -amount) {
+                return;
+            }
+
+            numFree.increment(tx, amount);
+            numTotal.increment(tx, amount);
+        }
+    }
+
+    static final class ReservationInfo {
+        final int type;
+        final int id;
+
+        ReservationInfo(int type, int id) {
+            this.type = type;
+            this.id = id;
+        }
+    }
+
+    static final class Customer {
+        final NaiveTxnLinkedList<ReservationInfo> reservations;
+
+        Customer(Stm stm) {
+            this.reservations = new NaiveTxnLinkedList<ReservationInfo>(stm);
+        }
+    }
+
+    static final class Manager {
+        final Stm stm;
+        final NaiveTxnHashMap<Integer, Reservation>[] tables;
+        final NaiveTxnHashMap<Integer, Customer> customers;
+        final TxnExecutor executor;
+        final TxnExecutor readonlyExecutor;
+
+        @SuppressWarnings("unchecked")
+        Manager(Stm stm, int relations) {
+            this.stm = stm;
+            this.executor = stm.newTxnFactoryBuilder()
+                    .setMaxRetries(10000)
+                    .newTxnExecutor();
+            this.readonlyExecutor = stm.newTxnFactoryBuilder()
+                    .setReadonly(true)
+                    .newTxnExecutor();
+            this.tables = new NaiveTxnHashMap[3];
+            this.customers = new NaiveTxnHashMap<Integer, Customer>(stm);
+
+            final Random random = new Random(1);
+            final TxnRefFactory refFactory = stm.getDefaultRefFactory();
+            for (int type = CAR; type <= ROOM; type++) {
+                final NaiveTxnHashMap<Integer, Reservation> table = new NaiveTxnHashMap<Integer, Reservation>(stm);
+                tables[type] = table;
+                for (int k = 0; k < relations; k++) {
+                    final int id = k;
+                    final Reservation reservation = new Reservation(
+                            refFactory, (random.nextInt(5) + 1) * 100, (random.nextInt(5) * 10) + 50);
+                    executor.execute(new TxnVoidCallable() {
+                        @Override
+                        public void call(Txn tx) {
+                            table.put(tx, id, reservation);
+                        }
+                    });
+                }
+            }
+
+            for (int k = 0; k < relations; k++) {
+                final int id = k;
+                final Customer customer = new Customer(stm);
+                executor.execute(new TxnVoidCallable() {
+                    @Override
+                    public void call(Txn tx) {
+                        customers.put(tx, id, customer);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Checks that no reservation got lost: for every item used + free == total, and the number of used items
+         * equals the number of reservations of the customers.
+         */
+        void verify() {
+            readonlyExecutor.execute(new TxnVoidCallable() {
+                @Override
+                public void call(Txn tx) {
+                    long used = 0;
+                    for (NaiveTxnHashMap<Integer, Reservation> table : tables) {
+                        int size = table.size(tx);
+                        for (int id = 0; id < size; id++) {
+                            Reservation reservation = table.get(tx, id);
+                            int numUsed = reservation.numUsed.get(tx);
+                            StampUtils.verify(numUsed >= 0, "negative used count");
+                            StampUtils.verify(numUsed + reservation.numFree.get(tx) == reservation.numTotal.get(tx),
+                                    "used + free != total");
+                            used += numUsed;
+                        }
+                    }
+
+                    long reserved = 0;
+                    int size = customers.size(tx);
+                    for (int id = 0; id < size; id++) {
+                        Customer customer = customers.get(tx, id);
+                        if (customer != null) {
+                            reserved += customer.reservations.size(tx);
+                        }
+                    }
+
+                    StampUtils.verify(used == reserved, "used " + used + " != reserved " + reserved);
+                }
+            });
+        }
+    }
+
+    final class Client {
+        private final Manager manager;
+        private final Random random;
+        private final int queryRange;
+        private final int[] types;
+        private final int[] ids;
+        private final MakeReservationCallable makeReservationCallable = new MakeReservationCallable();
+        private final DeleteCustomerCallable deleteCustomerCallable = new DeleteCustomerCallable();
+        private final UpdateTablesCallable updateTablesCallable = new UpdateTablesCallable();
+
+        Client(Manager manager, int threadId, int queryRange) {
+            this.manager = manager;
+            this.random = new Random(threadId);
+            this.queryRange = queryRange;
+            this.types = new int[queriesPerTxn];
+            this.ids = new int[queriesPerTxn];
+        }
+
+        void execute() {
+            final int r = random.nextInt(100);
+            if (r < userPercent) {
+                for (int k = 0; k < queriesPerTxn; k++) {
+                    types[k] = random.nextInt(3);
+                    ids[k] = random.nextInt(queryRange);
+                }
+                makeReservationCallable.customerId = random.nextInt(queryRange);
+                manager.executor.execute(makeReservationCallable);
+            } else if ((r & 1) == 0) {
+                deleteCustomerCallable.customerId = random.nextInt(queryRange);
+                manager.executor.execute(deleteCustomerCallable);
+            } else {
+                for (int k = 0; k < queriesPerTxn; k++) {
+                    types[k] = random.nextInt(3);
+                    ids[k] = random.nextInt(queryRange);
+                }
+                updateTablesCallable.amount = random.nextBoolean() ? 100 : -100;
+                manager.executor.execute(updateTablesCallable);
+            }
+        }
+
+        final class MakeReservationCallable implements TxnBooleanCallable {
+            int customerId;
+
+            @Override
+            public boolean call(Txn tx) {
+                //find the most expensive item of every type.
+                final int[] maxPrices = {-1, -1, -1};
+                final int[] maxIds = {-1, -1, -1};
+                for (int k = 0; k < queriesPerTxn; k++) {
+                    final int type = types[k];
+                    final Reservation reservation = manager.tables[type].get(tx, ids[k]);
+                    if (reservation != null
+                            && reservation.numFree.get(tx) > 0
+                            && reservation.price > maxPrices[type]) {
+                        maxPrices[type] = reservation.price;
+                        maxIds[type] = ids[k];
+                    }
+                }
+
+                Customer customer = manager.customers.get(tx, customerId);
+                if (customer == null) {
+                    customer = new Customer(manager.stm);
+                    manager.customers.put(tx, customerId, customer);
+                }
+
+                boolean reserved = false;
+                for (int type = CAR; type <= ROOM; type++) {
+                    if (maxIds[type] == -1) {
+                        continue;
+                    }
+
+                    if (manager.tables[type].get(tx, maxIds[type]).reserve(tx)) {
+                        customer.reservations.add(tx, new ReservationInfo(type, maxIds[type]));
+                        reserved = true;
+                    }
+                }
+                return reserved;
+            }
+        }
+
+        final class DeleteCustomerCallable implements TxnBooleanCallable {
+            int customerId;
+
+            @Override
+            public boolean call(Txn tx) {
+                final Customer customer = manager.customers.get(tx, customerId);
+                if (customer == null) {
+                    return false;
+                }
+
+                final int size = customer.reservations.size(tx);
+                for (int k = 0; k < size; k++) {
+                    final ReservationInfo info = customer.reservations.get(tx, k);
+                    manager.tables[info.type].get(tx, info.id).release(tx);
+                }
+                manager.customers.put(tx, customerId, null);
+                return true;
+            }
+        }
+
+        final class UpdateTablesCallable implements TxnVoidCallable {
+            int amount;
+
+            @Override
+            public void call(Txn tx) {
+                for (int k = 0; k < queriesPerTxn; k++) {
+                    manager.tables[types[k]].get(tx, ids[k]).addCapacity(tx, amount);
+                }
+            }
+        }
+    }
+}